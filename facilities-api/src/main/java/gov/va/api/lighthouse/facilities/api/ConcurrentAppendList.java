@@ -0,0 +1,83 @@
+package gov.va.api.lighthouse.facilities.api;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.NonNull;
+
+/**
+ * A list that many threads can add to without locking, for accumulating results while records are
+ * processed simultaneously. Adds go to a lock-free queue and cost O(1), where a {@link
+ * java.util.concurrent.CopyOnWriteArrayList} copies the whole list on every add.
+ *
+ * <p>Reads see a snapshot, rebuilt from the previous snapshot and the queued adds only if something
+ * was added since the last read. Once processing is done, the first read merges all adds and later
+ * reads are free. Snapshots are sorted by the comparator, if any. The sort is stable, so elements
+ * that compare equal keep the order each thread added them in.
+ */
+public final class ConcurrentAppendList<T> extends AbstractList<T> {
+  private final ConcurrentLinkedQueue<T> added = new ConcurrentLinkedQueue<>();
+
+  private final Comparator<? super T> order;
+
+  private volatile List<T> snapshot = List.of();
+
+  private ConcurrentAppendList(Comparator<? super T> order) {
+    this.order = order;
+  }
+
+  /** A list in the order elements were added. */
+  public static <T> ConcurrentAppendList<T> inAddedOrder() {
+    return new ConcurrentAppendList<>(null);
+  }
+
+  /** A list sorted by the given order. Elements that compare equal stay in the order added. */
+  public static <T> ConcurrentAppendList<T> sortedBy(@NonNull Comparator<? super T> order) {
+    return new ConcurrentAppendList<>(order);
+  }
+
+  @Override
+  public boolean add(@NonNull T element) {
+    return added.add(element);
+  }
+
+  @Override
+  public T get(int index) {
+    return snapshot().get(index);
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return snapshot().iterator();
+  }
+
+  /** Merge any queued adds into the snapshot. */
+  private List<T> snapshot() {
+    if (added.isEmpty()) {
+      return snapshot;
+    }
+    synchronized (added) {
+      if (added.isEmpty()) {
+        return snapshot;
+      }
+      List<T> merged = new ArrayList<>(snapshot);
+      for (T next = added.poll(); next != null; next = added.poll()) {
+        merged.add(next);
+      }
+      if (order != null) {
+        merged.sort(order);
+      }
+      snapshot = Collections.unmodifiableList(merged);
+      return snapshot;
+    }
+  }
+
+  @Override
+  public int size() {
+    return snapshot().size();
+  }
+}
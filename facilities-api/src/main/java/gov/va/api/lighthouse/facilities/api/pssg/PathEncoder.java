@@ -5,33 +5,58 @@ import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
+import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.SneakyThrows;
+import lombok.Value;
 
 /**
  * The Path Encoder provides a very tight serialization mechanism for PSSG drive time band data. It
  * allows serialization of {@link PssgDriveTimeBand} that can be deserialized directly to Java
  * Path2D objects.
  *
- * <p>Serialization uses a binary collection of integer values.
+ * <p>Serialization uses a deflated binary collection of integer values. Version 2 is written.
+ * Version 1 data is still decoded, since it already exists in the database. Version 1 can also
+ * still be written for readers that only decode version 1.
  *
  * <pre>
- *   raw := {magic-token}{version}{number-rings}{ring ...}
+ *   raw := {magic-token}{version}{version-1 | version-2}
+ *   magic-token := {int} First bytes used to verify this array is understood
+ *   version := {int} Indicates the version of binary data format
+ *
+ *   version-1 := {number-rings}{ring ...}
  *   ring := {number-coords}{coord ...}
  *   coord := {scaled-longitude}{scaled-latitude}
- *   magic-token := {int} First byte used to verify this array is understood
- *   version := {int} Indicates the version of binary data format
  *   number-rings := {int} The number of ring structures
  *   number-coords := {int} The number of coordinate structures
- *   scaled-longitude := {int} Floating point value multiple by 10000
- *   scaled-latitude := {int} Floating point value multiple by 10000
+ *   scaled-longitude := {int} Floating point value multiple by 100000
+ *   scaled-latitude := {int} Floating point value multiple by 100000
  *   {int} := 4 bytes
  *
- *   Scaled values can be divided by 10000.0 to return to double with precision 5.
+ *   version-2 := {number-rings}{ring-header ...}{ring-coords ...}
+ *   ring-header := {number-coords}{min-longitude}{min-latitude}{max-longitude}{max-latitude}
+ *   ring-coords := {delta-coord ...}
+ *   delta-coord := {delta-longitude}{delta-latitude}
+ *   number-rings := {varint}
+ *   number-coords := {varint}
+ *   min/max := {zigzag} Scaled bounding box of the ring
+ *   delta := {zigzag} Scaled value minus the previous scaled value of the ring, where the first
+ *            coordinate of a ring is relative to the minimum corner of its bounding box
+ *   {varint} := 7 bits per byte, least significant group first, high bit set on all but the last
+ *   {zigzag} := {varint} of a signed value, mapped as 0, -1, 1, -2, 2 ... to 0, 1, 2, 3, 4 ...
+ *
+ *   Scaled values can be divided by 100000.0 to return to double with precision 5.
  * </pre>
+ *
+ * <p>Adjacent band coordinates are close together, so most deltas fit in one or two bytes instead
+ * of four. The ring headers give the extent of every ring before any coordinates are read, and are
+ * used to verify the decoded coordinates. Data is inflated in small chunks as it is read, so
+ * decoding does not need to guess the uncompressed size, and coordinates are decoded into primitive
+ * {@link Rings} arrays that can be used without building a Path. Inflaters and deflaters are reused
+ * per thread.
  */
 @AllArgsConstructor(staticName = "create")
 public class PathEncoder {
@@ -41,6 +66,9 @@ public class PathEncoder {
    */
   private static int BYTES_PER_INT = 4;
 
+  /** The most space required for a varint encoded integer value. */
+  private static int MAX_BYTES_PER_VARINT = 5;
+
   /** Random number to indicate the binary packet type. */
   private static int MAGIC_NUMBER = 37337;
 
@@ -48,7 +76,10 @@ public class PathEncoder {
    * The current version of encoding. Should a new information be needed, this version will be
    * incremented and backwards compatibility will be need to be maintained.
    */
-  private static int VERSION = 1;
+  private static int VERSION = 2;
+
+  /** The original fixed width encoding. */
+  private static int VERSION_1 = 1;
 
   /**
    * Scaling factor applied to floating point values to integers. Since lat long values range
@@ -56,110 +87,246 @@ public class PathEncoder {
    */
   private static int SCALE = 100000;
 
+  /** Decoded coordinates are truncated toward zero, by less than this, from those encoded. */
+  public static final double RESOLUTION = 1.0 / SCALE;
+
+  private static final ThreadLocal<Deflater> DEFLATERS = ThreadLocal.withInitial(Deflater::new);
+
+  private static final ThreadLocal<InflatingReader> READERS =
+      ThreadLocal.withInitial(InflatingReader::new);
+
+  private static void check(boolean condition, String message) {
+    if (!condition) {
+      throw new PathEncodingException(message);
+    }
+  }
+
+  private static void putVarint(ByteBuffer buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private static void putZigZag(ByteBuffer buffer, int value) {
+    putVarint(buffer, (value << 1) ^ (value >> 31));
+  }
+
   private static int scale(double value) {
     return (int) (value * SCALE);
   }
 
+  private static int[] scaleRing(List<List<Double>> ring) {
+    int[] scaled = new int[ring.size() * 2];
+    for (int i = 0; i < ring.size(); i++) {
+      scaled[i * 2] = scale(ring.get(i).get(0));
+      scaled[i * 2 + 1] = scale(ring.get(i).get(1));
+    }
+    return scaled;
+  }
+
   private static double unscale(int scaledValue) {
     return (double) scaledValue / (double) SCALE;
   }
 
-  private void check(boolean condition, String message) {
-    if (!condition) {
-      throw new PathEncodingException(message);
+  private byte[] compress(byte[] data, int length) {
+    Deflater compressor = DEFLATERS.get();
+    compressor.reset();
+    compressor.setInput(data, 0, length);
+    compressor.finish();
+    byte[] compressed = new byte[Math.max(64, length / 2)];
+    int size = 0;
+    while (!compressor.finished()) {
+      if (size == compressed.length) {
+        compressed = Arrays.copyOf(compressed, size * 2);
+      }
+      size += compressor.deflate(compressed, size, compressed.length - size);
     }
+    return Arrays.copyOf(compressed, size);
   }
 
-  private byte[] compress(byte[] data) {
-    Deflater compressor = new Deflater();
-    compressor.setInput(data);
-    compressor.finish();
-    byte[] compressed = new byte[data.length];
-    int size = compressor.deflate(compressed);
-    return Arrays.copyOf(compressed, size);
+  /** Decode a Path from the binary representation created by {@link #encode(PssgDriveTimeBand)}. */
+  public Path2D decode(@NonNull byte[] compressPath) {
+    return decodeRings(compressPath).toPath();
   }
 
-  private Path2D decode(byte[] compressPath) {
-    byte[] pathData = decompress(compressPath);
-    ByteBuffer buffer = ByteBuffer.wrap(pathData);
-    check(buffer.getInt() == MAGIC_NUMBER, "Unknown magic number");
-    check(buffer.getInt() == VERSION, "Unsupported version");
+  /**
+   * Decode a Path from Base 64 encoded binary representation created by {@link
+   * #encodeToBase64(PssgDriveTimeBand)}.
+   */
+  public Path2D decodeFromBase64(@NonNull String path64) {
+    return decode(Base64.getDecoder().decode(path64));
+  }
+
+  /**
+   * Decode the rings of a path from the binary representation created by {@link
+   * #encode(PssgDriveTimeBand)}, without building a Path.
+   */
+  public Rings decodeRings(@NonNull byte[] compressPath) {
+    InflatingReader reader = READERS.get();
+    reader.start(compressPath);
+    check(reader.readInt() == MAGIC_NUMBER, "Unknown magic number");
+    int version = reader.readInt();
     /*
-     * In the future, should a new format be required, the existing version MUST continue to be
-     * supported. Database entries will already exist and we will need to keep supporting them.
-     * Should that day come, this is where we'd switch deserializers on version number.
+     * Existing database entries may be in any supported version, so every version MUST continue
+     * to be decoded. Should a new format be required, add a deserializer for it here.
      */
-    int numberOfRings = buffer.getInt();
+    if (version == VERSION) {
+      return decodeVersion2(reader);
+    }
+    check(version == VERSION_1, "Unsupported version");
+    return decodeVersion1(reader);
+  }
+
+  /**
+   * Decode the rings of a path from Base 64 encoded binary representation created by {@link
+   * #encodeToBase64(PssgDriveTimeBand)}, without building a Path.
+   */
+  public Rings decodeRingsFromBase64(@NonNull String path64) {
+    return decodeRings(Base64.getDecoder().decode(path64));
+  }
+
+  private Rings decodeVersion1(InflatingReader reader) {
+    int numberOfRings = reader.readInt();
     check(numberOfRings > 0, "Number of rings");
-    Path2D path = new Path2D.Double();
+    int[] sizes = new int[Math.min(numberOfRings, 1024)];
+    double[] coordinates = new double[1024];
+    int size = 0;
     for (int ringNumber = 0; ringNumber < numberOfRings; ringNumber++) {
-      int numberOfCoordinates = buffer.getInt();
+      int numberOfCoordinates = reader.readInt();
       check(
           numberOfCoordinates > 0,
           "Number of coordinates for ring " + ringNumber + ": " + numberOfCoordinates);
+      if (ringNumber == sizes.length) {
+        sizes = Arrays.copyOf(sizes, sizes.length * 2);
+      }
+      sizes[ringNumber] = numberOfCoordinates;
       for (int coordNumber = 0; coordNumber < numberOfCoordinates; coordNumber++) {
-        int scaledLong = buffer.getInt();
-        int scaledLat = buffer.getInt();
-        double longitude = unscale(scaledLong);
-        double latitude = unscale(scaledLat);
-        if (coordNumber == 0) {
-          path.moveTo(longitude, latitude);
-        } else {
-          path.lineTo(longitude, latitude);
+        if (size == coordinates.length) {
+          coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
         }
+        coordinates[size++] = unscale(reader.readInt());
+        coordinates[size++] = unscale(reader.readInt());
       }
-      path.closePath();
     }
-    return path;
+    return new Rings(Arrays.copyOf(sizes, numberOfRings), Arrays.copyOf(coordinates, size));
   }
 
-  /**
-   * Decode a Path from Base 64 encoded binary representation created by {@link
-   * #encodeToBase64(PssgDriveTimeBand)}.
-   */
-  public Path2D decodeFromBase64(@NonNull String path64) {
-    return decode(Base64.getDecoder().decode(path64));
+  private Rings decodeVersion2(InflatingReader reader) {
+    int numberOfRings = reader.readVarint();
+    check(numberOfRings > 0, "Number of rings");
+    /* Ring headers: number of coordinates followed by min and max longitude and latitude. */
+    int[] sizes = new int[numberOfRings];
+    int[] bounds = new int[numberOfRings * 4];
+    long totalCoordinates = 0;
+    for (int ringNumber = 0; ringNumber < numberOfRings; ringNumber++) {
+      int numberOfCoordinates = reader.readVarint();
+      check(
+          numberOfCoordinates > 0,
+          "Number of coordinates for ring " + ringNumber + ": " + numberOfCoordinates);
+      sizes[ringNumber] = numberOfCoordinates;
+      totalCoordinates += numberOfCoordinates;
+      for (int i = 0; i < 4; i++) {
+        bounds[ringNumber * 4 + i] = reader.readZigZag();
+      }
+    }
+    check(totalCoordinates <= Integer.MAX_VALUE / 2, "Number of coordinates: " + totalCoordinates);
+    double[] coordinates = new double[(int) totalCoordinates * 2];
+    int size = 0;
+    for (int ringNumber = 0; ringNumber < numberOfRings; ringNumber++) {
+      int minLong = bounds[ringNumber * 4];
+      int minLat = bounds[ringNumber * 4 + 1];
+      int maxLong = bounds[ringNumber * 4 + 2];
+      int maxLat = bounds[ringNumber * 4 + 3];
+      int scaledLong = minLong;
+      int scaledLat = minLat;
+      for (int coordNumber = 0; coordNumber < sizes[ringNumber]; coordNumber++) {
+        scaledLong += reader.readZigZag();
+        scaledLat += reader.readZigZag();
+        check(
+            scaledLong >= minLong
+                && scaledLong <= maxLong
+                && scaledLat >= minLat
+                && scaledLat <= maxLat,
+            "Coordinate " + coordNumber + " outside bounds of ring " + ringNumber);
+        coordinates[size++] = unscale(scaledLong);
+        coordinates[size++] = unscale(scaledLat);
+      }
+    }
+    return new Rings(sizes, coordinates);
   }
 
-  @SneakyThrows
-  private byte[] decompress(byte[] compressedData) {
-    /*
-     * When deserializing, we have to estimate how much space we need. According to zlib, typical
-     * compression is between 2:1 to 5:1. (https://zlib.net/zlib_tech.html) We'll choose 10:1.
-     */
-    byte[] uncompressed = new byte[compressedData.length * 10];
-    Inflater uncompressor = new Inflater();
-    uncompressor.setInput(compressedData);
-    int size = uncompressor.inflate(uncompressed);
-    uncompressor.end();
-    return Arrays.copyOf(uncompressed, size);
+  /** Encode a drive time band into a binary representation that can be decoded into a Path. */
+  public byte[] encode(@NonNull PssgDriveTimeBand band) {
+    List<List<List<Double>>> rings =
+        band.geometry() == null ? List.of() : band.geometry().rings();
+    int[][] scaledRings = new int[rings.size()][];
+    for (int ringNumber = 0; ringNumber < rings.size(); ringNumber++) {
+      scaledRings[ringNumber] = scaleRing(rings.get(ringNumber));
+    }
+    return encode(scaledRings);
   }
 
-  private byte[] encode(@NonNull PssgDriveTimeBand band) {
-    ByteBuffer buffer = ByteBuffer.allocate(sizeOf(band));
+  /**
+   * Encode rings, such as those read by a streaming parser, into a binary representation that can
+   * be decoded into a Path.
+   */
+  public byte[] encode(@NonNull Rings rings) {
+    int[][] scaledRings = new int[rings.sizes().length][];
+    int c = 0;
+    for (int ringNumber = 0; ringNumber < scaledRings.length; ringNumber++) {
+      int[] scaled = new int[rings.sizes()[ringNumber] * 2];
+      for (int i = 0; i < scaled.length; i++) {
+        scaled[i] = scale(rings.coordinates()[c++]);
+      }
+      scaledRings[ringNumber] = scaled;
+    }
+    return encode(scaledRings);
+  }
+
+  private byte[] encode(int[][] scaledRings) {
+    ByteBuffer buffer = ByteBuffer.allocate(sizeOf(scaledRings));
     buffer.putInt(MAGIC_NUMBER);
     buffer.putInt(VERSION);
     /*
      * Encoding only needs to support the latest version. Should a format change be required in the
      * future, it can replace this format encoding, but decoding will still need to handle both.
      */
-    if (band.geometry() != null) {
-      buffer.putInt(band.geometry().rings().size());
-      band.geometry()
-          .rings()
-          .forEach(
-              ring -> {
-                buffer.putInt(ring.size());
-                ring.forEach(
-                    coords -> {
-                      int scaledLong = scale(coords.get(0));
-                      int scaledLat = scale(coords.get(1));
-                      buffer.putInt(scaledLong);
-                      buffer.putInt(scaledLat);
-                    });
-              });
-    }
-    return compress(buffer.array());
+    putVarint(buffer, scaledRings.length);
+    int[] minimums = new int[scaledRings.length * 2];
+    for (int ringNumber = 0; ringNumber < scaledRings.length; ringNumber++) {
+      int[] scaled = scaledRings[ringNumber];
+      int minLong = Integer.MAX_VALUE;
+      int minLat = Integer.MAX_VALUE;
+      int maxLong = Integer.MIN_VALUE;
+      int maxLat = Integer.MIN_VALUE;
+      for (int i = 0; i < scaled.length; i += 2) {
+        minLong = Math.min(minLong, scaled[i]);
+        minLat = Math.min(minLat, scaled[i + 1]);
+        maxLong = Math.max(maxLong, scaled[i]);
+        maxLat = Math.max(maxLat, scaled[i + 1]);
+      }
+      putVarint(buffer, scaled.length / 2);
+      putZigZag(buffer, minLong);
+      putZigZag(buffer, minLat);
+      putZigZag(buffer, maxLong);
+      putZigZag(buffer, maxLat);
+      minimums[ringNumber * 2] = minLong;
+      minimums[ringNumber * 2 + 1] = minLat;
+    }
+    for (int ringNumber = 0; ringNumber < scaledRings.length; ringNumber++) {
+      int[] scaled = scaledRings[ringNumber];
+      int previousLong = minimums[ringNumber * 2];
+      int previousLat = minimums[ringNumber * 2 + 1];
+      for (int i = 0; i < scaled.length; i += 2) {
+        putZigZag(buffer, scaled[i] - previousLong);
+        putZigZag(buffer, scaled[i + 1] - previousLat);
+        previousLong = scaled[i];
+        previousLat = scaled[i + 1];
+      }
+    }
+    return compress(buffer.array(), buffer.position());
   }
 
   /** Encode a drive time band into a base 64 binary string that can be decoded into a Path. */
@@ -167,19 +334,131 @@ public class PathEncoder {
     return Base64.getEncoder().encodeToString(encode(band));
   }
 
-  /** Compute the amount of uncompressed space that will be required to serialize the band. */
-  private int sizeOf(PssgDriveTimeBand band) {
-    int sizeOfRings =
-        band.geometry() == null
-            ? 0
-            : band.geometry().rings().stream().mapToInt(this::sizeOfRing).sum();
-    // magic-token + version +  number-rings + sizeOfRings
-    return BYTES_PER_INT + BYTES_PER_INT + BYTES_PER_INT + sizeOfRings;
+  /**
+   * Encode rings in version 1 of the format. Only use this for readers that predate version 2,
+   * since version 1 data is several times larger.
+   */
+  public byte[] encodeVersion1(@NonNull Rings rings) {
+    ByteBuffer buffer =
+        ByteBuffer.allocate(
+            BYTES_PER_INT * (3 + rings.sizes().length + rings.coordinates().length));
+    buffer.putInt(MAGIC_NUMBER);
+    buffer.putInt(VERSION_1);
+    buffer.putInt(rings.sizes().length);
+    int c = 0;
+    for (int size : rings.sizes()) {
+      buffer.putInt(size);
+      for (int i = 0; i < size * 2; i++) {
+        buffer.putInt(scale(rings.coordinates()[c++]));
+      }
+    }
+    return compress(buffer.array(), buffer.position());
+  }
+
+  /** Encode rings in version 1 of the format, as a base 64 string. */
+  public String encodeVersion1ToBase64(@NonNull Rings rings) {
+    return Base64.getEncoder().encodeToString(encodeVersion1(rings));
+  }
+
+  /** Compute the most uncompressed space that will be required to serialize the rings. */
+  private int sizeOf(int[][] scaledRings) {
+    // magic-token + version + number-rings
+    int size = BYTES_PER_INT + BYTES_PER_INT + MAX_BYTES_PER_VARINT;
+    for (int[] scaled : scaledRings) {
+      // number-coords + bounding box + (coords lat and long)
+      size += MAX_BYTES_PER_VARINT * (1 + 4 + scaled.length);
+    }
+    return size;
+  }
+
+  /**
+   * Decoded rings of a path. The coordinates of every ring are stored back to back as longitude
+   * and latitude pairs.
+   */
+  @Value
+  public static class Rings {
+    /** The number of coordinates of each ring. */
+    int[] sizes;
+
+    double[] coordinates;
+
+    /** Build a path with a closed sub-path for each ring. */
+    public Path2D toPath() {
+      Path2D path =
+          new Path2D.Double(Path2D.WIND_NON_ZERO, coordinates.length / 2 + sizes.length);
+      int c = 0;
+      for (int size : sizes) {
+        path.moveTo(coordinates[c], coordinates[c + 1]);
+        c += 2;
+        for (int coordNumber = 1; coordNumber < size; coordNumber++) {
+          path.lineTo(coordinates[c], coordinates[c + 1]);
+          c += 2;
+        }
+        path.closePath();
+      }
+      return path;
+    }
   }
 
-  private int sizeOfRing(List<List<Double>> ring) {
-    // number-coords + (coords lat and long)
-    return BYTES_PER_INT + BYTES_PER_INT * ring.size() * 2;
+  /**
+   * Reads values from deflated data, inflating a small chunk at a time. Instances are reused by a
+   * single thread.
+   */
+  private static final class InflatingReader {
+    private final Inflater inflater = new Inflater();
+
+    private final byte[] chunk = new byte[4096];
+
+    private int position;
+
+    private int limit;
+
+    @SneakyThrows(DataFormatException.class)
+    private void fill() {
+      position = 0;
+      limit = 0;
+      while (limit == 0) {
+        check(
+            !inflater.finished() && !inflater.needsInput() && !inflater.needsDictionary(),
+            "Unexpected end of path data");
+        limit = inflater.inflate(chunk);
+      }
+    }
+
+    int readByte() {
+      if (position == limit) {
+        fill();
+      }
+      return chunk[position++] & 0xFF;
+    }
+
+    int readInt() {
+      return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+
+    int readVarint() {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+        int b = readByte();
+        value |= (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new PathEncodingException("Malformed varint");
+    }
+
+    int readZigZag() {
+      int value = readVarint();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    void start(byte[] compressedData) {
+      inflater.reset();
+      inflater.setInput(compressedData);
+      position = 0;
+      limit = 0;
+    }
   }
 
   /** Should something go wrong ... you get this. */
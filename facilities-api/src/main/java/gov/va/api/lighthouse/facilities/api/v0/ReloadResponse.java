@@ -2,10 +2,13 @@ package gov.va.api.lighthouse.facilities.api.v0;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import gov.va.api.lighthouse.facilities.api.ConcurrentAppendList;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,6 +21,9 @@ import lombok.Value;
 public class ReloadResponse {
   public List<String> facilitiesUpdated;
 
+  /** Facilities that were collected but did not change, so were not written. */
+  public List<String> facilitiesUnchanged;
+
   public List<String> facilitiesRevived;
 
   public List<String> facilitiesCreated;
@@ -34,17 +40,23 @@ public class ReloadResponse {
 
   /**
    * Create an instance that is has thread safe collections that can be added to when processing
-   * records simultaneously and has timing initialized to start now.
+   * records simultaneously and has timing initialized to start now. Facility IDs are listed in
+   * sorted order and problems are grouped by facility.
    */
   public static ReloadResponse start() {
     return ReloadResponse.builder()
-        .timing(Timing.builder().start(Instant.now()).build())
-        .facilitiesUpdated(new CopyOnWriteArrayList<>())
-        .facilitiesRevived(new CopyOnWriteArrayList<>())
-        .facilitiesCreated(new CopyOnWriteArrayList<>())
-        .facilitiesMissing(new CopyOnWriteArrayList<>())
-        .facilitiesRemoved(new CopyOnWriteArrayList<>())
-        .problems(new CopyOnWriteArrayList<>())
+        .timing(
+            Timing.builder().start(Instant.now()).sources(new ConcurrentSkipListMap<>()).build())
+        .facilitiesUpdated(ConcurrentAppendList.sortedBy(Comparator.naturalOrder()))
+        .facilitiesUnchanged(ConcurrentAppendList.sortedBy(Comparator.naturalOrder()))
+        .facilitiesRevived(ConcurrentAppendList.sortedBy(Comparator.naturalOrder()))
+        .facilitiesCreated(ConcurrentAppendList.sortedBy(Comparator.naturalOrder()))
+        .facilitiesMissing(ConcurrentAppendList.sortedBy(Comparator.naturalOrder()))
+        .facilitiesRemoved(ConcurrentAppendList.sortedBy(Comparator.naturalOrder()))
+        .problems(
+            ConcurrentAppendList.sortedBy(
+                Comparator.comparing(
+                    Problem::facilityId, Comparator.nullsFirst(Comparator.naturalOrder()))))
         .build();
   }
 
@@ -83,6 +95,9 @@ public class ReloadResponse {
     /** The amount of time it took to perform the full reload cycle. */
     public Duration totalDuration;
 
+    /** The amount of time it took to collect each source of facilities, by source. */
+    public Map<String, Duration> sources;
+
     /** Set the 'complete' time to now and compute the 'totalDuration'. */
     public void markComplete() {
       complete = Instant.now();
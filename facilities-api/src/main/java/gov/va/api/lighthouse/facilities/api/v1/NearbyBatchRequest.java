@@ -0,0 +1,33 @@
+package gov.va.api.lighthouse.facilities.api.v1;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@Schema(description = "Locations from which drive time will be calculated, searched together.")
+public final class NearbyBatchRequest {
+  @NotEmpty List<@Valid @NotNull Point> points;
+
+  @Value
+  @Builder
+  @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+  @Schema(description = "Location from which drive time will be calculated.")
+  public static final class Point {
+    @NotNull
+    @Schema(description = "Latitude of the location.", example = "56.7")
+    BigDecimal lat;
+
+    @NotNull
+    @Schema(description = "Longitude of the location.", example = "-123.4")
+    BigDecimal lng;
+  }
+}
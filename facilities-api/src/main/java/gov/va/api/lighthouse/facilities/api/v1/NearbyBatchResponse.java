@@ -0,0 +1,62 @@
+package gov.va.api.lighthouse.facilities.api.v1;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbyBatchResponseSerializer;
+import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbyBatchResultSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Value;
+import org.apache.commons.lang3.ObjectUtils;
+
+@Value
+@Builder
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(value = Include.NON_EMPTY, content = Include.NON_EMPTY)
+@JsonSerialize(using = NearbyBatchResponseSerializer.class)
+@JsonPropertyOrder({"data", "meta"})
+@Schema(
+    description = "Nearby facilities of each requested location, in the order requested.",
+    nullable = true)
+public final class NearbyBatchResponse implements CanBeEmpty {
+  List<@Valid @NotNull Result> data;
+
+  @Schema(nullable = true)
+  NearbyResponse.Meta meta;
+
+  /** Empty elements will be omitted from JSON serialization. */
+  @JsonIgnore
+  public boolean isEmpty() {
+    return ObjectUtils.isEmpty(data()) && (meta() == null || meta().isEmpty());
+  }
+
+  @Value
+  @Builder
+  @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+  @JsonInclude(value = Include.NON_EMPTY, content = Include.NON_EMPTY)
+  @JsonSerialize(using = NearbyBatchResultSerializer.class)
+  @Schema(description = "Nearby facilities of a requested location.", nullable = true)
+  public static final class Result implements CanBeEmpty {
+    @Schema(description = "Latitude of the requested location.", example = "56.7")
+    BigDecimal lat;
+
+    @Schema(description = "Longitude of the requested location.", example = "-123.4")
+    BigDecimal lng;
+
+    List<@Valid @NotNull NearbyResponse.Nearby> data;
+
+    /** Empty elements will be omitted from JSON serialization. */
+    @JsonIgnore
+    public boolean isEmpty() {
+      return lat() == null && lng() == null && ObjectUtils.isEmpty(data());
+    }
+  }
+}
@@ -7,14 +7,15 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import gov.va.api.lighthouse.facilities.api.ConcurrentAppendList;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.ReloadResponseProblemSerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.ReloadResponseSerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.ReloadResponseTimingSerializer;
 import java.math.BigInteger;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -45,17 +46,21 @@ public class ReloadResponse implements CanBeEmpty {
 
   /**
    * Create an instance that is has thread safe collections that can be added to when processing
-   * records simultaneously and has timing initialized to start now.
+   * records simultaneously and has timing initialized to start now. Facility IDs are listed in
+   * sorted order and problems are grouped by facility.
    */
   public static ReloadResponse start() {
     return ReloadResponse.builder()
         .timing(Timing.builder().start(Instant.now()).build())
-        .facilitiesUpdated(new CopyOnWriteArrayList<>())
-        .facilitiesRevived(new CopyOnWriteArrayList<>())
-        .facilitiesCreated(new CopyOnWriteArrayList<>())
-        .facilitiesMissing(new CopyOnWriteArrayList<>())
-        .facilitiesRemoved(new CopyOnWriteArrayList<>())
-        .problems(new CopyOnWriteArrayList<>())
+        .facilitiesUpdated(ConcurrentAppendList.sortedBy(Comparator.naturalOrder()))
+        .facilitiesRevived(ConcurrentAppendList.sortedBy(Comparator.naturalOrder()))
+        .facilitiesCreated(ConcurrentAppendList.sortedBy(Comparator.naturalOrder()))
+        .facilitiesMissing(ConcurrentAppendList.sortedBy(Comparator.naturalOrder()))
+        .facilitiesRemoved(ConcurrentAppendList.sortedBy(Comparator.naturalOrder()))
+        .problems(
+            ConcurrentAppendList.sortedBy(
+                Comparator.comparing(
+                    Problem::facilityId, Comparator.nullsFirst(Comparator.naturalOrder()))))
         .build();
   }
 
@@ -0,0 +1,27 @@
+package gov.va.api.lighthouse.facilities.api.v1.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import gov.va.api.lighthouse.facilities.api.v1.NearbyBatchResponse;
+import lombok.SneakyThrows;
+
+public class NearbyBatchResponseSerializer extends NonEmptySerializer<NearbyBatchResponse> {
+
+  public NearbyBatchResponseSerializer() {
+    this(null);
+  }
+
+  public NearbyBatchResponseSerializer(Class<NearbyBatchResponse> t) {
+    super(t);
+  }
+
+  @Override
+  @SneakyThrows
+  public void serialize(
+      NearbyBatchResponse value, JsonGenerator jgen, SerializerProvider provider) {
+    jgen.writeStartObject();
+    writeNonEmpty(jgen, "data", value.data());
+    writeNonEmpty(jgen, "meta", value.meta());
+    jgen.writeEndObject();
+  }
+}
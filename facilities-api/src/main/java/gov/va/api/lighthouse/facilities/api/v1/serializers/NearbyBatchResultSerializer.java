@@ -0,0 +1,27 @@
+package gov.va.api.lighthouse.facilities.api.v1.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import gov.va.api.lighthouse.facilities.api.v1.NearbyBatchResponse.Result;
+import lombok.SneakyThrows;
+
+public class NearbyBatchResultSerializer extends NonEmptySerializer<Result> {
+
+  public NearbyBatchResultSerializer() {
+    this(null);
+  }
+
+  public NearbyBatchResultSerializer(Class<Result> t) {
+    super(t);
+  }
+
+  @Override
+  @SneakyThrows
+  public void serialize(Result value, JsonGenerator jgen, SerializerProvider provider) {
+    jgen.writeStartObject();
+    writeNonEmpty(jgen, "lat", value.lat());
+    writeNonEmpty(jgen, "lng", value.lng());
+    writeNonEmpty(jgen, "data", value.data());
+    jgen.writeEndObject();
+  }
+}
@@ -0,0 +1,64 @@
+package gov.va.api.lighthouse.facilities.api;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentAppendListTest {
+  private static String id(int i) {
+    return String.format("vha_%05d", i);
+  }
+
+  @Test
+  void addsAfterReadsAreMerged() {
+    List<String> list = ConcurrentAppendList.sortedBy(Comparator.naturalOrder());
+    assertThat(list).isEmpty();
+    list.add("vha_2");
+    assertThat(list).containsExactly("vha_2");
+    list.add("vha_3");
+    list.add("vha_1");
+    assertThat(list).containsExactly("vha_1", "vha_2", "vha_3");
+    assertThat(list).isEqualTo(List.of("vha_1", "vha_2", "vha_3"));
+  }
+
+  @Test
+  void inAddedOrder() {
+    List<String> list = ConcurrentAppendList.inAddedOrder();
+    list.add("vha_2");
+    list.add("vha_1");
+    assertThat(list).containsExactly("vha_2", "vha_1");
+  }
+
+  @Test
+  void nullsAndRemovalsAreRejected() {
+    List<String> list = ConcurrentAppendList.inAddedOrder();
+    assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> list.add(null));
+    list.add("vha_1");
+    assertThatExceptionOfType(UnsupportedOperationException.class)
+        .isThrownBy(() -> list.remove(0));
+  }
+
+  @Test
+  void simultaneousAddsAreSorted() {
+    List<String> list = ConcurrentAppendList.sortedBy(Comparator.naturalOrder());
+    IntStream.range(0, 10000).parallel().forEach(i -> list.add(id(9999 - i)));
+    List<String> expected = IntStream.range(0, 10000).mapToObj(i -> id(i)).collect(toList());
+    assertThat(list).isEqualTo(expected);
+  }
+
+  @Test
+  void sortingKeepsAddedOrderOfEqualElements() {
+    List<String> list =
+        ConcurrentAppendList.sortedBy(Comparator.comparing((String s) -> s.charAt(0)));
+    list.add("b1");
+    list.add("a1");
+    list.add("b2");
+    list.add("a2");
+    assertThat(list).containsExactly("a1", "a2", "b1", "b2");
+  }
+}
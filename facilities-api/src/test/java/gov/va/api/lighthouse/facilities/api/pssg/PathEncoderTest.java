@@ -10,33 +10,24 @@ import java.awt.geom.Path2D;
 import java.awt.geom.PathIterator;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Random;
+import java.util.zip.Inflater;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 
 @Slf4j
 public class PathEncoderTest {
-  @Test
-  @SneakyThrows
-  void exceptions() {
-    Method check = PathEncoder.class.getDeclaredMethod("check", boolean.class, String.class);
-    check.setAccessible(true);
-    assertThatThrownBy(() -> check.invoke(PathEncoder.create(), false, "Test Message"))
-        .isInstanceOf(InvocationTargetException.class)
-        .hasCause(new PathEncoder.PathEncodingException("Test Message"));
-    Method decompress = PathEncoder.class.getDeclaredMethod("decompress", byte[].class);
-    decompress.setAccessible(true);
-    byte[] nullData = null;
-    assertThatThrownBy(() -> decompress.invoke(PathEncoder.create(), nullData))
-        .isInstanceOf(InvocationTargetException.class)
-        .hasCause(
-            new NullPointerException(
-                "Cannot read the array length because \"compressedData\" is null"));
-  }
+  /** The band of {@link #band()}, encoded in version 1 of the format. */
+  private static final String VERSION_1_BAND =
+      "eJxjYJh4k4GBgRGImYCYjYFx45////xYwPRPCwEG5uQfYJrt+Ac4DZIHiYNokB7+3Dn/P0xKAdOHPCcwyN22"
+          + "ANO22wrgNEgeJA6kAcBAMI4=";
 
-  @Test
-  void roundTrip() {
+  private static PssgDriveTimeBand band() {
     List<List<Double>> ring1 = PssgDriveTimeBand.newRing(6);
     ring1.add(PssgDriveTimeBand.coord(1.111, -1.111));
     ring1.add(PssgDriveTimeBand.coord(1.111, -4.444));
@@ -54,11 +45,145 @@ public class PathEncoderTest {
     List<List<List<Double>>> rings = PssgDriveTimeBand.newListOfRings();
     rings.add(ring1);
     rings.add(ring2);
-    var band =
-        PssgDriveTimeBand.builder()
-            .attributes(Attributes.builder().stationNumber("No1").fromBreak(10).toBreak(20).build())
-            .geometry(Geometry.builder().rings(rings).build())
-            .build();
+    return PssgDriveTimeBand.builder()
+        .attributes(Attributes.builder().stationNumber("No1").fromBreak(10).toBreak(20).build())
+        .geometry(Geometry.builder().rings(rings).build())
+        .build();
+  }
+
+  /** The rings of {@link #band()}, as parsed from a PSSG response. */
+  private static PathEncoder.Rings bandRings() {
+    List<List<List<Double>>> bandRings = band().geometry().rings();
+    return new PathEncoder.Rings(
+        bandRings.stream().mapToInt(List::size).toArray(),
+        bandRings.stream()
+            .flatMap(List::stream)
+            .flatMap(List::stream)
+            .mapToDouble(Double::doubleValue)
+            .toArray());
+  }
+
+  private static List<List<Double>> coordinatesOf(Path2D path) {
+    List<List<Double>> coordinates = new ArrayList<>();
+    double[] coords = new double[6];
+    for (var iter = path.getPathIterator(null); !iter.isDone(); iter.next()) {
+      int type = iter.currentSegment(coords);
+      coordinates.add(List.of((double) type, coords[0], coords[1]));
+    }
+    return coordinates;
+  }
+
+  /**
+   * Decode scaled coordinates with the rules of decoders that predate version 2. They inflate into
+   * a buffer ten times the size of the data, and reject every version but 1.
+   */
+  @SneakyThrows
+  private static List<Integer> decodeWithVersion1Rules(String path64) {
+    byte[] compressed = Base64.getDecoder().decode(path64);
+    byte[] data = new byte[compressed.length * 10];
+    Inflater inflater = new Inflater();
+    inflater.setInput(compressed);
+    ByteBuffer buffer = ByteBuffer.wrap(data, 0, inflater.inflate(data));
+    assertThat(inflater.finished()).isTrue();
+    inflater.end();
+    assertThat(buffer.getInt()).isEqualTo(37337);
+    assertThat(buffer.getInt()).isEqualTo(1);
+    List<Integer> scaled = new ArrayList<>();
+    int numberOfRings = buffer.getInt();
+    for (int ringNumber = 0; ringNumber < numberOfRings; ringNumber++) {
+      int numberOfCoordinates = buffer.getInt();
+      scaled.add(numberOfCoordinates);
+      for (int coordNumber = 0; coordNumber < numberOfCoordinates * 2; coordNumber++) {
+        scaled.add(buffer.getInt());
+      }
+    }
+    assertThat(buffer.hasRemaining()).isFalse();
+    return scaled;
+  }
+
+  @Test
+  void encodeRingsMatchesEncodeBand() {
+    PathEncoder encoder = PathEncoder.create();
+    assertThat(encoder.encode(bandRings())).isEqualTo(encoder.encode(band()));
+  }
+
+  @Test
+  void encodeVersion1() {
+    PathEncoder encoder = PathEncoder.create();
+    String version1 = encoder.encodeVersion1ToBase64(bandRings());
+    assertThat(decodeWithVersion1Rules(version1))
+        .isEqualTo(decodeWithVersion1Rules(VERSION_1_BAND));
+    assertThat(coordinatesOf(encoder.decodeFromBase64(version1)))
+        .isEqualTo(coordinatesOf(encoder.decodeFromBase64(VERSION_1_BAND)));
+  }
+
+  @Test
+  @SneakyThrows
+  void exceptions() {
+    Method check = PathEncoder.class.getDeclaredMethod("check", boolean.class, String.class);
+    check.setAccessible(true);
+    assertThatThrownBy(() -> check.invoke(PathEncoder.create(), false, "Test Message"))
+        .isInstanceOf(InvocationTargetException.class)
+        .hasCause(new PathEncoder.PathEncodingException("Test Message"));
+    String path64 = PathEncoder.create().encodeToBase64(band());
+    String truncated = path64.substring(0, path64.length() / 2 / 4 * 4);
+    assertThatThrownBy(() -> PathEncoder.create().decodeFromBase64(truncated))
+        .isInstanceOf(PathEncoder.PathEncodingException.class)
+        .hasMessage("Unexpected end of path data");
+  }
+
+  @Test
+  void decodeRings() {
+    PathEncoder.Rings rings =
+        PathEncoder.create().decodeRingsFromBase64(PathEncoder.create().encodeToBase64(band()));
+    assertThat(rings.sizes()).containsExactly(6, 6);
+    assertThat(rings.coordinates()).hasSize(24);
+    assertThat(rings.coordinates()[0]).isCloseTo(1.111, offset(0.01));
+    assertThat(rings.coordinates()[23]).isCloseTo(-10.111, offset(0.01));
+  }
+
+  @Test
+  void decodeVersion1() {
+    assertThat(coordinatesOf(PathEncoder.create().decodeFromBase64(VERSION_1_BAND)))
+        .isEqualTo(
+            coordinatesOf(
+                PathEncoder.create()
+                    .decodeFromBase64(PathEncoder.create().encodeToBase64(band()))));
+  }
+
+  @Test
+  void largeBandsRoundTrip() {
+    Random random = new Random(37337);
+    List<List<List<Double>>> rings = PssgDriveTimeBand.newListOfRings();
+    for (int ringNumber = 0; ringNumber < 3; ringNumber++) {
+      List<List<Double>> ring = PssgDriveTimeBand.newRing(20000);
+      double longitude = -179 + random.nextDouble() * 358;
+      double latitude = -89 + random.nextDouble() * 178;
+      for (int coordNumber = 0; coordNumber < 20000; coordNumber++) {
+        ring.add(PssgDriveTimeBand.coord(longitude, latitude));
+        longitude = Math.max(-180, Math.min(180, longitude + random.nextGaussian() * 0.01));
+        latitude = Math.max(-90, Math.min(90, latitude + random.nextGaussian() * 0.01));
+      }
+      rings.add(ring);
+    }
+    String path64 =
+        PathEncoder.create()
+            .encodeToBase64(
+                PssgDriveTimeBand.builder()
+                    .geometry(Geometry.builder().rings(rings).build())
+                    .build());
+    PathEncoder.Rings decoded = PathEncoder.create().decodeRingsFromBase64(path64);
+    assertThat(decoded.sizes()).containsExactly(20000, 20000, 20000);
+    for (int i = 0; i < 60000; i++) {
+      List<Double> coord = rings.get(i / 20000).get(i % 20000);
+      assertThat(decoded.coordinates()[i * 2]).isCloseTo(coord.get(0), offset(0.00002));
+      assertThat(decoded.coordinates()[i * 2 + 1]).isCloseTo(coord.get(1), offset(0.00002));
+    }
+  }
+
+  @Test
+  void roundTrip() {
+    var band = band();
     String path64 = PathEncoder.create().encodeToBase64(band);
     log.info("{}", path64.length());
     log.info(path64);
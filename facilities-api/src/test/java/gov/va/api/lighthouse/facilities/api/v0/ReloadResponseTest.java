@@ -80,10 +80,12 @@ public class ReloadResponseTest {
     ReloadResponse response = ReloadResponse.start();
     assertThat(response.timing.start).isBetween(start, start.plusMillis(50));
     assertThat(response.facilitiesUpdated).isEqualTo(List.of());
+    assertThat(response.facilitiesUnchanged).isEqualTo(List.of());
     assertThat(response.facilitiesRevived).isEqualTo(List.of());
     assertThat(response.facilitiesCreated).isEqualTo(List.of());
     assertThat(response.facilitiesMissing).isEqualTo(List.of());
     assertThat(response.facilitiesRemoved).isEqualTo(List.of());
     assertThat(response.problems).isEqualTo(List.of());
+    assertThat(response.timing.sources).isEmpty();
   }
 }
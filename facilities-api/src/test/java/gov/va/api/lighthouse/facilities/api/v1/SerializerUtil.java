@@ -41,6 +41,8 @@ import gov.va.api.lighthouse.facilities.api.v1.serializers.FacilityReadResponseS
 import gov.va.api.lighthouse.facilities.api.v1.serializers.FacilitySerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.HoursSerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.MetaSerializer;
+import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbyBatchResponseSerializer;
+import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbyBatchResultSerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbyAttributesSerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbyResponseSerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbySerializer;
@@ -102,6 +104,8 @@ public final class SerializerUtil {
     mod.addSerializer(NearbyResponse.NearbyAttributes.class, new NearbyAttributesSerializer());
     mod.addSerializer(Nearby.class, new NearbySerializer());
     mod.addSerializer(NearbyResponse.Meta.class, new MetaSerializer());
+    mod.addSerializer(NearbyBatchResponse.class, new NearbyBatchResponseSerializer());
+    mod.addSerializer(NearbyBatchResponse.Result.class, new NearbyBatchResultSerializer());
     mod.addSerializer(Pagination.class, new PaginationSerializer());
     mod.addSerializer(ReloadResponse.class, new ReloadResponseSerializer());
     mod.addSerializer(Problem.class, new ReloadResponseProblemSerializer());
@@ -14,6 +14,7 @@ import gov.va.api.lighthouse.facilities.api.v1.FacilitiesIdsResponse;
 import gov.va.api.lighthouse.facilities.api.v1.FacilitiesResponse;
 import gov.va.api.lighthouse.facilities.api.v1.Facility;
 import gov.va.api.lighthouse.facilities.api.v1.FacilityReadResponse;
+import gov.va.api.lighthouse.facilities.api.v1.NearbyBatchResponse;
 import gov.va.api.lighthouse.facilities.api.v1.NearbyResponse;
 import gov.va.api.lighthouse.facilities.api.v1.PageLinks;
 import gov.va.api.lighthouse.facilities.api.v1.Pagination;
@@ -452,6 +453,40 @@ public class SerializerTest {
     assertJson(attributes, "{\"maxTime\":2147483647}");
   }
 
+  @Test
+  @SneakyThrows
+  void serializeNearbyBatchResponse() {
+    // Empty
+    NearbyBatchResponse response = NearbyBatchResponse.builder().build();
+    assertJsonIsEmpty(response);
+    response =
+        NearbyBatchResponse.builder()
+            .data(emptyList())
+            .meta(NearbyResponse.Meta.builder().build())
+            .build();
+    assertJsonIsEmpty(response);
+    // Not empty
+    response =
+        NearbyBatchResponse.builder()
+            .data(
+                List.of(
+                    NearbyBatchResponse.Result.builder()
+                        .lat(BigDecimal.valueOf(1.5))
+                        .lng(BigDecimal.valueOf(-2))
+                        .data(
+                            List.of(
+                                NearbyResponse.Nearby.builder()
+                                    .type(NearbyResponse.Type.NearbyFacility)
+                                    .build()))
+                        .build()))
+            .meta(NearbyResponse.Meta.builder().bandVersion("MAR2021").build())
+            .build();
+    assertJson(
+        response,
+        "{\"data\":[{\"lat\":1.5,\"lng\":-2,\"data\":[{\"type\":\"nearby_facility\"}]}],"
+            + "\"meta\":{\"bandVersion\":\"MAR2021\"}}");
+  }
+
   @Test
   @SneakyThrows
   void serializeNearbyResponse() {
@@ -0,0 +1,220 @@
+package gov.va.api.lighthouse.facilities;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import lombok.NonNull;
+
+/**
+ * Precomputed coverage of a drive time band, a grid over the bounds of the band where each cell is
+ * known to be entirely inside the band, entirely outside it, or crossed by its edges. Points in
+ * inside and outside cells need no polygon test at all, only points in boundary cells do.
+ *
+ * <p>A cell is a boundary cell if any edge of the band, including horizontal and closing edges,
+ * comes within a small margin of it. Winding numbers only change across edges, so every point of
+ * any other cell has the winding number of the cell center, which is tested once against the full
+ * polygon when the coverage is built. The margin absorbs rounding in locating a point's cell.
+ *
+ * <p>Cells take two bits each, packed into an int array, so a 32 by 32 grid is 256 bytes.
+ */
+final class BandCoverage {
+  static final int OUTSIDE = 0;
+
+  static final int INSIDE = 1;
+
+  static final int BOUNDARY = 2;
+
+  private static final int CELLS_PER_INT = 16;
+
+  private static final double MARGIN = 1e-3;
+
+  private final int version;
+
+  private final double minLongitude;
+
+  private final double minLatitude;
+
+  private final double maxLongitude;
+
+  private final double maxLatitude;
+
+  private final int columns;
+
+  private final int rows;
+
+  private final double cellWidth;
+
+  private final double cellHeight;
+
+  private final int[] cells;
+
+  private BandCoverage(
+      int version,
+      double minLongitude,
+      double minLatitude,
+      double maxLongitude,
+      double maxLatitude,
+      int columns,
+      int rows) {
+    this.version = version;
+    this.minLongitude = minLongitude;
+    this.minLatitude = minLatitude;
+    this.maxLongitude = maxLongitude;
+    this.maxLatitude = maxLatitude;
+    this.columns = columns;
+    this.rows = rows;
+    this.cellWidth = columns == 0 ? 0 : (maxLongitude - minLongitude) / columns;
+    this.cellHeight = rows == 0 ? 0 : (maxLatitude - minLatitude) / rows;
+    this.cells = new int[(columns * rows + CELLS_PER_INT - 1) / CELLS_PER_INT];
+  }
+
+  /**
+   * Whether the segment comes within the margin of the cell. Both are known to overlap on each
+   * axis, so the segment misses the box only if every corner is strictly on the same side of it.
+   */
+  private static boolean crosses(
+      double x0,
+      double y0,
+      double x1,
+      double y1,
+      double left,
+      double bottom,
+      double right,
+      double top) {
+    double dx = x1 - x0;
+    double dy = y1 - y0;
+    int positive = 0;
+    int negative = 0;
+    for (int corner = 0; corner < 4; corner++) {
+      double cx = (corner & 1) == 0 ? left : right;
+      double cy = (corner & 2) == 0 ? bottom : top;
+      double side = dx * (cy - y0) - dy * (cx - x0);
+      if (side > 0) {
+        positive++;
+      } else if (side < 0) {
+        negative++;
+      } else {
+        return true;
+      }
+    }
+    return positive > 0 && negative > 0;
+  }
+
+  /**
+   * Compute the coverage of the band with the given rings, on a grid of at most cellsPerSide cells
+   * in each direction. Bands without area have no cells, and every point within their bounds is a
+   * boundary point.
+   */
+  static BandCoverage of(@NonNull PathEncoder.Rings rings, int version, int cellsPerSide) {
+    checkArgument(cellsPerSide > 0, "Cells per side must be positive, got %s", cellsPerSide);
+    double[] coordinates = rings.coordinates();
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (int c = 0; c < coordinates.length; c += 2) {
+      minX = Math.min(minX, coordinates[c]);
+      maxX = Math.max(maxX, coordinates[c]);
+      minY = Math.min(minY, coordinates[c + 1]);
+      maxY = Math.max(maxY, coordinates[c + 1]);
+    }
+    if (!(maxX > minX) || !(maxY > minY)) {
+      return new BandCoverage(version, minX, minY, maxX, maxY, 0, 0);
+    }
+    BandCoverage coverage =
+        new BandCoverage(version, minX, minY, maxX, maxY, cellsPerSide, cellsPerSide);
+    coverage.markBoundaries(rings);
+    coverage.markInterior(BandPolygon.of(rings));
+    return coverage;
+  }
+
+  private int cell(int column, int row) {
+    int index = row * columns + column;
+    return (cells[index / CELLS_PER_INT] >>> ((index % CELLS_PER_INT) * 2)) & 3;
+  }
+
+  /**
+   * Whether the band contains the point, if known without the polygon. Points outside the bounds of
+   * the band are outside it, points within the bounds are as their cell.
+   */
+  int classify(double longitude, double latitude) {
+    if (!(longitude >= minLongitude
+        && longitude <= maxLongitude
+        && latitude >= minLatitude
+        && latitude <= maxLatitude)) {
+      return OUTSIDE;
+    }
+    if (columns == 0) {
+      return BOUNDARY;
+    }
+    return cell(columnOf(longitude), rowOf(latitude));
+  }
+
+  private int columnOf(double longitude) {
+    return Math.max(0, Math.min(columns - 1, (int) ((longitude - minLongitude) / cellWidth)));
+  }
+
+  private void mark(int column, int row, int value) {
+    int index = row * columns + column;
+    cells[index / CELLS_PER_INT] |= value << ((index % CELLS_PER_INT) * 2);
+  }
+
+  private void markBoundaries(PathEncoder.Rings rings) {
+    double[] coordinates = rings.coordinates();
+    int c = 0;
+    for (int size : rings.sizes()) {
+      int first = c;
+      for (int i = 1; i < size; i++) {
+        markEdge(coordinates[c], coordinates[c + 1], coordinates[c + 2], coordinates[c + 3]);
+        c += 2;
+      }
+      if (size > 1) {
+        markEdge(coordinates[c], coordinates[c + 1], coordinates[first], coordinates[first + 1]);
+      }
+      c += 2;
+    }
+  }
+
+  private void markEdge(double x0, double y0, double x1, double y1) {
+    double marginX = cellWidth * MARGIN;
+    double marginY = cellHeight * MARGIN;
+    int firstColumn = columnOf(Math.min(x0, x1) - marginX);
+    int lastColumn = columnOf(Math.max(x0, x1) + marginX);
+    int firstRow = rowOf(Math.min(y0, y1) - marginY);
+    int lastRow = rowOf(Math.max(y0, y1) + marginY);
+    for (int row = firstRow; row <= lastRow; row++) {
+      double bottom = minLatitude + row * cellHeight - marginY;
+      double top = minLatitude + (row + 1) * cellHeight + marginY;
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        double left = minLongitude + column * cellWidth - marginX;
+        double right = minLongitude + (column + 1) * cellWidth + marginX;
+        if (crosses(x0, y0, x1, y1, left, bottom, right, top)) {
+          mark(column, row, BOUNDARY);
+        }
+      }
+    }
+  }
+
+  private void markInterior(BandPolygon polygon) {
+    for (int row = 0; row < rows; row++) {
+      double latitude = minLatitude + (row + 0.5) * cellHeight;
+      for (int column = 0; column < columns; column++) {
+        if (cell(column, row) == BOUNDARY) {
+          continue;
+        }
+        if (polygon.contains(minLongitude + (column + 0.5) * cellWidth, latitude)) {
+          mark(column, row, INSIDE);
+        }
+      }
+    }
+  }
+
+  private int rowOf(double latitude) {
+    return Math.max(0, Math.min(rows - 1, (int) ((latitude - minLatitude) / cellHeight)));
+  }
+
+  /** The version of the band the coverage was computed for. */
+  int version() {
+    return version;
+  }
+}
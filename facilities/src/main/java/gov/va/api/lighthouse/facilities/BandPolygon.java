@@ -0,0 +1,369 @@
+package gov.va.api.lighthouse.facilities;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import lombok.NonNull;
+
+/**
+ * Decoded drive time band polygon. Instances are immutable so that a single decoded band can be
+ * shared by concurrent nearby searches.
+ *
+ * <p>Containment gives the same answer as {@link Path2D#contains(double, double)} for the path the
+ * polygon was created from: every ring counts toward the non-zero winding rule, and edges use the
+ * same half-open crossing rules. Instead of walking every segment of the path, edges are kept in
+ * flat arrays, bucketed by horizontal slabs of equal height. A test only looks at the edges of the
+ * slab containing the point, which is a handful of edges even for bands with thousands of
+ * vertices.
+ *
+ * <p>A coarse polygon is created from a simplified band, where every vertex of the full band is
+ * within a tolerance of the coarse polygon's edges. Winding numbers of the coarse and full band can
+ * only differ for points within the tolerance of a coarse edge, so only those points are tested
+ * against the full band, which is taken from a supplier on demand. Whether the decoded full band is
+ * kept is up to the supplier.
+ */
+final class BandPolygon {
+  /** Target average number of edges per slab. */
+  private static final int EDGES_PER_SLAB = 4;
+
+  private final int vertexCount;
+
+  private final double minLongitude;
+
+  private final double maxLongitude;
+
+  private final double minLatitude;
+
+  private final double maxLatitude;
+
+  /** Zero for full polygons. */
+  private final double tolerance;
+
+  /** The full polygon of a coarse polygon. */
+  private final Supplier<BandPolygon> full;
+
+  private final double slabOrigin;
+
+  private final double slabHeight;
+
+  private final int slabCount;
+
+  /** Slab s holds the edges from slabStarts[s] (inclusive) to slabStarts[s + 1] (exclusive). */
+  private final int[] slabStarts;
+
+  /** Edges of every slab as x0, y0, x1, y1, in the direction they were drawn. */
+  private final double[] edges;
+
+  private BandPolygon(
+      Edges source,
+      Supplier<BandPolygon> full,
+      double slabOrigin,
+      double slabHeight,
+      int[] slabStarts,
+      double[] edges) {
+    this.vertexCount = source.vertexCount;
+    this.minLongitude = source.minX;
+    this.maxLongitude = source.maxX;
+    this.minLatitude = source.minY;
+    this.maxLatitude = source.maxY;
+    this.tolerance = source.tolerance;
+    this.full = full;
+    this.slabOrigin = slabOrigin;
+    this.slabHeight = slabHeight;
+    this.slabCount = slabStarts.length - 1;
+    this.slabStarts = slabStarts;
+    this.edges = edges;
+  }
+
+  /**
+   * The number of crossings of the edge and a ray from the point toward positive x, signed by edge
+   * direction. These are the rules of {@code sun.awt.geom.Curve.pointCrossingsForLine} used by
+   * {@link Path2D#contains(double, double)}.
+   */
+  private static int crossings(double px, double py, double x0, double y0, double x1, double y1) {
+    if (py < y0 && py < y1) {
+      return 0;
+    }
+    if (py >= y0 && py >= y1) {
+      return 0;
+    }
+    if (px >= x0 && px >= x1) {
+      return 0;
+    }
+    if (px < x0 && px < x1) {
+      return y0 < y1 ? 1 : -1;
+    }
+    double xintercept = x0 + (py - y0) * (x1 - x0) / (y1 - y0);
+    if (px >= xintercept) {
+      return 0;
+    }
+    return y0 < y1 ? 1 : -1;
+  }
+
+  /** Create a polygon from the straight line segments of the given path. */
+  static BandPolygon of(@NonNull Path2D path) {
+    Edges edges = new Edges(64, 0);
+    double[] coords = new double[6];
+    for (PathIterator i = path.getPathIterator(null); !i.isDone(); i.next()) {
+      int type = i.currentSegment(coords);
+      switch (type) {
+        case PathIterator.SEG_MOVETO:
+          edges.moveTo(coords[0], coords[1]);
+          break;
+        case PathIterator.SEG_LINETO:
+          edges.lineTo(coords[0], coords[1]);
+          break;
+        case PathIterator.SEG_CLOSE:
+          edges.close();
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported path segment type " + type);
+      }
+    }
+    edges.close();
+    return edges.toPolygon(null);
+  }
+
+  /** Create a polygon from decoded rings, without building a path. */
+  static BandPolygon of(@NonNull PathEncoder.Rings rings) {
+    return build(rings, 0, null);
+  }
+
+  /**
+   * Create a coarse polygon from simplified rings. Every vertex of the full polygon must be within
+   * the tolerance of an edge of the simplified rings.
+   */
+  static BandPolygon of(
+      @NonNull PathEncoder.Rings coarse, double tolerance, @NonNull Supplier<BandPolygon> full) {
+    checkArgument(tolerance > 0, "Tolerance must be positive, got %s", tolerance);
+    return build(coarse, tolerance, full);
+  }
+
+  private static BandPolygon build(
+      PathEncoder.Rings rings, double tolerance, Supplier<BandPolygon> full) {
+    double[] coordinates = rings.coordinates();
+    Edges edges = new Edges(coordinates.length * 2, tolerance);
+    int c = 0;
+    for (int size : rings.sizes()) {
+      edges.moveTo(coordinates[c], coordinates[c + 1]);
+      c += 2;
+      for (int i = 1; i < size; i++) {
+        edges.lineTo(coordinates[c], coordinates[c + 1]);
+        c += 2;
+      }
+      edges.close();
+    }
+    return edges.toPolygon(full);
+  }
+
+  boolean contains(double longitude, double latitude) {
+    if (!Double.isFinite(longitude) || !Double.isFinite(latitude)) {
+      return false;
+    }
+    if (full != null) {
+      return coarseContains(longitude, latitude);
+    }
+    if (edges.length == 0) {
+      return false;
+    }
+    /* Every edge is entirely above, below, or left of points outside these bounds. */
+    if (longitude >= maxLongitude || latitude < minLatitude || latitude >= maxLatitude) {
+      return false;
+    }
+    int slab = slabOf(latitude, slabOrigin, slabHeight, slabCount);
+    int winding = 0;
+    for (int e = slabStarts[slab] * 4; e < slabStarts[slab + 1] * 4; e += 4) {
+      winding += crossings(longitude, latitude, edges[e], edges[e + 1], edges[e + 2], edges[e + 3]);
+    }
+    return winding != 0;
+  }
+
+  private boolean coarseContains(double longitude, double latitude) {
+    /* The full polygon is within the tolerance of these bounds. */
+    if (longitude > maxLongitude + tolerance
+        || longitude < minLongitude - tolerance
+        || latitude > maxLatitude + tolerance
+        || latitude < minLatitude - tolerance) {
+      return false;
+    }
+    /* Rings that simplified to single points have no edges, but may still contain points. */
+    if (edges.length == 0) {
+      return full.get().contains(longitude, latitude);
+    }
+    /* Slabs also hold the edges within the tolerance of them, including horizontal edges. */
+    int slab = slabOf(latitude, slabOrigin, slabHeight, slabCount);
+    double toleranceSquared = tolerance * tolerance;
+    int winding = 0;
+    for (int e = slabStarts[slab] * 4; e < slabStarts[slab + 1] * 4; e += 4) {
+      double x0 = edges[e];
+      double y0 = edges[e + 1];
+      double x1 = edges[e + 2];
+      double y1 = edges[e + 3];
+      if (distanceSquared(longitude, latitude, x0, y0, x1, y1) <= toleranceSquared) {
+        return full.get().contains(longitude, latitude);
+      }
+      winding += crossings(longitude, latitude, x0, y0, x1, y1);
+    }
+    return winding != 0;
+  }
+
+  /** The squared distance from the point to the closest point of the segment. */
+  static double distanceSquared(
+      double px, double py, double x0, double y0, double x1, double y1) {
+    double dx = x1 - x0;
+    double dy = y1 - y0;
+    double lengthSquared = dx * dx + dy * dy;
+    double t = lengthSquared == 0 ? 0 : ((px - x0) * dx + (py - y0) * dy) / lengthSquared;
+    t = Math.max(0, Math.min(1, t));
+    double ex = x0 + t * dx - px;
+    double ey = y0 + t * dy - py;
+    return ex * ex + ey * ey;
+  }
+
+  /** Whether this is a coarse polygon, which decodes its full polygon when needed. */
+  boolean isCoarse() {
+    return full != null;
+  }
+
+  private static int slabOf(double latitude, double slabOrigin, double slabHeight, int slabCount) {
+    return Math.max(0, Math.min(slabCount - 1, (int) ((latitude - slabOrigin) / slabHeight)));
+  }
+
+  /** Number of path vertices, used to weigh this polygon in caches. */
+  int vertexCount() {
+    return vertexCount;
+  }
+
+  /**
+   * Collects the edges of a path, closing each ring as Path2D does. Horizontal edges are only kept
+   * for coarse polygons, which need them to find points near edges.
+   */
+  private static final class Edges {
+    private final double tolerance;
+
+    private double[] coords;
+
+    private int size;
+
+    private int vertexCount;
+
+    private boolean open;
+
+    private double moveX;
+
+    private double moveY;
+
+    private double currentX;
+
+    private double currentY;
+
+    private double minX = Double.POSITIVE_INFINITY;
+
+    private double maxX = Double.NEGATIVE_INFINITY;
+
+    private double minY = Double.POSITIVE_INFINITY;
+
+    private double maxY = Double.NEGATIVE_INFINITY;
+
+    Edges(int capacity, double tolerance) {
+      this.coords = new double[Math.max(capacity, 4)];
+      this.tolerance = tolerance;
+    }
+
+    private void add(double x0, double y0, double x1, double y1) {
+      /* Horizontal edges never cross a horizontal ray. */
+      if (y0 == y1 && tolerance == 0) {
+        return;
+      }
+      if (size + 4 > coords.length) {
+        coords = Arrays.copyOf(coords, coords.length * 2);
+      }
+      coords[size++] = x0;
+      coords[size++] = y0;
+      coords[size++] = x1;
+      coords[size++] = y1;
+    }
+
+    void close() {
+      if (open) {
+        add(currentX, currentY, moveX, moveY);
+      }
+      currentX = moveX;
+      currentY = moveY;
+      open = false;
+    }
+
+    private void include(double x, double y) {
+      vertexCount++;
+      minX = Math.min(minX, x);
+      maxX = Math.max(maxX, x);
+      minY = Math.min(minY, y);
+      maxY = Math.max(maxY, y);
+    }
+
+    void lineTo(double x, double y) {
+      checkArgument(vertexCount > 0, "Path must start with a move");
+      add(currentX, currentY, x, y);
+      include(x, y);
+      currentX = x;
+      currentY = y;
+      open = true;
+    }
+
+    void moveTo(double x, double y) {
+      close();
+      include(x, y);
+      moveX = x;
+      moveY = y;
+      currentX = x;
+      currentY = y;
+    }
+
+    /**
+     * Bucket the edges by slab. The slabs of coarse polygons are widened by the tolerance, and
+     * edges are added to every slab within the tolerance of them.
+     */
+    BandPolygon toPolygon(Supplier<BandPolygon> full) {
+      int edgeCount = size / 4;
+      if (edgeCount == 0) {
+        return new BandPolygon(this, full, 0, 1, new int[] {0, 0}, new double[0]);
+      }
+      int slabCount = Math.max(1, edgeCount / EDGES_PER_SLAB);
+      double slabOrigin = minY - tolerance;
+      double slabHeight = (maxY - minY + 2 * tolerance) / slabCount;
+      int[] counts = new int[slabCount + 1];
+      for (int e = 0; e < size; e += 4) {
+        int first = slabOf(lowest(e) - tolerance, slabOrigin, slabHeight, slabCount);
+        int last = slabOf(highest(e) + tolerance, slabOrigin, slabHeight, slabCount);
+        for (int s = first; s <= last; s++) {
+          counts[s + 1]++;
+        }
+      }
+      for (int s = 0; s < slabCount; s++) {
+        counts[s + 1] += counts[s];
+      }
+      int[] slabStarts = counts.clone();
+      double[] slabEdges = new double[slabStarts[slabCount] * 4];
+      for (int e = 0; e < size; e += 4) {
+        int first = slabOf(lowest(e) - tolerance, slabOrigin, slabHeight, slabCount);
+        int last = slabOf(highest(e) + tolerance, slabOrigin, slabHeight, slabCount);
+        for (int s = first; s <= last; s++) {
+          System.arraycopy(coords, e, slabEdges, counts[s]++ * 4, 4);
+        }
+      }
+      return new BandPolygon(this, full, slabOrigin, slabHeight, slabStarts, slabEdges);
+    }
+
+    private double highest(int e) {
+      return Math.max(coords[e + 1], coords[e + 3]);
+    }
+
+    private double lowest(int e) {
+      return Math.min(coords[e + 1], coords[e + 3]);
+    }
+  }
+}
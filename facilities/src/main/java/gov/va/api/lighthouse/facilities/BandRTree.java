@@ -0,0 +1,140 @@
+package gov.va.api.lighthouse.facilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import lombok.NonNull;
+
+/**
+ * Immutable packed R-tree over drive time band bounding boxes, used to find the bands that may
+ * contain a point without a range query per nearby search.
+ *
+ * <p>Bands are packed into leaves with sort-tile-recursive ordering: sorted by center longitude,
+ * cut into vertical slices, and sorted by center latitude within each slice. Every node has up to
+ * {@link #NODE_SIZE} children. Boxes are kept in flat arrays level by level, leaves first, so the
+ * children of a node can be found from its position alone.
+ */
+final class BandRTree {
+  static final int NODE_SIZE = 16;
+
+  private final DriveTimeBandBounds[] bands;
+
+  private final double[] minLongitudes;
+
+  private final double[] minLatitudes;
+
+  private final double[] maxLongitudes;
+
+  private final double[] maxLatitudes;
+
+  /** Position of the first box of each level, followed by the total number of boxes. */
+  private final int[] levelStarts;
+
+  private BandRTree(List<DriveTimeBandBounds> packed) {
+    List<Integer> starts = new ArrayList<>();
+    starts.add(0);
+    int total = packed.size();
+    for (int count = packed.size(); count > 1; ) {
+      count = (count + NODE_SIZE - 1) / NODE_SIZE;
+      starts.add(total);
+      total += count;
+    }
+    starts.add(total);
+    levelStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+    bands = packed.toArray(new DriveTimeBandBounds[0]);
+    minLongitudes = new double[total];
+    minLatitudes = new double[total];
+    maxLongitudes = new double[total];
+    maxLatitudes = new double[total];
+    for (int i = 0; i < packed.size(); i++) {
+      DriveTimeBandBounds band = packed.get(i);
+      minLongitudes[i] = band.minLongitude();
+      minLatitudes[i] = band.minLatitude();
+      maxLongitudes[i] = band.maxLongitude();
+      maxLatitudes[i] = band.maxLatitude();
+    }
+    for (int level = 1; level < levels(); level++) {
+      for (int node = levelStarts[level]; node < levelStarts[level + 1]; node++) {
+        int first = firstChild(level, node);
+        int last = Math.min(first + NODE_SIZE, levelStarts[level]);
+        minLongitudes[node] = Double.POSITIVE_INFINITY;
+        minLatitudes[node] = Double.POSITIVE_INFINITY;
+        maxLongitudes[node] = Double.NEGATIVE_INFINITY;
+        maxLatitudes[node] = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < last; child++) {
+          minLongitudes[node] = Math.min(minLongitudes[node], minLongitudes[child]);
+          minLatitudes[node] = Math.min(minLatitudes[node], minLatitudes[child]);
+          maxLongitudes[node] = Math.max(maxLongitudes[node], maxLongitudes[child]);
+          maxLatitudes[node] = Math.max(maxLatitudes[node], maxLatitudes[child]);
+        }
+      }
+    }
+  }
+
+  /** Build a tree over the given band bounds. */
+  static BandRTree of(@NonNull List<DriveTimeBandBounds> bands) {
+    return new BandRTree(sortTileRecursive(bands));
+  }
+
+  private static List<DriveTimeBandBounds> sortTileRecursive(List<DriveTimeBandBounds> bands) {
+    List<DriveTimeBandBounds> packed = new ArrayList<>(bands);
+    packed.sort(Comparator.comparingDouble(DriveTimeBandBounds::centerLongitude));
+    int leaves = (packed.size() + NODE_SIZE - 1) / NODE_SIZE;
+    int sliceSize = (int) Math.ceil(Math.sqrt(leaves)) * NODE_SIZE;
+    for (int from = 0; from < packed.size(); from += sliceSize) {
+      packed
+          .subList(from, Math.min(from + sliceSize, packed.size()))
+          .sort(Comparator.comparingDouble(DriveTimeBandBounds::centerLatitude));
+    }
+    return packed;
+  }
+
+  private boolean contains(int box, double lng, double lat) {
+    return lng >= minLongitudes[box]
+        && lng <= maxLongitudes[box]
+        && lat >= minLatitudes[box]
+        && lat <= maxLatitudes[box];
+  }
+
+  /** Bands whose bounds contain the point, edges included, in no particular order. */
+  List<DriveTimeBandBounds> containing(double lng, double lat) {
+    List<DriveTimeBandBounds> found = new ArrayList<>();
+    int top = levels() - 1;
+    search(top, levelStarts[top], levelStarts[top + 1], lng, lat, found);
+    return found;
+  }
+
+  /** Every band in the tree, in packed order. */
+  List<DriveTimeBandBounds> bands() {
+    return Collections.unmodifiableList(Arrays.asList(bands));
+  }
+
+  private int firstChild(int level, int node) {
+    return levelStarts[level - 1] + (node - levelStarts[level]) * NODE_SIZE;
+  }
+
+  private int levels() {
+    return levelStarts.length - 1;
+  }
+
+  private void search(
+      int level, int from, int to, double lng, double lat, List<DriveTimeBandBounds> found) {
+    for (int box = from; box < to; box++) {
+      if (!contains(box, lng, lat)) {
+        continue;
+      }
+      if (level == 0) {
+        found.add(bands[box]);
+        continue;
+      }
+      int first = firstChild(level, box);
+      search(level - 1, first, Math.min(first + NODE_SIZE, levelStarts[level]), lng, lat, found);
+    }
+  }
+
+  int size() {
+    return bands.length;
+  }
+}
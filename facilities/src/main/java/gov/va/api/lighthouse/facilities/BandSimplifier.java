@@ -0,0 +1,87 @@
+package gov.va.api.lighthouse.facilities;
+
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import java.util.Arrays;
+import lombok.NonNull;
+
+/**
+ * Douglas-Peucker simplification of drive time band rings. Every ring keeps its first and last
+ * vertex, and every dropped vertex is within the tolerance of the segment between the vertices
+ * kept around it. That is what {@link BandPolygon} coarse polygons need: a point farther than the
+ * tolerance from every simplified edge is contained by the simplified rings exactly when it is
+ * contained by the original rings. Topology is not preserved, rings may collapse or cross, since
+ * containment near simplified edges is always decided by the full band.
+ */
+final class BandSimplifier {
+  private BandSimplifier() {}
+
+  /** Mark the vertices of the ring at offset to keep. The stack holds ranges still to simplify. */
+  private static void mark(
+      double[] coordinates, int offset, int size, double toleranceSquared, boolean[] keep) {
+    Arrays.fill(keep, 0, size, false);
+    keep[0] = true;
+    keep[size - 1] = true;
+    int[] stack = new int[size * 2];
+    int top = 0;
+    stack[top++] = 0;
+    stack[top++] = size - 1;
+    while (top > 0) {
+      int last = stack[--top];
+      int first = stack[--top];
+      double x0 = coordinates[offset + first * 2];
+      double y0 = coordinates[offset + first * 2 + 1];
+      double x1 = coordinates[offset + last * 2];
+      double y1 = coordinates[offset + last * 2 + 1];
+      int farthest = -1;
+      double farthestDistance = toleranceSquared;
+      for (int i = first + 1; i < last; i++) {
+        double distance =
+            BandPolygon.distanceSquared(
+                coordinates[offset + i * 2], coordinates[offset + i * 2 + 1], x0, y0, x1, y1);
+        if (distance > farthestDistance) {
+          farthest = i;
+          farthestDistance = distance;
+        }
+      }
+      if (farthest < 0) {
+        continue;
+      }
+      keep[farthest] = true;
+      stack[top++] = first;
+      stack[top++] = farthest;
+      stack[top++] = farthest;
+      stack[top++] = last;
+    }
+  }
+
+  /** Simplify every ring so that dropped vertices are within the tolerance, in degrees. */
+  static PathEncoder.Rings simplify(@NonNull PathEncoder.Rings rings, double tolerance) {
+    int[] sizes = rings.sizes();
+    double[] coordinates = rings.coordinates();
+    int[] simplifiedSizes = new int[sizes.length];
+    double[] simplified = new double[coordinates.length];
+    boolean[] keep = new boolean[Arrays.stream(sizes).max().orElse(0)];
+    double toleranceSquared = tolerance * tolerance;
+    int offset = 0;
+    int count = 0;
+    for (int r = 0; r < sizes.length; r++) {
+      int size = sizes[r];
+      if (size <= 2) {
+        System.arraycopy(coordinates, offset, simplified, count, size * 2);
+        count += size * 2;
+        simplifiedSizes[r] = size;
+      } else {
+        mark(coordinates, offset, size, toleranceSquared, keep);
+        for (int i = 0; i < size; i++) {
+          if (keep[i]) {
+            simplified[count++] = coordinates[offset + i * 2];
+            simplified[count++] = coordinates[offset + i * 2 + 1];
+            simplifiedSizes[r]++;
+          }
+        }
+      }
+      offset += size * 2;
+    }
+    return new PathEncoder.Rings(simplifiedSizes, Arrays.copyOf(simplified, count));
+  }
+}
@@ -46,6 +46,8 @@ public class CmsOverlayControllerV0 extends BaseCmsOverlayController {
 
   private final CmsOverlayRepository cmsOverlayRepository;
 
+  private final FacilitySnapshots snapshots;
+
   @SneakyThrows
   protected Optional<CmsOverlayEntity> getExistingOverlayEntity(@NonNull FacilityEntity.Pk pk) {
     return cmsOverlayRepository.findById(pk);
@@ -103,6 +105,7 @@ public class CmsOverlayControllerV0 extends BaseCmsOverlayController {
     } else {
       updateFacilityData(
           existingFacilityEntity.get(), existingCmsOverlayEntity, id, datamartCmsOverlay);
+      snapshots.refresh();
       return ResponseEntity.ok().build();
     }
   }
@@ -51,16 +51,20 @@ public class CmsOverlayControllerV1 extends BaseCmsOverlayController {
 
   private final CmsOverlayRepository cmsOverlayRepository;
 
+  private final FacilitySnapshots snapshots;
+
   private final String linkerUrl;
 
   @Builder
   CmsOverlayControllerV1(
       @Autowired FacilityRepository facilityRepository,
       @Autowired CmsOverlayRepository cmsOverlayRepository,
+      @Autowired FacilitySnapshots snapshots,
       @Value("${facilities.url}") String baseUrl,
       @Value("${facilities.base-path}") String basePath) {
     this.facilityRepository = facilityRepository;
     this.cmsOverlayRepository = cmsOverlayRepository;
+    this.snapshots = snapshots;
     String url = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
     String path = basePath.replaceAll("/$", "");
     path = path.isEmpty() ? path : path + "/";
@@ -168,6 +172,7 @@ public class CmsOverlayControllerV1 extends BaseCmsOverlayController {
     } else {
       updateFacilityData(
           existingFacilityEntity.get(), existingCmsOverlayEntity, id, datamartCmsOverlay);
+      snapshots.refresh();
       return ResponseEntity.ok().build();
     }
   }
@@ -0,0 +1,121 @@
+package gov.va.api.lighthouse.facilities;
+
+import com.google.common.base.Splitter;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Answers conditional GET requests for facility reads before they reach the controller, so a
+ * request with a matching If-None-Match header is answered with a 304 without querying,
+ * transforming, or serializing any facilities.
+ *
+ * <p>Validators come from the current {@link FacilitySnapshot}. Collection responses get a weak
+ * ETag from the snapshot fingerprint, which changes whenever any facility is added, removed, or
+ * updated. Single facility reads get a strong ETag from the facility version. Both also vary with
+ * the Accept header, since the same URL can produce JSON, GeoJSON, or CSV. Until the first
+ * snapshot is built, requests pass through without validators.
+ *
+ * <p>Requests that do not match are handed to the controller with the ETag kept as a request
+ * attribute. It is only added to the response once the handler has succeeded, by {@link
+ * ConditionalGetResponseAdvice} for response bodies and here for streamed bodies, so error
+ * responses never carry a validator that a resend could match.
+ */
+@RequiredArgsConstructor
+final class ConditionalGetInterceptor implements AsyncHandlerInterceptor {
+  static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".eTag";
+
+  @NonNull private final FacilitySnapshots snapshots;
+
+  /** Add the ETag computed for this request, if there is one and the response is a success. */
+  static void attachETag(HttpServletRequest request, HttpServletResponse response) {
+    Object eTag = request.getAttribute(ETAG_ATTRIBUTE);
+    if (eTag == null || response.isCommitted() || response.getStatus() / 100 != 2) {
+      return;
+    }
+    response.setHeader(HttpHeaders.ETAG, eTag.toString());
+  }
+
+  /** Weak ETag for a collection response built from the given snapshot. */
+  static String collectionETag(@NonNull FacilitySnapshot snapshot, String variant) {
+    return "W/\"" + snapshot.fingerprint() + "-" + variant + "\"";
+  }
+
+  /** Strong ETag for one representation of one version of a facility. */
+  static String facilityETag(@NonNull FacilityEntity.Pk id, int version, String variant) {
+    return "\"" + id.toIdString() + "-" + version + "-" + variant + "\"";
+  }
+
+  /**
+   * Whether If-None-Match names this ETag, using the weak comparison required for GET. A bare
+   * {@code *} is not honored, since the request may not be valid.
+   */
+  static boolean ifNoneMatch(HttpServletRequest request, String eTag) {
+    String opaque = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    for (String header : Collections.list(request.getHeaders(HttpHeaders.IF_NONE_MATCH))) {
+      for (String candidate : Splitter.on(',').trimResults().omitEmptyStrings().split(header)) {
+        if (opaque.equals(candidate.startsWith("W/") ? candidate.substring(2) : candidate)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static String variant(HttpServletRequest request) {
+    return Integer.toHexString(Objects.hashCode(request.getHeader(HttpHeaders.ACCEPT)));
+  }
+
+  /** Compute the validator for this request, if there is one. */
+  static Optional<String> eTag(@NonNull FacilitySnapshot snapshot, HttpServletRequest request) {
+    @SuppressWarnings("unchecked")
+    Map<String, String> uriVariables =
+        (Map<String, String>)
+            request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    String id = uriVariables == null ? null : uriVariables.get("id");
+    if (id == null) {
+      return Optional.of(collectionETag(snapshot, variant(request)));
+    }
+    return FacilityEntity.Pk.optionalFromIdString(id)
+        .flatMap(snapshot::findById)
+        .filter(entry -> entry.version() != null)
+        .map(entry -> facilityETag(entry.id(), entry.version(), variant(request)));
+  }
+
+  /** Streamed bodies are written after the handler returns, so the status is still a success. */
+  @Override
+  public void afterConcurrentHandlingStarted(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    attachETag(request, response);
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!HttpMethod.GET.matches(request.getMethod())
+        && !HttpMethod.HEAD.matches(request.getMethod())) {
+      return true;
+    }
+    Optional<String> eTag = snapshots.current().flatMap(snapshot -> eTag(snapshot, request));
+    if (eTag.isEmpty()) {
+      return true;
+    }
+    if (ifNoneMatch(request, eTag.get())) {
+      response.setHeader(HttpHeaders.ETAG, eTag.get());
+      response.setStatus(HttpStatus.NOT_MODIFIED.value());
+      return false;
+    }
+    request.setAttribute(ETAG_ATTRIBUTE, eTag.get());
+    return true;
+  }
+}
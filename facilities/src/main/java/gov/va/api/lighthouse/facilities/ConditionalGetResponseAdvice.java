@@ -0,0 +1,41 @@
+package gov.va.api.lighthouse.facilities;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the ETag computed by {@link ConditionalGetInterceptor} just before a response body is
+ * written. Error handlers write through here too, so the status decides whether it is added.
+ */
+@ControllerAdvice
+final class ConditionalGetResponseAdvice implements ResponseBodyAdvice<Object> {
+  @Override
+  public Object beforeBodyWrite(
+      Object body,
+      MethodParameter returnType,
+      MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (request instanceof ServletServerHttpRequest
+        && response instanceof ServletServerHttpResponse) {
+      ConditionalGetInterceptor.attachETag(
+          ((ServletServerHttpRequest) request).getServletRequest(),
+          ((ServletServerHttpResponse) response).getServletResponse());
+    }
+    return body;
+  }
+
+  @Override
+  public boolean supports(
+      MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+}
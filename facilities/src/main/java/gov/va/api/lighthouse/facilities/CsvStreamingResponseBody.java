@@ -0,0 +1,88 @@
+package gov.va.api.lighthouse.facilities;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.NonNull;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes a CSV response a chunk at a time. The rows of each chunk are transformed in parallel and
+ * then written in order, so only one chunk of rows is held in memory at a time.
+ */
+@Builder
+final class CsvStreamingResponseBody<T> implements StreamingResponseBody {
+  static final int DEFAULT_CHUNK_SIZE = 500;
+
+  @NonNull private final List<String> headers;
+
+  @NonNull private final Iterator<List<T>> chunks;
+
+  @NonNull private final Function<T, List<String>> toRow;
+
+  /** Split an in-memory list into chunks. */
+  static <T> Iterator<List<T>> chunksOf(@NonNull List<T> items, int chunkSize) {
+    return Iterators.partition(items.iterator(), chunkSize);
+  }
+
+  /**
+   * Page through a repository query one slice at a time, by key rather than by offset. Each slice
+   * after the first is loaded with the last item of the previous slice and the pageable of the
+   * first, so the query can seek past the items already written instead of skipping them again.
+   * The first slice is given so that errors loading it are reported before the response starts.
+   */
+  static <T> Iterator<List<T>> chunksOf(
+      @NonNull Slice<T> first, @NonNull BiFunction<T, Pageable, Slice<T>> sliceAfter) {
+    return new AbstractIterator<>() {
+      private Slice<T> pending = first;
+
+      private T last;
+
+      @Override
+      protected List<T> computeNext() {
+        Slice<T> current = pending;
+        if (current == null) {
+          if (last == null) {
+            return endOfData();
+          }
+          current = sliceAfter.apply(last, first.getPageable());
+        }
+        pending = null;
+        List<T> content = current.getContent();
+        last = current.hasNext() && !content.isEmpty() ? content.get(content.size() - 1) : null;
+        return content;
+      }
+    };
+  }
+
+  @Override
+  public void writeTo(OutputStream out) throws IOException {
+    CSVPrinter printer =
+        CSVFormat.DEFAULT
+            .withHeader(headers.toArray(String[]::new))
+            .print(new BufferedWriter(new OutputStreamWriter(out, UTF_8)));
+    while (chunks.hasNext()) {
+      List<List<String>> rows = chunks.next().parallelStream().map(toRow).collect(toList());
+      for (List<String> row : rows) {
+        printer.printRecord(row);
+      }
+      printer.flush();
+    }
+    printer.flush();
+  }
+}
@@ -0,0 +1,69 @@
+package gov.va.api.lighthouse.facilities;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Bounding box and version of a drive time band, loaded without the band itself. The version is
+ * enough to find an already decoded polygon for the band.
+ */
+@Value
+@AllArgsConstructor
+public class DriveTimeBandBounds {
+  DriveTimeBandEntity.Pk id;
+
+  double minLongitude;
+
+  double minLatitude;
+
+  double maxLongitude;
+
+  double maxLatitude;
+
+  Integer version;
+
+  /** Constructor for JPQL constructor expressions, which can not select the embedded ID. */
+  public DriveTimeBandBounds(
+      String stationNumber,
+      int fromMinutes,
+      int toMinutes,
+      double minLongitude,
+      double minLatitude,
+      double maxLongitude,
+      double maxLatitude,
+      Integer version) {
+    this(
+        DriveTimeBandEntity.Pk.of(stationNumber, fromMinutes, toMinutes),
+        minLongitude,
+        minLatitude,
+        maxLongitude,
+        maxLatitude,
+        version);
+  }
+
+  static DriveTimeBandBounds of(@NonNull DriveTimeBandEntity entity) {
+    return new DriveTimeBandBounds(
+        entity.id(),
+        entity.minLongitude(),
+        entity.minLatitude(),
+        entity.maxLongitude(),
+        entity.maxLatitude(),
+        entity.version());
+  }
+
+  double centerLatitude() {
+    return (minLatitude + maxLatitude) / 2;
+  }
+
+  double centerLongitude() {
+    return (minLongitude + maxLongitude) / 2;
+  }
+
+  boolean contains(double longitude, double latitude) {
+    return longitude >= minLongitude
+        && longitude <= maxLongitude
+        && latitude >= minLatitude
+        && latitude <= maxLatitude;
+  }
+}
@@ -0,0 +1,109 @@
+package gov.va.api.lighthouse.facilities;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts drive time bands still stored as base 64 or PSSG JSON text to binary band data. This
+ * runs once on a background thread after startup. Until a band is converted, nearby searches read
+ * its text band instead. The text band is kept, since instances older than band data still read it
+ * during a rolling deploy. A band updated while it is being converted is skipped, since updates
+ * write band data themselves.
+ */
+@Slf4j
+@Component
+public class DriveTimeBandDataBackfill {
+  private final DriveTimeBandRepository repository;
+
+  private final DriveTimeBandPolygons polygons;
+
+  private final DriveTimeBandIndex index;
+
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder()
+              .setNameFormat("drive-time-band-backfill-%d")
+              .setDaemon(true)
+              .build());
+
+  DriveTimeBandDataBackfill(
+      @Autowired DriveTimeBandRepository repository,
+      @Autowired DriveTimeBandPolygons polygons,
+      @Autowired DriveTimeBandIndex index) {
+    this.repository = repository;
+    this.polygons = polygons;
+    this.index = index;
+  }
+
+  /**
+   * Convert every band without band data on the calling thread and return the number converted.
+   * The band index is refreshed afterwards to pick up the new band versions.
+   */
+  int backfill() {
+    List<DriveTimeBandEntity.Pk> ids = repository.findIdsWithoutBandData();
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    log.info("Converting {} drive time bands to band data", ids.size());
+    long start = System.currentTimeMillis();
+    int converted = 0;
+    for (DriveTimeBandEntity.Pk id : ids) {
+      if (Thread.currentThread().isInterrupted()) {
+        break;
+      }
+      try {
+        if (convert(id)) {
+          converted++;
+        }
+      } catch (ObjectOptimisticLockingFailureException e) {
+        log.info("Skipping {}, it was updated while converting", id.name());
+      } catch (Exception e) {
+        log.error("Failed to convert {}", id.name(), e);
+      }
+    }
+    index.refresh();
+    log.info(
+        "Converted {} of {} drive time bands in {} ms",
+        converted,
+        ids.size(),
+        System.currentTimeMillis() - start);
+    return converted;
+  }
+
+  private boolean convert(DriveTimeBandEntity.Pk id) {
+    DriveTimeBandEntity entity = repository.findById(id).orElse(null);
+    if (entity == null || entity.bandData() != null || entity.band() == null) {
+      return false;
+    }
+    entity.bandData(NearbyUtils.toBandData(entity.band()));
+    repository.save(entity);
+    polygons.invalidate(id);
+    return true;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void initialize() {
+    executor.execute(
+        () -> {
+          try {
+            backfill();
+          } catch (Exception e) {
+            log.error("Failed to convert drive time bands", e);
+          }
+        });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+}
@@ -54,11 +54,34 @@ public class DriveTimeBandEntity {
   @Column(name = "month_year")
   private String monthYear;
 
+  /**
+   * Base 64 encoded band, or PSSG JSON for very old bands. Bands are read from band data when they
+   * have it, but uploads still write this in version 1 of the path encoding, for instances that
+   * only read this column. Those instances can not decode later versions.
+   */
   @Lob
   @Basic(fetch = FetchType.LAZY)
   @Column
   private String band;
 
+  /** Binary band created by {@link gov.va.api.lighthouse.facilities.api.pssg.PathEncoder}. */
+  @Lob
+  @Basic(fetch = FetchType.LAZY)
+  @Column(name = "band_data")
+  private byte[] bandData;
+
+  /**
+   * Simplified band data. Every vertex of the band is within the coarse tolerance, in degrees, of
+   * the coarse band, so containment only needs the full band for points that close to its edges.
+   */
+  @Lob
+  @Basic(fetch = FetchType.LAZY)
+  @Column(name = "coarse_band_data")
+  private byte[] coarseBandData;
+
+  @Column(name = "coarse_tolerance")
+  private Double coarseTolerance;
+
   @Version private Integer version;
 
   @Data
@@ -0,0 +1,254 @@
+package gov.va.api.lighthouse.facilities;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds a {@link BandRTree} over the bounds of every drive time band, so nearby searches can find
+ * candidate bands without querying the database. Like {@link FacilitySnapshots}, the tree is
+ * rebuilt on a single background thread and published by swapping the reference.
+ *
+ * <p>After each background rebuild, a {@link BandCoverage} grid is computed in parallel for every
+ * band that does not have one for its current version. Candidates whose coverage shows they can
+ * not contain a point are dropped, and candidates whose coverage shows they do contain it are
+ * reported as covering, so only bands with the point in a boundary cell need their polygon. Bands
+ * that have not been converted to band data yet get no coverage.
+ */
+@Slf4j
+@Component
+public class DriveTimeBandIndex {
+  /** Bands loaded at a time to compute their coverage. */
+  private static final int COVERAGE_CHUNK_SIZE = 100;
+
+  private final DriveTimeBandRepository repository;
+
+  private final int coverageCells;
+
+  private final Map<DriveTimeBandEntity.Pk, BandCoverage> coverage = new ConcurrentHashMap<>();
+
+  private final AtomicReference<BandRTree> current = new AtomicReference<>();
+
+  /** Hash of the ID and version of every band in the current tree. */
+  private volatile long fingerprint;
+
+  private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder()
+              .setNameFormat("drive-time-band-index-%d")
+              .setDaemon(true)
+              .build());
+
+  @Autowired
+  DriveTimeBandIndex(
+      DriveTimeBandRepository repository,
+      @Value("${facilities.nearby.band-coverage.cells:32}") int coverageCells) {
+    this.repository = repository;
+    this.coverageCells = Math.max(coverageCells, 0);
+  }
+
+  /**
+   * Bands whose bounds contain the point, limited to bands ending within the optional drive time,
+   * without the bands whose coverage shows they do not contain it.
+   */
+  List<DriveTimeBandBounds> candidates(double longitude, double latitude, Integer maxDriveTime) {
+    return search(longitude, latitude, maxDriveTime).bands();
+  }
+
+  private BandCoverage coverageOf(DriveTimeBandBounds band) {
+    BandCoverage bandCoverage = coverage.get(band.id());
+    if (bandCoverage == null
+        || band.version() == null
+        || bandCoverage.version() != band.version()) {
+      return null;
+    }
+    return bandCoverage;
+  }
+
+  /**
+   * Hash of the ID and version of every band in the current tree, the same for any tree of the same
+   * bands. Zero until the tree is built.
+   */
+  long fingerprint() {
+    return fingerprint;
+  }
+
+  private static long fingerprint(List<DriveTimeBandBounds> bands) {
+    long hash = 0;
+    for (DriveTimeBandBounds band : bands) {
+      hash +=
+          Hashing.murmur3_128()
+              .newHasher()
+              .putUnencodedChars(band.id().name())
+              .putInt(band.version() == null ? -1 : band.version())
+              .hash()
+              .asLong();
+    }
+    return hash;
+  }
+
+  /** Number of bands with coverage for their current version. */
+  int coveredSize() {
+    return coverage.size();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void initialize() {
+    refresh();
+  }
+
+  /** Rebuild periodically to pick up bands updated by other instances of this application. */
+  @Scheduled(
+      initialDelayString = "${facilities.nearby.band-index.refresh-interval-millis:300000}",
+      fixedDelayString = "${facilities.nearby.band-index.refresh-interval-millis:300000}")
+  void periodicRefresh() {
+    refresh();
+  }
+
+  /** Rebuild in the background. The current tree continues to be used until then. */
+  public void refresh() {
+    if (!refreshPending.compareAndSet(false, true)) {
+      return;
+    }
+    executor.execute(
+        () -> {
+          refreshPending.set(false);
+          try {
+            updateCoverage(rebuild());
+          } catch (Exception e) {
+            log.error("Failed to rebuild drive time band index", e);
+          }
+        });
+  }
+
+  /** Rebuild and publish a new tree on the calling thread. */
+  synchronized BandRTree rebuild() {
+    long start = System.currentTimeMillis();
+    List<DriveTimeBandBounds> bands = repository.findAllBounds();
+    BandRTree tree = BandRTree.of(bands);
+    fingerprint = fingerprint(bands);
+    current.set(tree);
+    log.info(
+        "Drive time band index built with {} bands in {} ms",
+        tree.size(),
+        System.currentTimeMillis() - start);
+    return tree;
+  }
+
+  /**
+   * Candidate bands of the point, as {@link #candidates(double, double, Integer)}, and which of
+   * them are known to contain it. If the tree has not been built yet, it is built on the calling
+   * thread.
+   */
+  Candidates search(double longitude, double latitude, Integer maxDriveTime) {
+    BandRTree tree = current.get();
+    if (tree == null) {
+      tree = rebuild();
+    }
+    List<DriveTimeBandBounds> bands = new ArrayList<>();
+    Set<DriveTimeBandEntity.Pk> covering = new HashSet<>();
+    for (DriveTimeBandBounds band : tree.containing(longitude, latitude)) {
+      if (maxDriveTime != null && band.id().toMinutes() > maxDriveTime) {
+        continue;
+      }
+      BandCoverage bandCoverage = coverageOf(band);
+      int cell =
+          bandCoverage == null
+              ? BandCoverage.BOUNDARY
+              : bandCoverage.classify(longitude, latitude);
+      if (cell == BandCoverage.OUTSIDE) {
+        continue;
+      }
+      if (cell == BandCoverage.INSIDE) {
+        covering.add(band.id());
+      }
+      bands.add(band);
+    }
+    return new Candidates(bands, covering);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Compute coverage for the bands of the tree that have none for their version, and drop the
+   * coverage of bands that are no longer in it. Bands are loaded in chunks, in parallel.
+   */
+  void updateCoverage(BandRTree tree) {
+    if (coverageCells == 0) {
+      return;
+    }
+    long start = System.currentTimeMillis();
+    Set<DriveTimeBandEntity.Pk> ids =
+        tree.bands().stream().map(DriveTimeBandBounds::id).collect(toSet());
+    coverage.keySet().retainAll(ids);
+    List<DriveTimeBandEntity.Pk> missing =
+        tree.bands().stream()
+            .filter(b -> b.version() != null && coverageOf(b) == null)
+            .map(DriveTimeBandBounds::id)
+            .collect(toList());
+    Lists.partition(missing, COVERAGE_CHUNK_SIZE).parallelStream()
+        .flatMap(chunk -> repository.findPayloadsByIdIn(chunk).stream())
+        .filter(payload -> payload.bandData() != null && payload.version() != null)
+        .forEach(
+            payload -> {
+              try {
+                coverage.put(
+                    payload.id(),
+                    BandCoverage.of(
+                        PathEncoder.create().decodeRings(payload.bandData()),
+                        payload.version(),
+                        coverageCells));
+              } catch (Exception e) {
+                log.warn("Failed to compute coverage of {}", payload.id(), e);
+              }
+            });
+    log.info(
+        "Drive time band coverage computed for {} of {} bands in {} ms",
+        missing.size(),
+        ids.size(),
+        System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Candidate bands of a point, and the IDs of the candidates whose coverage shows they contain
+   * the point without testing their polygon.
+   */
+  @lombok.Value
+  static class Candidates {
+    List<DriveTimeBandBounds> bands;
+
+    Set<DriveTimeBandEntity.Pk> covering;
+
+    /** The candidates that need their polygon tested. */
+    List<DriveTimeBandBounds> uncovered() {
+      return bands.stream().filter(b -> !covering.contains(b.id())).collect(toList());
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package gov.va.api.lighthouse.facilities;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Encoded band of a drive time band, loaded without the rest of the entity. Bands have either
+ * binary band data or, until they are converted, a legacy text band. Bands simplified at upload
+ * also have coarse band data.
+ */
+@Value
+@AllArgsConstructor
+public class DriveTimeBandPayload {
+  DriveTimeBandEntity.Pk id;
+
+  Integer version;
+
+  byte[] bandData;
+
+  String band;
+
+  byte[] coarseBandData;
+
+  Double coarseTolerance;
+
+  /** Constructor for JPQL constructor expressions, which can not select the embedded ID. */
+  public DriveTimeBandPayload(
+      String stationNumber,
+      int fromMinutes,
+      int toMinutes,
+      Integer version,
+      byte[] bandData,
+      String band,
+      byte[] coarseBandData,
+      Double coarseTolerance) {
+    this(
+        DriveTimeBandEntity.Pk.of(stationNumber, fromMinutes, toMinutes),
+        version,
+        bandData,
+        band,
+        coarseBandData,
+        coarseTolerance);
+  }
+
+  static DriveTimeBandPayload of(@NonNull DriveTimeBandEntity entity) {
+    return new DriveTimeBandPayload(
+        entity.id(),
+        entity.version(),
+        entity.bandData(),
+        entity.band(),
+        entity.coarseBandData(),
+        entity.coarseTolerance());
+  }
+}
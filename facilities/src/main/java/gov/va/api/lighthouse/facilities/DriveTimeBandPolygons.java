@@ -0,0 +1,197 @@
+package gov.va.api.lighthouse.facilities;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.math.LongMath;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of decoded drive time band polygons, so nearby searches only load and decode a band the
+ * first time it is seen. Entries are keyed by band ID and entity version, so an updated band is
+ * decoded again and the stale polygon is invalidated. The cache is bounded by the total number of
+ * vertices. Bands with a coarse band are cached as coarse polygons, which keep the much smaller
+ * encoded full band to decode when a point near their edges is tested. Those encoded bytes count
+ * toward the bound too, as vertices of about the same size. The decoded full band is cached as an
+ * entry of its own, so points near the edges of a band only decode it once.
+ */
+@Component
+public class DriveTimeBandPolygons {
+  /** Approximate size of a decoded vertex, an edge of four doubles, to weigh encoded bands. */
+  static final int BYTES_PER_VERTEX = 4 * Double.BYTES;
+
+  private final Cache<Key, Entry> cache;
+
+  @Autowired
+  DriveTimeBandPolygons(
+      @Value("${facilities.nearby.band-cache.max-vertices:4000000}") long maxVertices) {
+    cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(Math.max(maxVertices, 0))
+            .weigher((Key k, Entry e) -> e.weight())
+            .recordStats()
+            .build();
+  }
+
+  private static int encodedBytes(byte[] bandData, String band) {
+    if (bandData != null) {
+      return bandData.length;
+    }
+    return band == null ? 0 : band.length();
+  }
+
+  /**
+   * Decode the band and cache it under its version, if it has one. Coarse polygons only keep the
+   * encoding of the full band that is decoded, not the legacy text copy of the band data.
+   */
+  private BandPolygon decode(DriveTimeBandPayload payload) {
+    DriveTimeBandEntity.Pk id = payload.id();
+    byte[] bandData = payload.bandData();
+    String band = bandData == null ? payload.band() : null;
+    Supplier<BandPolygon> decodeFull = () -> NearbyUtils.toPolygon(id, bandData, band);
+    if (payload.version() == null) {
+      return NearbyUtils.toPolygon(payload, decodeFull);
+    }
+    Key fullKey = new Key(id, payload.version(), true);
+    BandPolygon polygon = NearbyUtils.toPolygon(payload, () -> full(fullKey, decodeFull));
+    cache.put(
+        new Key(id, payload.version(), false),
+        Entry.of(polygon, polygon.isCoarse() ? encodedBytes(bandData, band) : 0));
+    return polygon;
+  }
+
+  /** The full polygon of a coarse band, decoded the first time it is needed. */
+  @SneakyThrows
+  private BandPolygon full(Key key, Supplier<BandPolygon> decode) {
+    try {
+      return cache.get(key, () -> Entry.of(decode.get(), 0)).polygon();
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Get the decoded polygons of the bands, keyed by band ID. Polygons already decoded for the
+   * version of a band are reused. The encoded bands of the rest are fetched with a single call to
+   * the loader, then decoded and cached under the version that was loaded. Bands without a version
+   * are decoded but not cached.
+   */
+  Map<DriveTimeBandEntity.Pk, BandPolygon> getAll(
+      @NonNull Collection<DriveTimeBandBounds> bands,
+      @NonNull Function<Collection<DriveTimeBandEntity.Pk>, List<DriveTimeBandPayload>> loader) {
+    Map<DriveTimeBandEntity.Pk, BandPolygon> polygons = new HashMap<>(bands.size());
+    List<DriveTimeBandEntity.Pk> missing = new ArrayList<>();
+    for (DriveTimeBandBounds band : bands) {
+      Entry entry =
+          band.version() == null
+              ? null
+              : cache.getIfPresent(new Key(band.id(), band.version(), false));
+      if (entry == null) {
+        missing.add(band.id());
+      } else {
+        polygons.put(band.id(), entry.polygon());
+      }
+    }
+    if (missing.isEmpty()) {
+      return polygons;
+    }
+    for (DriveTimeBandPayload payload : loader.apply(missing)) {
+      polygons.put(payload.id(), decode(payload));
+    }
+    return polygons;
+  }
+
+  /** Drop every cached version of the band, coarse and full. */
+  void invalidate(@NonNull DriveTimeBandEntity.Pk id) {
+    cache.asMap().keySet().removeIf(k -> k.id().equals(id));
+  }
+
+  void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  Stats stats() {
+    CacheStats stats = cache.stats();
+    long vertices = 0;
+    long weight = 0;
+    for (Entry entry : cache.asMap().values()) {
+      vertices += entry.polygon().vertexCount();
+      weight += entry.weight();
+    }
+    return Stats.builder()
+        .size(cache.size())
+        .vertices(vertices)
+        .weight(weight)
+        .hitCount(stats.hitCount())
+        .missCount(stats.missCount())
+        .hitRate(stats.hitRate())
+        .evictionCount(stats.evictionCount())
+        .build();
+  }
+
+  /** A decoded polygon and its weight in vertices, including any encoded band it keeps. */
+  @lombok.Value
+  static class Entry {
+    BandPolygon polygon;
+
+    int weight;
+
+    static Entry of(BandPolygon polygon, int retainedBytes) {
+      return new Entry(
+          polygon,
+          Ints.saturatedCast(
+              polygon.vertexCount()
+                  + LongMath.divide(retainedBytes, BYTES_PER_VERTEX, RoundingMode.CEILING)));
+    }
+  }
+
+  @lombok.Value
+  static class Key {
+    DriveTimeBandEntity.Pk id;
+
+    int version;
+
+    /** Whether this is the full polygon of a coarse band. */
+    boolean full;
+  }
+
+  @lombok.Value
+  @Builder
+  @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+  static class Stats {
+    long size;
+
+    long vertices;
+
+    long weight;
+
+    long hitCount;
+
+    long missCount;
+
+    double hitRate;
+
+    long evictionCount;
+  }
+}
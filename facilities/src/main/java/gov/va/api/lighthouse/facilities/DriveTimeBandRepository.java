@@ -1,20 +1,12 @@
 package gov.va.api.lighthouse.facilities;
 
 import gov.va.api.health.autoconfig.logging.Loggable;
-import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Predicate;
-import javax.persistence.criteria.Root;
-import lombok.Builder;
-import lombok.NonNull;
-import lombok.Value;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 @Loggable
 public interface DriveTimeBandRepository
@@ -23,36 +15,26 @@ public interface DriveTimeBandRepository
   @Query("select distinct e.monthYear from #{#entityName} e")
   List<String> findAllBandVersions();
 
+  @Query(
+      "select new gov.va.api.lighthouse.facilities.DriveTimeBandBounds(e.id.stationNumber,"
+          + " e.id.fromMinutes, e.id.toMinutes, e.minLongitude, e.minLatitude, e.maxLongitude,"
+          + " e.maxLatitude, e.version) from #{#entityName} e")
+  List<DriveTimeBandBounds> findAllBounds();
+
   @Query("select e.id from #{#entityName} e")
   List<DriveTimeBandEntity.Pk> findAllIds();
 
-  @Query("select min(e.monthYear) from #{#entityName} e")
-  String getDefaultBandVersion();
-
-  @Value
-  @Builder
-  class MinMaxSpecification implements Specification<DriveTimeBandEntity> {
-    @NonNull BigDecimal longitude;
+  @Query("select e.id from #{#entityName} e where e.bandData is null")
+  List<DriveTimeBandEntity.Pk> findIdsWithoutBandData();
 
-    @NonNull BigDecimal latitude;
+  @Query(
+      "select new gov.va.api.lighthouse.facilities.DriveTimeBandPayload(e.id.stationNumber,"
+          + " e.id.fromMinutes, e.id.toMinutes, e.version, e.bandData, e.band,"
+          + " e.coarseBandData, e.coarseTolerance)"
+          + " from #{#entityName} e where e.id in :ids")
+  List<DriveTimeBandPayload> findPayloadsByIdIn(
+      @Param("ids") Collection<DriveTimeBandEntity.Pk> ids);
 
-    Integer maxDriveTime;
-
-    @Override
-    public Predicate toPredicate(
-        Root<DriveTimeBandEntity> root,
-        CriteriaQuery<?> criteriaQuery,
-        CriteriaBuilder criteriaBuilder) {
-      List<Predicate> predicates = new ArrayList<>(5);
-      predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("minLongitude"), longitude));
-      predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("maxLongitude"), longitude));
-      predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("minLatitude"), latitude));
-      predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("maxLatitude"), latitude));
-      if (maxDriveTime != null) {
-        predicates.add(
-            criteriaBuilder.lessThanOrEqualTo(root.get("id").get("toMinutes"), maxDriveTime));
-      }
-      return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-    }
-  }
+  @Query("select min(e.monthYear) from #{#entityName} e")
+  String getDefaultBandVersion();
 }
@@ -0,0 +1,297 @@
+package gov.va.api.lighthouse.facilities;
+
+import static java.util.stream.Collectors.toList;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Upserts parsed PSSG drive time bands in JDBC batches. Batches are written by a fixed pool of
+ * threads, and an upload blocks once that many batches are in flight, so a large upload holds no
+ * more than a few batches of bands in memory at a time.
+ *
+ * <p>The JdbcTemplate bean belongs to the facilities collector data source, so this uses its own
+ * template on the application data source.
+ */
+@Slf4j
+@Component
+public class DriveTimeBandWriter {
+  private static final String SELECT_EXISTING =
+      "select station_number, from_minutes, to_minutes from app.drive_time_band"
+          + " where station_number in (%s)";
+
+  private static final String UPDATE =
+      "update app.drive_time_band set min_latitude = ?, min_longitude = ?, max_latitude = ?,"
+          + " max_longitude = ?, month_year = ?, band = ?, band_data = ?,"
+          + " coarse_band_data = ?, coarse_tolerance = ?, version = version + 1"
+          + " where station_number = ? and from_minutes = ? and to_minutes = ?";
+
+  private static final String INSERT =
+      "insert into app.drive_time_band (station_number, from_minutes, to_minutes, min_latitude,"
+          + " min_longitude, max_latitude, max_longitude, month_year, band, band_data,"
+          + " coarse_band_data, coarse_tolerance, version)"
+          + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+  private final JdbcTemplate jdbc;
+
+  private final int batchSize;
+
+  private final int parallelism;
+
+  private final double simplifyTolerance;
+
+  private final ExecutorService executor;
+
+  DriveTimeBandWriter(
+      @Autowired DataSource dataSource,
+      @Value("${facilities.pssg.upload.batch-size:50}") int batchSize,
+      @Value("${facilities.pssg.upload.parallelism:4}") int parallelism,
+      @Value("${facilities.pssg.upload.simplify-tolerance:0}") double simplifyTolerance) {
+    this.jdbc = new JdbcTemplate(dataSource);
+    this.simplifyTolerance = Math.max(0, simplifyTolerance);
+    this.batchSize = Math.max(1, batchSize);
+    this.parallelism = Math.max(1, parallelism);
+    this.executor =
+        Executors.newFixedThreadPool(
+            this.parallelism,
+            new ThreadFactoryBuilder()
+                .setNameFormat("drive-time-band-writer-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  private Set<DriveTimeBandEntity.Pk> existing(Collection<DriveTimeBandEntity.Pk> ids) {
+    List<String> stations =
+        ids.stream().map(DriveTimeBandEntity.Pk::stationNumber).distinct().collect(toList());
+    String placeholders = String.join(", ", Collections.nCopies(stations.size(), "?"));
+    String sql = String.format(SELECT_EXISTING, placeholders);
+    return new HashSet<>(
+        jdbc.query(
+            sql,
+            (rs, rowNum) ->
+                DriveTimeBandEntity.Pk.of(
+                    rs.getString("station_number"),
+                    rs.getInt("from_minutes"),
+                    rs.getInt("to_minutes")),
+            stations.toArray()));
+  }
+
+  private void insert(List<PssgBandParser.Band> bands) {
+    jdbc.batchUpdate(
+        INSERT,
+        bands,
+        bands.size(),
+        (ps, band) -> {
+          ps.setString(1, band.id().stationNumber());
+          ps.setInt(2, band.id().fromMinutes());
+          ps.setInt(3, band.id().toMinutes());
+          ps.setDouble(4, band.minLatitude());
+          ps.setDouble(5, band.minLongitude());
+          ps.setDouble(6, band.maxLatitude());
+          ps.setDouble(7, band.maxLongitude());
+          ps.setString(8, band.monthYear());
+          ps.setString(9, band.legacyBand());
+          ps.setBytes(10, band.bandData());
+          ps.setBytes(11, band.coarseBandData());
+          ps.setObject(12, band.coarseTolerance(), Types.DOUBLE);
+        });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Tolerance, in degrees, used to simplify uploaded bands into coarse bands. Zero disables
+   * simplification.
+   */
+  double simplifyTolerance() {
+    return simplifyTolerance;
+  }
+
+  private void update(List<PssgBandParser.Band> bands) {
+    jdbc.batchUpdate(
+        UPDATE,
+        bands,
+        bands.size(),
+        (ps, band) -> {
+          ps.setDouble(1, band.minLatitude());
+          ps.setDouble(2, band.minLongitude());
+          ps.setDouble(3, band.maxLatitude());
+          ps.setDouble(4, band.maxLongitude());
+          ps.setString(5, band.monthYear());
+          ps.setString(6, band.legacyBand());
+          ps.setBytes(7, band.bandData());
+          ps.setBytes(8, band.coarseBandData());
+          ps.setObject(9, band.coarseTolerance(), Types.DOUBLE);
+          ps.setString(10, band.id().stationNumber());
+          ps.setInt(11, band.id().fromMinutes());
+          ps.setInt(12, band.id().toMinutes());
+        });
+  }
+
+  /** Start an upload. Bands passed to the upload are written as batches fill up. */
+  Upload upload() {
+    return new Upload(this);
+  }
+
+  /**
+   * Write a batch of bands, updating those that exist and inserting the rest. If the band is
+   * repeated in the batch, the last one wins. A band inserted by a concurrent upload between the
+   * check and the insert fails the insert, in which case the batch is tried once more as updates.
+   */
+  Result write(List<PssgBandParser.Band> bands) {
+    Map<DriveTimeBandEntity.Pk, PssgBandParser.Band> bandsById = new LinkedHashMap<>();
+    bands.forEach(band -> bandsById.put(band.id(), band));
+    try {
+      return writeOnce(bandsById);
+    } catch (DuplicateKeyException e) {
+      log.info("Bands were created during the upload, trying again: {}", e.getMessage());
+      return writeOnce(bandsById);
+    }
+  }
+
+  private Result writeOnce(Map<DriveTimeBandEntity.Pk, PssgBandParser.Band> bandsById) {
+    Set<DriveTimeBandEntity.Pk> existing = existing(bandsById.keySet());
+    List<PssgBandParser.Band> inserts = new ArrayList<>();
+    List<PssgBandParser.Band> updates = new ArrayList<>();
+    for (PssgBandParser.Band band : bandsById.values()) {
+      if (existing.contains(band.id())) {
+        updates.add(band);
+      } else {
+        inserts.add(band);
+      }
+    }
+    if (!updates.isEmpty()) {
+      update(updates);
+    }
+    if (!inserts.isEmpty()) {
+      insert(inserts);
+    }
+    return new Result(
+        inserts.stream().map(PssgBandParser.Band::id).collect(toList()),
+        updates.stream().map(PssgBandParser.Band::id).collect(toList()));
+  }
+
+  /** IDs of the bands created and updated by an upload, in the order they were uploaded. */
+  @lombok.Value
+  static class Result {
+    List<DriveTimeBandEntity.Pk> created;
+
+    List<DriveTimeBandEntity.Pk> updated;
+  }
+
+  /**
+   * An upload in progress. Uploads are used by a single request thread, but their batches are
+   * written on the writer's threads.
+   */
+  static class Upload implements Consumer<PssgBandParser.Band> {
+    private final DriveTimeBandWriter writer;
+
+    private final Semaphore inFlight;
+
+    private final List<Future<Result>> batches = new ArrayList<>();
+
+    private Throwable failure;
+
+    private List<PssgBandParser.Band> batch;
+
+    Upload(DriveTimeBandWriter writer) {
+      this.writer = writer;
+      this.inFlight = new Semaphore(writer.parallelism);
+      this.batch = new ArrayList<>(writer.batchSize);
+    }
+
+    @Override
+    public void accept(PssgBandParser.Band band) {
+      batch.add(band);
+      if (batch.size() >= writer.batchSize) {
+        submit();
+      }
+    }
+
+    /**
+     * Write the last partial batch and wait for every batch to finish. The first failure of any
+     * batch is rethrown once they have all finished.
+     */
+    @SneakyThrows
+    Result finish() {
+      submit();
+      Result result = written();
+      if (failure != null) {
+        throw failure;
+      }
+      return result;
+    }
+
+    @SneakyThrows
+    private void submit() {
+      if (batch.isEmpty()) {
+        return;
+      }
+      List<PssgBandParser.Band> bands = batch;
+      batch = new ArrayList<>(writer.batchSize);
+      inFlight.acquire();
+      try {
+        batches.add(
+            writer.executor.submit(
+                () -> {
+                  try {
+                    return writer.write(bands);
+                  } finally {
+                    inFlight.release();
+                  }
+                }));
+      } catch (RuntimeException e) {
+        inFlight.release();
+        throw e;
+      }
+    }
+
+    /**
+     * Wait for every batch submitted so far, even if this thread is interrupted, and return the
+     * bands written by those that succeeded. Bands not submitted in a batch yet are not written.
+     */
+    Result written() {
+      List<DriveTimeBandEntity.Pk> created = new ArrayList<>();
+      List<DriveTimeBandEntity.Pk> updated = new ArrayList<>();
+      for (Future<Result> future : batches) {
+        try {
+          Result result = Uninterruptibles.getUninterruptibly(future);
+          created.addAll(result.created());
+          updated.addAll(result.updated());
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+        }
+      }
+      return new Result(created, updated);
+    }
+  }
+}
@@ -22,6 +22,7 @@ import gov.va.api.lighthouse.facilities.api.v0.GeoFacility;
 import gov.va.api.lighthouse.facilities.api.v0.GeoFacilityReadResponse;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -29,22 +30,26 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 import javax.validation.constraints.Min;
 import lombok.Builder;
 import lombok.Data;
 import lombok.SneakyThrows;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Validated
 @RestController
@@ -102,58 +107,24 @@ public class FacilitiesControllerV0 {
   }
 
   /** Get all facilities as CSV. */
-  @SneakyThrows
   @GetMapping(value = "/facilities/all", produces = "text/csv")
-  String allCsv() {
-    List<List<String>> rows =
-        facilityRepository.findAllProjectedBy().stream()
-            .parallel()
-            .map(e -> CsvTransformerV0.builder().facility(facility(e)).build().toRow())
-            .collect(toList());
-    StringBuilder sb = new StringBuilder();
-    try (CSVPrinter printer =
-        CSVFormat.DEFAULT
-            .withHeader(CsvTransformerV0.HEADERS.stream().toArray(String[]::new))
-            .print(sb)) {
-      for (List<String> row : rows) {
-        printer.printRecord(row);
-      }
-      return sb.toString();
-    }
+  StreamingResponseBody allCsv() {
+    Slice<HasFacilityPayload> first =
+        facilityRepository.findAllProjectedBy(
+            PageRequest.of(
+                0, CsvStreamingResponseBody.DEFAULT_CHUNK_SIZE, FacilityEntity.naturalOrder()));
+    return CsvStreamingResponseBody.<HasFacilityPayload>builder()
+        .headers(CsvTransformerV0.HEADERS)
+        .chunks(
+            CsvStreamingResponseBody.chunksOf(first, facilityRepository::findAllProjectedAfter))
+        .toRow(e -> CsvTransformerV0.builder().facility(facility(e)).build().toRow())
+        .build();
   }
 
-  private List<FacilityEntity> entitiesByBoundingBox(
-      List<BigDecimal> bbox, String rawType, List<String> rawServices, Boolean rawMobile) {
-    if (bbox.size() != 4) {
-      throw new ExceptionsUtils.InvalidParameter("bbox", bbox);
+  private List<FacilityEntity> entitiesByIds(List<FacilityEntity.Pk> pks) {
+    if (pks.isEmpty()) {
+      return emptyList();
     }
-    FacilityEntity.Type facilityType = validateFacilityType(rawType);
-    Set<ServiceType> services = validateServices(rawServices);
-
-    // lng lat lng lat
-    List<FacilityEntity> allEntities =
-        facilityRepository.findAll(
-            FacilityRepository.BoundingBoxSpecification.builder()
-                .minLongitude(bbox.get(0).min(bbox.get(2)))
-                .maxLongitude(bbox.get(0).max(bbox.get(2)))
-                .minLatitude(bbox.get(1).min(bbox.get(3)))
-                .maxLatitude(bbox.get(1).max(bbox.get(3)))
-                .facilityType(facilityType)
-                .services(services)
-                .mobile(rawMobile)
-                .build());
-    double centerLng = (bbox.get(0).doubleValue() + bbox.get(2).doubleValue()) / 2;
-    double centerLat = (bbox.get(1).doubleValue() + bbox.get(3).doubleValue()) / 2;
-    return allEntities.stream()
-        .sorted(
-            (left, right) ->
-                Double.compare(
-                    distance(left, centerLng, centerLat), distance(right, centerLng, centerLat)))
-        .collect(toList());
-  }
-
-  private List<FacilityEntity> entitiesByIds(String ids) {
-    List<FacilityEntity.Pk> pks = entityIds(ids);
     Map<FacilityEntity.Pk, FacilityEntity> entities =
         facilityRepository.findByIdIn(pks).stream()
             .collect(toMap(e -> e.id(), Function.identity()));
@@ -161,14 +132,18 @@ public class FacilitiesControllerV0 {
   }
 
   @SneakyThrows
-  private List<DistanceEntity> entitiesByLatLong(
+  private Page<DistanceEntity> entitiesPageByLatLong(
       BigDecimal longitude,
       BigDecimal latitude,
       Optional<BigDecimal> radius,
       String ids,
       String rawType,
       List<String> rawServices,
-      Boolean rawMobile) {
+      Boolean rawMobile,
+      int page,
+      int perPage) {
+    checkArgument(page >= 1);
+    checkArgument(perPage >= 1);
     FacilityEntity.Type facilityType = validateFacilityType(rawType);
     Set<ServiceType> services = validateServices(rawServices);
     List<FacilityEntity> entities =
@@ -181,19 +156,89 @@ public class FacilitiesControllerV0 {
                 .build());
     double lng = longitude.doubleValue();
     double lat = latitude.doubleValue();
-    return entities.stream()
-        .map(
-            e ->
-                DistanceEntity.builder()
-                    .entity(e)
-                    .distance(BigDecimal.valueOf(haversine(e, lng, lat)))
-                    .build())
-        .filter(
-            radius.isPresent()
-                ? de -> radius.get().compareTo(de.distance().abs()) >= 0
-                : de -> true)
-        .sorted((left, right) -> left.distance().compareTo(right.distance()))
-        .collect(toList());
+    double miles = radius.map(BigDecimal::doubleValue).orElse(Double.POSITIVE_INFINITY);
+    List<FacilityEntity> candidates = new ArrayList<>();
+    DoubleStream.Builder candidateDistances = DoubleStream.builder();
+    for (FacilityEntity e : entities) {
+      double distance = haversine(e, lng, lat);
+      if (distance <= miles) {
+        candidates.add(e);
+        candidateDistances.add(distance);
+      }
+    }
+    double[] distances = candidateDistances.build().toArray();
+    int[] nearest = NearestHeap.nearest(distances, NearestHeap.pageLimit(page, perPage));
+    return new PageImpl<>(
+        IntStream.of(NearestHeap.pageOf(nearest, page, perPage))
+            .mapToObj(
+                i ->
+                    DistanceEntity.builder()
+                        .entity(candidates.get(i))
+                        .distance(BigDecimal.valueOf(distances[i]))
+                        .build())
+            .collect(toList()),
+        PageRequest.of(page - 1, perPage),
+        candidates.size());
+  }
+
+  private Page<FacilityEntity> entitiesPageByVisn(String visn, int page, int perPage) {
+    checkArgument(page >= 1);
+    checkArgument(perPage >= 1);
+    return facilityRepository.findByVisn(
+        visn, PageRequest.of(page - 1, perPage, FacilityEntity.naturalOrder()));
+  }
+
+  /** Requested facility IDs that exist, in the order they were requested. */
+  private List<FacilityEntity.Pk> existingIds(String ids) {
+    List<FacilityEntity.Pk> pks = entityIds(ids);
+    if (pks.isEmpty()) {
+      return emptyList();
+    }
+    Set<FacilityEntity.Pk> existing = Set.copyOf(facilityRepository.findIdsByIdIn(pks));
+    return pks.stream().filter(existing::contains).collect(toList());
+  }
+
+  /** Page of IDs of the facilities in the bounding box, nearest to the center of the box first. */
+  private Page<FacilityEntity.Pk> idsPageByBoundingBox(
+      List<BigDecimal> bbox,
+      String rawType,
+      List<String> rawServices,
+      Boolean rawMobile,
+      int page,
+      int perPage) {
+    checkArgument(page >= 1);
+    checkArgument(perPage >= 1);
+    if (bbox.size() != 4) {
+      throw new ExceptionsUtils.InvalidParameter("bbox", bbox);
+    }
+    FacilityEntity.Type facilityType = validateFacilityType(rawType);
+    Set<ServiceType> services = validateServices(rawServices);
+
+    // lng lat lng lat
+    List<FacilityLocationRepository.FacilityLocation> locations =
+        facilityRepository.findLocations(
+            FacilityRepository.BoundingBoxSpecification.builder()
+                .minLongitude(bbox.get(0).min(bbox.get(2)))
+                .maxLongitude(bbox.get(0).max(bbox.get(2)))
+                .minLatitude(bbox.get(1).min(bbox.get(3)))
+                .maxLatitude(bbox.get(1).max(bbox.get(3)))
+                .facilityType(facilityType)
+                .services(services)
+                .mobile(rawMobile)
+                .build());
+    double centerLng = (bbox.get(0).doubleValue() + bbox.get(2).doubleValue()) / 2;
+    double centerLat = (bbox.get(1).doubleValue() + bbox.get(3).doubleValue()) / 2;
+    double[] distances =
+        locations.stream()
+            .mapToDouble(l -> distance(l.longitude(), l.latitude(), centerLng, centerLat))
+            .toArray();
+    int[] nearest = NearestHeap.nearest(distances, NearestHeap.pageLimit(page, perPage));
+    return new PageImpl<>(
+        IntStream.of(NearestHeap.pageOf(nearest, page, perPage))
+            .mapToObj(i -> locations.get(i).id())
+            .collect(toList()),
+        PageRequest.of(page - 1, perPage),
+        locations.size());
   }
 
   private Page<FacilityEntity> entitiesPageByState(
@@ -254,6 +299,21 @@ public class FacilitiesControllerV0 {
     return opt.get();
   }
 
+  /**
+   * Set the version validators of a single facility read and check them against the request.
+   * Unversioned facilities get no validators.
+   */
+  private static boolean notModified(
+      FacilityEntity entity, String variant, ServletWebRequest request) {
+    if (entity.version() == null) {
+      return false;
+    }
+    String eTag =
+        ConditionalGetInterceptor.facilityETag(entity.id(), entity.version(), "v0-" + variant);
+    long lastModified = entity.lastUpdated() == null ? -1 : entity.lastUpdated().toEpochMilli();
+    return request.checkNotModified(eTag, lastModified);
+  }
+
   /** Get all facility IDs as a list by Type. */
   @GetMapping(
       value = "/ids",
@@ -285,9 +345,14 @@ public class FacilitiesControllerV0 {
     return GeoFacilitiesResponse.builder()
         .type(GeoFacilitiesResponse.Type.FeatureCollection)
         .features(
-            page(entitiesByBoundingBox(bbox, type, services, mobile), page, perPage).stream()
-                .map(e -> geoFacility(facility(e)))
-                .collect(toList()))
+            perPage == 0
+                ? emptyList()
+                : entitiesByIds(
+                        idsPageByBoundingBox(bbox, type, services, mobile, page, perPage)
+                            .getContent())
+                    .stream()
+                    .map(e -> geoFacility(facility(e)))
+                    .collect(toList()))
         .build();
   }
 
@@ -303,7 +368,7 @@ public class FacilitiesControllerV0 {
     return GeoFacilitiesResponse.builder()
         .type(GeoFacilitiesResponse.Type.FeatureCollection)
         .features(
-            page(entitiesByIds(ids), page, perPage).stream()
+            entitiesByIds(page(existingIds(ids), page, perPage)).stream()
                 .map(e -> geoFacility(facility(e)))
                 .collect(toList()))
         .build();
@@ -330,20 +395,21 @@ public class FacilitiesControllerV0 {
     return GeoFacilitiesResponse.builder()
         .type(GeoFacilitiesResponse.Type.FeatureCollection)
         .features(
-            page(
-                    entitiesByLatLong(
+            perPage == 0
+                ? emptyList()
+                : entitiesPageByLatLong(
                         longitude,
                         latitude,
                         Optional.ofNullable(radius),
                         ids,
                         type,
                         services,
-                        mobile),
-                    page,
-                    perPage)
-                .stream()
-                .map(e -> geoFacility(e.facility()))
-                .collect(toList()))
+                        mobile,
+                        page,
+                        perPage)
+                    .stream()
+                    .map(e -> geoFacility(e.facility()))
+                    .collect(toList()))
         .build();
   }
 
@@ -382,9 +448,11 @@ public class FacilitiesControllerV0 {
     return GeoFacilitiesResponse.builder()
         .type(GeoFacilitiesResponse.Type.FeatureCollection)
         .features(
-            page(facilityRepository.findByVisn(visn), page, perPage).stream()
-                .map(e -> geoFacility(facility(e)))
-                .collect(toList()))
+            perPage == 0
+                ? emptyList()
+                : entitiesPageByVisn(visn, page, perPage).stream()
+                    .map(e -> geoFacility(facility(e)))
+                    .collect(toList()))
         .build();
   }
 
@@ -423,7 +491,8 @@ public class FacilitiesControllerV0 {
       @RequestParam(value = "mobile", required = false) Boolean mobile,
       @RequestParam(value = "page", defaultValue = "1") @Min(1) int page,
       @RequestParam(value = "per_page", defaultValue = "10") @Min(0) int perPage) {
-    List<FacilityEntity> entities = entitiesByBoundingBox(bbox, type, services, mobile);
+    Page<FacilityEntity.Pk> idsPage =
+        idsPageByBoundingBox(bbox, type, services, mobile, page, Math.max(perPage, 1));
     PageLinkerV0 linker =
         PageLinkerV0.builder()
             .url(linkerUrl + "facilities")
@@ -436,10 +505,15 @@ public class FacilitiesControllerV0 {
                     .add("page", page)
                     .add("per_page", perPage)
                     .build())
-            .totalEntries(entities.size())
+            .totalEntries((int) idsPage.getTotalElements())
             .build();
     return FacilitiesResponse.builder()
-        .data(page(entities, page, perPage).stream().map(e -> facility(e)).collect(toList()))
+        .data(
+            perPage == 0
+                ? emptyList()
+                : entitiesByIds(idsPage.getContent()).stream()
+                    .map(e -> facility(e))
+                    .collect(toList()))
         .links(linker.links())
         .meta(
             FacilitiesResponse.FacilitiesMetadata.builder().pagination(linker.pagination()).build())
@@ -455,7 +529,7 @@ public class FacilitiesControllerV0 {
       @RequestParam(value = "ids") String ids,
       @RequestParam(value = "page", defaultValue = "1") @Min(1) int page,
       @RequestParam(value = "per_page", defaultValue = "10") @Min(0) int perPage) {
-    List<FacilityEntity> entities = entitiesByIds(ids);
+    List<FacilityEntity.Pk> pks = existingIds(ids);
     PageLinkerV0 linker =
         PageLinkerV0.builder()
             .url(linkerUrl + "facilities")
@@ -465,10 +539,13 @@ public class FacilitiesControllerV0 {
                     .add("page", page)
                     .add("per_page", perPage)
                     .build())
-            .totalEntries(entities.size())
+            .totalEntries(pks.size())
             .build();
     return FacilitiesResponse.builder()
-        .data(page(entities, page, perPage).stream().map(e -> facility(e)).collect(toList()))
+        .data(
+            entitiesByIds(page(pks, page, perPage)).stream()
+                .map(e -> facility(e))
+                .collect(toList()))
         .links(linker.links())
         .meta(
             FacilitiesResponse.FacilitiesMetadata.builder().pagination(linker.pagination()).build())
@@ -493,9 +570,17 @@ public class FacilitiesControllerV0 {
     if (radius != null && radius.compareTo(BigDecimal.ZERO) < 0) {
       throw new ExceptionsUtils.InvalidParameter("radius", radius);
     }
-    List<DistanceEntity> entities =
-        entitiesByLatLong(
-            longitude, latitude, Optional.ofNullable(radius), ids, type, services, mobile);
+    Page<DistanceEntity> entitiesPage =
+        entitiesPageByLatLong(
+            longitude,
+            latitude,
+            Optional.ofNullable(radius),
+            ids,
+            type,
+            services,
+            mobile,
+            page,
+            Math.max(perPage, 1));
     PageLinkerV0 linker =
         PageLinkerV0.builder()
             .url(linkerUrl + "facilities")
@@ -510,11 +595,11 @@ public class FacilitiesControllerV0 {
                     .add("page", page)
                     .add("per_page", perPage)
                     .build())
-            .totalEntries(entities.size())
+            .totalEntries((int) entitiesPage.getTotalElements())
             .build();
-    List<DistanceEntity> entitiesPage = page(entities, page, perPage);
+    List<DistanceEntity> entities = perPage == 0 ? emptyList() : entitiesPage.getContent();
     List<FacilitiesResponse.Distance> distances =
-        entitiesPage.stream()
+        entities.stream()
             .map(
                 e ->
                     FacilitiesResponse.Distance.builder()
@@ -523,7 +608,7 @@ public class FacilitiesControllerV0 {
                         .build())
             .collect(toList());
     return FacilitiesResponse.builder()
-        .data(entitiesPage.stream().map(e -> e.facility()).collect(toList()))
+        .data(entities.stream().map(e -> e.facility()).collect(toList()))
         .links(linker.links())
         .meta(
             FacilitiesResponse.FacilitiesMetadata.builder()
@@ -581,7 +666,7 @@ public class FacilitiesControllerV0 {
       @RequestParam(value = "visn") String visn,
       @RequestParam(value = "page", defaultValue = "1") @Min(1) int page,
       @RequestParam(value = "per_page", defaultValue = "10") @Min(0) int perPage) {
-    List<FacilityEntity> entities = facilityRepository.findByVisn(visn);
+    Page<FacilityEntity> entitiesPage = entitiesPageByVisn(visn, page, Math.max(perPage, 1));
     PageLinkerV0 linker =
         PageLinkerV0.builder()
             .url(linkerUrl + "facilities")
@@ -591,10 +676,13 @@ public class FacilitiesControllerV0 {
                     .add("page", page)
                     .add("per_page", perPage)
                     .build())
-            .totalEntries(entities.size())
+            .totalEntries((int) entitiesPage.getTotalElements())
             .build();
     return FacilitiesResponse.builder()
-        .data(page(entities, page, perPage).stream().map(e -> facility(e)).collect(toList()))
+        .data(
+            perPage == 0
+                ? emptyList()
+                : entitiesPage.stream().map(e -> facility(e)).collect(toList()))
         .links(linker.links())
         .meta(
             FacilitiesResponse.FacilitiesMetadata.builder().pagination(linker.pagination()).build())
@@ -640,20 +728,36 @@ public class FacilitiesControllerV0 {
         .build();
   }
 
-  /** Read geo facility. */
+  GeoFacilityReadResponse readGeoJson(String id) {
+    return GeoFacilityReadResponse.of(geoFacility(facility(entityById(id))));
+  }
+
+  /** Read geo facility. Returns null after sending a 304 if the client has this version. */
   @GetMapping(
       value = "/facilities/{id}",
       produces = {"application/geo+json", "application/vnd.geo+json"})
-  GeoFacilityReadResponse readGeoJson(@PathVariable("id") String id) {
-    return GeoFacilityReadResponse.of(geoFacility(facility(entityById(id))));
+  GeoFacilityReadResponse readGeoJson(@PathVariable("id") String id, ServletWebRequest request) {
+    FacilityEntity entity = entityById(id);
+    if (notModified(entity, "geojson", request)) {
+      return null;
+    }
+    return GeoFacilityReadResponse.of(geoFacility(facility(entity)));
   }
 
-  /** Read facility. */
-  @GetMapping(value = "/facilities/{id}", produces = "application/json")
-  FacilityReadResponse readJson(@PathVariable("id") String id) {
+  FacilityReadResponse readJson(String id) {
     return FacilityReadResponse.builder().facility(facility(entityById(id))).build();
   }
 
+  /** Read facility. Returns null after sending a 304 if the client has this version. */
+  @GetMapping(value = "/facilities/{id}", produces = "application/json")
+  FacilityReadResponse readJson(@PathVariable("id") String id, ServletWebRequest request) {
+    FacilityEntity entity = entityById(id);
+    if (notModified(entity, "json", request)) {
+      return null;
+    }
+    return FacilityReadResponse.builder().facility(facility(entity)).build();
+  }
+
   @Data
   @Builder
   private static final class DistanceEntity {
@@ -18,6 +18,9 @@ import gov.va.api.lighthouse.facilities.api.v1.Facility;
 import gov.va.api.lighthouse.facilities.api.v1.FacilityReadResponse;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -25,22 +28,32 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Min;
 import lombok.Builder;
 import lombok.Data;
 import lombok.SneakyThrows;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Validated
 @RestController
@@ -51,14 +64,23 @@ public class FacilitiesControllerV1 {
 
   private final FacilityRepository facilityRepository;
 
+  private final FacilitySnapshots snapshots;
+
+  private final FacilityResponseCache responseCache;
+
   private final String linkerUrl;
 
   @Builder
   FacilitiesControllerV1(
       @Autowired FacilityRepository facilityRepository,
+      @Autowired FacilitySnapshots snapshots,
       @Value("${facilities.url}") String baseUrl,
-      @Value("${facilities.base-path}") String basePath) {
+      @Value("${facilities.base-path}") String basePath,
+      @Value("${facilities.read-cache.max-bytes:67108864}") long readCacheMaxBytes) {
     this.facilityRepository = facilityRepository;
+    this.snapshots = snapshots;
+    this.responseCache =
+        new FacilityResponseCache(FacilitiesJacksonConfigV1.createMapper(), readCacheMaxBytes);
     String url = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
     String path = basePath.replaceAll("/$", "");
     path = path.isEmpty() ? path : path + "/";
@@ -67,9 +89,26 @@ public class FacilitiesControllerV1 {
 
   @SneakyThrows
   private static Facility facility(HasFacilityPayload entity) {
+    if (entity instanceof FacilitySnapshot.Entry) {
+      FacilitySnapshot.Entry entry = (FacilitySnapshot.Entry) entity;
+      return FACILITY_OVERLAY.apply(entry.datamartFacility(), entry.overlayServices());
+    }
     return FACILITY_OVERLAY.apply(entity);
   }
 
+  private Page<? extends HasFacilityPayload> allEntitiesPage(int page, int perPage) {
+    checkArgument(page >= 1);
+    checkArgument(perPage >= 1);
+    Optional<FacilitySnapshot> snapshot = snapshot();
+    if (snapshot.isPresent()) {
+      return entriesPage(snapshot.get().entries(), page, perPage);
+    }
+    PageRequest pageRequest = PageRequest.of(page - 1, perPage, FacilityEntity.naturalOrder());
+    List<HasFacilityPayload> content =
+        facilityRepository.findAllProjectedBy(pageRequest).getContent();
+    return new PageImpl<>(content, pageRequest, facilityRepository.count());
+  }
+
   /** Get all facilities. */
   @SneakyThrows
   @GetMapping(
@@ -78,15 +117,18 @@ public class FacilitiesControllerV1 {
   FacilitiesResponse all(
       @RequestParam(value = "page", defaultValue = "1") @Min(1) int page,
       @RequestParam(value = "per_page", defaultValue = "10") @Min(0) int perPage) {
-    List<HasFacilityPayload> allFacilities = facilityRepository.findAllProjectedBy();
+    Page<? extends HasFacilityPayload> entitiesPage = allEntitiesPage(page, Math.max(perPage, 1));
     PageLinkerV1 linker =
         PageLinkerV1.builder()
             .url(linkerUrl + "facilities")
             .params(Parameters.builder().add("page", page).add("per_page", perPage).build())
-            .totalEntries(allFacilities.size())
+            .totalEntries((int) entitiesPage.getTotalElements())
             .build();
     return FacilitiesResponse.builder()
-        .data(page(allFacilities, page, perPage).stream().map(e -> facility(e)).collect(toList()))
+        .data(
+            perPage == 0
+                ? emptyList()
+                : entitiesPage.stream().map(e -> facility(e)).collect(toList()))
         .links(linker.links())
         .meta(
             FacilitiesResponse.FacilitiesMetadata.builder().pagination(linker.pagination()).build())
@@ -94,58 +136,37 @@ public class FacilitiesControllerV1 {
   }
 
   /** Get all facilities as CSV. */
-  @SneakyThrows
   @GetMapping(value = "/facilities", produces = "text/csv")
-  String allCsv() {
-    List<List<String>> rows =
-        facilityRepository.findAllProjectedBy().stream()
-            .parallel()
-            .map(e -> CsvTransformerV1.builder().facility(facility(e)).build().toRow())
-            .collect(toList());
-    StringBuilder sb = new StringBuilder();
-    try (CSVPrinter printer =
-        CSVFormat.DEFAULT
-            .withHeader(CsvTransformerV1.HEADERS.stream().toArray(String[]::new))
-            .print(sb)) {
-      for (List<String> row : rows) {
-        printer.printRecord(row);
-      }
-      return sb.toString();
-    }
+  StreamingResponseBody allCsv() {
+    return CsvStreamingResponseBody.<HasFacilityPayload>builder()
+        .headers(CsvTransformerV1.HEADERS)
+        .chunks(allEntitiesInChunks())
+        .toRow(e -> CsvTransformerV1.builder().facility(facility(e)).build().toRow())
+        .build();
   }
 
-  private List<FacilityEntity> entitiesByBoundingBox(
-      List<BigDecimal> bbox, String rawType, List<String> rawServices, Boolean rawMobile) {
-    if (bbox.size() != 4) {
-      throw new ExceptionsUtils.InvalidParameter("bbox", bbox);
+  private Iterator<List<HasFacilityPayload>> allEntitiesInChunks() {
+    Optional<FacilitySnapshot> snapshot = snapshot();
+    if (snapshot.isPresent()) {
+      return CsvStreamingResponseBody.chunksOf(
+          Collections.<HasFacilityPayload>unmodifiableList(snapshot.get().entries()),
+          CsvStreamingResponseBody.DEFAULT_CHUNK_SIZE);
     }
-    FacilityEntity.Type facilityType = validateFacilityType(rawType);
-    Set<ServiceType> services = validateServices(rawServices);
-
-    // lng lat lng lat
-    List<FacilityEntity> allEntities =
-        facilityRepository.findAll(
-            FacilityRepository.BoundingBoxSpecification.builder()
-                .minLongitude(bbox.get(0).min(bbox.get(2)))
-                .maxLongitude(bbox.get(0).max(bbox.get(2)))
-                .minLatitude(bbox.get(1).min(bbox.get(3)))
-                .maxLatitude(bbox.get(1).max(bbox.get(3)))
-                .facilityType(facilityType)
-                .services(services)
-                .mobile(rawMobile)
-                .build());
-    double centerLng = (bbox.get(0).doubleValue() + bbox.get(2).doubleValue()) / 2;
-    double centerLat = (bbox.get(1).doubleValue() + bbox.get(3).doubleValue()) / 2;
-    return allEntities.stream()
-        .sorted(
-            (left, right) ->
-                Double.compare(
-                    distance(left, centerLng, centerLat), distance(right, centerLng, centerLat)))
-        .collect(toList());
+    Slice<HasFacilityPayload> first =
+        facilityRepository.findAllProjectedBy(
+            PageRequest.of(
+                0, CsvStreamingResponseBody.DEFAULT_CHUNK_SIZE, FacilityEntity.naturalOrder()));
+    return CsvStreamingResponseBody.chunksOf(first, facilityRepository::findAllProjectedAfter);
   }
 
-  private List<FacilityEntity> entitiesByIds(String ids) {
-    List<FacilityEntity.Pk> pks = entityIds(ids);
+  private List<? extends HasFacilityPayload> entitiesByIds(List<FacilityEntity.Pk> pks) {
+    Optional<FacilitySnapshot> snapshot = snapshot();
+    if (snapshot.isPresent()) {
+      return snapshot.get().findByIds(pks);
+    }
+    if (pks.isEmpty()) {
+      return emptyList();
+    }
     Map<FacilityEntity.Pk, FacilityEntity> entities =
         facilityRepository.findByIdIn(pks).stream()
             .collect(toMap(e -> e.id(), Function.identity()));
@@ -153,42 +174,183 @@ public class FacilitiesControllerV1 {
   }
 
   @SneakyThrows
-  private List<DistanceEntity> entitiesByLatLong(
+  private Page<DistanceEntity> entitiesPageByLatLong(
       BigDecimal longitude,
       BigDecimal latitude,
       Optional<BigDecimal> radius,
       String ids,
       String rawType,
       List<String> rawServices,
-      Boolean rawMobile) {
+      Boolean rawMobile,
+      int page,
+      int perPage) {
+    checkArgument(page >= 1);
+    checkArgument(perPage >= 1);
     FacilityEntity.Type facilityType = validateFacilityType(rawType);
     Set<ServiceType> services = validateServices(rawServices);
-    List<FacilityEntity> entities =
-        facilityRepository.findAll(
-            FacilityRepository.TypeServicesIdsSpecification.builder()
-                .ids(entityIds(ids))
-                .facilityType(facilityType)
-                .services(services)
-                .mobile(rawMobile)
-                .build());
+    ServiceMask serviceMask = ServiceMask.of(services);
     double lng = longitude.doubleValue();
     double lat = latitude.doubleValue();
-    return entities.stream()
-        .map(
-            e ->
-                DistanceEntity.builder()
-                    .entity(e)
-                    .distance(BigDecimal.valueOf(haversine(e, lng, lat)))
-                    .build())
-        .filter(
-            radius.isPresent()
-                ? de -> radius.get().compareTo(de.distance().abs()) >= 0
-                : de -> true)
-        .sorted((left, right) -> left.distance().compareTo(right.distance()))
-        .collect(toList());
+    double miles = radius.map(BigDecimal::doubleValue).orElse(Double.POSITIVE_INFINITY);
+    int limit = NearestHeap.pageLimit(page, perPage);
+    Set<FacilityEntity.Pk> pks = Set.copyOf(entityIds(ids));
+    Optional<FacilitySnapshot> snapshot = snapshot();
+    if (snapshot.isPresent() && radius.isEmpty()) {
+      List<FacilitySnapshot.Entry> entries = snapshot.get().entries();
+      IntPredicate matches =
+          i -> {
+            FacilitySnapshot.Entry e = entries.get(i);
+            return (pks.isEmpty() || pks.contains(e.id()))
+                && e.matches(facilityType, serviceMask, rawMobile);
+          };
+      int total = (int) IntStream.range(0, entries.size()).filter(matches).count();
+      int[] nearest = snapshot.get().spatialIndex().nearest(lng, lat, limit, matches);
+      return distancePage(
+          entries,
+          NearestHeap.pageOf(nearest, page, perPage),
+          i -> haversine(entries.get(i).longitude(), entries.get(i).latitude(), lng, lat),
+          total,
+          page,
+          perPage);
+    }
+    List<HasFacilityPayload> candidates = new ArrayList<>();
+    DoubleStream.Builder candidateDistances = DoubleStream.builder();
+    if (snapshot.isPresent()) {
+      for (FacilitySnapshot.Entry e : snapshot.get().findInRadius(lng, lat, miles)) {
+        if ((pks.isEmpty() || pks.contains(e.id()))
+            && e.matches(facilityType, serviceMask, rawMobile)) {
+          candidates.add(e);
+          candidateDistances.add(haversine(e.longitude(), e.latitude(), lng, lat));
+        }
+      }
+    } else {
+      List<FacilityEntity> entities =
+          facilityRepository.findAll(
+              FacilityRepository.TypeServicesIdsSpecification.builder()
+                  .ids(entityIds(ids))
+                  .facilityType(facilityType)
+                  .services(services)
+                  .mobile(rawMobile)
+                  .build());
+      for (FacilityEntity e : entities) {
+        double distance = haversine(e, lng, lat);
+        if (distance <= miles) {
+          candidates.add(e);
+          candidateDistances.add(distance);
+        }
+      }
+    }
+    double[] distances = candidateDistances.build().toArray();
+    return distancePage(
+        candidates,
+        NearestHeap.pageOf(NearestHeap.nearest(distances, limit), page, perPage),
+        i -> distances[i],
+        candidates.size(),
+        page,
+        perPage);
+  }
+
+  /**
+   * Build a page of distance entities from candidate positions. Only facilities on the page get a
+   * BigDecimal distance.
+   */
+  private static Page<DistanceEntity> distancePage(
+      List<? extends HasFacilityPayload> candidates,
+      int[] positions,
+      IntToDoubleFunction distance,
+      int total,
+      int page,
+      int perPage) {
+    List<DistanceEntity> content = new ArrayList<>(positions.length);
+    for (int i : positions) {
+      content.add(
+          DistanceEntity.builder()
+              .entity(candidates.get(i))
+              .distance(BigDecimal.valueOf(distance.applyAsDouble(i)))
+              .build());
+    }
+    return new PageImpl<>(content, PageRequest.of(page - 1, perPage), total);
   }
 
-  private Page<FacilityEntity> entitiesPageByState(
+  /** Page of IDs of the facilities in the bounding box, nearest to the center of the box first. */
+  private Page<FacilityEntity.Pk> idsPageByBoundingBox(
+      List<BigDecimal> bbox,
+      String rawType,
+      List<String> rawServices,
+      Boolean rawMobile,
+      int page,
+      int perPage) {
+    checkArgument(page >= 1);
+    checkArgument(perPage >= 1);
+    if (bbox.size() != 4) {
+      throw new ExceptionsUtils.InvalidParameter("bbox", bbox);
+    }
+    FacilityEntity.Type facilityType = validateFacilityType(rawType);
+    Set<ServiceType> services = validateServices(rawServices);
+    ServiceMask serviceMask = ServiceMask.of(services);
+    // lng lat lng lat
+    double centerLng = (bbox.get(0).doubleValue() + bbox.get(2).doubleValue()) / 2;
+    double centerLat = (bbox.get(1).doubleValue() + bbox.get(3).doubleValue()) / 2;
+    List<FacilityEntity.Pk> ids = new ArrayList<>();
+    DoubleStream.Builder idDistances = DoubleStream.builder();
+    Optional<FacilitySnapshot> snapshot = snapshot();
+    if (snapshot.isPresent()) {
+      List<FacilitySnapshot.Entry> entries =
+          snapshot
+              .get()
+              .findInBoundingBox(
+                  bbox.get(0).min(bbox.get(2)).doubleValue(),
+                  bbox.get(1).min(bbox.get(3)).doubleValue(),
+                  bbox.get(0).max(bbox.get(2)).doubleValue(),
+                  bbox.get(1).max(bbox.get(3)).doubleValue());
+      for (FacilitySnapshot.Entry e : entries) {
+        if (e.matches(facilityType, serviceMask, rawMobile)) {
+          ids.add(e.id());
+          idDistances.add(distance(e.longitude(), e.latitude(), centerLng, centerLat));
+        }
+      }
+    } else {
+      List<FacilityLocationRepository.FacilityLocation> locations =
+          facilityRepository.findLocations(
+              FacilityRepository.BoundingBoxSpecification.builder()
+                  .minLongitude(bbox.get(0).min(bbox.get(2)))
+                  .maxLongitude(bbox.get(0).max(bbox.get(2)))
+                  .minLatitude(bbox.get(1).min(bbox.get(3)))
+                  .maxLatitude(bbox.get(1).max(bbox.get(3)))
+                  .facilityType(facilityType)
+                  .services(services)
+                  .mobile(rawMobile)
+                  .build());
+      for (FacilityLocationRepository.FacilityLocation l : locations) {
+        ids.add(l.id());
+        idDistances.add(distance(l.longitude(), l.latitude(), centerLng, centerLat));
+      }
+    }
+    int[] nearest =
+        NearestHeap.nearest(idDistances.build().toArray(), NearestHeap.pageLimit(page, perPage));
+    return new PageImpl<>(
+        IntStream.of(NearestHeap.pageOf(nearest, page, perPage))
+            .mapToObj(ids::get)
+            .collect(toList()),
+        PageRequest.of(page - 1, perPage),
+        ids.size());
+  }
+
+  /** Requested facility IDs that exist, in the order they were requested. */
+  private List<FacilityEntity.Pk> existingIds(String ids) {
+    List<FacilityEntity.Pk> pks = entityIds(ids);
+    Optional<FacilitySnapshot> snapshot = snapshot();
+    if (snapshot.isPresent()) {
+      return pks.stream().filter(snapshot.get().entriesById()::containsKey).collect(toList());
+    }
+    if (pks.isEmpty()) {
+      return emptyList();
+    }
+    Set<FacilityEntity.Pk> existing = Set.copyOf(facilityRepository.findIdsByIdIn(pks));
+    return pks.stream().filter(existing::contains).collect(toList());
+  }
+
+  private Page<? extends HasFacilityPayload> entitiesPageByState(
       String rawState,
       String rawType,
       List<String> rawServices,
@@ -200,6 +362,17 @@ public class FacilitiesControllerV1 {
     String state = rawState.trim().toUpperCase(Locale.US);
     FacilityEntity.Type facilityType = validateFacilityType(rawType);
     Set<ServiceType> services = validateServices(rawServices);
+    ServiceMask serviceMask = ServiceMask.of(services);
+    Optional<FacilitySnapshot> snapshot = snapshot();
+    if (snapshot.isPresent()) {
+      return entriesPage(
+          snapshot.get().stream()
+              .filter(e -> state.equals(e.state()))
+              .filter(e -> e.matches(facilityType, serviceMask, rawMobile))
+              .collect(toList()),
+          page,
+          perPage);
+    }
     return facilityRepository.findAll(
         FacilityRepository.StateSpecification.builder()
             .state(state)
@@ -210,7 +383,7 @@ public class FacilitiesControllerV1 {
         PageRequest.of(page - 1, perPage, FacilityEntity.naturalOrder()));
   }
 
-  private Page<FacilityEntity> entitiesPageByZip(
+  private Page<? extends HasFacilityPayload> entitiesPageByZip(
       String rawZip,
       String rawType,
       List<String> rawServices,
@@ -221,7 +394,18 @@ public class FacilitiesControllerV1 {
     checkArgument(perPage >= 1);
     FacilityEntity.Type facilityType = validateFacilityType(rawType);
     Set<ServiceType> services = validateServices(rawServices);
+    ServiceMask serviceMask = ServiceMask.of(services);
     String zip = rawZip.substring(0, Math.min(rawZip.length(), 5));
+    Optional<FacilitySnapshot> snapshot = snapshot();
+    if (snapshot.isPresent()) {
+      return entriesPage(
+          snapshot.get().stream()
+              .filter(e -> zip.equals(e.zip()))
+              .filter(e -> e.matches(facilityType, serviceMask, rawMobile))
+              .collect(toList()),
+          page,
+          perPage);
+    }
     return facilityRepository.findAll(
         FacilityRepository.ZipSpecification.builder()
             .zip(zip)
@@ -232,20 +416,43 @@ public class FacilitiesControllerV1 {
         PageRequest.of(page - 1, perPage, FacilityEntity.naturalOrder()));
   }
 
-  private FacilityEntity entityById(String id) {
+  private HasFacilityPayload entityById(String id) {
     FacilityEntity.Pk pk = null;
     try {
       pk = FacilityEntity.Pk.fromIdString(id);
     } catch (IllegalArgumentException ex) {
       throw new ExceptionsUtils.NotFound(id, ex);
     }
-    Optional<FacilityEntity> opt = facilityRepository.findById(pk);
+    Optional<FacilitySnapshot> snapshot = snapshot();
+    Optional<? extends HasFacilityPayload> opt =
+        snapshot.isPresent() ? snapshot.get().findById(pk) : facilityRepository.findById(pk);
     if (opt.isEmpty()) {
       throw new ExceptionsUtils.NotFound(id);
     }
     return opt.get();
   }
 
+  private Page<? extends HasFacilityPayload> entitiesPageByVisn(
+      String visn, int page, int perPage) {
+    checkArgument(page >= 1);
+    checkArgument(perPage >= 1);
+    Optional<FacilitySnapshot> snapshot = snapshot();
+    if (snapshot.isPresent()) {
+      return entriesPage(
+          snapshot.get().stream().filter(e -> visn.equals(e.visn())).collect(toList()),
+          page,
+          perPage);
+    }
+    return facilityRepository.findByVisn(
+        visn, PageRequest.of(page - 1, perPage, FacilityEntity.naturalOrder()));
+  }
+
+  private Page<FacilitySnapshot.Entry> entriesPage(
+      List<FacilitySnapshot.Entry> entries, int page, int perPage) {
+    return new PageImpl<>(
+        page(entries, page, perPage), PageRequest.of(page - 1, perPage), entries.size());
+  }
+
   /** Get all facility IDs as a list by Type. */
   @GetMapping(
       value = "/ids",
@@ -255,7 +462,10 @@ public class FacilitiesControllerV1 {
     FacilityEntity.Type facilityType = validateFacilityType(type);
     return FacilitiesIdsResponse.builder()
         .data(
-            facilityRepository.findAllIds().stream()
+            snapshot()
+                .map(s -> s.stream().map(e -> e.id()).collect(toList()))
+                .orElseGet(() -> facilityRepository.findAllIds())
+                .stream()
                 .filter(id -> facilityType == null || id.type() == facilityType)
                 .map(id -> id.toIdString())
                 .collect(toList()))
@@ -274,7 +484,8 @@ public class FacilitiesControllerV1 {
       @RequestParam(value = "mobile", required = false) Boolean mobile,
       @RequestParam(value = "page", defaultValue = "1") @Min(1) int page,
       @RequestParam(value = "per_page", defaultValue = "10") @Min(0) int perPage) {
-    List<FacilityEntity> entities = entitiesByBoundingBox(bbox, type, services, mobile);
+    Page<FacilityEntity.Pk> idsPage =
+        idsPageByBoundingBox(bbox, type, services, mobile, page, Math.max(perPage, 1));
     PageLinkerV1 linker =
         PageLinkerV1.builder()
             .url(linkerUrl + "facilities")
@@ -287,10 +498,15 @@ public class FacilitiesControllerV1 {
                     .add("page", page)
                     .add("per_page", perPage)
                     .build())
-            .totalEntries(entities.size())
+            .totalEntries((int) idsPage.getTotalElements())
             .build();
     return FacilitiesResponse.builder()
-        .data(page(entities, page, perPage).stream().map(e -> facility(e)).collect(toList()))
+        .data(
+            perPage == 0
+                ? emptyList()
+                : entitiesByIds(idsPage.getContent()).stream()
+                    .map(e -> facility(e))
+                    .collect(toList()))
         .links(linker.links())
         .meta(
             FacilitiesResponse.FacilitiesMetadata.builder().pagination(linker.pagination()).build())
@@ -306,7 +522,7 @@ public class FacilitiesControllerV1 {
       @RequestParam(value = "ids") String ids,
       @RequestParam(value = "page", defaultValue = "1") @Min(1) int page,
       @RequestParam(value = "per_page", defaultValue = "10") @Min(0) int perPage) {
-    List<FacilityEntity> entities = entitiesByIds(ids);
+    List<FacilityEntity.Pk> pks = existingIds(ids);
     PageLinkerV1 linker =
         PageLinkerV1.builder()
             .url(linkerUrl + "facilities")
@@ -316,10 +532,13 @@ public class FacilitiesControllerV1 {
                     .add("page", page)
                     .add("per_page", perPage)
                     .build())
-            .totalEntries(entities.size())
+            .totalEntries(pks.size())
             .build();
     return FacilitiesResponse.builder()
-        .data(page(entities, page, perPage).stream().map(e -> facility(e)).collect(toList()))
+        .data(
+            entitiesByIds(page(pks, page, perPage)).stream()
+                .map(e -> facility(e))
+                .collect(toList()))
         .links(linker.links())
         .meta(
             FacilitiesResponse.FacilitiesMetadata.builder().pagination(linker.pagination()).build())
@@ -344,9 +563,17 @@ public class FacilitiesControllerV1 {
     if (radius != null && radius.compareTo(BigDecimal.ZERO) < 0) {
       throw new ExceptionsUtils.InvalidParameter("radius", radius);
     }
-    List<DistanceEntity> entities =
-        entitiesByLatLong(
-            longitude, latitude, Optional.ofNullable(radius), ids, type, services, mobile);
+    Page<DistanceEntity> entitiesPage =
+        entitiesPageByLatLong(
+            longitude,
+            latitude,
+            Optional.ofNullable(radius),
+            ids,
+            type,
+            services,
+            mobile,
+            page,
+            Math.max(perPage, 1));
     PageLinkerV1 linker =
         PageLinkerV1.builder()
             .url(linkerUrl + "facilities")
@@ -361,11 +588,11 @@ public class FacilitiesControllerV1 {
                     .add("page", page)
                     .add("per_page", perPage)
                     .build())
-            .totalEntries(entities.size())
+            .totalEntries((int) entitiesPage.getTotalElements())
             .build();
-    List<DistanceEntity> entitiesPage = page(entities, page, perPage);
+    List<DistanceEntity> entities = perPage == 0 ? emptyList() : entitiesPage.getContent();
     List<FacilitiesResponse.Distance> distances =
-        entitiesPage.stream()
+        entities.stream()
             .map(
                 e ->
                     FacilitiesResponse.Distance.builder()
@@ -374,7 +601,7 @@ public class FacilitiesControllerV1 {
                         .build())
             .collect(toList());
     return FacilitiesResponse.builder()
-        .data(entitiesPage.stream().map(e -> e.facility()).collect(toList()))
+        .data(entities.stream().map(e -> e.facility()).collect(toList()))
         .links(linker.links())
         .meta(
             FacilitiesResponse.FacilitiesMetadata.builder()
@@ -396,7 +623,7 @@ public class FacilitiesControllerV1 {
       @RequestParam(value = "mobile", required = false) Boolean mobile,
       @RequestParam(value = "page", defaultValue = "1") @Min(1) int page,
       @RequestParam(value = "per_page", defaultValue = "10") @Min(0) int perPage) {
-    Page<FacilityEntity> entitiesPage =
+    Page<? extends HasFacilityPayload> entitiesPage =
         entitiesPageByState(state, type, services, mobile, page, Math.max(perPage, 1));
     PageLinkerV1 linker =
         PageLinkerV1.builder()
@@ -432,7 +659,8 @@ public class FacilitiesControllerV1 {
       @RequestParam(value = "visn") String visn,
       @RequestParam(value = "page", defaultValue = "1") @Min(1) int page,
       @RequestParam(value = "per_page", defaultValue = "10") @Min(0) int perPage) {
-    List<FacilityEntity> entities = facilityRepository.findByVisn(visn);
+    Page<? extends HasFacilityPayload> entitiesPage =
+        entitiesPageByVisn(visn, page, Math.max(perPage, 1));
     PageLinkerV1 linker =
         PageLinkerV1.builder()
             .url(linkerUrl + "facilities")
@@ -442,10 +670,13 @@ public class FacilitiesControllerV1 {
                     .add("page", page)
                     .add("per_page", perPage)
                     .build())
-            .totalEntries(entities.size())
+            .totalEntries((int) entitiesPage.getTotalElements())
             .build();
     return FacilitiesResponse.builder()
-        .data(page(entities, page, perPage).stream().map(e -> facility(e)).collect(toList()))
+        .data(
+            perPage == 0
+                ? emptyList()
+                : entitiesPage.stream().map(e -> facility(e)).collect(toList()))
         .links(linker.links())
         .meta(
             FacilitiesResponse.FacilitiesMetadata.builder().pagination(linker.pagination()).build())
@@ -464,7 +695,7 @@ public class FacilitiesControllerV1 {
       @RequestParam(value = "mobile", required = false) Boolean mobile,
       @RequestParam(value = "page", defaultValue = "1") @Min(1) int page,
       @RequestParam(value = "per_page", defaultValue = "10") @Min(0) int perPage) {
-    Page<FacilityEntity> entitiesPage =
+    Page<? extends HasFacilityPayload> entitiesPage =
         entitiesPageByZip(zip, type, services, mobile, page, Math.max(perPage, 1));
     PageLinkerV1 linker =
         PageLinkerV1.builder()
@@ -492,15 +723,47 @@ public class FacilitiesControllerV1 {
   }
 
   /** Read facility. */
+  FacilityReadResponse readJson(String id) {
+    return readResponse(entityById(id));
+  }
+
+  /**
+   * Read facility. The rendered response is cached by facility version and written directly to the
+   * output stream, gzipped if the client accepts it. Versioned facilities get a strong ETag and
+   * conditional requests for an unchanged facility are answered with a 304 before rendering.
+   */
   @GetMapping(value = "/facilities/{id}", produces = "application/json")
-  FacilityReadResponse readJson(@PathVariable("id") String id) {
-    return FacilityReadResponse.builder().facility(facility(entityById(id))).build();
+  void readJson(
+      @PathVariable("id") String id,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    HasFacilityPayload entity = entityById(id);
+    FacilityEntity.Pk pk = FacilityEntity.Pk.fromIdString(id);
+    boolean gzip = FacilityResponseCache.acceptsGzip(acceptEncoding);
+    if (entity.version() != null) {
+      String eTag =
+          ConditionalGetInterceptor.facilityETag(pk, entity.version(), gzip ? "gzip" : "json");
+      long lastModified = entity.lastUpdated() == null ? -1 : entity.lastUpdated().toEpochMilli();
+      if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+        return;
+      }
+    }
+    responseCache.get(pk, entity.version(), () -> readResponse(entity)).writeTo(response, gzip);
+  }
+
+  private FacilityReadResponse readResponse(HasFacilityPayload entity) {
+    return FacilityReadResponse.builder().facility(facility(entity)).build();
+  }
+
+  private Optional<FacilitySnapshot> snapshot() {
+    return snapshots.current();
   }
 
   @Data
   @Builder
   private static final class DistanceEntity {
-    final FacilityEntity entity;
+    final HasFacilityPayload entity;
 
     final BigDecimal distance;
 
@@ -3,12 +3,15 @@ package gov.va.api.lighthouse.facilities;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.stream.Collectors.toSet;
 
+import com.google.common.hash.Hashing;
 import gov.va.api.lighthouse.facilities.api.ServiceType;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import javax.persistence.Basic;
 import javax.persistence.CollectionTable;
 import javax.persistence.Column;
@@ -21,6 +24,8 @@ import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.Lob;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.Version;
 import lombok.AccessLevel;
@@ -31,6 +36,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.domain.Sort;
 
 @Data
@@ -41,6 +47,8 @@ import org.springframework.data.domain.Sort;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class FacilityEntity implements HasFacilityPayload {
+  static final int SERVICES_BATCH_SIZE = 500;
+
   /**
    * API V0 searches by {type}_{facilityId}. We might want to change that in the future, so we are
    * keeping those two pieces of information separate. However, the two (type + facility) are
@@ -59,6 +67,11 @@ public class FacilityEntity implements HasFacilityPayload {
 
   @Column private double longitude;
 
+  /**
+   * Services and overlay services are loaded for up to a batch of facilities at once when the
+   * first of them is used, so reading many facilities costs a query per batch, not per facility.
+   */
+  @BatchSize(size = SERVICES_BATCH_SIZE)
   @ElementCollection(targetClass = String.class)
   @CollectionTable(
       name = "facility_services",
@@ -83,6 +96,7 @@ public class FacilityEntity implements HasFacilityPayload {
   private String cmsServices;
 
   @Default
+  @BatchSize(size = SERVICES_BATCH_SIZE)
   @ElementCollection(targetClass = String.class)
   @CollectionTable(
       name = "cms_overlay_detailed_services",
@@ -105,6 +119,22 @@ public class FacilityEntity implements HasFacilityPayload {
   @Column(name = "mobile")
   private Boolean mobile;
 
+  /** Low word of the {@link ServiceMask} of the services and overlay services. */
+  @Column(name = "service_mask_low")
+  private Long serviceMaskLow;
+
+  /** High word of the {@link ServiceMask} of the services and overlay services. */
+  @Column(name = "service_mask_high")
+  private Long serviceMaskHigh;
+
+  /**
+   * SHA-256 of the facility payload and the columns derived from it, used by reloads to skip
+   * writing facilities that have not changed. Null if the payload was last written by something
+   * other than a reload, such as an overlay.
+   */
+  @Column(name = "content_hash", length = 64)
+  private String contentHash;
+
   /** Builder alternative that allows enums to be specified instead of strings. */
   @Builder(
       builderMethodName = "typeSafeBuilder",
@@ -142,13 +172,55 @@ public class FacilityEntity implements HasFacilityPayload {
         missingTimestamp,
         lastUpdated,
         visn,
-        mobile);
+        mobile,
+        null,
+        null,
+        null);
   }
 
   static Sort naturalOrder() {
     return Sort.by("id").ascending();
   }
 
+  /** Combined mask of the services and overlay services. */
+  ServiceMask serviceMask() {
+    return ServiceMask.of(services).or(ServiceMask.of(overlayServices));
+  }
+
+  /**
+   * Hash of the facility payload and every column derived from it. Facilities with the same hash
+   * would be written exactly as they are stored.
+   */
+  String payloadHash() {
+    String content =
+        String.join(
+            "\n",
+            facility,
+            String.valueOf(zip),
+            String.valueOf(state),
+            Double.toString(latitude),
+            Double.toString(longitude),
+            String.valueOf(services == null ? null : new TreeSet<>(services)),
+            String.valueOf(visn),
+            String.valueOf(mobile));
+    return Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString();
+  }
+
+  /**
+   * Keep the service mask columns in step with the service collections, and drop the content hash
+   * if the payload no longer matches it, so the next reload rewrites the facility.
+   */
+  @PrePersist
+  @PreUpdate
+  void updateDerivedColumns() {
+    ServiceMask mask = serviceMask();
+    serviceMaskLow = mask.low();
+    serviceMaskHigh = mask.high();
+    if (contentHash != null && !contentHash.equals(payloadHash())) {
+      contentHash = null;
+    }
+  }
+
   /** Populate overlay services from a type safe collection. */
   public void overlayServicesFromServiceTypes(Set<ServiceType> overlayServiceTypes) {
     overlayServices(overlayServiceTypes.stream().map(Object::toString).collect(toSet()));
@@ -0,0 +1,22 @@
+package gov.va.api.lighthouse.facilities;
+
+import java.util.List;
+import lombok.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Repository fragment for searches that only need to know where facilities are. Loading just the
+ * ID and coordinates avoids reading the facility payload for rows that will not be returned.
+ */
+public interface FacilityLocationRepository {
+  List<FacilityLocation> findLocations(Specification<FacilityEntity> specification);
+
+  @Value
+  class FacilityLocation {
+    FacilityEntity.Pk id;
+
+    double latitude;
+
+    double longitude;
+  }
+}
@@ -0,0 +1,28 @@
+package gov.va.api.lighthouse.facilities;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Criteria API implementation of {@link FacilityLocationRepository}. */
+class FacilityLocationRepositoryImpl implements FacilityLocationRepository {
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<FacilityLocation> findLocations(Specification<FacilityEntity> specification) {
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<FacilityLocation> query = criteriaBuilder.createQuery(FacilityLocation.class);
+    Root<FacilityEntity> root = query.from(FacilityEntity.class);
+    query.select(
+        criteriaBuilder.construct(
+            FacilityLocation.class, root.get("id"), root.get("latitude"), root.get("longitude")));
+    if (specification != null) {
+      query.where(specification.toPredicate(root, query, criteriaBuilder));
+    }
+    return entityManager.createQuery(query).getResultList();
+  }
+}
@@ -57,9 +57,17 @@ public class FacilityOverlayV1 implements Function<HasFacilityPayload, Facility>
   @Override
   @SneakyThrows
   public Facility apply(HasFacilityPayload entity) {
-    Facility facility =
-        FacilityTransformerV1.toFacility(
-            DATAMART_MAPPER.readValue(entity.facility(), DatamartFacility.class));
+    return apply(
+        DATAMART_MAPPER.readValue(entity.facility(), DatamartFacility.class),
+        entity.overlayServices());
+  }
+
+  /**
+   * Apply the overlay to an already parsed facility payload. The datamart facility is not modified,
+   * so it is safe to use with payloads that are shared between requests.
+   */
+  public Facility apply(DatamartFacility datamartFacility, Set<String> overlayServices) {
+    Facility facility = FacilityTransformerV1.toFacility(datamartFacility);
 
     if (facility.attributes().operatingStatus() == null) {
       facility
@@ -68,8 +76,8 @@ public class FacilityOverlayV1 implements Function<HasFacilityPayload, Facility>
               determineOperatingStatusFromActiveStatus(facility.attributes().activeStatus()));
     }
 
-    if (entity.overlayServices() != null) {
-      applyCmsOverlayServices(facility, entity.overlayServices());
+    if (overlayServices != null) {
+      applyCmsOverlayServices(facility, overlayServices);
     }
 
     return facility;
@@ -0,0 +1,58 @@
+package gov.va.api.lighthouse.facilities;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Splits reload work into chunks that are each committed in one transaction. Entities loaded and
+ * saved in a chunk stay managed until it is flushed, which writes their inserts, updates, and
+ * deletes together as JDBC batches (see hibernate.jdbc.batch_size) instead of in a transaction per
+ * facility.
+ */
+@Component
+public class FacilityReloadBatches {
+  private final TransactionTemplate transactionTemplate;
+
+  private final EntityManager entityManager;
+
+  private final int commitSize;
+
+  FacilityReloadBatches(
+      @Autowired PlatformTransactionManager transactionManager,
+      @Autowired EntityManager entityManager,
+      @Value("${facilities.reload.commit-size:500}") int commitSize) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.entityManager = entityManager;
+    this.commitSize = Math.max(1, commitSize);
+  }
+
+  /** The items in chunks of at most the commit size. */
+  <T> List<List<T>> chunks(@NonNull List<T> items) {
+    return Lists.partition(items, commitSize);
+  }
+
+  /**
+   * Run the work in one transaction, flushing its writes before the commit so failures to write
+   * happen here instead of at some later query. Returns the failure, if any, after rolling back.
+   */
+  Optional<RuntimeException> inTransaction(@NonNull Runnable work) {
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            work.run();
+            entityManager.flush();
+          });
+      return Optional.empty();
+    } catch (RuntimeException e) {
+      return Optional.of(e);
+    }
+  }
+}
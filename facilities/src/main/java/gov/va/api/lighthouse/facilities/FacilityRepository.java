@@ -18,27 +18,66 @@ import javax.persistence.criteria.Root;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 @Loggable
 public interface FacilityRepository
     extends CrudRepository<FacilityEntity, FacilityEntity.Pk>,
-        JpaSpecificationExecutor<FacilityEntity> {
+        JpaSpecificationExecutor<FacilityEntity>,
+        FacilityLocationRepository {
   @Query("select e.id from #{#entityName} e")
   List<FacilityEntity.Pk> findAllIds();
 
   List<HasFacilityPayload> findAllProjectedBy();
 
+  Slice<HasFacilityPayload> findAllProjectedBy(Pageable pageable);
+
+  /** The slice of facilities that come after the given one in natural order. */
+  default Slice<HasFacilityPayload> findAllProjectedAfter(
+      @NonNull HasFacilityPayload last, Pageable pageable) {
+    return findAllProjectedAfter(last.id().type(), last.id().stationNumber(), pageable);
+  }
+
+  /**
+   * The slice of facilities that come after the given ID in natural order. Paging by the last ID
+   * seen lets the database seek to the slice using the primary key, where paging by offset reads
+   * and skips every earlier facility again for each slice.
+   */
+  @Query(
+      "select e from #{#entityName} e where e.id.type >= :type"
+          + " and (e.id.type > :type or e.id.stationNumber > :stationNumber)")
+  Slice<HasFacilityPayload> findAllProjectedAfter(
+      @Param("type") FacilityEntity.Type type,
+      @Param("stationNumber") String stationNumber,
+      Pageable pageable);
+
   List<FacilityEntity> findByIdIn(Collection<FacilityEntity.Pk> ids);
 
-  List<FacilityEntity> findByVisn(String visn);
+  Page<FacilityEntity> findByVisn(String visn, Pageable pageable);
+
+  @Query("select e.id from #{#entityName} e where e.id in :ids")
+  List<FacilityEntity.Pk> findIdsByIdIn(@Param("ids") Collection<FacilityEntity.Pk> ids);
 
   @Query("select max(e.lastUpdated) from #{#entityName} e")
   Instant findLastUpdated();
 
+  /** Set the last updated time without changing the version of the facilities. */
+  @Modifying(clearAutomatically = true)
+  @Transactional
+  @Query("update #{#entityName} e set e.lastUpdated = :lastUpdated where e.id in :ids")
+  int updateLastUpdatedByIdIn(
+      @Param("ids") Collection<FacilityEntity.Pk> ids,
+      @Param("lastUpdated") Instant lastUpdated);
+
   @Value
   @Builder
   final class BoundingBoxSpecification implements Specification<FacilityEntity> {
@@ -78,21 +117,8 @@ public interface FacilityRepository
       if (isEmpty(services)) {
         return combinedBase;
       }
-      Predicate[] servicePredicates =
-          services.stream()
-              .map(svc -> criteriaBuilder.isMember(svc.toString(), root.get("services")))
-              .toArray(Predicate[]::new);
-      Predicate anyFacilityService = criteriaBuilder.or(servicePredicates);
-
-      Predicate[] overlayServicePredicates =
-          services.stream()
-              .map(svc -> criteriaBuilder.isMember(svc.toString(), root.get("overlayServices")))
-              .toArray(Predicate[]::new);
-      Predicate anyOverlayService = criteriaBuilder.or(overlayServicePredicates);
-
-      Predicate combinedServices = criteriaBuilder.or(anyFacilityService, anyOverlayService);
-
-      return criteriaBuilder.and(combinedBase, combinedServices);
+      return criteriaBuilder.and(
+          combinedBase, ServiceMask.of(services).anyOf(root, criteriaBuilder));
     }
   }
 
@@ -126,21 +152,8 @@ public interface FacilityRepository
       if (isEmpty(services)) {
         return combinedBase;
       }
-      Predicate[] servicePredicates =
-          services.stream()
-              .map(svc -> criteriaBuilder.isMember(svc.toString(), root.get("services")))
-              .toArray(Predicate[]::new);
-      Predicate anyFacilityService = criteriaBuilder.or(servicePredicates);
-
-      Predicate[] overlayServicePredicates =
-          services.stream()
-              .map(svc -> criteriaBuilder.isMember(svc.toString(), root.get("overlayServices")))
-              .toArray(Predicate[]::new);
-      Predicate anyOverlayService = criteriaBuilder.or(overlayServicePredicates);
-
-      Predicate combinedServices = criteriaBuilder.or(anyFacilityService, anyOverlayService);
-
-      return criteriaBuilder.and(combinedBase, combinedServices);
+      return criteriaBuilder.and(
+          combinedBase, ServiceMask.of(services).anyOf(root, criteriaBuilder));
     }
   }
 
@@ -176,21 +189,8 @@ public interface FacilityRepository
       if (isEmpty(services)) {
         return combinedBase;
       }
-      Predicate[] servicePredicates =
-          services.stream()
-              .map(svc -> criteriaBuilder.isMember(svc.toString(), root.get("services")))
-              .toArray(Predicate[]::new);
-      Predicate anyFacilityService = criteriaBuilder.or(servicePredicates);
-
-      Predicate[] overlayServicePredicates =
-          services.stream()
-              .map(svc -> criteriaBuilder.isMember(svc.toString(), root.get("overlayServices")))
-              .toArray(Predicate[]::new);
-      Predicate anyOverlayService = criteriaBuilder.or(overlayServicePredicates);
-
-      Predicate combinedServices = criteriaBuilder.or(anyFacilityService, anyOverlayService);
-
-      return criteriaBuilder.and(combinedBase, combinedServices);
+      return criteriaBuilder.and(
+          combinedBase, ServiceMask.of(services).anyOf(root, criteriaBuilder));
     }
   }
 
@@ -228,21 +228,8 @@ public interface FacilityRepository
       if (isEmpty(services)) {
         return combinedBase;
       }
-      Predicate[] servicePredicates =
-          services.stream()
-              .map(svc -> criteriaBuilder.isMember(svc.toString(), root.get("services")))
-              .toArray(Predicate[]::new);
-      Predicate anyFacilityService = criteriaBuilder.or(servicePredicates);
-
-      Predicate[] overlayServicePredicates =
-          services.stream()
-              .map(svc -> criteriaBuilder.isMember(svc.toString(), root.get("overlayServices")))
-              .toArray(Predicate[]::new);
-      Predicate anyOverlayService = criteriaBuilder.or(overlayServicePredicates);
-
-      Predicate combinedServices = criteriaBuilder.or(anyFacilityService, anyOverlayService);
-
-      return criteriaBuilder.and(combinedBase, combinedServices);
+      return criteriaBuilder.and(
+          combinedBase, ServiceMask.of(services).anyOf(root, criteriaBuilder));
     }
   }
 
@@ -276,21 +263,8 @@ public interface FacilityRepository
       if (isEmpty(services)) {
         return combinedBase;
       }
-      Predicate[] servicePredicates =
-          services.stream()
-              .map(svc -> criteriaBuilder.isMember(svc.toString(), root.get("services")))
-              .toArray(Predicate[]::new);
-      Predicate anyFacilityService = criteriaBuilder.or(servicePredicates);
-
-      Predicate[] overlayServicePredicates =
-          services.stream()
-              .map(svc -> criteriaBuilder.isMember(svc.toString(), root.get("overlayServices")))
-              .toArray(Predicate[]::new);
-      Predicate anyOverlayService = criteriaBuilder.or(overlayServicePredicates);
-
-      Predicate combinedServices = criteriaBuilder.or(anyFacilityService, anyOverlayService);
-
-      return criteriaBuilder.and(combinedBase, combinedServices);
+      return criteriaBuilder.and(
+          combinedBase, ServiceMask.of(services).anyOf(root, criteriaBuilder));
     }
   }
 }
@@ -0,0 +1,117 @@
+package gov.va.api.lighthouse.facilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.ByteArrayOutputStream;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Bounded cache of fully rendered facility read responses. Entries are keyed by facility ID and
+ * entity version, so any change to a facility results in a new key and stale entries simply age
+ * out. The cache is bounded by the total size of the rendered bytes.
+ */
+final class FacilityResponseCache {
+  private final ObjectMapper mapper;
+
+  private final Cache<Key, Rendered> cache;
+
+  FacilityResponseCache(@NonNull ObjectMapper mapper, long maxBytes) {
+    this.mapper = mapper;
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(Math.max(maxBytes, 0))
+            .weigher((Key k, Rendered r) -> r.weight())
+            .recordStats()
+            .build();
+  }
+
+  @SneakyThrows
+  private static byte[] gzip(byte[] json) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(json);
+    }
+    return out.toByteArray();
+  }
+
+  /** Whether the Accept-Encoding header allows a gzip response. */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String encoding : acceptEncoding.split(",")) {
+      String[] parts = encoding.trim().split(";");
+      if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+        continue;
+      }
+      for (int i = 1; i < parts.length; i++) {
+        if (parts[i].replace(" ", "").matches("q=0(\\.0*)?")) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Get the rendered response for this version of the facility, rendering it on a cache miss.
+   * Responses for facilities without a version are rendered but not cached.
+   */
+  @SneakyThrows
+  Rendered get(@NonNull FacilityEntity.Pk id, Integer version, Supplier<Object> response) {
+    if (version == null) {
+      return render(response.get());
+    }
+    return cache.get(new Key(id, version), () -> render(response.get()));
+  }
+
+  @SneakyThrows
+  private Rendered render(Object response) {
+    byte[] json = mapper.writeValueAsBytes(response);
+    return new Rendered(json, gzip(json));
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  @Value
+  static class Key {
+    FacilityEntity.Pk id;
+
+    int version;
+  }
+
+  @Value
+  static class Rendered {
+    byte[] json;
+
+    byte[] gzip;
+
+    int weight() {
+      return json.length + gzip.length;
+    }
+
+    /** Write the response body and headers, compressed if the client allows it. */
+    @SneakyThrows
+    void writeTo(HttpServletResponse response, boolean useGzip) {
+      byte[] body = useGzip ? gzip : json;
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+      if (useGzip) {
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+      }
+      response.setContentLength(body.length);
+      response.getOutputStream().write(body);
+    }
+  }
+}
@@ -0,0 +1,222 @@
+package gov.va.api.lighthouse.facilities;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An immutable, point-in-time copy of every facility with the facility payload already parsed.
+ * Snapshots are never modified once built. Changes to the facility table are published by building
+ * a new snapshot and replacing the old one in {@link FacilitySnapshots}.
+ */
+@Slf4j
+@Value
+public class FacilitySnapshot {
+  private static final ObjectMapper DATAMART_MAPPER =
+      DatamartFacilitiesJacksonConfig.createMapper();
+
+  /** Same ordering as {@link FacilityEntity#naturalOrder()}, i.e. type then station number. */
+  static final Comparator<Entry> NATURAL_ORDER =
+      Comparator.comparing((Entry e) -> e.id().type().name())
+          .thenComparing(e -> e.id().stationNumber());
+
+  long generation;
+
+  Instant created;
+
+  /** All entries in natural order. */
+  List<Entry> entries;
+
+  Map<FacilityEntity.Pk, Entry> entriesById;
+
+  /**
+   * Hash of every facility ID and version in the snapshot. Unlike the generation, this is the same
+   * on every instance that has loaded the same data, so it can be used as a validator for
+   * responses built from the snapshot.
+   */
+  String fingerprint;
+
+  /** Coordinates of every entry, reporting entries by their position in {@link #entries}. */
+  FacilitySpatialIndex spatialIndex;
+
+  private FacilitySnapshot(long generation, List<Entry> entries) {
+    this.generation = generation;
+    this.created = Instant.now();
+    this.entries = List.copyOf(entries);
+    this.entriesById =
+        entries.stream().collect(toMap(Entry::id, Function.identity(), (a, b) -> a));
+    this.fingerprint = fingerprint(this.entries);
+    this.spatialIndex =
+        FacilitySpatialIndex.of(
+            this.entries.stream().mapToDouble(Entry::longitude).toArray(),
+            this.entries.stream().mapToDouble(Entry::latitude).toArray());
+  }
+
+  private static String fingerprint(List<Entry> entries) {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    for (Entry entry : entries) {
+      hasher.putUnencodedChars(entry.id().toIdString());
+      if (entry.version() == null) {
+        hasher.putUnencodedChars(Objects.toString(entry.facility(), ""));
+      } else {
+        hasher.putInt(entry.version());
+      }
+      hasher.putChar(';');
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Build a snapshot from the given entities. Entities with payloads that cannot be parsed are
+   * skipped, since they cannot be served by the API either.
+   */
+  static FacilitySnapshot of(long generation, @NonNull Iterable<FacilityEntity> entities) {
+    List<Entry> entries =
+        StreamSupport.stream(entities.spliterator(), true)
+            .map(FacilitySnapshot::toEntry)
+            .filter(Objects::nonNull)
+            .sorted(NATURAL_ORDER)
+            .collect(toList());
+    return new FacilitySnapshot(generation, entries);
+  }
+
+  private static Entry toEntry(FacilityEntity entity) {
+    try {
+      return Entry.of(
+          entity, DATAMART_MAPPER.readValue(entity.facility(), DatamartFacility.class));
+    } catch (Exception e) {
+      log.warn("Excluding facility {} from snapshot: {}", entity.id(), e.getMessage());
+      return null;
+    }
+  }
+
+  Optional<Entry> findById(FacilityEntity.Pk pk) {
+    return Optional.ofNullable(entriesById.get(pk));
+  }
+
+  /** Find the entries for the given IDs, in the order the IDs are given. */
+  List<Entry> findByIds(List<FacilityEntity.Pk> pks) {
+    return pks.stream().map(entriesById::get).filter(Objects::nonNull).collect(toList());
+  }
+
+  /** Entries in the bounding box, in natural order. */
+  List<Entry> findInBoundingBox(double minLng, double minLat, double maxLng, double maxLat) {
+    BitSet found = new BitSet(entries.size());
+    spatialIndex.withinBox(minLng, minLat, maxLng, maxLat, found::set);
+    return found.stream().mapToObj(entries::get).collect(toList());
+  }
+
+  /** Entries within the given number of miles, in natural order. */
+  List<Entry> findInRadius(double lng, double lat, double miles) {
+    BitSet found = new BitSet(entries.size());
+    spatialIndex.withinRadius(lng, lat, miles, found::set);
+    return found.stream().mapToObj(entries::get).collect(toList());
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  Stream<Entry> stream() {
+    return entries.stream();
+  }
+
+  /**
+   * A facility as it was when the snapshot was taken. This carries the same data as {@link
+   * FacilityEntity}, plus the parsed facility payload.
+   */
+  @Value
+  @Builder
+  public static class Entry implements HasFacilityPayload {
+    @NonNull FacilityEntity.Pk id;
+
+    String zip;
+
+    String state;
+
+    String visn;
+
+    double latitude;
+
+    double longitude;
+
+    Boolean mobile;
+
+    @NonNull Set<String> services;
+
+    @NonNull Set<String> overlayServices;
+
+    @NonNull ServiceMask serviceMask;
+
+    String facility;
+
+    String cmsOperatingStatus;
+
+    String cmsServices;
+
+    Integer version;
+
+    Instant lastUpdated;
+
+    @NonNull DatamartFacility datamartFacility;
+
+    static Entry of(FacilityEntity entity, DatamartFacility datamartFacility) {
+      return Entry.builder()
+          .id(entity.id())
+          .zip(entity.zip())
+          .state(entity.state())
+          .visn(entity.visn())
+          .latitude(entity.latitude())
+          .longitude(entity.longitude())
+          .mobile(entity.mobile())
+          .services(entity.services() == null ? Set.of() : Set.copyOf(entity.services()))
+          .overlayServices(
+              entity.overlayServices() == null ? Set.of() : Set.copyOf(entity.overlayServices()))
+          .serviceMask(entity.serviceMask())
+          .facility(entity.facility())
+          .cmsOperatingStatus(entity.cmsOperatingStatus())
+          .cmsServices(entity.cmsServices())
+          .version(entity.version())
+          .lastUpdated(entity.lastUpdated())
+          .datamartFacility(datamartFacility)
+          .build();
+    }
+
+    /**
+     * Same semantics as the services predicate of the FacilityRepository specifications. An empty
+     * or missing mask means no services were requested.
+     */
+    boolean hasAnyService(ServiceMask wanted) {
+      return wanted == null || wanted.isEmpty() || serviceMask.intersects(wanted);
+    }
+
+    /** Filter by the optional type, services, and mobile search parameters. */
+    boolean matches(FacilityEntity.Type facilityType, ServiceMask wanted, Boolean isMobile) {
+      if (facilityType != null && id.type() != facilityType) {
+        return false;
+      }
+      if (isMobile != null && !isMobile.equals(mobile)) {
+        return false;
+      }
+      return hasAnyService(wanted);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package gov.va.api.lighthouse.facilities;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Holds the current {@link FacilitySnapshot}. Snapshots are rebuilt on a single background thread
+ * and published by swapping the reference, so readers always see a complete snapshot. Refresh
+ * requests that arrive while a rebuild is already queued are coalesced into that rebuild.
+ */
+@Slf4j
+@Component
+public class FacilitySnapshots {
+  private final FacilityRepository facilityRepository;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final AtomicReference<FacilitySnapshot> current = new AtomicReference<>();
+
+  private final AtomicLong generation = new AtomicLong();
+
+  private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setNameFormat("facility-snapshot-%d").setDaemon(true).build());
+
+  FacilitySnapshots(
+      @Autowired FacilityRepository facilityRepository,
+      @Autowired PlatformTransactionManager transactionManager) {
+    this.facilityRepository = facilityRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setReadOnly(true);
+  }
+
+  /** The latest snapshot, or empty if one has not been built yet. */
+  public Optional<FacilitySnapshot> current() {
+    return Optional.ofNullable(current.get());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void initialize() {
+    refresh();
+  }
+
+  /**
+   * Rebuild periodically so that changes made by other instances of this application are also
+   * picked up.
+   */
+  @Scheduled(
+      initialDelayString = "${facilities.snapshot.refresh-interval-millis:300000}",
+      fixedDelayString = "${facilities.snapshot.refresh-interval-millis:300000}")
+  void periodicRefresh() {
+    refresh();
+  }
+
+  /** Rebuild in the background. The current snapshot continues to be served until then. */
+  public void refresh() {
+    if (!refreshPending.compareAndSet(false, true)) {
+      return;
+    }
+    executor.execute(
+        () -> {
+          refreshPending.set(false);
+          try {
+            rebuild();
+          } catch (Exception e) {
+            log.error("Failed to rebuild facility snapshot", e);
+          }
+        });
+  }
+
+  /** Rebuild and publish a new snapshot on the calling thread. */
+  FacilitySnapshot rebuild() {
+    long start = System.currentTimeMillis();
+    FacilitySnapshot snapshot =
+        transactionTemplate.execute(
+            status -> {
+              List<FacilityEntity> entities = new ArrayList<>();
+              for (FacilityEntity entity : facilityRepository.findAll()) {
+                // Initialize lazy collections on this thread, the session is not thread safe.
+                // Each initialization loads the collection for a batch of facilities.
+                Hibernate.initialize(entity.services());
+                Hibernate.initialize(entity.overlayServices());
+                entities.add(entity);
+              }
+              return FacilitySnapshot.of(generation.incrementAndGet(), entities);
+            });
+    current.set(snapshot);
+    log.info(
+        "Facility snapshot {} built with {} facilities in {} ms",
+        snapshot.generation(),
+        snapshot.size(),
+        System.currentTimeMillis() - start);
+    return snapshot;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+}
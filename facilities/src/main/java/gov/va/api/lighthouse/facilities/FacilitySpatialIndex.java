@@ -0,0 +1,231 @@
+package gov.va.api.lighthouse.facilities;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static gov.va.api.lighthouse.facilities.FacilityUtils.EARTH_RADIUS_MILES;
+import static gov.va.api.lighthouse.facilities.FacilityUtils.haversine;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import lombok.NonNull;
+
+/**
+ * Immutable 2-d tree over facility coordinates, used to answer bounding box, radius, and nearest
+ * neighbor searches without visiting every facility.
+ *
+ * <p>Coordinates are kept in primitive arrays laid out as an implicit balanced tree: the middle
+ * element of each range is the root of that range, with coordinates less than or equal to it on
+ * the left and greater than or equal to it on the right. Levels alternate between longitude and
+ * latitude. Points are reported by their position in the arrays the index was built from, which
+ * for {@link FacilitySnapshot} is the position of the entry.
+ */
+final class FacilitySpatialIndex {
+  private static final int LONGITUDE = 0;
+
+  private static final int LATITUDE = 1;
+
+  /** Original position of each point, in tree order. */
+  private final int[] points;
+
+  private final double[] longitudes;
+
+  private final double[] latitudes;
+
+  private FacilitySpatialIndex(double[] longitudes, double[] latitudes) {
+    this.longitudes = longitudes;
+    this.latitudes = latitudes;
+    this.points = new int[longitudes.length];
+    for (int i = 0; i < points.length; i++) {
+      points[i] = i;
+    }
+    build(0, points.length, LONGITUDE);
+  }
+
+  /** Build an index over the given coordinates. The arrays are copied. */
+  static FacilitySpatialIndex of(@NonNull double[] longitudes, @NonNull double[] latitudes) {
+    checkArgument(longitudes.length == latitudes.length, "coordinate arrays differ in length");
+    return new FacilitySpatialIndex(longitudes.clone(), latitudes.clone());
+  }
+
+  /**
+   * Lower bound of the distance in miles from the given point to any point on the other side of a
+   * split. For longitude splits the far side is bounded by the split meridian and the
+   * antimeridian, so the bound is the distance to the nearer of those two great circles.
+   */
+  private static double minDistanceToSplit(int axis, double split, double lng, double lat) {
+    if (axis == LATITUDE) {
+      return EARTH_RADIUS_MILES * Math.toRadians(Math.abs(split - lat));
+    }
+    double sine =
+        Math.min(
+            Math.abs(Math.sin(Math.toRadians(split - lng))),
+            Math.abs(Math.sin(Math.toRadians(lng))));
+    return EARTH_RADIUS_MILES * Math.asin(Math.min(1, Math.cos(Math.toRadians(lat)) * sine));
+  }
+
+  private static int nextAxis(int axis) {
+    return axis == LONGITUDE ? LATITUDE : LONGITUDE;
+  }
+
+  private void box(
+      int lo,
+      int hi,
+      int axis,
+      double minLng,
+      double minLat,
+      double maxLng,
+      double maxLat,
+      IntConsumer action) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    double lng = longitudes[mid];
+    double lat = latitudes[mid];
+    if (lng >= minLng && lng <= maxLng && lat >= minLat && lat <= maxLat) {
+      action.accept(points[mid]);
+    }
+    double split = axis == LONGITUDE ? lng : lat;
+    double min = axis == LONGITUDE ? minLng : minLat;
+    double max = axis == LONGITUDE ? maxLng : maxLat;
+    if (min <= split) {
+      box(lo, mid, nextAxis(axis), minLng, minLat, maxLng, maxLat, action);
+    }
+    if (max >= split) {
+      box(mid + 1, hi, nextAxis(axis), minLng, minLat, maxLng, maxLat, action);
+    }
+  }
+
+  private void build(int lo, int hi, int axis) {
+    if (hi - lo <= 1) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    select(lo, hi - 1, mid, axis);
+    build(lo, mid, nextAxis(axis));
+    build(mid + 1, hi, nextAxis(axis));
+  }
+
+  private double key(int axis, int i) {
+    return axis == LONGITUDE ? longitudes[i] : latitudes[i];
+  }
+
+  /**
+   * Positions of the k points nearest to the given coordinates that are accepted by the filter,
+   * nearest first. Points at the same distance are ordered by position.
+   */
+  int[] nearest(double lng, double lat, int k, @NonNull IntPredicate filter) {
+    checkArgument(k >= 0, "k must not be negative");
+    NearestHeap neighbors = new NearestHeap(Math.min(k, points.length));
+    if (neighbors.capacity() > 0) {
+      nearest(0, points.length, LONGITUDE, lng, lat, filter, neighbors);
+    }
+    return neighbors.drain();
+  }
+
+  private void nearest(
+      int lo,
+      int hi,
+      int axis,
+      double lng,
+      double lat,
+      IntPredicate filter,
+      NearestHeap neighbors) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    if (filter.test(points[mid])) {
+      neighbors.offer(haversine(longitudes[mid], latitudes[mid], lng, lat), points[mid]);
+    }
+    double split = key(axis, mid);
+    boolean leftIsNear = (axis == LONGITUDE ? lng : lat) <= split;
+    int nearLo = leftIsNear ? lo : mid + 1;
+    int nearHi = leftIsNear ? mid : hi;
+    int farLo = leftIsNear ? mid + 1 : lo;
+    int farHi = leftIsNear ? hi : mid;
+    nearest(nearLo, nearHi, nextAxis(axis), lng, lat, filter, neighbors);
+    if (!neighbors.isFull()
+        || minDistanceToSplit(axis, split, lng, lat) <= neighbors.farthestDistance()) {
+      nearest(farLo, farHi, nextAxis(axis), lng, lat, filter, neighbors);
+    }
+  }
+
+  private void radius(
+      int lo, int hi, int axis, double lng, double lat, double miles, IntConsumer action) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    if (haversine(longitudes[mid], latitudes[mid], lng, lat) <= miles) {
+      action.accept(points[mid]);
+    }
+    double split = key(axis, mid);
+    boolean leftIsNear = (axis == LONGITUDE ? lng : lat) <= split;
+    boolean farIsReachable = minDistanceToSplit(axis, split, lng, lat) <= miles;
+    if (leftIsNear || farIsReachable) {
+      radius(lo, mid, nextAxis(axis), lng, lat, miles, action);
+    }
+    if (!leftIsNear || farIsReachable) {
+      radius(mid + 1, hi, nextAxis(axis), lng, lat, miles, action);
+    }
+  }
+
+  /**
+   * Partially sort the inclusive range so that the k-th element is in place, with no larger keys
+   * before it and no smaller keys after it.
+   */
+  private void select(int left, int right, int k, int axis) {
+    while (left < right) {
+      double pivot = key(axis, (left + right) >>> 1);
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (key(axis, i) < pivot) {
+          i++;
+        }
+        while (key(axis, j) > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          swap(i, j);
+          i++;
+          j--;
+        }
+      }
+      if (k <= j) {
+        right = j;
+      } else if (k >= i) {
+        left = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  int size() {
+    return points.length;
+  }
+
+  private void swap(int i, int j) {
+    int point = points[i];
+    points[i] = points[j];
+    points[j] = point;
+    double lng = longitudes[i];
+    longitudes[i] = longitudes[j];
+    longitudes[j] = lng;
+    double lat = latitudes[i];
+    latitudes[i] = latitudes[j];
+    latitudes[j] = lat;
+  }
+
+  /** Report every point inside the bounding box, edges included, in no particular order. */
+  void withinBox(
+      double minLng, double minLat, double maxLng, double maxLat, @NonNull IntConsumer action) {
+    box(0, points.length, LONGITUDE, minLng, minLat, maxLng, maxLat, action);
+  }
+
+  /** Report every point within the given number of miles, in no particular order. */
+  void withinRadius(double lng, double lat, double miles, @NonNull IntConsumer action) {
+    radius(0, points.length, LONGITUDE, lng, lat, miles, action);
+  }
+}
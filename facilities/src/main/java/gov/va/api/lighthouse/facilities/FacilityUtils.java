@@ -14,10 +14,18 @@ import lombok.experimental.UtilityClass;
 
 @UtilityClass
 public class FacilityUtils {
+  /** Earth radius in miles. */
+  static final double EARTH_RADIUS_MILES = 3958.8;
+
   /** Unitless distance approximation based on geometric distance formula. For sorting only. */
   static double distance(@NonNull FacilityEntity entity, double lng, double lat) {
-    double lngDiff = entity.longitude() - lng;
-    double latDiff = entity.latitude() - lat;
+    return distance(entity.longitude(), entity.latitude(), lng, lat);
+  }
+
+  /** Unitless distance approximation based on geometric distance formula. For sorting only. */
+  static double distance(double fromLng, double fromLat, double lng, double lat) {
+    double lngDiff = fromLng - lng;
+    double latDiff = fromLat - lat;
     return Math.sqrt(lngDiff * lngDiff + latDiff * latDiff);
   }
 
@@ -37,8 +45,13 @@ public class FacilityUtils {
 
   /** Distance in miles using Haversine algorithm. */
   static double haversine(@NonNull FacilityEntity entity, double lng, double lat) {
-    double lon1 = Math.toRadians(entity.longitude());
-    double lat1 = Math.toRadians(entity.latitude());
+    return haversine(entity.longitude(), entity.latitude(), lng, lat);
+  }
+
+  /** Distance in miles using Haversine algorithm. */
+  static double haversine(double fromLng, double fromLat, double lng, double lat) {
+    double lon1 = Math.toRadians(fromLng);
+    double lat1 = Math.toRadians(fromLat);
     double lon2 = Math.toRadians(lng);
     double lat2 = Math.toRadians(lat);
     double lonDiff = lon2 - lon1;
@@ -46,8 +59,7 @@ public class FacilityUtils {
     double x = Math.sin(latDiff / 2);
     double y = Math.sin(lonDiff / 2);
     double coeff = Math.cos(lat1) * Math.cos(lat2);
-    // 3958.8 is Earth radius in miles
-    return 3958.8 * 2 * Math.asin(Math.sqrt(x * x + coeff * y * y));
+    return EARTH_RADIUS_MILES * 2 * Math.asin(Math.sqrt(x * x + coeff * y * y));
   }
 
   @SneakyThrows
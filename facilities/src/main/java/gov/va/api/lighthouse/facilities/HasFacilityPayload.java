@@ -1,5 +1,6 @@
 package gov.va.api.lighthouse.facilities;
 
+import java.time.Instant;
 import java.util.Set;
 
 /** A DTO projection of the FacilityEntity. */
@@ -15,5 +16,13 @@ public interface HasFacilityPayload {
    */
   String facility();
 
+  FacilityEntity.Pk id();
+
+  /** When the facility was last written by a reload, if known. */
+  Instant lastUpdated();
+
   Set<String> overlayServices();
+
+  /** Optimistic locking version, which changes whenever the facility is updated. */
+  Integer version();
 }
@@ -14,6 +14,7 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Streams;
 import gov.va.api.health.autoconfig.logging.Loggable;
@@ -27,14 +28,20 @@ import gov.va.api.lighthouse.facilities.api.v0.ReloadResponse;
 import gov.va.api.lighthouse.facilities.collector.FacilitiesCollector;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
@@ -86,6 +93,9 @@ public class InternalFacilitiesController {
 
   private static final Pattern ZIP_PATTERN = Pattern.compile(ZIP_REGEX);
 
+  /** Facilities whose last updated time is set per statement, within SQL parameter limits. */
+  private static final int TOUCH_CHUNK_SIZE = 1000;
+
   private static final ObjectMapper DATAMART_MAPPER =
       DatamartFacilitiesJacksonConfig.createMapper();
 
@@ -95,6 +105,12 @@ public class InternalFacilitiesController {
 
   private final FacilityRepository facilityRepository;
 
+  private final FacilitySnapshots snapshots;
+
+  private final FacilityReloadBatches reloadBatches;
+
+  private final ReloadJobs reloadJobs;
+
   // Max distance in miles where two facilities are considered to be duplicates
   private final Double duplicateFacilityOverlapRange = 0.02;
 
@@ -136,6 +152,7 @@ public class InternalFacilitiesController {
     record.facility(DATAMART_MAPPER.writeValueAsString(datamartFacility));
     record.visn(datamartFacility.attributes().visn());
     record.mobile(datamartFacility.attributes().mobile());
+    record.contentHash(record.payloadHash());
     return record;
   }
 
@@ -192,6 +209,12 @@ public class InternalFacilitiesController {
     return null;
   }
 
+  @DeleteMapping(value = "/reload/jobs/{id}")
+  ReloadJobs.Status cancelReloadJob(@PathVariable("id") String id) {
+    log.info("Cancelling reload {}", sanitize(id));
+    return reloadJobs.cancel(id).status();
+  }
+
   private Optional<CmsOverlayEntity> cmsOverlayEntityById(String id) {
     FacilityEntity.Pk pk = null;
     try {
@@ -202,6 +225,27 @@ public class InternalFacilitiesController {
     return cmsOverlayRepository.findById(pk);
   }
 
+  /**
+   * Run reload work on the items in its own transaction. Results go to a response of their own,
+   * which is added to the given response only if the transaction commits.
+   */
+  private <T> Optional<RuntimeException> commit(
+      ReloadResponse response, List<T> items, BiConsumer<ReloadResponse, List<T>> work) {
+    ReloadResponse results = ReloadResponse.start().timing(response.timing());
+    Optional<RuntimeException> failure =
+        reloadBatches.inTransaction(() -> work.accept(results, items));
+    if (failure.isEmpty()) {
+      response.facilitiesCreated().addAll(results.facilitiesCreated());
+      response.facilitiesUpdated().addAll(results.facilitiesUpdated());
+      response.facilitiesUnchanged().addAll(results.facilitiesUnchanged());
+      response.facilitiesMissing().addAll(results.facilitiesMissing());
+      response.facilitiesRevived().addAll(results.facilitiesRevived());
+      response.facilitiesRemoved().addAll(results.facilitiesRemoved());
+      response.problems().addAll(results.problems());
+    }
+    return failure;
+  }
+
   /**
    * Delete an overlay if thisNodeOnly is not specified or partial overlay identified by
    * thisNodeOnly.
@@ -273,6 +317,7 @@ public class InternalFacilitiesController {
       }
 
       facilityRepository.save(facilityEntity);
+      refreshSnapshots();
     }
     return ResponseEntity.ok().build();
   }
@@ -286,6 +331,7 @@ public class InternalFacilitiesController {
     }
     log.info("Deleting facility {}", sanitize(id));
     facilityRepository.delete(entity.get());
+    refreshSnapshots();
     return ResponseEntity.ok().build();
   }
 
@@ -343,6 +389,41 @@ public class InternalFacilitiesController {
     return facilityEntities;
   }
 
+  /**
+   * Run reload work in chunks that are each committed together, running the checkpoint before each
+   * chunk. Results of a chunk are added to the response only once it commits. If a chunk fails to
+   * commit, its items are retried one at a time, so only the items that cannot be written are left
+   * out, each with a problem of its own, and later chunks still run.
+   */
+  private <T> void inChunks(
+      ReloadResponse response,
+      List<T> items,
+      Function<T, String> facilityId,
+      String failure,
+      BiConsumer<ReloadResponse, List<T>> work,
+      Runnable checkpoint) {
+    for (List<T> chunk : reloadBatches.chunks(items)) {
+      checkpoint.run();
+      Optional<RuntimeException> chunkFailure = commit(response, chunk, work);
+      if (chunkFailure.isEmpty()) {
+        continue;
+      }
+      log.error(
+          "Failed to commit {} facilities, retrying one at a time: {}",
+          chunk.size(),
+          chunkFailure.get().getMessage());
+      for (T item : chunk) {
+        commit(response, List.of(item), work)
+            .ifPresent(
+                e -> {
+                  String id = facilityId.apply(item);
+                  log.error("{} {}: {}", failure, id, e.getMessage());
+                  response.problems().add(ReloadResponse.Problem.of(id, failure + e.getMessage()));
+                });
+      }
+    }
+  }
+
   private Set<FacilityEntity.Pk> missingIds(List<DatamartFacility> collectedFacilities) {
     Set<FacilityEntity.Pk> newIds =
         collectedFacilities.stream()
@@ -384,29 +465,63 @@ public class InternalFacilitiesController {
     }
   }
 
+  /** Load the existing entities with the given IDs in one query. */
+  private Map<FacilityEntity.Pk, FacilityEntity> preload(Collection<FacilityEntity.Pk> ids) {
+    Map<FacilityEntity.Pk, FacilityEntity> entities = new HashMap<>();
+    for (FacilityEntity entity : facilityRepository.findByIdIn(ids)) {
+      entities.put(entity.id(), entity);
+    }
+    return entities;
+  }
+
+  /** Process collected facilities, running the checkpoint before each chunk of work. */
   private ResponseEntity<ReloadResponse> process(
-      ReloadResponse response, List<DatamartFacility> collectedFacilities) {
+      ReloadResponse response, List<DatamartFacility> collectedFacilities, Runnable checkpoint) {
     response.timing().markCompleteCollection();
     log.info("Facilities collected: {}", collectedFacilities.size());
     try {
-      collectedFacilities.parallelStream().forEach(f -> updateFacility(response, f));
-      for (FacilityEntity.Pk missingId : missingIds(collectedFacilities)) {
-        processMissingFacility(response, missingId);
+      Map<FacilityEntity.Pk, DatamartFacility> processable = new LinkedHashMap<>();
+      for (DatamartFacility datamartFacility : collectedFacilities) {
+        processableId(response, datamartFacility)
+            .ifPresent(pk -> processable.put(pk, datamartFacility));
       }
+      inChunks(
+          response,
+          List.copyOf(processable.entrySet()),
+          facility -> facility.getKey().toIdString(),
+          "Failed to save record: ",
+          this::updateFacilities,
+          checkpoint);
+      checkpoint.run();
+      touchUnchangedFacilities(response);
+      inChunks(
+          response,
+          List.copyOf(missingIds(collectedFacilities)),
+          FacilityEntity.Pk::toIdString,
+          "Failed to mark facility as missing: ",
+          this::processMissingFacilities,
+          checkpoint);
     } catch (Exception e) {
       log.error("Failed to process facilities: {}", e.getMessage());
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     } finally {
       response.timing().markComplete();
+      refreshSnapshots();
     }
     return ResponseEntity.ok(response);
   }
 
+  private void processMissingFacilities(ReloadResponse response, List<FacilityEntity.Pk> ids) {
+    Map<FacilityEntity.Pk, FacilityEntity> entities = preload(ids);
+    for (FacilityEntity.Pk id : ids) {
+      FacilityEntity entity = entities.get(id);
+      checkState(entity != null);
+      processMissingFacility(response, entity);
+    }
+  }
+
   @SneakyThrows
-  private void processMissingFacility(ReloadResponse response, FacilityEntity.Pk id) {
-    Optional<FacilityEntity> optEntity = facilityRepository.findById(id);
-    checkState(optEntity.isPresent());
-    FacilityEntity entity = optEntity.get();
+  private void processMissingFacility(ReloadResponse response, FacilityEntity entity) {
     Instant now = response.timing().completeCollection();
     if (entity.missingTimestamp() == null) {
       entity.missingTimestamp(now.toEpochMilli());
@@ -419,12 +534,58 @@ public class InternalFacilitiesController {
     facilityRepository.delete(entity);
   }
 
+  /**
+   * The ID of the facility, if it can be processed, or empty after adding the reason it cannot be
+   * to the problems.
+   */
+  private Optional<FacilityEntity.Pk> processableId(
+      ReloadResponse response, DatamartFacility datamartFacility) {
+    FacilityEntity.Pk pk;
+    try {
+      pk = FacilityEntity.Pk.fromIdString(datamartFacility.id());
+    } catch (IllegalArgumentException e) {
+      log.error("Cannot process facility {}, ID not understood", datamartFacility.id(), e);
+      response.problems().add(ReloadResponse.Problem.of(datamartFacility.id(), "Cannot parse ID"));
+      return Optional.empty();
+    }
+    if (datamartFacility.attributes().latitude() == null
+        || datamartFacility.attributes().longitude() == null) {
+      log.error(
+          "Cannot process facility {}, latitude and/or longitude is null", datamartFacility.id());
+      response
+          .problems()
+          .add(ReloadResponse.Problem.of(datamartFacility.id(), "Missing coordinates"));
+      return Optional.empty();
+    }
+    return Optional.of(pk);
+  }
+
+  private void refreshSnapshots() {
+    snapshots.refresh();
+  }
+
+  /**
+   * Reload and wait for the result. The reload runs as a job, so this attaches to a reload that is
+   * already running, and the reload continues if the caller goes away.
+   */
   @GetMapping(value = "/reload")
   ResponseEntity<ReloadResponse> reload() {
-    var response = ReloadResponse.start();
-    var collectedFacilities = collector.collectFacilities();
+    return reloadJobs.submit(this::reload).await();
+  }
+
+  private ResponseEntity<ReloadResponse> reload(ReloadJobs.Job job) {
+    var response = job.response();
+    job.stage(ReloadJobs.Stage.COLLECTING);
+    var collectedFacilities = collector.collectFacilities(response.timing().sources());
     response.totalFacilities(collectedFacilities.size());
-    return process(response, collectedFacilities);
+    job.stage(ReloadJobs.Stage.PERSISTING);
+    job.checkNotCancelled();
+    return process(response, collectedFacilities, job::checkNotCancelled);
+  }
+
+  @GetMapping(value = "/reload/jobs/{id}")
+  ReloadJobs.Status reloadJob(@PathVariable("id") String id) {
+    return reloadJobs.job(id).status();
   }
 
   @SneakyThrows
@@ -446,17 +607,29 @@ public class InternalFacilitiesController {
     }
   }
 
+  /**
+   * Update the record from the facility and save it, unless the record is stored, not missing, and
+   * would be saved unchanged. Problems are reported either way. Returns whether it was saved.
+   */
   @SneakyThrows
-  void updateAndSave(
+  boolean updateAndSave(
       ReloadResponse response, FacilityEntity record, DatamartFacility datamartFacility) {
     datamartFacility
         .attributes()
         .operationalHoursSpecialInstructions(
             findAndReplaceOperationalHoursSpecialInstructions(
                 datamartFacility.attributes().operationalHoursSpecialInstructions()));
-    populate(record, datamartFacility);
-    record.missingTimestamp(null);
-    record.lastUpdated(response.timing().completeCollection());
+    boolean unchanged =
+        record.version() != null
+            && record.missingTimestamp() == null
+            && populate(FacilityEntity.builder().id(record.id()).build(), datamartFacility)
+                .contentHash()
+                .equals(record.contentHash());
+    if (!unchanged) {
+      populate(record, datamartFacility);
+      record.missingTimestamp(null);
+      record.lastUpdated(response.timing().completeCollection());
+    }
     /*
      * Determine if there is something wrong with the record, but it is still usable.
      */
@@ -609,8 +782,12 @@ public class InternalFacilitiesController {
         && isBlank(record.visn())) {
       response.problems().add(ReloadResponse.Problem.of(datamartFacility.id(), "Missing VISN"));
     }
+    if (unchanged) {
+      return false;
+    }
     try {
       facilityRepository.save(record);
+      return true;
     } catch (Exception e) {
       log.error("Failed to save facility record {}: {}", record.id(), e.getMessage());
       log.error("{}", record);
@@ -623,29 +800,41 @@ public class InternalFacilitiesController {
     }
   }
 
-  private void updateFacility(ReloadResponse response, DatamartFacility datamartFacility) {
-    FacilityEntity.Pk pk;
-    try {
-      pk = FacilityEntity.Pk.fromIdString(datamartFacility.id());
-    } catch (IllegalArgumentException e) {
-      log.error("Cannot process facility {}, ID not understood", datamartFacility.id(), e);
-      response.problems().add(ReloadResponse.Problem.of(datamartFacility.id(), "Cannot parse ID"));
-      return;
+  /** Bump the last updated time of unchanged facilities without rewriting them. */
+  private void touchUnchangedFacilities(ReloadResponse response) {
+    List<FacilityEntity.Pk> ids =
+        response.facilitiesUnchanged().stream()
+            .map(FacilityEntity.Pk::fromIdString)
+            .collect(Collectors.toList());
+    for (List<FacilityEntity.Pk> chunk : Lists.partition(ids, TOUCH_CHUNK_SIZE)) {
+      facilityRepository.updateLastUpdatedByIdIn(chunk, response.timing().completeCollection());
     }
-    if (datamartFacility.attributes().latitude() == null
-        || datamartFacility.attributes().longitude() == null) {
-      log.error(
-          "Cannot process facility {}, latitude and/or longitude is null", datamartFacility.id());
-      response
-          .problems()
-          .add(ReloadResponse.Problem.of(datamartFacility.id(), "Missing coordinates"));
-      return;
+    log.info("Facilities unchanged: {}", ids.size());
+  }
+
+  /** Create or update the facilities of a chunk against entities preloaded in one query. */
+  private void updateFacilities(
+      ReloadResponse response, List<Map.Entry<FacilityEntity.Pk, DatamartFacility>> chunk) {
+    Map<FacilityEntity.Pk, FacilityEntity> existing =
+        preload(chunk.stream().map(Map.Entry::getKey).collect(Collectors.toList()));
+    for (Map.Entry<FacilityEntity.Pk, DatamartFacility> facility : chunk) {
+      updateFacility(response, facility.getKey(), facility.getValue(), existing);
     }
-    var existing = facilityRepository.findById(pk);
-    if (existing.isPresent()) {
-      response.facilitiesUpdated().add(datamartFacility.id());
-      log.warn("Updating facility {}", datamartFacility.id());
-      updateAndSave(response, existing.get(), datamartFacility);
+  }
+
+  private void updateFacility(
+      ReloadResponse response,
+      FacilityEntity.Pk pk,
+      DatamartFacility datamartFacility,
+      Map<FacilityEntity.Pk, FacilityEntity> existing) {
+    FacilityEntity record = existing.get(pk);
+    if (record != null) {
+      if (updateAndSave(response, record, datamartFacility)) {
+        response.facilitiesUpdated().add(datamartFacility.id());
+        log.warn("Updated facility {}", datamartFacility.id());
+      } else {
+        response.facilitiesUnchanged().add(datamartFacility.id());
+      }
       return;
     }
     response.facilitiesCreated().add(datamartFacility.id());
@@ -653,10 +842,29 @@ public class InternalFacilitiesController {
     updateAndSave(response, FacilityEntity.builder().id(pk).build(), datamartFacility);
   }
 
+  /** Start a reload job, or attach to the one already running, without waiting for it. */
+  @PostMapping(value = "/reload/jobs")
+  ResponseEntity<ReloadJobs.Status> submitReloadJob() {
+    return ResponseEntity.accepted().body(reloadJobs.submit(this::reload).status());
+  }
+
+  /**
+   * Reload the given facilities as a job, so it cannot overlap another reload. If a reload is
+   * already running, this conflicts instead of waiting, since that reload has other facilities.
+   */
   @PostMapping(value = "/reload")
   @Loggable(arguments = false)
   ResponseEntity<ReloadResponse> upload(@RequestBody List<DatamartFacility> collectedFacilities) {
-    var response = ReloadResponse.start();
-    return process(response, collectedFacilities);
+    return reloadJobs
+        .start(job -> upload(job, collectedFacilities))
+        .map(ReloadJobs.Job::await)
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+  }
+
+  private ResponseEntity<ReloadResponse> upload(
+      ReloadJobs.Job job, List<DatamartFacility> collectedFacilities) {
+    job.response().totalFacilities(collectedFacilities.size());
+    job.stage(ReloadJobs.Stage.PERSISTING);
+    return process(job.response(), collectedFacilities, job::checkNotCancelled);
   }
 }
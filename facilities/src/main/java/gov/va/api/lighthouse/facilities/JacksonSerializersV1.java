@@ -27,6 +27,7 @@ import gov.va.api.lighthouse.facilities.api.v1.Facility.Satisfaction;
 import gov.va.api.lighthouse.facilities.api.v1.Facility.Services;
 import gov.va.api.lighthouse.facilities.api.v1.Facility.WaitTimes;
 import gov.va.api.lighthouse.facilities.api.v1.FacilityReadResponse;
+import gov.va.api.lighthouse.facilities.api.v1.NearbyBatchResponse;
 import gov.va.api.lighthouse.facilities.api.v1.NearbyResponse;
 import gov.va.api.lighthouse.facilities.api.v1.NearbyResponse.Meta;
 import gov.va.api.lighthouse.facilities.api.v1.NearbyResponse.Nearby;
@@ -57,6 +58,8 @@ import gov.va.api.lighthouse.facilities.api.v1.serializers.FacilityReadResponseS
 import gov.va.api.lighthouse.facilities.api.v1.serializers.FacilitySerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.HoursSerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.MetaSerializer;
+import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbyBatchResponseSerializer;
+import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbyBatchResultSerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbyAttributesSerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbyResponseSerializer;
 import gov.va.api.lighthouse.facilities.api.v1.serializers.NearbySerializer;
@@ -114,6 +117,8 @@ final class JacksonSerializersV1 {
     mod.addSerializer(NearbyAttributes.class, new NearbyAttributesSerializer());
     mod.addSerializer(Nearby.class, new NearbySerializer());
     mod.addSerializer(Meta.class, new MetaSerializer());
+    mod.addSerializer(NearbyBatchResponse.class, new NearbyBatchResponseSerializer());
+    mod.addSerializer(NearbyBatchResponse.Result.class, new NearbyBatchResultSerializer());
     mod.addSerializer(Pagination.class, new PaginationSerializer());
     mod.addSerializer(ReloadResponse.class, new ReloadResponseSerializer());
     mod.addSerializer(Problem.class, new ReloadResponseProblemSerializer());
@@ -5,21 +5,29 @@ import static gov.va.api.lighthouse.facilities.NearbyUtils.Coordinates;
 import static gov.va.api.lighthouse.facilities.NearbyUtils.NearbyId;
 import static gov.va.api.lighthouse.facilities.NearbyUtils.intersections;
 import static gov.va.api.lighthouse.facilities.NearbyUtils.validateDriveTime;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import gov.va.api.health.autoconfig.configuration.JacksonConfig;
 import gov.va.api.lighthouse.facilities.api.ServiceType;
 import gov.va.api.lighthouse.facilities.api.v0.NearbyResponse;
 import gov.va.api.lighthouse.facilities.collector.InsecureRestTemplateProvider;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import lombok.Builder;
 import lombok.NonNull;
@@ -43,33 +51,69 @@ import org.springframework.web.util.UriComponentsBuilder;
 @RequestMapping(value = "/v0/nearby")
 @Slf4j
 public class NearbyControllerV0 {
+  private static final ObjectReader BING_READER =
+      JacksonConfig.createMapper().readerFor(BingResponse.class);
+
   private final FacilityRepository facilityRepository;
 
   private final DriveTimeBandRepository driveTimeBandRepository;
 
+  private final DriveTimeBandPolygons driveTimeBandPolygons;
+
+  private final DriveTimeBandIndex driveTimeBandIndex;
+
+  private final NearbyResultCache nearbyResultCache;
+
   private final RestTemplate restTemplate;
 
   private final String bingKey;
 
   private final String bingUrl;
 
+  /** Coordinates by normalized address, or null if geocoded addresses are not cached. */
+  private final Cache<String, Coordinates> geocodeCache;
+
   @Builder
   NearbyControllerV0(
       @Autowired FacilityRepository facilityRepository,
       @Autowired DriveTimeBandRepository driveTimeBandRepository,
+      @Autowired DriveTimeBandPolygons driveTimeBandPolygons,
+      @Autowired DriveTimeBandIndex driveTimeBandIndex,
+      @Autowired NearbyResultCache nearbyResultCache,
       @Autowired InsecureRestTemplateProvider restTemplateProvider,
       @Value("${bing.key}") String bingKey,
-      @Value("${bing.url}") String bingUrl) {
+      @Value("${bing.url}") String bingUrl,
+      @Value("${bing.cache.max-entries:10000}") long geocodeCacheSize,
+      @Value("${bing.cache.ttl-seconds:86400}") long geocodeCacheTtlSeconds) {
     this.facilityRepository = facilityRepository;
     this.driveTimeBandRepository = driveTimeBandRepository;
+    this.driveTimeBandPolygons = driveTimeBandPolygons;
+    this.driveTimeBandIndex = driveTimeBandIndex;
+    this.nearbyResultCache = nearbyResultCache;
     this.restTemplate = restTemplateProvider.restTemplate();
     this.bingKey = bingKey;
     this.bingUrl = bingUrl.endsWith("/") ? bingUrl : bingUrl + "/";
+    this.geocodeCache =
+        geocodeCacheSize <= 0
+            ? null
+            : CacheBuilder.newBuilder()
+                .maximumSize(geocodeCacheSize)
+                .expireAfterWrite(Math.max(geocodeCacheTtlSeconds, 1), TimeUnit.SECONDS)
+                .build();
+  }
+
+  /**
+   * Cache key of an address, ignoring case and extra whitespace, which Bing ignores too. Parts are
+   * kept separate so that words moving between fields is a different address.
+   */
+  private static String normalize(String... parts) {
+    return Arrays.stream(parts)
+        .map(part -> part.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ENGLISH))
+        .collect(joining("|"));
   }
 
   @SneakyThrows
-  private Coordinates geocodeAddress(
-      @NonNull String street, @NonNull String city, @NonNull String state, @NonNull String zip) {
+  private Coordinates geocode(String street, String city, String state, String zip) {
     String address = street + " " + city + " " + state + " " + zip;
     String bingUriString =
         UriComponentsBuilder.fromHttpUrl(bingUrl + "REST/v1/Locations")
@@ -91,7 +135,7 @@ public class NearbyControllerV0 {
     if (isBlank(body)) {
       throw new ExceptionsUtilsV0.BingException("Empty response");
     }
-    BingResponse response = JacksonConfig.createMapper().readValue(body, BingResponse.class);
+    BingResponse response = BING_READER.readValue(body);
     Optional<List<BigDecimal>> coordinates =
         response.resourceSets().stream()
             .flatMap(rs -> rs.resources().stream())
@@ -113,6 +157,25 @@ public class NearbyControllerV0 {
         .build();
   }
 
+  /**
+   * Geocode the address with Bing, reusing the coordinates of recent lookups of the same address.
+   * Concurrent lookups of the same address wait for the first one instead of calling Bing again.
+   * Failures are not cached.
+   */
+  @SneakyThrows
+  private Coordinates geocodeAddress(
+      @NonNull String street, @NonNull String city, @NonNull String state, @NonNull String zip) {
+    if (geocodeCache == null) {
+      return geocode(street, city, state, zip);
+    }
+    try {
+      return geocodeCache.get(
+          normalize(street, city, state, zip), () -> geocode(street, city, state, zip));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      throw e.getCause();
+    }
+  }
+
   private String getMonthYearFromBandIds(List<NearbyId> ids) {
     String monthYear;
 
@@ -175,17 +238,26 @@ public class NearbyControllerV0 {
         latitude.doubleValue(),
         maxDriveTime,
         services.size());
+    return nearbyResultCache.get(
+        nearbyResultCache.key(longitude, latitude, services, maxDriveTime),
+        () -> search(longitude, latitude, services, maxDriveTime));
+  }
+
+  private List<NearbyId> search(
+      BigDecimal longitude, BigDecimal latitude, Set<ServiceType> services, Integer maxDriveTime) {
     var timer = Stopwatch.createStarted();
-    List<DriveTimeBandEntity> maybeBands =
-        driveTimeBandRepository.findAll(
-            DriveTimeBandRepository.MinMaxSpecification.builder()
-                .longitude(longitude)
-                .latitude(latitude)
-                .maxDriveTime(maxDriveTime)
-                .build());
-    log.info("{} bands found in {} ms", maybeBands.size(), timer.elapsed(TimeUnit.MILLISECONDS));
-    Map<String, DriveTimeBandEntity> bandsByStation =
-        intersections(longitude, latitude, maybeBands);
+    DriveTimeBandIndex.Candidates maybeBands =
+        driveTimeBandIndex.search(longitude.doubleValue(), latitude.doubleValue(), maxDriveTime);
+    Map<DriveTimeBandEntity.Pk, BandPolygon> polygons =
+        driveTimeBandPolygons.getAll(
+            maybeBands.uncovered(), driveTimeBandRepository::findPayloadsByIdIn);
+    log.info(
+        "{} bands found, {} covering, in {} ms",
+        maybeBands.bands().size(),
+        maybeBands.covering().size(),
+        timer.elapsed(TimeUnit.MILLISECONDS));
+    Map<String, DriveTimeBandEntity.Pk> bandsByStation =
+        intersections(longitude, latitude, maybeBands.bands(), maybeBands.covering(), polygons);
     List<FacilityEntity> facilityEntities =
         facilityRepository.findAll(
             FacilityRepository.StationNumbersSpecification.builder()
@@ -197,7 +269,7 @@ public class NearbyControllerV0 {
         .map(
             e ->
                 NearbyId.builder()
-                    .bandId(bandsByStation.get(e.id().stationNumber()).id())
+                    .bandId(bandsByStation.get(e.id().stationNumber()))
                     .facilityId(e.id().toIdString())
                     .build())
         .sorted(Comparator.comparingInt(left -> left.bandId().toMinutes()))
@@ -1,21 +1,34 @@
 package gov.va.api.lighthouse.facilities;
 
 import static gov.va.api.lighthouse.facilities.ControllersV1.validateServices;
+import static gov.va.api.lighthouse.facilities.NearbyUtils.Coordinates;
 import static gov.va.api.lighthouse.facilities.NearbyUtils.NearbyId;
 import static gov.va.api.lighthouse.facilities.NearbyUtils.intersections;
 import static gov.va.api.lighthouse.facilities.NearbyUtils.validateDriveTime;
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
 import gov.va.api.lighthouse.facilities.api.ServiceType;
+import gov.va.api.lighthouse.facilities.api.v1.NearbyBatchRequest;
+import gov.va.api.lighthouse.facilities.api.v1.NearbyBatchResponse;
 import gov.va.api.lighthouse.facilities.api.v1.NearbyResponse;
 import gov.va.api.lighthouse.facilities.collector.InsecureRestTemplateProvider;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import javax.validation.Valid;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -23,6 +36,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -32,17 +47,90 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(value = "/v1/nearby")
 @Slf4j
 public class NearbyControllerV1 {
+  /** Most points accepted by a single batch request. */
+  static final int MAX_BATCH_POINTS = 1000;
+
+  private static final int PAYLOAD_CHUNK_SIZE = 500;
+
   private final FacilityRepository facilityRepository;
 
   private final DriveTimeBandRepository driveTimeBandRepository;
 
+  private final DriveTimeBandPolygons driveTimeBandPolygons;
+
+  private final DriveTimeBandIndex driveTimeBandIndex;
+
+  private final NearbyResultCache nearbyResultCache;
+
   @Builder
   NearbyControllerV1(
       @Autowired FacilityRepository facilityRepository,
       @Autowired DriveTimeBandRepository driveTimeBandRepository,
+      @Autowired DriveTimeBandPolygons driveTimeBandPolygons,
+      @Autowired DriveTimeBandIndex driveTimeBandIndex,
+      @Autowired NearbyResultCache nearbyResultCache,
       @Autowired InsecureRestTemplateProvider restTemplateProvider) {
     this.facilityRepository = facilityRepository;
     this.driveTimeBandRepository = driveTimeBandRepository;
+    this.driveTimeBandPolygons = driveTimeBandPolygons;
+    this.driveTimeBandIndex = driveTimeBandIndex;
+    this.nearbyResultCache = nearbyResultCache;
+  }
+
+  /** Nearby facility IDs of each point, searching together the points without a cached result. */
+  private List<List<NearbyId>> cachedNearbyIds(
+      List<Coordinates> points, Set<ServiceType> services, Integer maxDriveTime) {
+    List<NearbyResultCache.Key> keys =
+        points.stream()
+            .map(p -> nearbyResultCache.key(p.longitude(), p.latitude(), services, maxDriveTime))
+            .collect(toList());
+    List<List<NearbyId>> ids = new ArrayList<>(points.size());
+    List<Coordinates> misses = new ArrayList<>();
+    for (int i = 0; i < points.size(); i++) {
+      List<NearbyId> cached = nearbyResultCache.getIfPresent(keys.get(i));
+      ids.add(cached);
+      if (cached == null) {
+        misses.add(points.get(i));
+      }
+    }
+    if (misses.isEmpty()) {
+      return ids;
+    }
+    Iterator<List<NearbyId>> found = nearbyIds(misses, services, maxDriveTime).iterator();
+    for (int i = 0; i < points.size(); i++) {
+      if (ids.get(i) == null) {
+        ids.set(i, found.next());
+        nearbyResultCache.put(keys.get(i), ids.get(i));
+      }
+    }
+    return ids;
+  }
+
+  /** Load band payloads in chunks, since a batch may need many bands. */
+  /**
+   * VHA facilities at the given stations, grouped by station number. Stations are queried in
+   * chunks to stay under the database limit on parameters in one statement.
+   */
+  private Map<String, List<FacilityEntity>> findFacilities(
+      Set<String> stationNumbers, Set<ServiceType> services) {
+    return Lists.partition(new ArrayList<>(stationNumbers), PAYLOAD_CHUNK_SIZE).stream()
+        .flatMap(
+            chunk ->
+                facilityRepository
+                    .findAll(
+                        FacilityRepository.StationNumbersSpecification.builder()
+                            .stationNumbers(new HashSet<>(chunk))
+                            .facilityType(FacilityEntity.Type.vha)
+                            .services(services)
+                            .build())
+                    .stream())
+        .collect(groupingBy(e -> e.id().stationNumber()));
+  }
+
+  private List<DriveTimeBandPayload> findPayloads(Collection<DriveTimeBandEntity.Pk> ids) {
+    return Lists.partition(new ArrayList<>(ids), PAYLOAD_CHUNK_SIZE).stream()
+        .flatMap(chunk -> driveTimeBandRepository.findPayloadsByIdIn(chunk).stream())
+        .collect(toList());
   }
 
   private String getMonthYearFromBandIds(List<NearbyId> ids) {
@@ -61,6 +149,46 @@ public class NearbyControllerV1 {
     return monthYear;
   }
 
+  /**
+   * Nearby facilities of many coordinates, with the same filters for every point. Results are in
+   * the order of the points.
+   */
+  @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+  NearbyBatchResponse nearbyBatch(
+      @RequestBody @Valid NearbyBatchRequest request,
+      @RequestParam(value = "services[]", required = false) List<String> rawServices,
+      @RequestParam(value = "drive_time", required = false) Integer rawMaxDriveTime) {
+    if (request.points().size() > MAX_BATCH_POINTS) {
+      throw new ExceptionsUtils.InvalidParameter("points", request.points().size());
+    }
+    Set<ServiceType> services = validateServices(rawServices);
+    Integer maxDriveTime = validateDriveTime(rawMaxDriveTime);
+    log.info(
+        "Searching near {} points within {} minutes with {} services",
+        request.points().size(),
+        maxDriveTime,
+        services.size());
+    List<Coordinates> points =
+        request.points().stream()
+            .map(p -> Coordinates.builder().longitude(p.lng()).latitude(p.lat()).build())
+            .collect(toList());
+    List<List<NearbyId>> ids = cachedNearbyIds(points, services, maxDriveTime);
+    List<NearbyBatchResponse.Result> results = new ArrayList<>(points.size());
+    for (int i = 0; i < points.size(); i++) {
+      results.add(
+          NearbyBatchResponse.Result.builder()
+              .lat(points.get(i).latitude())
+              .lng(points.get(i).longitude())
+              .data(ids.get(i).stream().map(this::nearbyFacility).collect(toList()))
+              .build());
+    }
+    List<NearbyId> allIds = ids.stream().flatMap(List::stream).collect(toList());
+    return NearbyBatchResponse.builder()
+        .data(results)
+        .meta(NearbyResponse.Meta.builder().bandVersion(getMonthYearFromBandIds(allIds)).build())
+        .build();
+  }
+
   private NearbyResponse.Nearby nearbyFacility(@NonNull NearbyId entity) {
     return NearbyResponse.Nearby.builder()
         .id(entity.facilityId())
@@ -87,32 +215,70 @@ public class NearbyControllerV1 {
         latitude.doubleValue(),
         maxDriveTime,
         services.size());
+    Coordinates point = Coordinates.builder().longitude(longitude).latitude(latitude).build();
+    return nearbyResultCache.get(
+        nearbyResultCache.key(longitude, latitude, services, maxDriveTime),
+        () -> nearbyIds(List.of(point), services, maxDriveTime).get(0));
+  }
+
+  /**
+   * Nearby facility IDs of each point, in the order of the points. The polygons of the candidate
+   * bands of every point are loaded together, points are tested against them in parallel, and the
+   * facilities of every matching station are found with a single query.
+   */
+  private List<List<NearbyId>> nearbyIds(
+      List<Coordinates> points, Set<ServiceType> services, Integer maxDriveTime) {
     var timer = Stopwatch.createStarted();
-    List<DriveTimeBandEntity> maybeBands =
-        driveTimeBandRepository.findAll(
-            DriveTimeBandRepository.MinMaxSpecification.builder()
-                .longitude(longitude)
-                .latitude(latitude)
-                .maxDriveTime(maxDriveTime)
-                .build());
-    log.info("{} bands found in {} ms", maybeBands.size(), timer.elapsed(TimeUnit.MILLISECONDS));
-    Map<String, DriveTimeBandEntity> bandsByStation =
-        intersections(longitude, latitude, maybeBands);
-    List<FacilityEntity> facilityEntities =
-        facilityRepository.findAll(
-            FacilityRepository.StationNumbersSpecification.builder()
-                .stationNumbers(bandsByStation.keySet())
-                .facilityType(FacilityEntity.Type.vha)
-                .services(services)
-                .build());
-    return facilityEntities.stream()
+    List<DriveTimeBandIndex.Candidates> candidates =
+        points.stream()
+            .map(
+                p ->
+                    driveTimeBandIndex.search(
+                        p.longitude().doubleValue(), p.latitude().doubleValue(), maxDriveTime))
+            .collect(toList());
+    Map<DriveTimeBandEntity.Pk, DriveTimeBandBounds> uncovered = new LinkedHashMap<>();
+    candidates.forEach(c -> c.uncovered().forEach(b -> uncovered.putIfAbsent(b.id(), b)));
+    Map<DriveTimeBandEntity.Pk, BandPolygon> polygons =
+        driveTimeBandPolygons.getAll(uncovered.values(), this::findPayloads);
+    log.info(
+        "{} bands found for {} points, {} to test, in {} ms",
+        candidates.stream().mapToInt(c -> c.bands().size()).sum(),
+        points.size(),
+        uncovered.size(),
+        timer.elapsed(TimeUnit.MILLISECONDS));
+    List<Map<String, DriveTimeBandEntity.Pk>> bandsByStation =
+        IntStream.range(0, points.size())
+            .parallel()
+            .mapToObj(
+                i ->
+                    intersections(
+                        points.get(i).longitude(),
+                        points.get(i).latitude(),
+                        candidates.get(i).bands(),
+                        candidates.get(i).covering(),
+                        polygons))
+            .collect(toList());
+    Map<String, List<FacilityEntity>> facilitiesByStation =
+        findFacilities(
+            bandsByStation.stream().flatMap(b -> b.keySet().stream()).collect(toSet()),
+            services);
+    return bandsByStation.stream()
         .map(
-            e ->
-                NearbyId.builder()
-                    .bandId(bandsByStation.get(e.id().stationNumber()).id())
-                    .facilityId(e.id().toIdString())
-                    .build())
-        .sorted(Comparator.comparingInt(left -> left.bandId().toMinutes()))
+            bands ->
+                bands.entrySet().stream()
+                    .flatMap(
+                        band ->
+                            facilitiesByStation.getOrDefault(band.getKey(), List.of()).stream()
+                                .map(
+                                    e ->
+                                        NearbyId.builder()
+                                            .bandId(band.getValue())
+                                            .facilityId(e.id().toIdString())
+                                            .build()))
+                    .sorted(
+                        Comparator.<NearbyId>comparingInt(id -> id.bandId().toMinutes())
+                            .thenComparing(NearbyId::facilityId))
+                    .collect(toList()))
         .collect(toList());
   }
 
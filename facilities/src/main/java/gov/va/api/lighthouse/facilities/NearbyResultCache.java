@@ -0,0 +1,154 @@
+package gov.va.api.lighthouse.facilities;
+
+import static gov.va.api.lighthouse.facilities.NearbyUtils.NearbyId;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import gov.va.api.lighthouse.facilities.api.ServiceType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opt-in cache of nearby search results, keyed by coordinates rounded to a configurable number of
+ * decimal places, services, and drive time. All points that round to the same key get the result
+ * of the first of them to be searched, so a coarser precision trades exactness near band edges for
+ * a better hit rate. Four decimal places is about 11 meters.
+ *
+ * <p>Keys also hold the fingerprint of the current drive time band index and facility snapshot, so
+ * results are not reused once bands or facilities have changed and been reloaded, including changes
+ * made by other instances. Results of older data are never hit again and are evicted by size or
+ * age.
+ */
+@Component
+public class NearbyResultCache {
+  private final DriveTimeBandIndex index;
+
+  private final FacilitySnapshots snapshots;
+
+  private final double scale;
+
+  /** Null if disabled. */
+  private final Cache<Key, List<NearbyId>> cache;
+
+  @Autowired
+  NearbyResultCache(
+      DriveTimeBandIndex index,
+      FacilitySnapshots snapshots,
+      @Value("${facilities.nearby.result-cache.max-entries:0}") long maxEntries,
+      @Value("${facilities.nearby.result-cache.precision:4}") int precision,
+      @Value("${facilities.nearby.result-cache.ttl-seconds:600}") long ttlSeconds) {
+    this.index = index;
+    this.snapshots = snapshots;
+    this.scale = Math.pow(10, Math.max(0, Math.min(precision, 10)));
+    this.cache =
+        maxEntries <= 0
+            ? null
+            : CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Math.max(ttlSeconds, 1), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+  }
+
+  /**
+   * The cached result for the key, or the result of the search, which is cached. Concurrent
+   * searches for the same key wait for the first one instead of searching again.
+   */
+  @SneakyThrows
+  List<NearbyId> get(@NonNull Key key, @NonNull Supplier<List<NearbyId>> search) {
+    if (cache == null) {
+      return search.get();
+    }
+    try {
+      return cache.get(key, () -> List.copyOf(search.get()));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      throw e.getCause();
+    }
+  }
+
+  /** The cached result for the key, if any. */
+  List<NearbyId> getIfPresent(@NonNull Key key) {
+    return cache == null ? null : cache.getIfPresent(key);
+  }
+
+  /** The cache key of a search, for the data currently loaded. */
+  Key key(
+      @NonNull BigDecimal longitude,
+      @NonNull BigDecimal latitude,
+      @NonNull Set<ServiceType> services,
+      Integer maxDriveTime) {
+    return new Key(
+        Math.round(longitude.doubleValue() * scale),
+        Math.round(latitude.doubleValue() * scale),
+        Set.copyOf(services),
+        maxDriveTime,
+        index.fingerprint(),
+        snapshots.current().map(FacilitySnapshot::fingerprint).orElse(""));
+  }
+
+  void put(@NonNull Key key, @NonNull List<NearbyId> ids) {
+    if (cache != null) {
+      cache.put(key, List.copyOf(ids));
+    }
+  }
+
+  Stats stats() {
+    if (cache == null) {
+      return Stats.builder().build();
+    }
+    CacheStats stats = cache.stats();
+    return Stats.builder()
+        .enabled(true)
+        .size(cache.size())
+        .hitCount(stats.hitCount())
+        .missCount(stats.missCount())
+        .hitRate(stats.hitRate())
+        .evictionCount(stats.evictionCount())
+        .build();
+  }
+
+  @lombok.Value
+  static class Key {
+    long longitude;
+
+    long latitude;
+
+    Set<ServiceType> services;
+
+    Integer maxDriveTime;
+
+    long bandFingerprint;
+
+    String facilityFingerprint;
+  }
+
+  @lombok.Value
+  @Builder
+  @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+  static class Stats {
+    boolean enabled;
+
+    long size;
+
+    long hitCount;
+
+    long missCount;
+
+    double hitRate;
+
+    long evictionCount;
+  }
+}
@@ -15,6 +15,7 @@ import gov.va.api.lighthouse.facilities.api.pssg.PssgDriveTimeBand;
 import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
 import java.math.BigDecimal;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -24,6 +25,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -36,59 +38,108 @@ public class NearbyUtils {
 
   static final Set<Integer> DRIVE_TIME_VALUES = Set.of(10, 20, 30, 40, 50, 60, 70, 80, 90);
 
-  @SneakyThrows
-  static Optional<DriveTimeBandEntity> firstIntersection(
-      @NonNull Point2D point, List<DriveTimeBandEntity> entities) {
+  static Optional<DriveTimeBandEntity.Pk> firstIntersection(
+      @NonNull Point2D point,
+      List<DriveTimeBandBounds> bands,
+      @NonNull Set<DriveTimeBandEntity.Pk> covering,
+      @NonNull Map<DriveTimeBandEntity.Pk, BandPolygon> polygons) {
     Stopwatch timer = Stopwatch.createStarted();
     int count = 0;
-    for (DriveTimeBandEntity entity : entities) {
+    for (DriveTimeBandBounds band : bands) {
       count++;
-      Path2D path2D = toPath(entity);
-      if (path2D.contains(point)) {
+      if (covering.contains(band.id()) || contains(polygons.get(band.id()), point)) {
         log.info(
             "Found {} intersection in {} ms, looked at {} of {} options",
-            entity.id().stationNumber(),
+            band.id().stationNumber(),
             timer.elapsed(TimeUnit.MILLISECONDS),
             count,
-            entities.size());
-        return Optional.of(entity);
+            bands.size());
+        return Optional.of(band.id());
       }
     }
-    log.info("No matches found in {} options", entities.size());
+    log.info("No matches found in {} options", bands.size());
     return Optional.empty();
   }
 
-  static Map<String, DriveTimeBandEntity> intersections(
+  private static boolean contains(BandPolygon polygon, Point2D point) {
+    return polygon != null && polygon.contains(point.getX(), point.getY());
+  }
+
+  /**
+   * The nearest band of each station that contains the point. Bands in the covering set are known
+   * to contain it. Polygons are expected for every other candidate band, bands without one are
+   * skipped.
+   */
+  static Map<String, DriveTimeBandEntity.Pk> intersections(
       @NonNull BigDecimal longitude,
       @NonNull BigDecimal latitude,
-      List<DriveTimeBandEntity> entities) {
-    ListMultimap<String, DriveTimeBandEntity> bandsForStation = ArrayListMultimap.create();
-    for (DriveTimeBandEntity e : entities) {
-      bandsForStation.put(e.id().stationNumber(), e);
+      List<DriveTimeBandBounds> candidates,
+      @NonNull Set<DriveTimeBandEntity.Pk> covering,
+      @NonNull Map<DriveTimeBandEntity.Pk, BandPolygon> polygons) {
+    ListMultimap<String, DriveTimeBandBounds> bandsForStation = ArrayListMultimap.create();
+    for (DriveTimeBandBounds b : candidates) {
+      bandsForStation.put(b.id().stationNumber(), b);
     }
     Point2D point = new Point2D.Double(longitude.doubleValue(), latitude.doubleValue());
     return bandsForStation.asMap().entrySet().parallelStream()
         .map(
             entry -> {
-              List<DriveTimeBandEntity> sortedEntities =
+              List<DriveTimeBandBounds> sortedBands =
                   entry.getValue().stream()
                       .sorted(Comparator.comparingInt(left -> left.id().fromMinutes()))
                       .collect(toList());
-              return firstIntersection(point, sortedEntities).orElse(null);
+              return firstIntersection(point, sortedBands, covering, polygons).orElse(null);
             })
         .filter(Objects::nonNull)
-        .collect(toMap(b -> b.id().stationNumber(), Function.identity()));
+        .collect(toMap(DriveTimeBandEntity.Pk::stationNumber, Function.identity()));
   }
 
+  /** Convert a legacy base 64 or PSSG JSON band to the binary band data stored now. */
+  static byte[] toBandData(@NonNull String band) {
+    if (deprecatedPssgDriveTimeBandSupport.isPssgDriveTimeBand(band)) {
+      return PathEncoder.create().encode(deprecatedPssgDriveTimeBandSupport.toPssgBand(band));
+    }
+    return Base64.getDecoder().decode(band);
+  }
+
+  /**
+   * Decode a band to a polygon. Binary band data is used if present, otherwise the legacy text
+   * band. Encoded bands are decoded without building a path, which costs more than the decoding
+   * itself.
+   */
   @SneakyThrows
-  static Path2D toPath(DriveTimeBandEntity entity) {
-    if (deprecatedPssgDriveTimeBandSupport.isPssgDriveTimeBand(entity)) {
-      return deprecatedPssgDriveTimeBandSupport.toPath(entity);
+  static BandPolygon toPolygon(DriveTimeBandEntity.Pk id, byte[] bandData, String band) {
+    try {
+      if (bandData != null) {
+        return BandPolygon.of(PathEncoder.create().decodeRings(bandData));
+      }
+      checkState(band != null, "No band");
+      if (deprecatedPssgDriveTimeBandSupport.isPssgDriveTimeBand(band)) {
+        return BandPolygon.of(deprecatedPssgDriveTimeBandSupport.toPath(band));
+      }
+      return BandPolygon.of(PathEncoder.create().decodeRingsFromBase64(band));
+    } catch (Exception e) {
+      log.info("Failed to decode {}", id);
+      throw e;
+    }
+  }
+
+  /**
+   * Decode a band to a polygon, using the coarse band if it has one. The full band of a coarse band
+   * is only taken from the supplier when a point close to the edges of the coarse band is tested.
+   */
+  static BandPolygon toPolygon(
+      @NonNull DriveTimeBandPayload payload, @NonNull Supplier<BandPolygon> full) {
+    if (payload.coarseBandData() == null || payload.coarseTolerance() == null) {
+      return toPolygon(payload.id(), payload.bandData(), payload.band());
     }
     try {
-      return PathEncoder.create().decodeFromBase64(entity.band());
+      return BandPolygon.of(
+          PathEncoder.create().decodeRings(payload.coarseBandData()),
+          payload.coarseTolerance(),
+          full);
     } catch (Exception e) {
-      log.info("Failed to decode {}", entity.id());
+      log.info("Failed to decode coarse band of {}", payload.id());
       throw e;
     }
   }
@@ -109,13 +160,17 @@ public class NearbyUtils {
   static final class DeprecatedPssgDriveTimeBandSupport {
     final ObjectMapper mapper = JacksonConfig.createMapper();
 
-    boolean isPssgDriveTimeBand(DriveTimeBandEntity entity) {
-      return entity.band().startsWith("{\"attributes");
+    boolean isPssgDriveTimeBand(String band) {
+      return band.startsWith("{\"attributes");
     }
 
     @SneakyThrows
-    Path2D toPath(DriveTimeBandEntity entity) {
-      PssgDriveTimeBand asBand = mapper.readValue(entity.band(), PssgDriveTimeBand.class);
+    PssgDriveTimeBand toPssgBand(String band) {
+      return mapper.readValue(band, PssgDriveTimeBand.class);
+    }
+
+    Path2D toPath(String band) {
+      PssgDriveTimeBand asBand = toPssgBand(band);
       List<List<List<Double>>> rings =
           asBand.geometry() == null ? Collections.emptyList() : asBand.geometry().rings();
       checkState(!rings.isEmpty());
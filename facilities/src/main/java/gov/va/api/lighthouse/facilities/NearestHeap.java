@@ -0,0 +1,144 @@
+package gov.va.api.lighthouse.facilities;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import lombok.NonNull;
+
+/**
+ * Bounded max-heap that keeps the k nearest points offered to it, so the nearest results can be
+ * found without sorting every candidate. Points are identified by their position in some list and
+ * points at the same distance are ordered by position, which gives the same result as a stable
+ * sort of that list by distance.
+ */
+final class NearestHeap {
+  private final double[] distances;
+
+  private final int[] points;
+
+  private int size;
+
+  NearestHeap(int capacity) {
+    checkArgument(capacity >= 0, "capacity must not be negative");
+    distances = new double[capacity];
+    points = new int[capacity];
+  }
+
+  /**
+   * Positions of the k smallest distances, nearest first. This is the first k positions of a
+   * stable sort of the distances.
+   */
+  static int[] nearest(@NonNull double[] distances, int k) {
+    checkArgument(k >= 0, "k must not be negative");
+    NearestHeap heap = new NearestHeap(Math.min(k, distances.length));
+    if (heap.capacity() > 0) {
+      for (int i = 0; i < distances.length; i++) {
+        heap.offer(distances[i], i);
+      }
+    }
+    return heap.drain();
+  }
+
+  /** Number of nearest points needed to fill the given page. */
+  static int pageLimit(int page, int perPage) {
+    checkArgument(page >= 1);
+    checkArgument(perPage >= 0);
+    return (int) Math.min((long) page * perPage, Integer.MAX_VALUE);
+  }
+
+  /** The given page of the nearest first positions found using {@link #pageLimit}. */
+  static int[] pageOf(@NonNull int[] nearestFirst, int page, int perPage) {
+    long from = Math.min((long) (page - 1) * perPage, nearestFirst.length);
+    return Arrays.copyOfRange(nearestFirst, (int) from, nearestFirst.length);
+  }
+
+  int capacity() {
+    return points.length;
+  }
+
+  /** Remove every point, nearest first. */
+  int[] drain() {
+    int[] nearestFirst = new int[size];
+    for (int i = size - 1; i >= 0; i--) {
+      nearestFirst[i] = points[0];
+      size--;
+      distances[0] = distances[size];
+      points[0] = points[size];
+      siftDown(0);
+    }
+    return nearestFirst;
+  }
+
+  /** Distance of the farthest point kept so far. Only meaningful when the heap is not empty. */
+  double farthestDistance() {
+    return distances[0];
+  }
+
+  private boolean isFarther(int i, int j) {
+    return isFarther(distances[i], points[i], distances[j], points[j]);
+  }
+
+  private static boolean isFarther(double distance, int point, double otherDistance, int other) {
+    return distance > otherDistance || (distance == otherDistance && point > other);
+  }
+
+  boolean isFull() {
+    return size == points.length;
+  }
+
+  /** Keep the point if it is nearer than the farthest point kept so far. */
+  void offer(double distance, int point) {
+    if (!isFull()) {
+      distances[size] = distance;
+      points[size] = point;
+      siftUp(size);
+      size++;
+      return;
+    }
+    if (size == 0 || isFarther(distance, point, distances[0], points[0])) {
+      return;
+    }
+    distances[0] = distance;
+    points[0] = point;
+    siftDown(0);
+  }
+
+  private void siftDown(int i) {
+    while (true) {
+      int largest = i;
+      int left = 2 * i + 1;
+      int right = left + 1;
+      if (left < size && isFarther(left, largest)) {
+        largest = left;
+      }
+      if (right < size && isFarther(right, largest)) {
+        largest = right;
+      }
+      if (largest == i) {
+        return;
+      }
+      swap(i, largest);
+      i = largest;
+    }
+  }
+
+  private void siftUp(int i) {
+    while (i > 0) {
+      int parent = (i - 1) / 2;
+      if (!isFarther(i, parent)) {
+        return;
+      }
+      swap(i, parent);
+      i = parent;
+    }
+  }
+
+  private void swap(int i, int j) {
+    double distance = distances[i];
+    distances[i] = distances[j];
+    distances[j] = distance;
+    int point = points[i];
+    points[i] = points[j];
+    points[j] = point;
+  }
+}
@@ -0,0 +1,253 @@
+package gov.va.api.lighthouse.facilities;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.va.api.health.autoconfig.configuration.JacksonConfig;
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import gov.va.api.lighthouse.facilities.api.pssg.PssgDriveTimeBand;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Consumer;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads PSSG drive time band responses one feature at a time. Coordinates are read into primitive
+ * buffers that are reused from feature to feature, instead of binding the lists of lists of boxed
+ * doubles of {@link PssgDriveTimeBand}, so a large upload never needs to be held in memory. Bounds
+ * and band data are computed as each feature is read.
+ *
+ * <p>With a positive simplify tolerance, coarse band data is also computed for bands that {@link
+ * BandSimplifier} can simplify.
+ */
+@Slf4j
+final class PssgBandParser {
+  private static final ObjectMapper MAPPER = JacksonConfig.createMapper();
+
+  private final double simplifyTolerance;
+
+  private final Consumer<Band> consumer;
+
+  private double[] coordinates = new double[4096];
+
+  private int coordinateCount;
+
+  private int[] sizes = new int[8];
+
+  private int ringCount;
+
+  private PssgBandParser(double simplifyTolerance, Consumer<Band> consumer) {
+    this.simplifyTolerance = simplifyTolerance;
+    this.consumer = consumer;
+  }
+
+  /** Parse the features of a PSSG response without simplifying them. */
+  static int parse(@NonNull InputStream json, @NonNull Consumer<Band> consumer)
+      throws IOException {
+    return parse(json, 0, consumer);
+  }
+
+  /**
+   * Parse the features of a PSSG response, passing each to the consumer as soon as it is read.
+   * Returns the number of features passed to the consumer.
+   */
+  static int parse(
+      @NonNull InputStream json, double simplifyTolerance, @NonNull Consumer<Band> consumer)
+      throws IOException {
+    try (JsonParser parser = MAPPER.getFactory().createParser(json)) {
+      return new PssgBandParser(simplifyTolerance, consumer).response(parser);
+    }
+  }
+
+  private static void expect(JsonParser parser, JsonToken actual, JsonToken expected)
+      throws JsonMappingException {
+    if (actual != expected) {
+      throw JsonMappingException.from(parser, "Expected " + expected + ", got " + actual);
+    }
+  }
+
+  private void addCoordinate(double longitude, double latitude) {
+    if (coordinateCount + 2 > coordinates.length) {
+      coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+    }
+    coordinates[coordinateCount++] = longitude;
+    coordinates[coordinateCount++] = latitude;
+  }
+
+  private void addRing(int size) {
+    if (ringCount == sizes.length) {
+      sizes = Arrays.copyOf(sizes, sizes.length * 2);
+    }
+    sizes[ringCount++] = size;
+  }
+
+  private Band band(PssgDriveTimeBand.Attributes attributes) {
+    double minLongitude = Double.POSITIVE_INFINITY;
+    double minLatitude = Double.POSITIVE_INFINITY;
+    double maxLongitude = Double.NEGATIVE_INFINITY;
+    double maxLatitude = Double.NEGATIVE_INFINITY;
+    for (int c = 0; c < coordinateCount; c += 2) {
+      minLongitude = Math.min(minLongitude, coordinates[c]);
+      minLatitude = Math.min(minLatitude, coordinates[c + 1]);
+      maxLongitude = Math.max(maxLongitude, coordinates[c]);
+      maxLatitude = Math.max(maxLatitude, coordinates[c + 1]);
+    }
+    PathEncoder.Rings rings =
+        new PathEncoder.Rings(
+            Arrays.copyOf(sizes, ringCount), Arrays.copyOf(coordinates, coordinateCount));
+    byte[] coarseBandData = null;
+    Double coarseTolerance = null;
+    if (simplifyTolerance > 0) {
+      PathEncoder.Rings coarse = BandSimplifier.simplify(rings, simplifyTolerance);
+      if (coarse.coordinates().length < coordinateCount) {
+        coarseBandData = PathEncoder.create().encode(coarse);
+        /*
+         * Encoding truncates each coordinate by less than the resolution, which moves a vertex
+         * and the edge it is measured against by less than 3 resolutions together.
+         */
+        coarseTolerance = simplifyTolerance + 3 * PathEncoder.RESOLUTION;
+      }
+    }
+    return Band.builder()
+        .id(
+            DriveTimeBandEntity.Pk.of(
+                attributes.stationNumber(), attributes.fromBreak(), attributes.toBreak()))
+        .monthYear(attributes.monthYear())
+        .minLongitude(minLongitude)
+        .minLatitude(minLatitude)
+        .maxLongitude(maxLongitude)
+        .maxLatitude(maxLatitude)
+        .bandData(PathEncoder.create().encode(rings))
+        .legacyBand(PathEncoder.create().encodeVersion1ToBase64(rings))
+        .coarseBandData(coarseBandData)
+        .coarseTolerance(coarseTolerance)
+        .build();
+  }
+
+  /**
+   * Read a feature, the parser is positioned at its start object. Features without rings have no
+   * area to search and are skipped.
+   */
+  private Optional<Band> feature(JsonParser parser) throws IOException {
+    PssgDriveTimeBand.Attributes attributes = null;
+    ringCount = 0;
+    coordinateCount = 0;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("attributes".equals(field) && value == JsonToken.START_OBJECT) {
+        attributes = parser.readValueAs(PssgDriveTimeBand.Attributes.class);
+      } else if ("geometry".equals(field) && value == JsonToken.START_OBJECT) {
+        geometry(parser);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (attributes == null) {
+      throw JsonMappingException.from(parser, "Feature is missing attributes");
+    }
+    if (coordinateCount == 0) {
+      log.warn(
+          "Skipping {}, it has no rings",
+          DriveTimeBandEntity.Pk.of(
+                  attributes.stationNumber(), attributes.fromBreak(), attributes.toBreak())
+              .name());
+      return Optional.empty();
+    }
+    return Optional.of(band(attributes));
+  }
+
+  private void geometry(JsonParser parser) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("rings".equals(field) && value == JsonToken.START_ARRAY) {
+        rings(parser);
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private int response(JsonParser parser) throws IOException {
+    expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+    int count = 0;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if (!"features".equals(field) || value != JsonToken.START_ARRAY) {
+        parser.skipChildren();
+        continue;
+      }
+      for (JsonToken token = parser.nextToken();
+          token != JsonToken.END_ARRAY;
+          token = parser.nextToken()) {
+        expect(parser, token, JsonToken.START_OBJECT);
+        Optional<Band> band = feature(parser);
+        if (band.isPresent()) {
+          consumer.accept(band.get());
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /** Read the list of rings, each a list of longitude and latitude pairs. */
+  private void rings(JsonParser parser) throws IOException {
+    for (JsonToken ring = parser.nextToken();
+        ring != JsonToken.END_ARRAY;
+        ring = parser.nextToken()) {
+      expect(parser, ring, JsonToken.START_ARRAY);
+      int size = 0;
+      for (JsonToken coord = parser.nextToken();
+          coord != JsonToken.END_ARRAY;
+          coord = parser.nextToken()) {
+        expect(parser, coord, JsonToken.START_ARRAY);
+        parser.nextToken();
+        double longitude = parser.getValueAsDouble();
+        parser.nextToken();
+        double latitude = parser.getValueAsDouble();
+        expect(parser, parser.nextToken(), JsonToken.END_ARRAY);
+        addCoordinate(longitude, latitude);
+        size++;
+      }
+      addRing(size);
+    }
+  }
+
+  /** A parsed feature, ready to be saved. */
+  @Value
+  @Builder(toBuilder = true)
+  static class Band {
+    @NonNull DriveTimeBandEntity.Pk id;
+
+    String monthYear;
+
+    double minLongitude;
+
+    double minLatitude;
+
+    double maxLongitude;
+
+    double maxLatitude;
+
+    @NonNull byte[] bandData;
+
+    /**
+     * The band as base 64 text in version 1 of the path encoding, for instances older than band
+     * data, which only read the text band and only decode version 1.
+     */
+    @NonNull String legacyBand;
+
+    byte[] coarseBandData;
+
+    Double coarseTolerance;
+  }
+}
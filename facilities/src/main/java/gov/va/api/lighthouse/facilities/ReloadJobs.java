@@ -0,0 +1,291 @@
+package gov.va.api.lighthouse.facilities;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import gov.va.api.lighthouse.facilities.api.v0.ReloadResponse;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.PreDestroy;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs facility reloads as jobs, one at a time, on a background thread. Submitting while a job is
+ * queued or running attaches to that job instead of starting another, so overlapping reload
+ * requests cost one collection and one write to the database. Finished jobs are kept for a while so
+ * their status can still be looked up.
+ */
+@Slf4j
+@Component
+public class ReloadJobs {
+  private final ExecutorService executor;
+
+  private final Cache<String, Job> jobs;
+
+  private Job current;
+
+  @Autowired
+  ReloadJobs(
+      @Value("${facilities.reload.jobs.max-entries:20}") long maxEntries,
+      @Value("${facilities.reload.jobs.ttl-hours:24}") long ttlHours) {
+    this(
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("facility-reload-%d").setDaemon(true).build()),
+        maxEntries,
+        ttlHours);
+  }
+
+  /** Run jobs on the given executor, which should run one job at a time. */
+  ReloadJobs(@NonNull ExecutorService executor, long maxEntries, long ttlHours) {
+    this.executor = executor;
+    this.jobs =
+        CacheBuilder.newBuilder()
+            .maximumSize(Math.max(maxEntries, 1))
+            .expireAfterWrite(Math.max(ttlHours, 1), TimeUnit.HOURS)
+            .build();
+  }
+
+  /**
+   * Request cancellation of the job. Collection is interrupted, while persisting stops before the
+   * next chunk, so chunks already committed stay committed.
+   */
+  Job cancel(@NonNull String id) {
+    Job job = job(id);
+    job.cancel();
+    return job;
+  }
+
+  /** The job with the given ID, if it has not been forgotten. */
+  Job job(@NonNull String id) {
+    Job job = jobs.getIfPresent(id);
+    if (job == null) {
+      throw new ExceptionsUtils.NotFound(id);
+    }
+    return job;
+  }
+
+  private void run(Job job, Function<Job, ResponseEntity<ReloadResponse>> reload) {
+    job.start();
+    try {
+      job.checkNotCancelled();
+      ResponseEntity<ReloadResponse> result = reload.apply(job);
+      job.finish(
+          job.cancelled
+              ? Stage.CANCELLED
+              : result.getStatusCode().is2xxSuccessful() ? Stage.COMPLETE : Stage.FAILED,
+          result);
+    } catch (Exception e) {
+      log.error("Reload {} failed: {}", job.id(), e.getMessage());
+      job.finish(
+          job.cancelled ? Stage.CANCELLED : Stage.FAILED,
+          ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(job.response()));
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Start a reload unless one is already queued or running. Unlike {@link #submit}, this never
+   * attaches to another reload, for reloads of facilities that only this caller has.
+   */
+  synchronized Optional<Job> start(@NonNull Function<Job, ResponseEntity<ReloadResponse>> reload) {
+    if (current != null && !current.isDone()) {
+      return Optional.empty();
+    }
+    Job job = new Job(UUID.randomUUID().toString());
+    jobs.put(job.id(), job);
+    current = job;
+    log.info("Submitting reload {}", job.id());
+    executor.execute(() -> run(job, reload));
+    return Optional.of(job);
+  }
+
+  /**
+   * Submit a reload, or attach to the one that is already queued or running. The reload reports its
+   * progress on the job it is given.
+   */
+  synchronized Job submit(@NonNull Function<Job, ResponseEntity<ReloadResponse>> reload) {
+    return start(reload)
+        .orElseGet(
+            () -> {
+              log.info("Attaching to reload {}", current.id());
+              return current;
+            });
+  }
+
+  enum Stage {
+    QUEUED,
+    COLLECTING,
+    PERSISTING,
+    COMPLETE,
+    FAILED,
+    CANCELLED
+  }
+
+  /**
+   * A reload and its progress. Stage changes and cancellation hold the job's lock, so the runner is
+   * only interrupted while it is collecting, and an interrupt that arrives while collecting is
+   * cleared before persisting starts.
+   */
+  static final class Job {
+    private final String id;
+
+    private final Instant submitted = Instant.now();
+
+    private final ReloadResponse response = ReloadResponse.start();
+
+    private final CompletableFuture<ResponseEntity<ReloadResponse>> result =
+        new CompletableFuture<>();
+
+    private volatile Stage stage = Stage.QUEUED;
+
+    private volatile boolean cancelled;
+
+    private Thread runner;
+
+    private volatile Instant finished;
+
+    Job(@NonNull String id) {
+      this.id = id;
+    }
+
+    private static int count(List<?> list) {
+      return list == null ? 0 : list.size();
+    }
+
+    /** Wait for the reload to finish. */
+    @SneakyThrows
+    ResponseEntity<ReloadResponse> await() {
+      try {
+        return result.get();
+      } catch (ExecutionException e) {
+        throw e.getCause();
+      }
+    }
+
+    private synchronized void cancel() {
+      if (isDone()) {
+        return;
+      }
+      cancelled = true;
+      if (runner != null && stage == Stage.COLLECTING) {
+        runner.interrupt();
+      }
+    }
+
+    /** Stop the reload here if cancellation has been requested. */
+    void checkNotCancelled() {
+      if (cancelled) {
+        throw new CancellationException("Reload " + id + " was cancelled");
+      }
+    }
+
+    private synchronized void finish(Stage finalStage, ResponseEntity<ReloadResponse> entity) {
+      leaveCollecting();
+      runner = null;
+      finished = Instant.now();
+      stage = finalStage;
+      log.info("Reload {} {}", id, finalStage);
+      result.complete(entity);
+    }
+
+    String id() {
+      return id;
+    }
+
+    boolean isDone() {
+      return result.isDone();
+    }
+
+    /** Clear an interrupt left by cancellation, once the runner is no longer collecting. */
+    private void leaveCollecting() {
+      if (stage == Stage.COLLECTING && runner == Thread.currentThread()) {
+        Thread.interrupted();
+      }
+    }
+
+    /** The response of the reload, which is filled in as the reload progresses. */
+    ReloadResponse response() {
+      return response;
+    }
+
+    synchronized void stage(@NonNull Stage stage) {
+      if (stage != Stage.COLLECTING) {
+        leaveCollecting();
+      }
+      this.stage = stage;
+    }
+
+    private synchronized void start() {
+      Thread.interrupted();
+      runner = Thread.currentThread();
+    }
+
+    Status status() {
+      return Status.builder()
+          .id(id)
+          .stage(stage)
+          .submitted(submitted)
+          .finished(finished)
+          .cancelRequested(cancelled)
+          .collected(response.totalFacilities())
+          .created(count(response.facilitiesCreated()))
+          .updated(count(response.facilitiesUpdated()))
+          .unchanged(count(response.facilitiesUnchanged()))
+          .missing(count(response.facilitiesMissing()))
+          .problems(count(response.problems()))
+          .response(response)
+          .build();
+    }
+  }
+
+  @lombok.Value
+  @Builder
+  @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+  static class Status {
+    String id;
+
+    Stage stage;
+
+    Instant submitted;
+
+    Instant finished;
+
+    boolean cancelRequested;
+
+    int collected;
+
+    int created;
+
+    int updated;
+
+    int unchanged;
+
+    int missing;
+
+    int problems;
+
+    ReloadResponse response;
+  }
+}
@@ -0,0 +1,236 @@
+package gov.va.api.lighthouse.facilities;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A set of services packed into 128 bits, so that a services search is one bitwise test per
+ * facility instead of a membership test per service. The mask of a facility covers both its
+ * services and its CMS overlay services, and is stored with the facility in the {@code
+ * service_mask_low} and {@code service_mask_high} columns.
+ *
+ * <p>Each service name has a fixed bit, its position in {@link #NAMES}. Positions are append-only:
+ * names must never be reordered or removed, because the stored {@code service_mask_low} and {@code
+ * service_mask_high} values of every facility depend on them. New names go at the end.
+ */
+@Value
+public class ServiceMask {
+  static final ServiceMask NONE = new ServiceMask(0, 0);
+
+  /** Name of the SQL function registered by {@link ServiceMaskFunctionContributor}. */
+  static final String BITAND_FUNCTION = "service_mask_and";
+
+  /** Service names in bit order. Append only. */
+  private static final List<String> NAMES =
+      List.of(
+          // Benefits services
+          "ApplyingForBenefits",
+          "BurialClaimAssistance",
+          "DisabilityClaimAssistance",
+          "eBenefitsRegistrationAssistance",
+          "EducationAndCareerCounseling",
+          "EducationClaimAssistance",
+          "FamilyMemberClaimAssistance",
+          "HomelessAssistance",
+          "InsuranceClaimAssistanceAndFinancialCounseling",
+          "IntegratedDisabilityEvaluationSystemAssistance",
+          "Pensions",
+          "PreDischargeClaimAssistance",
+          "TransitionAssistance",
+          "UpdatingDirectDepositInformation",
+          "VAHomeLoanAssistance",
+          "VocationalRehabilitationAndEmploymentAssistance",
+          // Other services
+          "OnlineScheduling",
+          // Health services
+          "AdaptiveSports",
+          "Addiction",
+          "AdviceNurse",
+          "Allergy",
+          "Amputation",
+          "Anesthesia",
+          "Audiology",
+          "BariatricSurgery",
+          "Billing",
+          "Vision",
+          "Cancer",
+          "Cardiology",
+          "CardiovascularSurgery",
+          "CaregiverSupport",
+          "Cashier",
+          "Chiropractic",
+          "ColonSurgery",
+          "CommunityEngagement",
+          "ComplementaryHealth",
+          "FamilyCounseling",
+          "Covid19Vaccine",
+          "CriticalCare",
+          "Dental",
+          "Dermatology",
+          "Diabetic",
+          "EmergencyCare",
+          "Endocrinology",
+          "Gastroenterology",
+          "GenomicMedicine",
+          "Geriatrics",
+          "GriefCounseling",
+          "Gynecology",
+          "Hematology",
+          "Hiv",
+          "Homeless",
+          "HospitalMedicine",
+          "InfectiousDisease",
+          "InternalMedicine",
+          "DomesticAbuseSupport",
+          "Laboratory",
+          "Lgbtq",
+          "MedicalRecords",
+          "MentalHealth",
+          "MilitarySexualTrauma",
+          "MinorityCare",
+          "WeightManagement",
+          "MyHealtheVetCoordinator",
+          "Nephrology",
+          "Neurology",
+          "Neurosurgery",
+          "Nutrition",
+          "Ophthalmology",
+          "Optometry",
+          "Orthopedics",
+          "Otolaryngology",
+          "OutpatientSurgery",
+          "PainManagement",
+          "Hospice",
+          "PatientAdvocates",
+          "Pharmacy",
+          "PhysicalMedicine",
+          "PhysicalTherapy",
+          "PlasticSurgery",
+          "Podiatry",
+          "Polytrauma",
+          "PrimaryCare",
+          "Psychiatry",
+          "Psychology",
+          "Ptsd",
+          "PulmonaryMedicine",
+          "RadiationOncology",
+          "Radiology",
+          "RecreationTherapy",
+          "RegisterForCare",
+          "RegistryExams",
+          "Rehabilitation",
+          "Prosthetics",
+          "TransitionCounseling",
+          "Rheumatology",
+          "SleepMedicine",
+          "Smoking",
+          "SocialWork",
+          "SpecialtyCare",
+          "SpinalInjury",
+          "SuicidePrevention",
+          "Surgery",
+          "SurgicalOncology",
+          "Telehealth",
+          "ThoracicSurgery",
+          "TransplantSurgery",
+          "TravelReimbursement",
+          "UrgentCare",
+          "Urology",
+          "VascularSurgery",
+          "VeteranConnections",
+          "EmploymentPrograms",
+          "Mobility",
+          "WholeHealth",
+          "WomensHealth",
+          "Workshops",
+          "Wound",
+          // V0 health service names that differ from V1
+          "DentalServices",
+          "MentalHealthCare");
+
+  private static final Map<String, Integer> BITS = bits();
+
+  long low;
+
+  long high;
+
+  /** Bit of the given service name, or -1 if the service has none. */
+  static int bit(String name) {
+    return BITS.getOrDefault(name, -1);
+  }
+
+  private static Map<String, Integer> bits() {
+    checkState(NAMES.size() <= 128, "Too many services for a 128 bit mask");
+    Map<String, Integer> bits = new HashMap<>();
+    for (int i = 0; i < NAMES.size(); i++) {
+      checkState(bits.put(NAMES.get(i), i) == null, "Duplicate service %s", NAMES.get(i));
+    }
+    return Map.copyOf(bits);
+  }
+
+  /**
+   * Mask of the given services, which may be service types or service names. Services without a
+   * bit are ignored.
+   */
+  public static ServiceMask of(Collection<?> services) {
+    if (services == null || services.isEmpty()) {
+      return NONE;
+    }
+    long low = 0;
+    long high = 0;
+    for (Object service : services) {
+      int bit = bit(String.valueOf(service));
+      if (bit >= 64) {
+        high |= 1L << (bit - 64);
+      } else if (bit >= 0) {
+        low |= 1L << bit;
+      }
+    }
+    return new ServiceMask(low, high);
+  }
+
+  /**
+   * Predicate matching facilities with any of these services. An empty mask matches nothing, the
+   * same as searching for services no facility has.
+   */
+  Predicate anyOf(@NonNull Root<FacilityEntity> root, @NonNull CriteriaBuilder criteriaBuilder) {
+    List<Predicate> words = new ArrayList<>(2);
+    if (low != 0) {
+      words.add(anyOf(root, criteriaBuilder, "serviceMaskLow", low));
+    }
+    if (high != 0) {
+      words.add(anyOf(root, criteriaBuilder, "serviceMaskHigh", high));
+    }
+    return criteriaBuilder.or(words.toArray(new Predicate[0]));
+  }
+
+  private static Predicate anyOf(
+      Root<FacilityEntity> root, CriteriaBuilder criteriaBuilder, String column, long word) {
+    return criteriaBuilder.notEqual(
+        criteriaBuilder.function(
+            BITAND_FUNCTION, Long.class, root.get(column), criteriaBuilder.literal(word)),
+        0L);
+  }
+
+  boolean intersects(@NonNull ServiceMask other) {
+    return (low & other.low) != 0 || (high & other.high) != 0;
+  }
+
+  boolean isEmpty() {
+    return low == 0 && high == 0;
+  }
+
+  ServiceMask or(@NonNull ServiceMask other) {
+    return new ServiceMask(low | other.low, high | other.high);
+  }
+}
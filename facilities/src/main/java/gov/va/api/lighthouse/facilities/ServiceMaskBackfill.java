@@ -0,0 +1,104 @@
+package gov.va.api.lighthouse.facilities;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Liquibase change that computes the {@link ServiceMask} of every existing facility from its
+ * services and CMS overlay services. New and updated facilities compute their own mask when saved.
+ */
+@Slf4j
+public class ServiceMaskBackfill implements CustomTaskChange {
+  private static final int BATCH_SIZE = 500;
+
+  private static void collect(
+      JdbcConnection connection, String query, Map<List<String>, List<String>> servicesById)
+      throws DatabaseException, SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet rows = statement.executeQuery(query)) {
+      while (rows.next()) {
+        servicesById
+            .computeIfAbsent(List.of(rows.getString(1), rows.getString(2)), k -> new ArrayList<>())
+            .add(rows.getString(3));
+      }
+    }
+  }
+
+  @Override
+  public void execute(Database database) throws CustomChangeException {
+    JdbcConnection connection = (JdbcConnection) database.getConnection();
+    Map<List<String>, List<String>> servicesById = new HashMap<>();
+    try {
+      collect(
+          connection,
+          "select station_number, type, services from app.facility_services",
+          servicesById);
+      collect(
+          connection,
+          "select station_number, type, overlay_detailed_services"
+              + " from app.cms_overlay_detailed_services",
+          servicesById);
+      try (PreparedStatement update =
+          connection.prepareStatement(
+              "update app.facility set service_mask_low = ?, service_mask_high = ?"
+                  + " where station_number = ? and type = ?")) {
+        int batched = 0;
+        for (var entry : servicesById.entrySet()) {
+          ServiceMask mask = ServiceMask.of(entry.getValue());
+          update.setLong(1, mask.low());
+          update.setLong(2, mask.high());
+          update.setString(3, entry.getKey().get(0));
+          update.setString(4, entry.getKey().get(1));
+          update.addBatch();
+          if (++batched % BATCH_SIZE == 0) {
+            update.executeBatch();
+          }
+        }
+        update.executeBatch();
+      }
+      try (Statement statement = connection.createStatement()) {
+        statement.executeUpdate(
+            "update app.facility set service_mask_low = 0, service_mask_high = 0"
+                + " where service_mask_low is null");
+      }
+    } catch (DatabaseException | SQLException e) {
+      throw new CustomChangeException("Failed to backfill service masks", e);
+    }
+    log.info("Backfilled service masks of {} facilities", servicesById.size());
+  }
+
+  @Override
+  public String getConfirmationMessage() {
+    return "Service masks backfilled";
+  }
+
+  @Override
+  public void setFileOpener(ResourceAccessor resourceAccessor) {
+    // Not needed
+  }
+
+  @Override
+  public void setUp() throws SetupException {
+    // Not needed
+  }
+
+  @Override
+  public ValidationErrors validate(Database database) {
+    return new ValidationErrors();
+  }
+}
@@ -0,0 +1,53 @@
+package gov.va.api.lighthouse.facilities;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.SQLServerDialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.engine.spi.Mapping;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.Type;
+
+/**
+ * Registers the bitwise and function used by {@link ServiceMask} predicates. SQL Server only
+ * supports the {@code &} operator, while H2 and most other databases use {@code bitand}. This is
+ * configured with {@code spring.jpa.properties.hibernate.metadata_builder_contributor}.
+ */
+public class ServiceMaskFunctionContributor implements MetadataBuilderContributor {
+  @Override
+  public void contribute(MetadataBuilder metadataBuilder) {
+    metadataBuilder.applySqlFunction(ServiceMask.BITAND_FUNCTION, new BitAnd());
+  }
+
+  static final class BitAnd implements SQLFunction {
+    @Override
+    public Type getReturnType(Type firstArgumentType, Mapping mapping) {
+      return StandardBasicTypes.LONG;
+    }
+
+    @Override
+    public boolean hasArguments() {
+      return true;
+    }
+
+    @Override
+    public boolean hasParenthesesIfNoArguments() {
+      return true;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public String render(
+        Type firstArgumentType, List arguments, SessionFactoryImplementor factory) {
+      checkArgument(arguments.size() == 2, "%s takes two arguments", ServiceMask.BITAND_FUNCTION);
+      if (factory.getJdbcServices().getDialect() instanceof SQLServerDialect) {
+        return "(" + arguments.get(0) + " & " + arguments.get(1) + ")";
+      }
+      return "bitand(" + arguments.get(0) + ", " + arguments.get(1) + ")";
+    }
+  }
+}
@@ -1,12 +1,34 @@
 package gov.va.api.lighthouse.facilities;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 class WebMvcConfiguration implements WebMvcConfigurer {
+  private final FacilitySnapshots snapshots;
+
+  @Autowired
+  WebMvcConfiguration(FacilitySnapshots snapshots) {
+    this.snapshots = snapshots;
+  }
+
+  /**
+   * Facility reads that are answered from the snapshot, so validators describe the data that would
+   * be served. V0 reads query the database, which can be ahead of the snapshot until it is rebuilt,
+   * so they are not included. Single facility reads in both versions check the version of the
+   * entity they serve in the controller instead.
+   */
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry
+        .addInterceptor(new ConditionalGetInterceptor(snapshots))
+        .addPathPatterns("/v1/facilities", "/v1/ids");
+  }
+
   @Override
   public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
     configurer.defaultContentType(MediaType.APPLICATION_JSON);
@@ -8,6 +8,11 @@ import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Streams;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import gov.va.api.lighthouse.facilities.DatamartCmsOverlay;
 import gov.va.api.lighthouse.facilities.DatamartFacility;
 import gov.va.api.lighthouse.facilities.DatamartFacility.HealthService;
@@ -15,6 +20,7 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -24,7 +30,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.PreDestroy;
 import lombok.NonNull;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -54,20 +67,53 @@ public class FacilitiesCollector {
 
   private final CmsOverlayCollector cmsOverlayCollector;
 
-  /** Primary facilities collector constructor. */
+  private final ListeningExecutorService executor;
+
+  private final ScheduledExecutorService timeouts;
+
+  private final long sourceTimeoutSeconds;
+
+  /**
+   * Primary facilities collector constructor. Up to parallelism sources are collected at once, and
+   * a source that takes longer than the timeout fails the collection. A parallelism of one or less
+   * collects sources one at a time on the calling thread, and a timeout of zero or less disables
+   * timeouts.
+   */
+  @Autowired
   public FacilitiesCollector(
       @Autowired InsecureRestTemplateProvider insecureRestTemplateProvider,
       @Autowired JdbcTemplate jdbcTemplate,
       @Autowired CmsOverlayCollector cmsOverlayCollector,
       @Value("${access-to-care.url}") String atcBaseUrl,
       @Value("${access-to-pwt.url}") String atpBaseUrl,
-      @Value("${cemeteries.url}") String cemeteriesBaseUrl) {
+      @Value("${cemeteries.url}") String cemeteriesBaseUrl,
+      @Value("${facilities.collector.parallelism:8}") int parallelism,
+      @Value("${facilities.collector.source-timeout-seconds:900}") long sourceTimeoutSeconds) {
     this.insecureRestTemplateProvider = insecureRestTemplateProvider;
     this.jdbcTemplate = jdbcTemplate;
     this.atcBaseUrl = withTrailingSlash(atcBaseUrl);
     this.atpBaseUrl = withTrailingSlash(atpBaseUrl);
     this.cemeteriesBaseUrl = withTrailingSlash(cemeteriesBaseUrl);
     this.cmsOverlayCollector = cmsOverlayCollector;
+    this.sourceTimeoutSeconds = sourceTimeoutSeconds;
+    this.executor =
+        parallelism <= 1
+            ? MoreExecutors.newDirectExecutorService()
+            : MoreExecutors.listeningDecorator(
+                Executors.newFixedThreadPool(
+                    parallelism,
+                    new ThreadFactoryBuilder()
+                        .setNameFormat("facilities-collector-%d")
+                        .setDaemon(true)
+                        .build()));
+    this.timeouts =
+        sourceTimeoutSeconds <= 0
+            ? null
+            : Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder()
+                    .setNameFormat("facilities-collector-timeout-%d")
+                    .setDaemon(true)
+                    .build());
   }
 
   /** Caregiver support facilities given a resource name. */
@@ -139,52 +185,91 @@ public class FacilitiesCollector {
   }
 
   /** Collect datamart facilities. */
-  @SneakyThrows
   public List<DatamartFacility> collectFacilities() {
-    Map<String, String> websites;
-    Collection<VastEntity> vastEntities;
-    ArrayList<String> cscFacilities;
-    try {
-      websites = loadWebsites(WEBSITES_CSV_RESOURCE_NAME);
-      vastEntities = loadVast();
-      cscFacilities = loadCaregiverSupport(CSC_STATIONS_RESOURCE_NAME);
-    } catch (Exception e) {
-      throw new CollectorExceptions.CollectorException(e);
-    }
-    Collection<DatamartFacility> healths =
-        HealthsCollector.builder()
-            .atcBaseUrl(atcBaseUrl)
-            .atpBaseUrl(atpBaseUrl)
-            .cscFacilities(cscFacilities)
-            .jdbcTemplate(jdbcTemplate)
-            .insecureRestTemplate(insecureRestTemplateProvider.restTemplate())
-            .vastEntities(vastEntities)
-            .websites(websites)
-            .build()
-            .collect();
-    Collection<DatamartFacility> stateCems =
-        StateCemeteriesCollector.builder()
-            .baseUrl(cemeteriesBaseUrl)
-            .insecureRestTemplate(insecureRestTemplateProvider.restTemplate())
-            .websites(websites)
-            .build()
-            .collect();
-    Collection<DatamartFacility> vetCenters =
-        VetCentersCollector.builder()
-            .vastEntities(vastEntities)
-            .websites(websites)
-            .build()
-            .collect();
-    Collection<DatamartFacility> benefits =
-        BenefitsCollector.builder().websites(websites).jdbcTemplate(jdbcTemplate).build().collect();
-    Collection<DatamartFacility> cemeteries =
-        CemeteriesCollector.builder()
-            .baseUrl(cemeteriesBaseUrl)
-            .insecureRestTemplate(insecureRestTemplateProvider.restTemplate())
-            .websites(websites)
-            .jdbcTemplate(jdbcTemplate)
-            .build()
-            .collect();
+    return collectFacilities(new ConcurrentHashMap<>());
+  }
+
+  /**
+   * Collect datamart facilities, recording how long each source took by name. The websites, VAST,
+   * and caregiver support sources are collected together, then the five facility collectors. The
+   * first source to fail or time out fails the collection, and the other sources are cancelled.
+   */
+  public List<DatamartFacility> collectFacilities(@NonNull Map<String, Duration> sourceDurations) {
+    Sources sources = new Sources(sourceDurations);
+    ListenableFuture<Map<String, String>> websitesSource =
+        sources.submit("websites", () -> loadWebsites(WEBSITES_CSV_RESOURCE_NAME));
+    ListenableFuture<List<VastEntity>> vastSource = sources.submit("vast", this::loadVast);
+    ListenableFuture<ArrayList<String>> cscSource =
+        sources.submit(
+            "caregiverSupport", () -> loadCaregiverSupport(CSC_STATIONS_RESOURCE_NAME));
+    sources.await(CollectorExceptions.CollectorException::new);
+    Map<String, String> websites = Futures.getUnchecked(websitesSource);
+    Collection<VastEntity> vastEntities = Futures.getUnchecked(vastSource);
+    ArrayList<String> cscFacilities = Futures.getUnchecked(cscSource);
+    ListenableFuture<Collection<DatamartFacility>> healthsSource =
+        sources.submit(
+            "healths",
+            () ->
+                HealthsCollector.builder()
+                    .atcBaseUrl(atcBaseUrl)
+                    .atpBaseUrl(atpBaseUrl)
+                    .cscFacilities(cscFacilities)
+                    .jdbcTemplate(jdbcTemplate)
+                    .insecureRestTemplate(insecureRestTemplateProvider.restTemplate())
+                    .vastEntities(vastEntities)
+                    .websites(websites)
+                    .executor(executor)
+                    .build()
+                    .collect());
+    ListenableFuture<Collection<DatamartFacility>> stateCemsSource =
+        sources.submit(
+            "stateCemeteries",
+            () ->
+                StateCemeteriesCollector.builder()
+                    .baseUrl(cemeteriesBaseUrl)
+                    .insecureRestTemplate(insecureRestTemplateProvider.restTemplate())
+                    .websites(websites)
+                    .build()
+                    .collect());
+    ListenableFuture<Collection<DatamartFacility>> vetCentersSource =
+        sources.submit(
+            "vetCenters",
+            () ->
+                VetCentersCollector.builder()
+                    .vastEntities(vastEntities)
+                    .websites(websites)
+                    .build()
+                    .collect());
+    ListenableFuture<Collection<DatamartFacility>> benefitsSource =
+        sources.submit(
+            "benefits",
+            () ->
+                BenefitsCollector.builder()
+                    .websites(websites)
+                    .jdbcTemplate(jdbcTemplate)
+                    .build()
+                    .collect());
+    ListenableFuture<Collection<DatamartFacility>> cemeteriesSource =
+        sources.submit(
+            "cemeteries",
+            () ->
+                CemeteriesCollector.builder()
+                    .baseUrl(cemeteriesBaseUrl)
+                    .insecureRestTemplate(insecureRestTemplateProvider.restTemplate())
+                    .websites(websites)
+                    .jdbcTemplate(jdbcTemplate)
+                    .build()
+                    .collect());
+    sources.await(
+        e ->
+            e instanceof CollectorExceptions.CollectorException
+                ? (CollectorExceptions.CollectorException) e
+                : new CollectorExceptions.CollectorException(e));
+    Collection<DatamartFacility> healths = Futures.getUnchecked(healthsSource);
+    Collection<DatamartFacility> stateCems = Futures.getUnchecked(stateCemsSource);
+    Collection<DatamartFacility> vetCenters = Futures.getUnchecked(vetCentersSource);
+    Collection<DatamartFacility> benefits = Futures.getUnchecked(benefitsSource);
+    Collection<DatamartFacility> cemeteries = Futures.getUnchecked(cemeteriesSource);
     log.info(
         "Collected V0: Health {},  Benefits {},  Vet centers {}, "
             + "Non-national cemeteries {}, Cemeteries {}",
@@ -251,6 +336,14 @@ public class FacilitiesCollector {
     return entities;
   }
 
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+    if (timeouts != null) {
+      timeouts.shutdownNow();
+    }
+  }
+
   @SneakyThrows
   void updateOperatingStatusFromCmsOverlay(List<DatamartFacility> datamartFacilities) {
     HashMap<String, DatamartCmsOverlay> cmsOverlays;
@@ -291,4 +384,56 @@ public class FacilitiesCollector {
       }
     }
   }
+
+  /** Sources of one collection, started as they are submitted. */
+  private final class Sources {
+    private final Map<String, Duration> durations;
+
+    private final List<ListenableFuture<?>> pending = new ArrayList<>();
+
+    Sources(Map<String, Duration> durations) {
+      this.durations = durations;
+    }
+
+    /**
+     * Wait for every source submitted since the last wait. If any source fails or times out, the
+     * rest are cancelled and the failure is rethrown as a collector exception.
+     */
+    @SneakyThrows
+    void await(Function<Throwable, CollectorExceptions.CollectorException> toCollectorException) {
+      try {
+        Futures.allAsList(pending).get();
+      } catch (ExecutionException e) {
+        cancelPending();
+        throw toCollectorException.apply(e.getCause());
+      } catch (InterruptedException e) {
+        cancelPending();
+        throw e;
+      } finally {
+        pending.clear();
+      }
+    }
+
+    private void cancelPending() {
+      pending.forEach(source -> source.cancel(true));
+    }
+
+    <T> ListenableFuture<T> submit(String name, Callable<T> source) {
+      ListenableFuture<T> future =
+          executor.submit(
+              () -> {
+                Stopwatch watch = Stopwatch.createStarted();
+                try {
+                  return source.call();
+                } finally {
+                  durations.put(name, watch.stop().elapsed());
+                }
+              });
+      if (timeouts != null) {
+        future = Futures.withTimeout(future, sourceTimeoutSeconds, TimeUnit.SECONDS, timeouts);
+      }
+      pending.add(future);
+      return future;
+    }
+  }
 }
@@ -15,6 +15,9 @@ import com.google.common.base.Stopwatch;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import gov.va.api.health.autoconfig.configuration.JacksonConfig;
 import gov.va.api.lighthouse.facilities.DatamartFacility;
 import java.math.BigDecimal;
@@ -27,7 +30,10 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -57,6 +63,9 @@ final class HealthsCollector {
 
   @NonNull final ArrayList<String> cscFacilities;
 
+  /** Loads the sources of health facilities concurrently, or null to load them one at a time. */
+  final ListeningExecutorService executor;
+
   @SneakyThrows
   static void putMentalHealthContact(ResultSet resultSet, Map<String, String> map) {
     String stationNumber = resultSet.getString("StationNumber");
@@ -118,12 +127,23 @@ final class HealthsCollector {
             .build());
   }
 
+  /**
+   * Collect health facilities. Waiting for the sources is interruptible, and sources still loading
+   * when collection fails or is interrupted are cancelled.
+   */
   Collection<DatamartFacility> collect() {
+    List<Future<?>> loads = new ArrayList<>();
     try {
-      ListMultimap<String, AccessToCareEntry> accessToCareEntries = loadAccessToCare();
-      ListMultimap<String, AccessToPwtEntry> accessToPwtEntries = loadAccessToPwt();
-      Map<String, String> mentalHealthPhoneNumbers = loadMentalHealthPhoneNumbers();
+      ListenableFuture<ListMultimap<String, AccessToCareEntry>> accessToCare =
+          load(loads, this::loadAccessToCare);
+      ListenableFuture<ListMultimap<String, AccessToPwtEntry>> accessToPwt =
+          load(loads, this::loadAccessToPwt);
+      ListenableFuture<Map<String, String>> mentalHealthPhones =
+          load(loads, this::loadMentalHealthPhoneNumbers);
       ListMultimap<String, StopCode> stopCodesMap = loadStopCodes();
+      ListMultimap<String, AccessToCareEntry> accessToCareEntries = accessToCare.get();
+      ListMultimap<String, AccessToPwtEntry> accessToPwtEntries = accessToPwt.get();
+      Map<String, String> mentalHealthPhoneNumbers = mentalHealthPhones.get();
       return vastEntities.stream()
           .filter(Objects::nonNull)
           .filter(v -> !v.isVetCenter())
@@ -141,9 +161,26 @@ final class HealthsCollector {
                       .toDatamartFacility())
           .filter(Objects::nonNull)
           .collect(toList());
+    } catch (ExecutionException e) {
+      throw new CollectorExceptions.HealthsCollectorException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CollectorExceptions.HealthsCollectorException(e);
     } catch (Exception e) {
       throw new CollectorExceptions.HealthsCollectorException(e);
+    } finally {
+      loads.forEach(load -> load.cancel(true));
+    }
+  }
+
+  /** Start loading a source on the executor, or load it now if there is no executor. */
+  private <T> ListenableFuture<T> load(List<Future<?>> loads, Supplier<T> source) {
+    if (executor == null) {
+      return Futures.immediateFuture(source.get());
     }
+    ListenableFuture<T> load = executor.submit(source::get);
+    loads.add(load);
+    return load;
   }
 
   @SneakyThrows
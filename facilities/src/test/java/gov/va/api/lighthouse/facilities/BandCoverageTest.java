@@ -0,0 +1,71 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import java.awt.geom.Path2D;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class BandCoverageTest {
+  /** A wavy circle on a coarse lattice, so many vertices and edges fall on cell boundaries. */
+  private static PathEncoder.Rings latticeRing(Random random, int size) {
+    double[] coords = BandPolygonTest.wavyRing(random, size);
+    for (int i = 0; i < coords.length; i++) {
+      coords[i] = Math.round(coords[i] * 64) / 64.0;
+    }
+    return new PathEncoder.Rings(new int[] {size}, coords);
+  }
+
+  @Test
+  void bandsWithoutAreaAreBoundaryWithinBounds() {
+    BandCoverage line =
+        BandCoverage.of(new PathEncoder.Rings(new int[] {2}, new double[] {0, 0, 1, 0}), 0, 8);
+    assertThat(line.classify(0.5, 0)).isEqualTo(BandCoverage.BOUNDARY);
+    assertThat(line.classify(0.5, 0.1)).isEqualTo(BandCoverage.OUTSIDE);
+    BandCoverage empty = BandCoverage.of(new PathEncoder.Rings(new int[0], new double[0]), 0, 8);
+    assertThat(empty.classify(0, 0)).isEqualTo(BandCoverage.OUTSIDE);
+  }
+
+  @Test
+  void classifiesCellsOfSquare() {
+    double[] square = {0, 0, 4, 0, 4, 4, 0, 4};
+    BandCoverage coverage =
+        BandCoverage.of(new PathEncoder.Rings(new int[] {4}, square), 3, 4);
+    assertThat(coverage.version()).isEqualTo(3);
+    assertThat(coverage.classify(2, 2)).isEqualTo(BandCoverage.INSIDE);
+    assertThat(coverage.classify(1.5, 2.5)).isEqualTo(BandCoverage.INSIDE);
+    assertThat(coverage.classify(0.5, 2)).isEqualTo(BandCoverage.BOUNDARY);
+    assertThat(coverage.classify(3.9, 3.9)).isEqualTo(BandCoverage.BOUNDARY);
+    assertThat(coverage.classify(4.1, 2)).isEqualTo(BandCoverage.OUTSIDE);
+    assertThat(coverage.classify(Double.NaN, 2)).isEqualTo(BandCoverage.OUTSIDE);
+  }
+
+  @Test
+  void decidedCellsMatchPath() {
+    Random random = new Random(8675309);
+    int decided = 0;
+    for (int p = 0; p < 20; p++) {
+      PathEncoder.Rings rings = latticeRing(random, 3 + random.nextInt(400));
+      Path2D path = rings.toPath();
+      BandCoverage coverage = BandCoverage.of(rings, 0, 8 + p);
+      for (int i = 0; i < 5000; i++) {
+        double x = -1.5 + random.nextDouble() * 5;
+        double y = -1.5 + random.nextDouble() * 5;
+        if (i % 3 == 0) {
+          x = Math.round(x * 64) / 64.0;
+          y = Math.round(y * 64) / 64.0;
+        }
+        int cell = coverage.classify(x, y);
+        if (cell == BandCoverage.BOUNDARY) {
+          continue;
+        }
+        decided++;
+        assertThat(cell == BandCoverage.INSIDE)
+            .describedAs("%f,%f", x, y)
+            .isEqualTo(path.contains(x, y));
+      }
+    }
+    assertThat(decided).isGreaterThan(50_000);
+  }
+}
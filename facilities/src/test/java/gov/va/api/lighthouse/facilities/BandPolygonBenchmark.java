@@ -0,0 +1,111 @@
+package gov.va.api.lighthouse.facilities;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.stream.Collectors.toList;
+
+import gov.va.api.health.autoconfig.configuration.JacksonConfig;
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import gov.va.api.lighthouse.facilities.api.pssg.PssgDriveTimeBand;
+import gov.va.api.lighthouse.facilities.api.pssg.PssgResponse;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link BandPolygon} and {@link Path2D} containment on the PSSG drive time bands served
+ * by facilities-mock-services. Test points are spread over the bounds of the bands, so some are
+ * inside and some are outside. Run {@link #main} from the facilities module directory.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BandPolygonBenchmark {
+  private static final String BANDS =
+      "../facilities-mock-services/src/main/resources/pssg-drive-time-bands-0.json";
+
+  private static final int POINTS = 1000;
+
+  private List<Path2D> paths;
+
+  private List<BandPolygon> polygons;
+
+  private double[] longitudes;
+
+  private double[] latitudes;
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(BandPolygonBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  /** Containment by the polygons used for nearby searches. */
+  @Benchmark
+  public int bandPolygon() {
+    int inside = 0;
+    for (BandPolygon polygon : polygons) {
+      for (int i = 0; i < POINTS; i++) {
+        if (polygon.contains(longitudes[i], latitudes[i])) {
+          inside++;
+        }
+      }
+    }
+    return inside;
+  }
+
+  /** Containment by the decoded paths that nearby searches used before. */
+  @Benchmark
+  public int path2d() {
+    int inside = 0;
+    for (Path2D path : paths) {
+      for (int i = 0; i < POINTS; i++) {
+        if (path.contains(longitudes[i], latitudes[i])) {
+          inside++;
+        }
+      }
+    }
+    return inside;
+  }
+
+  /** Decode the bands the same way nearby searches do and pick the test points. */
+  @Setup
+  @SneakyThrows
+  public void setUp() {
+    List<PssgDriveTimeBand> bands =
+        JacksonConfig.createMapper().readValue(new File(BANDS), PssgResponse.class).features();
+    PathEncoder encoder = PathEncoder.create();
+    paths =
+        bands.stream()
+            .map(band -> encoder.decodeFromBase64(encoder.encodeToBase64(band)))
+            .collect(toList());
+    polygons = paths.stream().map(BandPolygon::of).collect(toList());
+    Rectangle2D bounds = paths.get(0).getBounds2D();
+    paths.forEach(path -> bounds.add(path.getBounds2D()));
+    Random random = new Random(37337);
+    longitudes = new double[POINTS];
+    latitudes = new double[POINTS];
+    for (int i = 0; i < POINTS; i++) {
+      longitudes[i] = bounds.getMinX() + random.nextDouble() * bounds.getWidth();
+      latitudes[i] = bounds.getMinY() + random.nextDouble() * bounds.getHeight();
+    }
+    checkState(bandPolygon() == path2d(), "BandPolygon and Path2D disagree");
+  }
+}
@@ -0,0 +1,204 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import gov.va.api.lighthouse.facilities.api.pssg.PssgDriveTimeBand;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class BandPolygonTest {
+  private static void assertSameAsPath(Path2D path, double min, double max, double step) {
+    BandPolygon polygon = BandPolygon.of(path);
+    for (double x = min; x <= max; x += step) {
+      for (double y = min; y <= max; y += step) {
+        assertThat(polygon.contains(x, y))
+            .describedAs("%f,%f", x, y)
+            .isEqualTo(path.contains(x, y));
+      }
+    }
+  }
+
+  private static Path2D ring(Path2D path, double... coords) {
+    path.moveTo(coords[0], coords[1]);
+    for (int i = 2; i < coords.length; i += 2) {
+      path.lineTo(coords[i], coords[i + 1]);
+    }
+    path.closePath();
+    return path;
+  }
+
+  /** A wavy circle, with a few horizontal edges. Shared with the coverage tests. */
+  static double[] wavyRing(Random random, int size) {
+    double cx = random.nextDouble() * 2;
+    double cy = random.nextDouble() * 2;
+    double radius = 0.2 + random.nextDouble();
+    double[] coords = new double[size * 2];
+    for (int i = 0; i < size; i++) {
+      double t = 2 * Math.PI * i / size;
+      double r = radius * (1 + 0.1 * Math.sin(7 * t) + 0.02 * random.nextGaussian());
+      coords[i * 2] = cx + r * Math.cos(t);
+      boolean horizontal = i > 0 && random.nextInt(10) == 0;
+      coords[i * 2 + 1] = horizontal ? coords[i * 2 - 1] : cy + r * Math.sin(t);
+    }
+    return coords;
+  }
+
+  @Test
+  void coarsePolygonMatchesFullPolygon() {
+    Random random = new Random(8675309);
+    for (double tolerance : new double[] {0.001, 0.01, 0.05, 0.3}) {
+      for (int p = 0; p < 10; p++) {
+        int[] sizes = new int[1 + random.nextInt(3)];
+        double[] coordinates = new double[0];
+        Path2D path = new Path2D.Double();
+        for (int r = 0; r < sizes.length; r++) {
+          double[] ring = wavyRing(random, 3 + random.nextInt(400));
+          ring(path, ring);
+          sizes[r] = ring.length / 2;
+          coordinates = Arrays.copyOf(coordinates, coordinates.length + ring.length);
+          System.arraycopy(ring, 0, coordinates, coordinates.length - ring.length, ring.length);
+        }
+        PathEncoder.Rings full = new PathEncoder.Rings(sizes, coordinates);
+        PathEncoder.Rings coarse = BandSimplifier.simplify(full, tolerance);
+        BandPolygon fullPolygon = BandPolygon.of(full);
+        AtomicInteger decoded = new AtomicInteger();
+        BandPolygon polygon =
+            BandPolygon.of(
+                coarse,
+                tolerance,
+                () -> {
+                  decoded.incrementAndGet();
+                  return fullPolygon;
+                });
+        assertThat(polygon.vertexCount()).isLessThanOrEqualTo(fullPolygon.vertexCount());
+        for (int i = 0; i < 2000; i++) {
+          double x = -1.5 + random.nextDouble() * 5;
+          double y = -1.5 + random.nextDouble() * 5;
+          if (i % 2 == 0) {
+            // Near or exactly on a vertex
+            int v = random.nextInt(coordinates.length / 2);
+            double jitter = i % 4 == 0 ? 0 : 0.002;
+            x = coordinates[v * 2] + (random.nextDouble() - 0.5) * jitter;
+            y = coordinates[v * 2 + 1] + (random.nextDouble() - 0.5) * jitter;
+          }
+          assertThat(polygon.contains(x, y))
+              .describedAs("%f,%f at tolerance %f", x, y, tolerance)
+              .isEqualTo(path.contains(x, y));
+        }
+        assertThat(decoded.get()).isLessThan(2000);
+      }
+    }
+  }
+
+  @Test
+  void coarsePolygonRequiresPositiveTolerance() {
+    PathEncoder.Rings rings = new PathEncoder.Rings(new int[] {3}, new double[] {0, 0, 1, 0, 1, 1});
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> BandPolygon.of(rings, 0, () -> BandPolygon.of(rings)));
+  }
+
+  @Test
+  void curvesAreNotSupported() {
+    Path2D path = new Path2D.Double();
+    path.moveTo(0, 0);
+    path.quadTo(1, 1, 2, 0);
+    assertThatIllegalArgumentException().isThrownBy(() -> BandPolygon.of(path));
+  }
+
+  @Test
+  void emptyPathContainsNothing() {
+    BandPolygon polygon = BandPolygon.of(new Path2D.Double());
+    assertThat(polygon.contains(0, 0)).isFalse();
+    assertThat(polygon.vertexCount()).isEqualTo(0);
+  }
+
+  @Test
+  void holesAndOverlappingRingsUseNonZeroWinding() {
+    Path2D path = new Path2D.Double();
+    // Counterclockwise exterior with a clockwise hole, then an overlapping ring
+    ring(path, 0, 0, 10, 0, 10, 10, 0, 10);
+    ring(path, 2, 2, 2, 8, 8, 8, 8, 2);
+    ring(path, 5, 5, 15, 5, 15, 15, 5, 15);
+    BandPolygon polygon = BandPolygon.of(path);
+    assertThat(polygon.contains(1, 1)).isTrue();
+    assertThat(polygon.contains(3, 3)).isFalse();
+    assertThat(polygon.contains(6, 6)).isTrue();
+    assertThat(polygon.contains(12, 12)).isTrue();
+    assertThat(polygon.vertexCount()).isEqualTo(12);
+    assertSameAsPath(path, -1, 16, 0.5);
+  }
+
+  @Test
+  void matchesPath2dOnRandomPolygons() {
+    Random random = new Random(20210401);
+    for (int p = 0; p < 50; p++) {
+      Path2D path = new Path2D.Double();
+      int rings = 1 + random.nextInt(3);
+      for (int r = 0; r < rings; r++) {
+        double[] coords = new double[2 * (3 + random.nextInt(60))];
+        for (int i = 0; i < coords.length; i++) {
+          // Integer coordinates put many test points exactly on vertices and edges
+          coords[i] = random.nextInt(21);
+        }
+        ring(path, coords);
+      }
+      assertSameAsPath(path, -1, 21, 0.5);
+    }
+  }
+
+  @Test
+  void matchesPath2dWhenCreatedFromRings() {
+    Random random = new Random(37337);
+    for (int p = 0; p < 20; p++) {
+      List<List<List<Double>>> rings = PssgDriveTimeBand.newListOfRings();
+      for (int r = 0, count = 1 + random.nextInt(3); r < count; r++) {
+        List<List<Double>> ring = PssgDriveTimeBand.newRing(60);
+        for (int i = 0, size = 1 + random.nextInt(60); i < size; i++) {
+          ring.add(PssgDriveTimeBand.coord(random.nextInt(21), random.nextInt(21)));
+        }
+        rings.add(ring);
+      }
+      String band =
+          PathEncoder.create()
+              .encodeToBase64(
+                  PssgDriveTimeBand.builder()
+                      .geometry(PssgDriveTimeBand.Geometry.builder().rings(rings).build())
+                      .build());
+      Path2D path = PathEncoder.create().decodeFromBase64(band);
+      BandPolygon polygon = BandPolygon.of(PathEncoder.create().decodeRingsFromBase64(band));
+      for (double x = -1; x <= 21; x += 0.5) {
+        for (double y = -1; y <= 21; y += 0.5) {
+          assertThat(polygon.contains(x, y))
+              .describedAs("%f,%f", x, y)
+              .isEqualTo(path.contains(x, y));
+        }
+      }
+    }
+  }
+
+  @Test
+  void nonFinitePointsAreOutside() {
+    BandPolygon polygon = BandPolygon.of(ring(new Path2D.Double(), 0, 0, 10, 0, 10, 10));
+    assertThat(polygon.contains(Double.NEGATIVE_INFINITY, 1)).isFalse();
+    assertThat(polygon.contains(Double.NaN, 1)).isFalse();
+    assertThat(polygon.contains(9, Double.NaN)).isFalse();
+  }
+
+  @Test
+  void unclosedSubpathsAreClosed() {
+    Path2D path = new Path2D.Double();
+    path.moveTo(0, 0);
+    path.lineTo(4, 0);
+    path.lineTo(4, 4);
+    path.moveTo(10, 10);
+    path.lineTo(14, 10);
+    path.lineTo(14, 14);
+    assertSameAsPath(path, -1, 15, 0.25);
+  }
+}
@@ -0,0 +1,66 @@
+package gov.va.api.lighthouse.facilities;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class BandRTreeTest {
+  private static DriveTimeBandBounds bounds(
+      String name, double minLng, double minLat, double maxLng, double maxLat) {
+    return new DriveTimeBandBounds(
+        DriveTimeBandEntity.Pk.fromName(name), minLng, minLat, maxLng, maxLat, 0);
+  }
+
+  private static List<DriveTimeBandBounds> randomBands(Random random, int count) {
+    List<DriveTimeBandBounds> bands = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      double lng = -125 + random.nextDouble() * 60;
+      double lat = 20 + random.nextDouble() * 30;
+      double width = random.nextDouble() * 3;
+      double height = random.nextDouble() * 2;
+      bands.add(bounds("s" + i + "-0-10", lng, lat, lng + width, lat + height));
+    }
+    return bands;
+  }
+
+  @Test
+  void containingIncludesEdges() {
+    BandRTree tree = BandRTree.of(List.of(bounds("a-0-10", 0, 0, 1, 1)));
+    assertThat(tree.containing(0, 0))
+        .extracting(DriveTimeBandBounds::id)
+        .containsExactly(DriveTimeBandEntity.Pk.fromName("a-0-10"));
+    assertThat(tree.containing(1, 1))
+        .extracting(DriveTimeBandBounds::id)
+        .containsExactly(DriveTimeBandEntity.Pk.fromName("a-0-10"));
+    assertThat(tree.containing(1.0001, 0.5)).isEmpty();
+  }
+
+  @Test
+  void containingMatchesBruteForce() {
+    Random random = new Random(8675309);
+    for (int count : new int[] {1, 2, 15, 16, 17, 255, 256, 257, 3000}) {
+      List<DriveTimeBandBounds> bands = randomBands(random, count);
+      BandRTree tree = BandRTree.of(bands);
+      assertThat(tree.size()).isEqualTo(count);
+      for (int i = 0; i < 200; i++) {
+        double lng = -126 + random.nextDouble() * 64;
+        double lat = 19 + random.nextDouble() * 33;
+        assertThat(tree.containing(lng, lat))
+            .describedAs("%d bands at %f,%f", count, lng, lat)
+            .containsExactlyInAnyOrderElementsOf(
+                bands.stream().filter(b -> b.contains(lng, lat)).collect(toList()));
+      }
+    }
+  }
+
+  @Test
+  void empty() {
+    BandRTree tree = BandRTree.of(List.of());
+    assertThat(tree.size()).isEqualTo(0);
+    assertThat(tree.containing(0, 0)).isEmpty();
+  }
+}
@@ -0,0 +1,32 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import org.junit.jupiter.api.Test;
+
+public class BandSimplifierTest {
+  @Test
+  void dropsVerticesWithinTolerance() {
+    PathEncoder.Rings rings =
+        new PathEncoder.Rings(
+            new int[] {7, 2},
+            new double[] {
+              0, 0, 1, 0.001, 2, 0, 2, 1, 1, 1.5, 0, 1, 0, 0.001,
+              // Short rings are kept as is
+              5, 5, 6, 6
+            });
+    PathEncoder.Rings simplified = BandSimplifier.simplify(rings, 0.01);
+    assertThat(simplified.sizes()).containsExactly(6, 2);
+    assertThat(simplified.coordinates())
+        .containsExactly(0, 0, 2, 0, 2, 1, 1, 1.5, 0, 1, 0, 0.001, 5, 5, 6, 6);
+  }
+
+  @Test
+  void keepsEveryVertexBeyondTolerance() {
+    PathEncoder.Rings rings =
+        new PathEncoder.Rings(new int[] {4}, new double[] {0, 0, 1, 0.1, 2, 0, 1, -0.1});
+    assertThat(BandSimplifier.simplify(rings, 0.05)).isEqualTo(rings);
+    assertThat(BandSimplifier.simplify(rings, 0.2).sizes()).containsExactly(3);
+  }
+}
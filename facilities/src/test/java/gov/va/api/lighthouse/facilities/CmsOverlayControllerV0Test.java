@@ -32,6 +32,8 @@ public class CmsOverlayControllerV0Test {
 
   @Mock CmsOverlayRepository mockCmsOverlayRepository;
 
+  @Mock FacilitySnapshots mockSnapshots;
+
   private DatamartDetailedService cardiologyDetailedService(boolean isActive) {
     return DatamartDetailedService.builder()
         .name("Cardiology")
@@ -99,6 +101,7 @@ public class CmsOverlayControllerV0Test {
     return CmsOverlayControllerV0.builder()
         .facilityRepository(mockFacilityRepository)
         .cmsOverlayRepository(mockCmsOverlayRepository)
+        .snapshots(mockSnapshots)
         .build();
   }
 
@@ -36,10 +36,13 @@ public class CmsOverlayControllerV1Test {
 
   @Mock CmsOverlayRepository mockCmsOverlayRepository;
 
+  @Mock FacilitySnapshots mockSnapshots;
+
   CmsOverlayControllerV1 controller() {
     return CmsOverlayControllerV1.builder()
         .facilityRepository(mockFacilityRepository)
         .cmsOverlayRepository(mockCmsOverlayRepository)
+        .snapshots(mockSnapshots)
         .baseUrl("http://foo/")
         .basePath("bp")
         .build();
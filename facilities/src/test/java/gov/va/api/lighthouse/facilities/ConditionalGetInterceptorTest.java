@@ -0,0 +1,112 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class ConditionalGetInterceptorTest {
+  private static FacilitySnapshot snapshot() {
+    FacilityEntity entity = FacilitySamples.defaultSamples().facilityEntity("vha_691GB");
+    entity.version(7);
+    return FacilitySnapshot.of(1, List.of(entity));
+  }
+
+  private static ConditionalGetInterceptor interceptor(Optional<FacilitySnapshot> snapshot) {
+    FacilitySnapshots snapshots = mock(FacilitySnapshots.class);
+    when(snapshots.current()).thenReturn(snapshot);
+    return new ConditionalGetInterceptor(snapshots);
+  }
+
+  private static MockHttpServletRequest request(String method, String id, String ifNoneMatch) {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/");
+    request.addHeader("Accept", "application/json");
+    if (id != null) {
+      request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", id));
+    }
+    if (ifNoneMatch != null) {
+      request.addHeader("If-None-Match", ifNoneMatch);
+    }
+    return request;
+  }
+
+  @Test
+  @SneakyThrows
+  void collectionNotModified() {
+    ConditionalGetInterceptor interceptor = interceptor(Optional.of(snapshot()));
+    MockHttpServletRequest request = request("GET", null, null);
+    MockHttpServletResponse first = new MockHttpServletResponse();
+    assertThat(interceptor.preHandle(request, first, null)).isTrue();
+    assertThat(first.getHeader("ETag")).isNull();
+    ConditionalGetInterceptor.attachETag(request, first);
+    String eTag = first.getHeader("ETag");
+    assertThat(eTag).startsWith("W/\"" + snapshot().fingerprint());
+    MockHttpServletResponse second = new MockHttpServletResponse();
+    assertThat(interceptor.preHandle(request("GET", null, "\"x\", " + eTag), second, null))
+        .isFalse();
+    assertThat(second.getStatus()).isEqualTo(304);
+    assertThat(second.getHeader("ETag")).isEqualTo(eTag);
+    MockHttpServletRequest csv = request("GET", null, eTag);
+    csv.removeHeader("Accept");
+    csv.addHeader("Accept", "text/csv");
+    assertThat(interceptor.preHandle(csv, new MockHttpServletResponse(), null)).isTrue();
+  }
+
+  @Test
+  @SneakyThrows
+  void errorResponseHasNoValidator() {
+    ConditionalGetInterceptor interceptor = interceptor(Optional.of(snapshot()));
+    MockHttpServletRequest request = request("GET", null, null);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    assertThat(interceptor.preHandle(request, response, null)).isTrue();
+    response.setStatus(400);
+    ConditionalGetInterceptor.attachETag(request, response);
+    assertThat(response.getHeader("ETag")).isNull();
+    MockHttpServletResponse streamed = new MockHttpServletResponse();
+    interceptor.afterConcurrentHandlingStarted(request, streamed, null);
+    assertThat(streamed.getHeader("ETag")).startsWith("W/\"");
+  }
+
+  @Test
+  @SneakyThrows
+  void facilityNotModified() {
+    ConditionalGetInterceptor interceptor = interceptor(Optional.of(snapshot()));
+    MockHttpServletRequest request = request("GET", "vha_691GB", null);
+    MockHttpServletResponse first = new MockHttpServletResponse();
+    assertThat(interceptor.preHandle(request, first, null)).isTrue();
+    ConditionalGetInterceptor.attachETag(request, first);
+    String eTag = first.getHeader("ETag");
+    assertThat(eTag).startsWith("\"vha_691GB-7-");
+    MockHttpServletResponse second = new MockHttpServletResponse();
+    assertThat(interceptor.preHandle(request("GET", "vha_691GB", eTag), second, null)).isFalse();
+    assertThat(second.getStatus()).isEqualTo(304);
+  }
+
+  @Test
+  @SneakyThrows
+  void passesThroughWithoutValidator() {
+    ConditionalGetInterceptor interceptor = interceptor(Optional.of(snapshot()));
+    MockHttpServletResponse unknown = new MockHttpServletResponse();
+    assertThat(interceptor.preHandle(request("GET", "vha_000", "*"), unknown, null)).isTrue();
+    assertThat(unknown.getHeader("ETag")).isNull();
+    assertThat(interceptor.preHandle(request("GET", "xxx", "*"), unknown, null)).isTrue();
+    assertThat(interceptor.preHandle(request("GET", null, "*"), unknown, null)).isTrue();
+    MockHttpServletResponse post = new MockHttpServletResponse();
+    assertThat(interceptor.preHandle(request("POST", null, "*"), post, null)).isTrue();
+    assertThat(post.getHeader("ETag")).isNull();
+    MockHttpServletResponse noSnapshot = new MockHttpServletResponse();
+    assertThat(
+            interceptor(Optional.empty())
+                .preHandle(request("GET", null, null), noSnapshot, null))
+        .isTrue();
+    assertThat(noSnapshot.getHeader("ETag")).isNull();
+  }
+}
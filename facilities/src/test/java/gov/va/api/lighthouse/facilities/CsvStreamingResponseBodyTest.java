@@ -0,0 +1,95 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.Lists;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+public class CsvStreamingResponseBodyTest {
+  private static final List<Integer> NUMBERS =
+      IntStream.range(0, 23).boxed().collect(Collectors.toList());
+
+  private static String expectedCsv() {
+    return "n,square\r\n"
+        + NUMBERS.stream().map(n -> n + "," + (n * n) + "\r\n").collect(Collectors.joining());
+  }
+
+  private static Slice<Integer> first(Pageable pageable) {
+    return sliceFrom(0, pageable);
+  }
+
+  private static Slice<Integer> sliceAfter(Integer last, Pageable pageable) {
+    return sliceFrom(NUMBERS.indexOf(last) + 1, pageable);
+  }
+
+  private static Slice<Integer> sliceFrom(int from, Pageable pageable) {
+    int to = Math.min(from + pageable.getPageSize(), NUMBERS.size());
+    return new SliceImpl<>(NUMBERS.subList(from, to), pageable, to < NUMBERS.size());
+  }
+
+  @SneakyThrows
+  private static String write(CsvStreamingResponseBody<Integer> body) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    body.writeTo(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void chunksFromList() {
+    assertThat(Lists.newArrayList(CsvStreamingResponseBody.chunksOf(NUMBERS, 10)))
+        .extracting(List::size)
+        .containsExactly(10, 10, 3);
+    assertThat(
+            write(
+                CsvStreamingResponseBody.<Integer>builder()
+                    .headers(List.of("n", "square"))
+                    .chunks(CsvStreamingResponseBody.chunksOf(NUMBERS, 10))
+                    .toRow(n -> List.of(String.valueOf(n), String.valueOf(n * n)))
+                    .build()))
+        .isEqualTo(expectedCsv());
+  }
+
+  @Test
+  void chunksFromSlicesAreLoadedLazilyByKey() {
+    List<Integer> requestedAfter = new ArrayList<>();
+    List<Pageable> requested = new ArrayList<>();
+    var chunks =
+        CsvStreamingResponseBody.chunksOf(
+            first(PageRequest.of(0, 5)),
+            (last, p) -> {
+              requestedAfter.add(last);
+              requested.add(p);
+              return sliceAfter(last, p);
+            });
+    assertThat(chunks.next()).containsExactly(0, 1, 2, 3, 4);
+    assertThat(requestedAfter).isEmpty();
+    assertThat(chunks.next()).containsExactly(5, 6, 7, 8, 9);
+    assertThat(requestedAfter).containsExactly(4);
+    assertThat(requested).containsExactly(PageRequest.of(0, 5));
+  }
+
+  @Test
+  void writesSlicesInOrder() {
+    assertThat(
+            write(
+                CsvStreamingResponseBody.<Integer>builder()
+                    .headers(List.of("n", "square"))
+                    .chunks(
+                        CsvStreamingResponseBody.chunksOf(
+                            first(PageRequest.of(0, 4)), CsvStreamingResponseBodyTest::sliceAfter))
+                    .toRow(n -> List.of(String.valueOf(n), String.valueOf(n * n)))
+                    .build()))
+        .isEqualTo(expectedCsv());
+  }
+}
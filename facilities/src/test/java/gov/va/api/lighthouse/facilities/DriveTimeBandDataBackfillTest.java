@@ -0,0 +1,67 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import gov.va.api.health.autoconfig.configuration.JacksonConfig;
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import gov.va.api.lighthouse.facilities.api.pssg.PssgDriveTimeBand;
+import java.util.Map;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@DataJpaTest
+@ExtendWith(SpringExtension.class)
+public class DriveTimeBandDataBackfillTest {
+  @Autowired DriveTimeBandRepository repository;
+
+  private static DriveTimeBandEntity base64Band(String name, int offset) {
+    PssgDriveTimeBand band = InternalDriveTimeBandControllerTest.Entities.diamondBand(name, offset);
+    var entity = InternalDriveTimeBandControllerTest.Entities.diamond(name, offset);
+    entity.band(PathEncoder.create().encodeToBase64(band));
+    entity.bandData(null);
+    return entity;
+  }
+
+  @SneakyThrows
+  private static DriveTimeBandEntity pssgBand(String name, int offset) {
+    PssgDriveTimeBand band = InternalDriveTimeBandControllerTest.Entities.diamondBand(name, offset);
+    var entity = InternalDriveTimeBandControllerTest.Entities.diamond(name, offset);
+    entity.band(JacksonConfig.createMapper().writeValueAsString(band));
+    entity.bandData(null);
+    return entity;
+  }
+
+  @Test
+  void backfillConvertsTextBands() {
+    DriveTimeBandEntity a12 = base64Band("a-1-2", 100);
+    DriveTimeBandEntity b12 = pssgBand("b-1-2", 200);
+    repository.save(a12);
+    repository.save(b12);
+    repository.save(InternalDriveTimeBandControllerTest.Entities.diamond("c-1-2", 300));
+    DriveTimeBandIndex index = mock(DriveTimeBandIndex.class);
+    var backfill =
+        new DriveTimeBandDataBackfill(repository, new DriveTimeBandPolygons(1000), index);
+    assertThat(backfill.backfill()).isEqualTo(2);
+    verify(index).refresh();
+    assertThat(repository.findIdsWithoutBandData()).isEmpty();
+    Map.of("a-1-2", 100, "b-1-2", 200, "c-1-2", 300)
+        .forEach(
+            (name, offset) -> {
+              DriveTimeBandEntity entity =
+                  repository.findById(DriveTimeBandEntity.Pk.fromName(name)).orElseThrow();
+              assertThat(
+                      NearbyUtils.toPolygon(entity.id(), entity.bandData(), null)
+                          .contains(offset, offset))
+                  .isTrue();
+            });
+    assertThat(repository.findById(a12.id()).orElseThrow().band()).isEqualTo(a12.band());
+    assertThat(repository.findById(b12.id()).orElseThrow().band()).isEqualTo(b12.band());
+    assertThat(backfill.backfill()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,109 @@
+package gov.va.api.lighthouse.facilities;
+
+import static gov.va.api.lighthouse.facilities.InternalDriveTimeBandControllerTest.Entities.band;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class DriveTimeBandIndexTest {
+  DriveTimeBandRepository repository = mock(DriveTimeBandRepository.class);
+
+  private void stubBands(DriveTimeBandEntity... entities) {
+    when(repository.findAllBounds())
+        .thenReturn(Arrays.stream(entities).map(DriveTimeBandBounds::of).collect(toList()));
+    when(repository.findPayloadsByIdIn(any()))
+        .thenAnswer(
+            invocation -> {
+              Collection<?> ids = invocation.getArgument(0);
+              return Arrays.stream(entities)
+                  .filter(e -> ids.contains(e.id()))
+                  .map(DriveTimeBandPayload::of)
+                  .collect(toList());
+            });
+  }
+
+  @Test
+  void coverageDecidesCandidates() {
+    DriveTimeBandEntity a12 = band("a-1-2", 100, 1);
+    DriveTimeBandEntity b12 = band("b-1-2", 100, null);
+    stubBands(a12, b12);
+    DriveTimeBandIndex index = new DriveTimeBandIndex(repository, 32);
+    index.updateCoverage(index.rebuild());
+    assertThat(index.coveredSize()).isEqualTo(1);
+    DriveTimeBandIndex.Candidates inside = index.search(100, 100, null);
+    assertThat(inside.bands()).extracting(DriveTimeBandBounds::id).contains(a12.id(), b12.id());
+    assertThat(inside.covering()).containsExactly(a12.id());
+    assertThat(inside.uncovered()).extracting(DriveTimeBandBounds::id).containsExactly(b12.id());
+    // Within the bounds of both bands, but outside the diamond
+    assertThat(index.candidates(100.9, 101.9, null))
+        .extracting(DriveTimeBandBounds::id)
+        .containsExactly(b12.id());
+    // On an edge, so the polygon decides
+    assertThat(index.search(100.5, 101, null).covering()).isEmpty();
+    // Covering bands are hits without a polygon, other bands without one are skipped
+    assertThat(
+            NearbyUtils.intersections(
+                BigDecimal.valueOf(100),
+                BigDecimal.valueOf(100),
+                inside.bands(),
+                inside.covering(),
+                Map.of()))
+        .isEqualTo(Map.of("a", a12.id()));
+  }
+
+  @Test
+  void coverageIsDisabledWithoutCells() {
+    stubBands(band("a-1-2", 100, 1));
+    DriveTimeBandIndex index = new DriveTimeBandIndex(repository, 0);
+    index.updateCoverage(index.rebuild());
+    assertThat(index.coveredSize()).isEqualTo(0);
+    assertThat(index.search(100, 100, null).covering()).isEmpty();
+    verify(repository, never()).findPayloadsByIdIn(any());
+  }
+
+  @Test
+  void coverageOfOtherVersionsIsIgnored() {
+    DriveTimeBandEntity a12 = band("a-1-2", 100, 1);
+    stubBands(a12);
+    DriveTimeBandIndex index = new DriveTimeBandIndex(repository, 32);
+    index.updateCoverage(index.rebuild());
+    assertThat(index.search(100, 100, null).covering()).containsExactly(a12.id());
+    DriveTimeBandEntity updated = band("a-1-2", 200, 2);
+    stubBands(updated);
+    BandRTree tree = index.rebuild();
+    assertThat(index.search(100, 100, null).covering()).isEmpty();
+    index.updateCoverage(tree);
+    assertThat(index.search(100, 100, null).bands()).isEmpty();
+    assertThat(index.search(200, 200, null).covering()).isEqualTo(Set.of(updated.id()));
+    stubBands();
+    index.updateCoverage(index.rebuild());
+    assertThat(index.coveredSize()).isEqualTo(0);
+    assertThat(index.candidates(200, 200, null)).isEqualTo(List.of());
+  }
+
+  @Test
+  void fingerprintFollowsBandVersions() {
+    DriveTimeBandIndex index = new DriveTimeBandIndex(repository, 0);
+    stubBands(band("a-1-2", 100, 1), band("b-1-2", 100, null));
+    index.rebuild();
+    long original = index.fingerprint();
+    stubBands(band("b-1-2", 100, null), band("a-1-2", 200, 1));
+    index.rebuild();
+    assertThat(index.fingerprint()).isEqualTo(original);
+    stubBands(band("a-1-2", 100, 2), band("b-1-2", 100, null));
+    index.rebuild();
+    assertThat(index.fingerprint()).isNotEqualTo(original);
+  }
+}
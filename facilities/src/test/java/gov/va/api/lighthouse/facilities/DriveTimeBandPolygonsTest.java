@@ -0,0 +1,153 @@
+package gov.va.api.lighthouse.facilities;
+
+import static gov.va.api.lighthouse.facilities.InternalDriveTimeBandControllerTest.Entities.band;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class DriveTimeBandPolygonsTest {
+  /** A coarse band that does not match the full band, to tell which one answers. */
+  private static DriveTimeBandEntity coarse(DriveTimeBandEntity entity) {
+    double[] square = {0, 0, 1000, 0, 1000, 1000, 0, 1000};
+    entity.coarseBandData(
+        PathEncoder.create().encode(new PathEncoder.Rings(new int[] {4}, square)));
+    entity.coarseTolerance(0.5);
+    return entity;
+  }
+
+  static Map<DriveTimeBandEntity.Pk, BandPolygon> load(
+      DriveTimeBandPolygons polygons, DriveTimeBandEntity... entities) {
+    return polygons.getAll(
+        Arrays.stream(entities).map(DriveTimeBandBounds::of).collect(toList()),
+        ids ->
+            Arrays.stream(entities)
+                .filter(e -> ids.contains(e.id()))
+                .map(DriveTimeBandPayload::of)
+                .collect(toList()));
+  }
+
+  @Test
+  void coarseBandIsTestedBeforeFullBand() {
+    DriveTimeBandEntity a12 = coarse(band("a-1-2", 100, 1));
+    BandPolygon polygon = load(new DriveTimeBandPolygons(1000), a12).get(a12.id());
+    assertThat(polygon.vertexCount()).isEqualTo(4);
+    assertThat(polygon.contains(500, 500)).isTrue();
+    assertThat(polygon.contains(1000.4, 500)).isFalse();
+    assertThat(polygon.contains(999.9, 500)).isFalse();
+    assertThat(polygon.contains(100, 100)).isTrue();
+  }
+
+  @Test
+  void coarseBandsWeighTheEncodedFullBand() {
+    DriveTimeBandPolygons polygons = new DriveTimeBandPolygons(1000);
+    DriveTimeBandEntity a12 = coarse(band("a-1-2", 100, 1));
+    load(polygons, a12);
+    int encodedVertices =
+        (a12.bandData().length + DriveTimeBandPolygons.BYTES_PER_VERTEX - 1)
+            / DriveTimeBandPolygons.BYTES_PER_VERTEX;
+    assertThat(encodedVertices).isPositive();
+    assertThat(polygons.stats().vertices()).isEqualTo(4);
+    assertThat(polygons.stats().weight()).isEqualTo(4 + encodedVertices);
+  }
+
+  @Test
+  void decodedPolygonContainsPoints() {
+    DriveTimeBandEntity a12 = band("a-1-2", 100, 1);
+    BandPolygon polygon = load(new DriveTimeBandPolygons(1000), a12).get(a12.id());
+    assertThat(polygon.contains(100, 100)).isTrue();
+    assertThat(polygon.contains(100.9, 101.9)).isFalse();
+    assertThat(polygon.vertexCount()).isGreaterThanOrEqualTo(4);
+  }
+
+  @Test
+  void evictsByVertexCount() {
+    DriveTimeBandPolygons polygons = new DriveTimeBandPolygons(0);
+    load(polygons, band("a-1-2", 100, 1));
+    assertThat(polygons.size()).isEqualTo(0);
+  }
+
+  @Test
+  void fullPolygonOfCoarseBandIsDecodedOnce() {
+    DriveTimeBandPolygons polygons = new DriveTimeBandPolygons(1000);
+    DriveTimeBandEntity a12 = coarse(band("a-1-2", 100, 1));
+    BandPolygon polygon = load(polygons, a12).get(a12.id());
+    assertThat(polygon.contains(500, 500)).isTrue();
+    assertThat(polygons.size()).isEqualTo(1);
+    assertThat(polygon.contains(999.9, 500)).isFalse();
+    assertThat(polygons.size()).isEqualTo(2);
+    assertThat(polygon.contains(999.9, 400)).isFalse();
+    assertThat(polygons.stats().hitCount()).isEqualTo(1);
+    assertThat(polygons.stats().missCount()).isEqualTo(2);
+    polygons.invalidate(a12.id());
+    assertThat(polygons.size()).isEqualTo(0);
+  }
+
+  @Test
+  void invalidateDropsEveryVersion() {
+    DriveTimeBandPolygons polygons = new DriveTimeBandPolygons(1000);
+    load(polygons, band("a-1-2", 100, 1));
+    load(polygons, band("a-1-2", 100, 2));
+    load(polygons, band("a-2-3", 100, 1));
+    assertThat(polygons.size()).isEqualTo(3);
+    polygons.invalidate(DriveTimeBandEntity.Pk.fromName("a-1-2"));
+    assertThat(polygons.size()).isEqualTo(1);
+    polygons.invalidateAll();
+    assertThat(polygons.size()).isEqualTo(0);
+  }
+
+  @Test
+  void loadsOnlyMissingBandsInOneCall() {
+    DriveTimeBandPolygons polygons = new DriveTimeBandPolygons(1000);
+    DriveTimeBandEntity a12 = band("a-1-2", 100, 1);
+    DriveTimeBandEntity b12 = band("b-1-2", 200, 1);
+    DriveTimeBandEntity c12 = band("c-1-2", 300, 1);
+    load(polygons, a12);
+    List<Collection<DriveTimeBandEntity.Pk>> calls = new ArrayList<>();
+    Map<DriveTimeBandEntity.Pk, BandPolygon> found =
+        polygons.getAll(
+            List.of(
+                DriveTimeBandBounds.of(a12),
+                DriveTimeBandBounds.of(b12),
+                DriveTimeBandBounds.of(c12)),
+            ids -> {
+              calls.add(List.copyOf(ids));
+              return List.of(DriveTimeBandPayload.of(b12), DriveTimeBandPayload.of(c12));
+            });
+    assertThat(calls).containsExactly(List.of(b12.id(), c12.id()));
+    assertThat(found).containsOnlyKeys(a12.id(), b12.id(), c12.id());
+    assertThat(found.get(c12.id()).contains(300, 300)).isTrue();
+    polygons.getAll(
+        List.of(DriveTimeBandBounds.of(b12)),
+        ids -> {
+          throw new AssertionError("Unexpected load of " + ids);
+        });
+  }
+
+  @Test
+  void reusesDecodedPolygonForSameVersion() {
+    DriveTimeBandPolygons polygons = new DriveTimeBandPolygons(1000);
+    DriveTimeBandEntity.Pk id = DriveTimeBandEntity.Pk.fromName("a-1-2");
+    BandPolygon first = load(polygons, band("a-1-2", 100, 1)).get(id);
+    assertThat(load(polygons, band("a-1-2", 100, 1)).get(id)).isSameAs(first);
+    BandPolygon moved = load(polygons, band("a-1-2", 200, 2)).get(id);
+    assertThat(moved).isNotSameAs(first);
+    assertThat(moved.contains(200, 200)).isTrue();
+    assertThat(polygons.stats().hitCount()).isEqualTo(1);
+    assertThat(polygons.stats().missCount()).isEqualTo(2);
+  }
+
+  @Test
+  void unversionedBandsAreNotCached() {
+    DriveTimeBandPolygons polygons = new DriveTimeBandPolygons(1000);
+    DriveTimeBandEntity a12 = band("a-1-2", 100, null);
+    assertThat(load(polygons, a12).get(a12.id()).contains(100, 100)).isTrue();
+    assertThat(polygons.size()).isEqualTo(0);
+  }
+}
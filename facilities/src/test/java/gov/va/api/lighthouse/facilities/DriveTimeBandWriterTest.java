@@ -0,0 +1,128 @@
+package gov.va.api.lighthouse.facilities;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.Inflater;
+import javax.sql.DataSource;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Batches are written on other connections, so rows are committed instead of rolled back. */
+@DataJpaTest
+@ExtendWith(SpringExtension.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DriveTimeBandWriterTest {
+  @Autowired DataSource dataSource;
+
+  @Autowired DriveTimeBandRepository repository;
+
+  private static PssgBandParser.Band band(String name, int offset) {
+    byte[] bandData =
+        PathEncoder.create()
+            .encode(InternalDriveTimeBandControllerTest.Entities.diamondBand(name, offset));
+    return PssgBandParser.Band.builder()
+        .id(DriveTimeBandEntity.Pk.fromName(name))
+        .monthYear("MAR2021")
+        .minLongitude(offset - 1)
+        .minLatitude(offset - 2)
+        .maxLongitude(offset + 1)
+        .maxLatitude(offset + 2)
+        .bandData(bandData)
+        .legacyBand(
+            PathEncoder.create().encodeVersion1ToBase64(PathEncoder.create().decodeRings(bandData)))
+        .build();
+  }
+
+  /** The version of the path encoding of a base 64 text band. */
+  @SneakyThrows
+  private static int encodingVersion(String band) {
+    Inflater inflater = new Inflater();
+    inflater.setInput(Base64.getDecoder().decode(band));
+    byte[] header = new byte[8];
+    assertThat(inflater.inflate(header)).isEqualTo(header.length);
+    inflater.end();
+    return ByteBuffer.wrap(header).getInt(4);
+  }
+
+  private static List<DriveTimeBandEntity.Pk> ids(String... names) {
+    return Arrays.stream(names).map(DriveTimeBandEntity.Pk::fromName).collect(toList());
+  }
+
+  @AfterEach
+  void deleteBands() {
+    repository.deleteAll();
+  }
+
+  @Test
+  void uploadInsertsAndUpdatesInBatches() {
+    DriveTimeBandWriter writer = new DriveTimeBandWriter(dataSource, 2, 2, 0);
+    DriveTimeBandWriter.Upload first = writer.upload();
+    first.accept(band("a-1-2", 100));
+    first.accept(band("a-2-3", 200));
+    first.accept(band("b-1-2", 300));
+    assertThat(first.finish())
+        .isEqualTo(new DriveTimeBandWriter.Result(ids("a-1-2", "a-2-3", "b-1-2"), List.of()));
+    DriveTimeBandWriter.Upload second = writer.upload();
+    second.accept(band("a-2-3", 400));
+    second.accept(band("c-1-2", 500));
+    second.accept(band("a-1-2", 600));
+    assertThat(second.finish())
+        .isEqualTo(new DriveTimeBandWriter.Result(ids("c-1-2"), ids("a-2-3", "a-1-2")));
+    writer.shutdown();
+    assertThat(repository.count()).isEqualTo(4);
+    DriveTimeBandEntity a23 =
+        repository.findById(DriveTimeBandEntity.Pk.fromName("a-2-3")).orElseThrow();
+    assertThat(a23.version()).isEqualTo(1);
+    assertThat(a23.minLongitude()).isEqualTo(399);
+    assertThat(a23.maxLatitude()).isEqualTo(402);
+    assertThat(a23.monthYear()).isEqualTo("MAR2021");
+    assertThat(encodingVersion(a23.band())).isEqualTo(1);
+    assertThat(NearbyUtils.toPolygon(a23.id(), null, a23.band()).contains(400, 400)).isTrue();
+    assertThat(NearbyUtils.toPolygon(a23.id(), a23.bandData(), null).contains(400, 400)).isTrue();
+    DriveTimeBandEntity b12 =
+        repository.findById(DriveTimeBandEntity.Pk.fromName("b-1-2")).orElseThrow();
+    assertThat(b12.version()).isEqualTo(0);
+    assertThat(NearbyUtils.toPolygon(b12.id(), b12.bandData(), null).contains(300, 300)).isTrue();
+  }
+
+  @Test
+  void writeStoresCoarseBands() {
+    DriveTimeBandWriter writer = new DriveTimeBandWriter(dataSource, 50, 1, 0);
+    PssgBandParser.Band a12 = band("a-1-2", 100);
+    writer.write(
+        List.of(a12.toBuilder().coarseBandData(a12.bandData()).coarseTolerance(0.001).build()));
+    DriveTimeBandEntity entity =
+        repository.findById(DriveTimeBandEntity.Pk.fromName("a-1-2")).orElseThrow();
+    assertThat(entity.coarseBandData()).isEqualTo(a12.bandData());
+    assertThat(entity.coarseTolerance()).isEqualTo(0.001);
+    writer.write(List.of(a12));
+    writer.shutdown();
+    entity = repository.findById(DriveTimeBandEntity.Pk.fromName("a-1-2")).orElseThrow();
+    assertThat(entity.coarseBandData()).isNull();
+    assertThat(entity.coarseTolerance()).isNull();
+  }
+
+  @Test
+  void writeUsesLastOfRepeatedBands() {
+    DriveTimeBandWriter writer = new DriveTimeBandWriter(dataSource, 50, 1, 0);
+    assertThat(writer.write(List.of(band("a-1-2", 100), band("a-1-2", 200))))
+        .isEqualTo(new DriveTimeBandWriter.Result(ids("a-1-2"), List.of()));
+    writer.shutdown();
+    DriveTimeBandEntity a12 =
+        repository.findById(DriveTimeBandEntity.Pk.fromName("a-1-2")).orElseThrow();
+    assertThat(a12.minLatitude()).isEqualTo(198);
+  }
+}
@@ -4,6 +4,7 @@ import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -18,17 +19,26 @@ import gov.va.api.lighthouse.facilities.api.v0.GeoFacility;
 import gov.va.api.lighthouse.facilities.api.v0.GeoFacilityReadResponse;
 import gov.va.api.lighthouse.facilities.api.v0.PageLinks;
 import gov.va.api.lighthouse.facilities.api.v0.Pagination;
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 public class FacilitiesControllerV0Test {
   FacilityRepository fr = mock(FacilityRepository.class);
@@ -54,15 +64,19 @@ public class FacilitiesControllerV0Test {
   }
 
   @Test
+  @SneakyThrows
   void allCsv() {
     FacilitySamples samples = FacilitySamples.defaultSamples();
-    when(fr.findAllProjectedBy())
+    when(fr.findAllProjectedBy(any(Pageable.class)))
         .thenReturn(
-            List.of(
-                samples.facilityEntity("vha_691GB"),
-                samples.facilityEntity("vha_740GA"),
-                samples.facilityEntity("vha_757")));
-    String actual = controller().allCsv();
+            new SliceImpl<>(
+                List.of(
+                    samples.facilityEntity("vha_691GB"),
+                    samples.facilityEntity("vha_740GA"),
+                    samples.facilityEntity("vha_757"))));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    controller().allCsv().writeTo(out);
+    String actual = out.toString(StandardCharsets.UTF_8);
     List<String> actualLines = Splitter.onPattern("\\r?\\n").omitEmptyStrings().splitToList(actual);
     assertThat(actualLines.size()).isEqualTo(4);
     assertThat(actualLines.get(0)).isEqualTo(Joiner.on(",").join(CsvTransformerV0.HEADERS));
@@ -110,30 +124,40 @@ public class FacilitiesControllerV0Test {
             new NullPointerException(
                 "Cannot invoke \"gov.va.api.lighthouse.facilities.HasFacilityPayload.facility()\" because \"entity\" is null"));
     when(fr.findAllProjectedBy()).thenThrow(new NullPointerException("oh noes"));
+    when(fr.findAllProjectedBy(any(Pageable.class)))
+        .thenThrow(new NullPointerException("oh noes"));
     assertThrows(NullPointerException.class, () -> controller().all());
     assertThrows(NullPointerException.class, () -> controller().allCsv());
     // Nested exception ExceptionsUtils.InvalidParameter
-    Method entitiesByBoundingBoxMethod =
+    Method idsByBoundingBoxMethod =
         FacilitiesControllerV0.class.getDeclaredMethod(
-            "entitiesByBoundingBox", List.class, String.class, List.class, Boolean.class);
-    entitiesByBoundingBoxMethod.setAccessible(true);
+            "idsPageByBoundingBox",
+            List.class,
+            String.class,
+            List.class,
+            Boolean.class,
+            int.class,
+            int.class);
+    idsByBoundingBoxMethod.setAccessible(true);
     assertThatThrownBy(
             () ->
-                entitiesByBoundingBoxMethod.invoke(
-                    controller(), new ArrayList<BigDecimal>(), null, null, null))
+                idsByBoundingBoxMethod.invoke(
+                    controller(), new ArrayList<BigDecimal>(), null, null, null, 1, 10))
         .isInstanceOf(InvocationTargetException.class)
         .hasCause(new ExceptionsUtils.InvalidParameter("bbox", "[]"));
     // Nested exception ExceptionsUtils.InvalidParameter
     Method entitiesByLatLongMethod =
         FacilitiesControllerV0.class.getDeclaredMethod(
-            "entitiesByLatLong",
+            "entitiesPageByLatLong",
             BigDecimal.class,
             BigDecimal.class,
             Optional.class,
             String.class,
             String.class,
             List.class,
-            Boolean.class);
+            Boolean.class,
+            int.class,
+            int.class);
     entitiesByLatLongMethod.setAccessible(true);
     assertThatThrownBy(
             () ->
@@ -145,14 +169,16 @@ public class FacilitiesControllerV0Test {
                     "fake_ids",
                     "no_such_type",
                     new ArrayList<String>(),
-                    Boolean.FALSE))
+                    Boolean.FALSE,
+                    1,
+                    10))
         .isInstanceOf(InvocationTargetException.class)
         .hasCause(new ExceptionsUtils.InvalidParameter("type", "no_such_type"));
   }
 
   @Test
   void geoFacilitiesByBoundingBox() {
-    when(fr.findAll(
+    when(fr.findLocations(
             FacilityRepository.BoundingBoxSpecification.builder()
                 .minLongitude(BigDecimal.valueOf(-97.65).min(BigDecimal.valueOf(-97.67)))
                 .maxLongitude(BigDecimal.valueOf(-97.65).max(BigDecimal.valueOf(-97.67)))
@@ -167,6 +193,13 @@ public class FacilitiesControllerV0Test {
                             Facility.HealthService.Urology)))
                 .mobile(Boolean.FALSE)
                 .build()))
+        .thenReturn(
+            List.of(
+                new FacilityLocationRepository.FacilityLocation(
+                    FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
+                    26.1745479800001,
+                    -97.6667188)));
+    when(fr.findByIdIn(List.of(FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"))))
         .thenReturn(List.of(FacilitySamples.defaultSamples().facilityEntity("vha_740GA")));
     assertThat(
             controller()
@@ -190,11 +223,13 @@ public class FacilitiesControllerV0Test {
 
   @Test
   void geoFacilitiesByIds() {
-    when(fr.findByIdIn(
-            List.of(
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB"),
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "757"))))
+    List<FacilityEntity.Pk> pks =
+        List.of(
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB"),
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "757"));
+    when(fr.findIdsByIdIn(pks)).thenReturn(pks);
+    when(fr.findByIdIn(any()))
         .thenReturn(
             List.of(
                 FacilitySamples.defaultSamples().facilityEntity("vha_757"),
@@ -323,8 +358,9 @@ public class FacilitiesControllerV0Test {
 
   @Test
   void geoFacilitiesByVisn() {
-    when(fr.findByVisn("test_visn"))
-        .thenReturn(List.of(FacilitySamples.defaultSamples().facilityEntity("vha_740GA")));
+    when(fr.findByVisn("test_visn", PageRequest.of(0, 1, FacilityEntity.naturalOrder())))
+        .thenReturn(
+            new PageImpl<>(List.of(FacilitySamples.defaultSamples().facilityEntity("vha_740GA"))));
     assertThat(controller().geoFacilitiesByVisn("test_visn", 1, 1))
         .isEqualTo(
             GeoFacilitiesResponse.builder()
@@ -373,7 +409,7 @@ public class FacilitiesControllerV0Test {
 
   @Test
   void jsonFacilitiesByBoundingBox() {
-    when(fr.findAll(
+    when(fr.findLocations(
             FacilityRepository.BoundingBoxSpecification.builder()
                 .minLongitude(BigDecimal.valueOf(-97.65).min(BigDecimal.valueOf(-97.67)))
                 .maxLongitude(BigDecimal.valueOf(-97.65).max(BigDecimal.valueOf(-97.67)))
@@ -388,6 +424,13 @@ public class FacilitiesControllerV0Test {
                             Facility.HealthService.Urology)))
                 .mobile(Boolean.FALSE)
                 .build()))
+        .thenReturn(
+            List.of(
+                new FacilityLocationRepository.FacilityLocation(
+                    FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
+                    26.1745479800001,
+                    -97.6667188)));
+    when(fr.findByIdIn(List.of(FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"))))
         .thenReturn(List.of(FacilitySamples.defaultSamples().facilityEntity("vha_740GA")));
     assertThat(
             controller()
@@ -431,11 +474,13 @@ public class FacilitiesControllerV0Test {
 
   @Test
   void jsonFacilitiesByIds() {
-    when(fr.findByIdIn(
-            List.of(
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB"),
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "757"))))
+    List<FacilityEntity.Pk> pks =
+        List.of(
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB"),
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "757"));
+    when(fr.findIdsByIdIn(pks)).thenReturn(pks);
+    when(fr.findByIdIn(any()))
         .thenReturn(
             List.of(
                 FacilitySamples.defaultSamples().facilityEntity("vha_740GA"),
@@ -473,11 +518,13 @@ public class FacilitiesControllerV0Test {
 
   @Test
   void jsonFacilitiesByIds_perPageZero() {
-    when(fr.findByIdIn(
-            List.of(
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB"),
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "757"))))
+    List<FacilityEntity.Pk> pks =
+        List.of(
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB"),
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "757"));
+    when(fr.findIdsByIdIn(pks)).thenReturn(pks);
+    when(fr.findByIdIn(any()))
         .thenReturn(
             List.of(
                 FacilitySamples.defaultSamples().facilityEntity("vha_691GB"),
@@ -716,8 +763,9 @@ public class FacilitiesControllerV0Test {
 
   @Test
   void jsonFacilitiesByVisn() {
-    when(fr.findByVisn("test_visn"))
-        .thenReturn(List.of(FacilitySamples.defaultSamples().facilityEntity("vha_740GA")));
+    when(fr.findByVisn("test_visn", PageRequest.of(0, 1, FacilityEntity.naturalOrder())))
+        .thenReturn(
+            new PageImpl<>(List.of(FacilitySamples.defaultSamples().facilityEntity("vha_740GA"))));
     assertThat(controller().jsonFacilitiesByVisn("test_visn", 1, 1))
         .isEqualTo(
             FacilitiesResponse.builder()
@@ -830,4 +878,37 @@ public class FacilitiesControllerV0Test {
   void readJson_notFound() {
     assertThrows(ExceptionsUtils.NotFound.class, () -> controller().readJson("vha_691GB"));
   }
+
+  @Test
+  void readJson_notModified() {
+    FacilityEntity entity = FacilitySamples.defaultSamples().facilityEntity("vha_691GB");
+    entity.version(3);
+    entity.lastUpdated(Instant.parse("2020-01-20T02:17:58Z"));
+    when(fr.findById(FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB")))
+        .thenReturn(Optional.of(entity));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    assertThat(
+            controller()
+                .readJson(
+                    "vha_691GB",
+                    new ServletWebRequest(new MockHttpServletRequest("GET", "/"), response)))
+        .isNotNull();
+    String eTag = response.getHeader("ETag");
+    assertThat(eTag).isEqualTo("\"vha_691GB-3-v0-json\"");
+    assertThat(response.getDateHeader("Last-Modified"))
+        .isEqualTo(Instant.parse("2020-01-20T02:17:58Z").toEpochMilli());
+    MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/");
+    conditional.addHeader("If-None-Match", eTag);
+    MockHttpServletResponse notModified = new MockHttpServletResponse();
+    assertThat(
+            controller().readJson("vha_691GB", new ServletWebRequest(conditional, notModified)))
+        .isNull();
+    assertThat(notModified.getStatus()).isEqualTo(304);
+    entity.version(4);
+    MockHttpServletResponse modified = new MockHttpServletResponse();
+    assertThat(controller().readJson("vha_691GB", new ServletWebRequest(conditional, modified)))
+        .isNotNull();
+    assertThat(modified.getStatus()).isEqualTo(200);
+    assertThat(modified.getHeader("ETag")).isEqualTo("\"vha_691GB-4-v0-json\"");
+  }
 }
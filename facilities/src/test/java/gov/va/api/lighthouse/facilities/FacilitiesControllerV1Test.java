@@ -4,6 +4,7 @@ import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -15,17 +16,27 @@ import gov.va.api.lighthouse.facilities.api.v1.Facility;
 import gov.va.api.lighthouse.facilities.api.v1.FacilityReadResponse;
 import gov.va.api.lighthouse.facilities.api.v1.PageLinks;
 import gov.va.api.lighthouse.facilities.api.v1.Pagination;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 public class FacilitiesControllerV1Test {
   FacilityRepository fr = mock(FacilityRepository.class);
@@ -34,12 +45,14 @@ public class FacilitiesControllerV1Test {
   @SneakyThrows
   void all() {
     FacilitySamples samples = FacilitySamples.defaultSamples();
-    when(fr.findAllProjectedBy())
+    when(fr.findAllProjectedBy(PageRequest.of(0, 3, FacilityEntity.naturalOrder())))
         .thenReturn(
-            List.of(
-                samples.facilityEntity("vha_691GB"),
-                samples.facilityEntity("vha_740GA"),
-                samples.facilityEntity("vha_757")));
+            new SliceImpl<>(
+                List.of(
+                    samples.facilityEntity("vha_691GB"),
+                    samples.facilityEntity("vha_740GA"),
+                    samples.facilityEntity("vha_757"))));
+    when(fr.count()).thenReturn(3L);
     assertThat(controller().all(1, 3))
         .isEqualTo(
             FacilitiesResponse.builder()
@@ -70,15 +83,19 @@ public class FacilitiesControllerV1Test {
   }
 
   @Test
+  @SneakyThrows
   void allCsv() {
     FacilitySamples samples = FacilitySamples.defaultSamples();
-    when(fr.findAllProjectedBy())
+    when(fr.findAllProjectedBy(any(Pageable.class)))
         .thenReturn(
-            List.of(
-                samples.facilityEntity("vha_691GB"),
-                samples.facilityEntity("vha_740GA"),
-                samples.facilityEntity("vha_757")));
-    String actual = controller().allCsv();
+            new SliceImpl<>(
+                List.of(
+                    samples.facilityEntity("vha_691GB"),
+                    samples.facilityEntity("vha_740GA"),
+                    samples.facilityEntity("vha_757"))));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    controller().allCsv().writeTo(out);
+    String actual = out.toString(StandardCharsets.UTF_8);
     List<String> actualLines = Splitter.onPattern("\\r?\\n").omitEmptyStrings().splitToList(actual);
     assertThat(actualLines.size()).isEqualTo(4);
     assertThat(actualLines.get(0)).isEqualTo(Joiner.on(",").join(CsvTransformerV0.HEADERS));
@@ -105,9 +122,129 @@ public class FacilitiesControllerV1Test {
                 + "730AM-600PM,730AM-600PM,730AM-600PM,730AM-600PM,800AM-400PM,800AM-400PM,NORMAL,");
   }
 
+  @Test
+  void all_fromSnapshot() {
+    FacilitySamples samples = FacilitySamples.defaultSamples();
+    assertThat(snapshotController().all(1, 3).data())
+        .containsExactly(
+            samples.facilityV1("vha_691GB"),
+            samples.facilityV1("vha_740GA"),
+            samples.facilityV1("vha_757"));
+  }
+
+  @Test
+  void byBoundingBox_fromSnapshot() {
+    assertThat(
+            snapshotController()
+                .jsonFacilitiesByBoundingBox(
+                    List.of(
+                        BigDecimal.valueOf(-97.65),
+                        BigDecimal.valueOf(26.16),
+                        BigDecimal.valueOf(-97.67),
+                        BigDecimal.valueOf(26.18)),
+                    "health",
+                    List.of("cardiology", "audiology", "urology"),
+                    Boolean.FALSE,
+                    1,
+                    1)
+                .data())
+        .containsExactly(FacilitySamples.defaultSamples().facilityV1("vha_740GA"));
+  }
+
+  @Test
+  void byLatLong_fromSnapshot() {
+    FacilitiesResponse response =
+        snapshotController()
+            .jsonFacilitiesByLatLong(
+                BigDecimal.valueOf(26.1745479800001),
+                BigDecimal.valueOf(-97.6667188),
+                null,
+                null,
+                null,
+                null,
+                null,
+                1,
+                2);
+    FacilitySamples samples = FacilitySamples.defaultSamples();
+    assertThat(response.data())
+        .containsExactly(samples.facilityV1("vha_740GA"), samples.facilityV1("vha_757"));
+    assertThat(response.meta().pagination().totalEntries()).isEqualTo(3);
+  }
+
+  @Test
+  void byLatLong_fromSnapshotPaged() {
+    FacilitiesResponse second =
+        snapshotController()
+            .jsonFacilitiesByLatLong(
+                BigDecimal.valueOf(26.1745479800001),
+                BigDecimal.valueOf(-97.6667188),
+                null,
+                null,
+                null,
+                null,
+                null,
+                2,
+                1);
+    assertThat(second.data())
+        .containsExactly(FacilitySamples.defaultSamples().facilityV1("vha_757"));
+    assertThat(second.meta().distances()).extracting(d -> d.id()).containsExactly("vha_757");
+    assertThat(second.meta().pagination().totalEntries()).isEqualTo(3);
+    FacilitiesResponse withinRadius =
+        snapshotController()
+            .jsonFacilitiesByLatLong(
+                BigDecimal.valueOf(26.1745479800001),
+                BigDecimal.valueOf(-97.6667188),
+                BigDecimal.TEN,
+                null,
+                null,
+                null,
+                null,
+                1,
+                10);
+    assertThat(withinRadius.data())
+        .containsExactly(FacilitySamples.defaultSamples().facilityV1("vha_740GA"));
+    assertThat(withinRadius.meta().distances().get(0).distance())
+        .isEqualTo(new BigDecimal("0.00"));
+    assertThat(withinRadius.meta().pagination().totalEntries()).isEqualTo(1);
+  }
+
+  @Test
+  void byStateVisnAndZip_fromSnapshot() {
+    Facility facility = FacilitySamples.defaultSamples().facilityV1("vha_757");
+    assertThat(snapshotController().jsonFacilitiesByState("oh", null, null, null, 1, 1).data())
+        .containsExactly(facility);
+    assertThat(snapshotController().jsonFacilitiesByVisn("10", 1, 1).data())
+        .containsExactly(facility);
+    assertThat(snapshotController().jsonFacilitiesByZip("43219", null, null, null, 1, 1).data())
+        .containsExactly(facility);
+    assertThat(snapshotController().facilityIdsByType("health").data())
+        .containsExactly("vha_691GB", "vha_740GA", "vha_757");
+  }
+
   private FacilitiesControllerV1 controller() {
     return FacilitiesControllerV1.builder()
         .facilityRepository(fr)
+        .snapshots(mock(FacilitySnapshots.class))
+        .baseUrl("http://foo/")
+        .basePath("bp")
+        .build();
+  }
+
+  private FacilitiesControllerV1 snapshotController() {
+    FacilitySamples samples = FacilitySamples.defaultSamples();
+    FacilitySnapshots snapshots = mock(FacilitySnapshots.class);
+    when(snapshots.current())
+        .thenReturn(
+            Optional.of(
+                FacilitySnapshot.of(
+                    1,
+                    List.of(
+                        samples.facilityEntity("vha_757"),
+                        samples.facilityEntity("vha_740GA"),
+                        samples.facilityEntity("vha_691GB")))));
+    return FacilitiesControllerV1.builder()
+        .facilityRepository(fr)
+        .snapshots(snapshots)
         .baseUrl("http://foo/")
         .basePath("bp")
         .build();
@@ -125,31 +262,40 @@ public class FacilitiesControllerV1Test {
         .hasCause(
             new NullPointerException(
                 "Cannot invoke \"gov.va.api.lighthouse.facilities.HasFacilityPayload.facility()\" because \"entity\" is null"));
-    when(fr.findAllProjectedBy()).thenThrow(new NullPointerException("oh noes"));
+    when(fr.findAllProjectedBy(any(Pageable.class)))
+        .thenThrow(new NullPointerException("oh noes"));
     assertThrows(NullPointerException.class, () -> controller().all(1, 2));
     assertThrows(NullPointerException.class, () -> controller().allCsv());
     // Nested exception ExceptionsUtils.InvalidParameter
-    Method entitiesByBoundingBoxMethod =
+    Method idsByBoundingBoxMethod =
         FacilitiesControllerV1.class.getDeclaredMethod(
-            "entitiesByBoundingBox", List.class, String.class, List.class, Boolean.class);
-    entitiesByBoundingBoxMethod.setAccessible(true);
+            "idsPageByBoundingBox",
+            List.class,
+            String.class,
+            List.class,
+            Boolean.class,
+            int.class,
+            int.class);
+    idsByBoundingBoxMethod.setAccessible(true);
     assertThatThrownBy(
             () ->
-                entitiesByBoundingBoxMethod.invoke(
-                    controller(), new ArrayList<BigDecimal>(), null, null, null))
+                idsByBoundingBoxMethod.invoke(
+                    controller(), new ArrayList<BigDecimal>(), null, null, null, 1, 10))
         .isInstanceOf(InvocationTargetException.class)
         .hasCause(new ExceptionsUtils.InvalidParameter("bbox", "[]"));
     // Nested exception ExceptionsUtils.InvalidParameter
     Method entitiesByLatLongMethod =
         FacilitiesControllerV1.class.getDeclaredMethod(
-            "entitiesByLatLong",
+            "entitiesPageByLatLong",
             BigDecimal.class,
             BigDecimal.class,
             Optional.class,
             String.class,
             String.class,
             List.class,
-            Boolean.class);
+            Boolean.class,
+            int.class,
+            int.class);
     entitiesByLatLongMethod.setAccessible(true);
     assertThatThrownBy(
             () ->
@@ -161,7 +307,9 @@ public class FacilitiesControllerV1Test {
                     "fake_ids",
                     "no_such_type",
                     new ArrayList<String>(),
-                    Boolean.FALSE))
+                    Boolean.FALSE,
+                    1,
+                    10))
         .isInstanceOf(InvocationTargetException.class)
         .hasCause(new ExceptionsUtils.InvalidParameter("type", "no_such_type"));
   }
@@ -182,7 +330,7 @@ public class FacilitiesControllerV1Test {
 
   @Test
   void jsonFacilitiesByBoundingBox() {
-    when(fr.findAll(
+    when(fr.findLocations(
             FacilityRepository.BoundingBoxSpecification.builder()
                 .minLongitude(BigDecimal.valueOf(-97.65).min(BigDecimal.valueOf(-97.67)))
                 .maxLongitude(BigDecimal.valueOf(-97.65).max(BigDecimal.valueOf(-97.67)))
@@ -197,6 +345,13 @@ public class FacilitiesControllerV1Test {
                             Facility.HealthService.Urology)))
                 .mobile(Boolean.FALSE)
                 .build()))
+        .thenReturn(
+            List.of(
+                new FacilityLocationRepository.FacilityLocation(
+                    FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
+                    26.1745479800001,
+                    -97.6667188)));
+    when(fr.findByIdIn(List.of(FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"))))
         .thenReturn(List.of(FacilitySamples.defaultSamples().facilityEntity("vha_740GA")));
     assertThat(
             controller()
@@ -240,11 +395,13 @@ public class FacilitiesControllerV1Test {
 
   @Test
   void jsonFacilitiesByIds() {
-    when(fr.findByIdIn(
-            List.of(
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB"),
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "757"))))
+    List<FacilityEntity.Pk> pks =
+        List.of(
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB"),
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "757"));
+    when(fr.findIdsByIdIn(pks)).thenReturn(pks);
+    when(fr.findByIdIn(any()))
         .thenReturn(
             List.of(
                 FacilitySamples.defaultSamples().facilityEntity("vha_740GA"),
@@ -282,11 +439,13 @@ public class FacilitiesControllerV1Test {
 
   @Test
   void jsonFacilitiesByIds_perPageZero() {
-    when(fr.findByIdIn(
-            List.of(
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB"),
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
-                FacilityEntity.Pk.of(FacilityEntity.Type.vha, "757"))))
+    List<FacilityEntity.Pk> pks =
+        List.of(
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB"),
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "740GA"),
+            FacilityEntity.Pk.of(FacilityEntity.Type.vha, "757"));
+    when(fr.findIdsByIdIn(pks)).thenReturn(pks);
+    when(fr.findByIdIn(any()))
         .thenReturn(
             List.of(
                 FacilitySamples.defaultSamples().facilityEntity("vha_691GB"),
@@ -525,8 +684,9 @@ public class FacilitiesControllerV1Test {
 
   @Test
   void jsonFacilitiesByVisn() {
-    when(fr.findByVisn("test_visn"))
-        .thenReturn(List.of(FacilitySamples.defaultSamples().facilityEntity("vha_740GA")));
+    when(fr.findByVisn("test_visn", PageRequest.of(0, 1, FacilityEntity.naturalOrder())))
+        .thenReturn(
+            new PageImpl<>(List.of(FacilitySamples.defaultSamples().facilityEntity("vha_740GA"))));
     assertThat(controller().jsonFacilitiesByVisn("test_visn", 1, 1))
         .isEqualTo(
             FacilitiesResponse.builder()
@@ -621,6 +781,65 @@ public class FacilitiesControllerV1Test {
         .isEqualTo(FacilityReadResponse.builder().facility(facility).build());
   }
 
+  @Test
+  void readJson_fromSnapshot() {
+    assertThat(snapshotController().readJson("vha_691GB"))
+        .isEqualTo(
+            FacilityReadResponse.builder()
+                .facility(FacilitySamples.defaultSamples().facilityV1("vha_691GB"))
+                .build());
+    assertThrows(ExceptionsUtils.NotFound.class, () -> snapshotController().readJson("vha_000"));
+  }
+
+  @Test
+  @SneakyThrows
+  void readJson_rendered() {
+    FacilityEntity entity = FacilitySamples.defaultSamples().facilityEntity("vha_691GB");
+    entity.version(3);
+    when(fr.findById(FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB")))
+        .thenReturn(Optional.of(entity));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    controller()
+        .readJson("vha_691GB", "gzip, deflate", new MockHttpServletRequest("GET", "/"), response);
+    assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+    try (GZIPInputStream in =
+        new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+      assertThat(
+              FacilitiesJacksonConfigV1.createMapper()
+                  .readValue(in.readAllBytes(), FacilityReadResponse.class))
+          .isEqualTo(
+              FacilityReadResponse.builder()
+                  .facility(FacilitySamples.defaultSamples().facilityV1("vha_691GB"))
+                  .build());
+    }
+  }
+
+  @Test
+  void readJson_notModified() {
+    FacilityEntity entity = FacilitySamples.defaultSamples().facilityEntity("vha_691GB");
+    entity.version(3);
+    entity.lastUpdated(Instant.parse("2020-01-20T02:17:58Z"));
+    when(fr.findById(FacilityEntity.Pk.of(FacilityEntity.Type.vha, "691GB")))
+        .thenReturn(Optional.of(entity));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    controller().readJson("vha_691GB", null, new MockHttpServletRequest("GET", "/"), response);
+    String eTag = response.getHeader("ETag");
+    assertThat(eTag).isEqualTo("\"vha_691GB-3-json\"");
+    assertThat(response.getDateHeader("Last-Modified"))
+        .isEqualTo(Instant.parse("2020-01-20T02:17:58Z").toEpochMilli());
+    MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/");
+    conditional.addHeader("If-None-Match", eTag);
+    MockHttpServletResponse notModified = new MockHttpServletResponse();
+    controller().readJson("vha_691GB", null, conditional, notModified);
+    assertThat(notModified.getStatus()).isEqualTo(304);
+    assertThat(notModified.getContentAsByteArray()).isEmpty();
+    entity.version(4);
+    MockHttpServletResponse modified = new MockHttpServletResponse();
+    controller().readJson("vha_691GB", null, conditional, modified);
+    assertThat(modified.getStatus()).isEqualTo(200);
+    assertThat(modified.getHeader("ETag")).isEqualTo("\"vha_691GB-4-json\"");
+  }
+
   @Test
   void readJson_malformed() {
     assertThrows(ExceptionsUtils.NotFound.class, () -> controller().readJson("xxx"));
@@ -0,0 +1,67 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+public class FacilityReloadBatchesTest {
+  PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+  EntityManager entityManager = mock(EntityManager.class);
+
+  private FacilityReloadBatches batches(int commitSize) {
+    return new FacilityReloadBatches(transactionManager, entityManager, commitSize);
+  }
+
+  @Test
+  void chunks() {
+    assertThat(batches(2).chunks(List.of(1, 2, 3))).containsExactly(List.of(1, 2), List.of(3));
+    assertThat(batches(0).chunks(List.of(1, 2))).containsExactly(List.of(1), List.of(2));
+  }
+
+  @Test
+  void failedFlushesAreRolledBack() {
+    when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    PersistenceException failure = new PersistenceException("nope");
+    doThrow(failure).when(entityManager).flush();
+    assertThat(batches(1).inTransaction(() -> {})).contains(failure);
+    verify(transactionManager, never()).commit(any());
+    verify(transactionManager, times(1)).rollback(any());
+  }
+
+  @Test
+  void failedWorkIsRolledBack() {
+    when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    Optional<RuntimeException> failure =
+        batches(1)
+            .inTransaction(
+                () -> {
+                  throw new IllegalStateException("nope");
+                });
+    assertThat(failure).get().isInstanceOf(IllegalStateException.class);
+    verify(entityManager, never()).flush();
+    verify(transactionManager, never()).commit(any());
+    verify(transactionManager, times(1)).rollback(any());
+  }
+
+  @Test
+  void workIsFlushedAndCommitted() {
+    when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    assertThat(batches(1).inTransaction(() -> {})).isEmpty();
+    verify(entityManager, times(1)).flush();
+    verify(transactionManager, times(1)).commit(any());
+  }
+}
@@ -2,12 +2,16 @@ package gov.va.api.lighthouse.facilities;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.google.common.collect.Lists;
+import gov.va.api.lighthouse.facilities.api.v1.Facility;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
 @DataJpaTest
 public class FacilityRepositoryTest {
@@ -34,6 +38,55 @@ public class FacilityRepositoryTest {
     assertThat(repository.findAllIds()).containsExactlyElementsOf(expected);
   }
 
+  @Test
+  void findAllProjectedAfter() {
+    List<FacilityEntity.Pk> expected = new ArrayList<>();
+    for (String id : List.of("nca_2", "vba_1", "vba_3", "vha_1", "vha_2", "vha_3", "vha_4")) {
+      expected.add(FacilityEntity.Pk.fromIdString(id));
+    }
+    for (FacilityEntity.Pk id : Lists.reverse(expected)) {
+      repository.save(FacilityEntity.builder().id(id).facility(id.toIdString()).build());
+    }
+    PageRequest pageRequest = PageRequest.of(0, 3, FacilityEntity.naturalOrder());
+    List<FacilityEntity.Pk> actual = new ArrayList<>();
+    CsvStreamingResponseBody.chunksOf(
+            repository.findAllProjectedBy(pageRequest), repository::findAllProjectedAfter)
+        .forEachRemaining(chunk -> chunk.forEach(e -> actual.add(e.id())));
+    assertThat(actual).containsExactlyElementsOf(expected);
+    assertThat(repository.findAllProjectedAfter(expected.get(6).type(), "4", pageRequest))
+        .isEmpty();
+  }
+
+  @Test
+  void findByServices() {
+    FacilityEntity cardiology = facilityEntity("1", Instant.now());
+    cardiology.services(Set.of(Facility.HealthService.Cardiology.toString()));
+    repository.save(cardiology);
+    FacilityEntity overlayPensions = facilityEntity("2", Instant.now());
+    overlayPensions.services(Set.of());
+    overlayPensions.overlayServices(Set.of(Facility.BenefitsService.Pensions.toString()));
+    repository.save(overlayPensions);
+    FacilityEntity wound = facilityEntity("3", Instant.now());
+    wound.services(Set.of(Facility.HealthService.Wound.toString()));
+    repository.save(wound);
+    assertThat(
+            repository.findAll(
+                FacilityRepository.TypeServicesIdsSpecification.builder()
+                    .services(
+                        Set.of(
+                            Facility.HealthService.Cardiology, Facility.BenefitsService.Pensions))
+                    .build()))
+        .extracting(FacilityEntity::id)
+        .containsExactlyInAnyOrder(cardiology.id(), overlayPensions.id());
+    assertThat(
+            repository.findAll(
+                FacilityRepository.TypeServicesIdsSpecification.builder()
+                    .services(Set.of(Facility.HealthService.Wound))
+                    .build()))
+        .extracting(FacilityEntity::id)
+        .containsExactly(wound.id());
+  }
+
   @Test
   void lastUpdated() {
     var aLongTimeAgo = Instant.parse("2020-01-20T02:20:00Z");
@@ -0,0 +1,86 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import gov.va.api.lighthouse.facilities.api.v1.FacilityReadResponse;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class FacilityResponseCacheTest {
+  private static final FacilityEntity.Pk PK = FacilityEntity.Pk.fromIdString("vha_691GB");
+
+  private static FacilityReadResponse response() {
+    return FacilityReadResponse.builder()
+        .facility(FacilitySamples.defaultSamples().facilityV1("vha_691GB"))
+        .build();
+  }
+
+  @SneakyThrows
+  private static byte[] gunzip(byte[] bytes) {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return in.readAllBytes();
+    }
+  }
+
+  @Test
+  void acceptsGzip() {
+    assertThat(FacilityResponseCache.acceptsGzip(null)).isFalse();
+    assertThat(FacilityResponseCache.acceptsGzip("identity")).isFalse();
+    assertThat(FacilityResponseCache.acceptsGzip("gzip")).isTrue();
+    assertThat(FacilityResponseCache.acceptsGzip("deflate, GZIP;q=0.8")).isTrue();
+    assertThat(FacilityResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+    assertThat(FacilityResponseCache.acceptsGzip("gzip; q=0.00, br")).isFalse();
+  }
+
+  @Test
+  void cachedByVersion() {
+    FacilityResponseCache cache =
+        new FacilityResponseCache(FacilitiesJacksonConfigV1.createMapper(), 1024 * 1024);
+    AtomicInteger renders = new AtomicInteger();
+    Supplier<Object> response =
+        () -> {
+          renders.incrementAndGet();
+          return response();
+        };
+    cache.get(PK, 1, response);
+    cache.get(PK, 1, response);
+    assertThat(renders.get()).isEqualTo(1);
+    cache.get(PK, 2, response);
+    assertThat(renders.get()).isEqualTo(2);
+    cache.get(PK, null, response);
+    cache.get(PK, null, response);
+    assertThat(renders.get()).isEqualTo(4);
+  }
+
+  @Test
+  void sizeBounded() {
+    FacilityResponseCache cache =
+        new FacilityResponseCache(FacilitiesJacksonConfigV1.createMapper(), 0);
+    cache.get(PK, 1, FacilityResponseCacheTest::response);
+    assertThat(cache.size()).isEqualTo(0);
+  }
+
+  @Test
+  @SneakyThrows
+  void writeTo() {
+    FacilityResponseCache.Rendered rendered =
+        new FacilityResponseCache(FacilitiesJacksonConfigV1.createMapper(), 1024 * 1024)
+            .get(PK, 1, FacilityResponseCacheTest::response);
+    String expected = FacilitiesJacksonConfigV1.createMapper().writeValueAsString(response());
+    MockHttpServletResponse plain = new MockHttpServletResponse();
+    rendered.writeTo(plain, false);
+    assertThat(plain.getContentType()).isEqualTo("application/json");
+    assertThat(plain.getHeader("Content-Encoding")).isNull();
+    assertThat(plain.getContentAsString()).isEqualTo(expected);
+    MockHttpServletResponse gzipped = new MockHttpServletResponse();
+    rendered.writeTo(gzipped, true);
+    assertThat(gzipped.getHeader("Content-Encoding")).isEqualTo("gzip");
+    assertThat(gzipped.getHeader("Vary")).isEqualTo("Accept-Encoding");
+    assertThat(new String(gunzip(gzipped.getContentAsByteArray()), "UTF-8")).isEqualTo(expected);
+  }
+}
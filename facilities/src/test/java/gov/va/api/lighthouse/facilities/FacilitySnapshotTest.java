@@ -0,0 +1,138 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import gov.va.api.lighthouse.facilities.api.v1.Facility;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class FacilitySnapshotTest {
+  private static FacilityEntity.Pk pk(String id) {
+    return FacilityEntity.Pk.fromIdString(id);
+  }
+
+  private static FacilitySnapshot snapshot() {
+    FacilitySamples samples = FacilitySamples.defaultSamples();
+    return FacilitySnapshot.of(
+        1,
+        List.of(
+            samples.facilityEntity("vha_757"),
+            samples.facilityEntity("vha_691GB"),
+            samples.facilityEntity("vha_740GA")));
+  }
+
+  @Test
+  void entryMatches() {
+    FacilitySnapshot.Entry entry = snapshot().findById(pk("vha_740GA")).get();
+    assertThat(entry.matches(null, null, null)).isTrue();
+    assertThat(entry.matches(FacilityEntity.Type.vha, null, false)).isTrue();
+    assertThat(entry.matches(FacilityEntity.Type.vba, null, null)).isFalse();
+    assertThat(entry.matches(null, null, true)).isFalse();
+    assertThat(
+            entry.matches(
+                null,
+                ServiceMask.of(
+                    Set.of(Facility.HealthService.Cardiology, Facility.HealthService.Audiology)),
+                null))
+        .isTrue();
+    assertThat(
+            entry.matches(null, ServiceMask.of(Set.of(Facility.BenefitsService.Pensions)), null))
+        .isFalse();
+  }
+
+  @Test
+  void entryMatchesOverlayServices() {
+    FacilityEntity entity = FacilitySamples.defaultSamples().facilityEntity("vha_740GA");
+    entity.overlayServices(Set.of(Facility.BenefitsService.Pensions.toString()));
+    FacilitySnapshot.Entry entry = FacilitySnapshot.of(1, List.of(entity)).entries().get(0);
+    assertThat(
+            entry.matches(null, ServiceMask.of(Set.of(Facility.BenefitsService.Pensions)), null))
+        .isTrue();
+  }
+
+  @Test
+  void fingerprintChangesWithVersions() {
+    FacilitySamples samples = FacilitySamples.defaultSamples();
+    FacilityEntity entity = samples.facilityEntity("vha_740GA");
+    entity.version(1);
+    String original =
+        FacilitySnapshot.of(1, List.of(samples.facilityEntity("vha_691GB"), entity)).fingerprint();
+    assertThat(
+            FacilitySnapshot.of(2, List.of(entity, samples.facilityEntity("vha_691GB")))
+                .fingerprint())
+        .isEqualTo(original);
+    entity.version(2);
+    assertThat(
+            FacilitySnapshot.of(3, List.of(samples.facilityEntity("vha_691GB"), entity))
+                .fingerprint())
+        .isNotEqualTo(original);
+    assertThat(FacilitySnapshot.of(4, List.of(entity)).fingerprint()).isNotEqualTo(original);
+  }
+
+  @Test
+  void findInBoundingBoxAndRadius() {
+    FacilitySnapshot snapshot = snapshot();
+    assertThat(
+            snapshot.findInBoundingBox(-125, 24, -67, 49).stream()
+                .map(e -> e.id().toIdString())
+                .collect(Collectors.toList()))
+        .containsExactly("vha_691GB", "vha_740GA", "vha_757");
+    assertThat(
+            snapshot.findInRadius(-97.6667188, 26.1745479800001, 10).stream()
+                .map(e -> e.id().toIdString())
+                .collect(Collectors.toList()))
+        .containsExactly("vha_740GA");
+  }
+
+  @Test
+  void findByIdsUsesRequestedOrder() {
+    assertThat(
+            snapshot().findByIds(List.of(pk("vha_740GA"), pk("vba_000"), pk("vha_691GB"))).stream()
+                .map(e -> e.id().toIdString())
+                .collect(Collectors.toList()))
+        .containsExactly("vha_740GA", "vha_691GB");
+  }
+
+  @Test
+  void ofSortsInNaturalOrder() {
+    FacilitySnapshot snapshot = snapshot();
+    assertThat(snapshot.generation()).isEqualTo(1);
+    assertThat(snapshot.size()).isEqualTo(3);
+    assertThat(snapshot.stream().map(e -> e.id().toIdString()).collect(Collectors.toList()))
+        .containsExactly("vha_691GB", "vha_740GA", "vha_757");
+    assertThat(snapshot.findById(pk("vha_757")).get().datamartFacility().id())
+        .isEqualTo("vha_757");
+    assertThat(snapshot.findById(pk("vha_000"))).isEmpty();
+  }
+
+  @Test
+  void ofSkipsUnparseableFacilities() {
+    FacilityEntity bad = FacilitySamples.defaultSamples().facilityEntity("vha_757");
+    bad.facility("not json");
+    FacilitySnapshot snapshot =
+        FacilitySnapshot.of(
+            1, List.of(bad, FacilitySamples.defaultSamples().facilityEntity("vha_691GB")));
+    assertThat(snapshot.size()).isEqualTo(1);
+    assertThat(snapshot.findById(pk("vha_757"))).isEmpty();
+  }
+
+  @Test
+  void rebuildPublishesNewGeneration() {
+    FacilityRepository repository = mock(FacilityRepository.class);
+    when(repository.findAll())
+        .thenReturn(List.of(FacilitySamples.defaultSamples().facilityEntity("vha_691GB")));
+    FacilitySnapshots snapshots =
+        new FacilitySnapshots(repository, mock(PlatformTransactionManager.class));
+    assertThat(snapshots.current()).isEmpty();
+    assertThat(snapshots.rebuild().generation()).isEqualTo(1);
+    assertThat(snapshots.rebuild().generation()).isEqualTo(2);
+    assertThat(snapshots.current().get().generation()).isEqualTo(2);
+    assertThat(snapshots.current().get().findById(pk("vha_691GB"))).isPresent();
+    snapshots.shutdown();
+  }
+}
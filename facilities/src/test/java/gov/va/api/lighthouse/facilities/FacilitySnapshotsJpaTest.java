@@ -0,0 +1,54 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@DataJpaTest
+@ExtendWith(SpringExtension.class)
+public class FacilitySnapshotsJpaTest {
+  @Autowired FacilityRepository repository;
+
+  @Autowired PlatformTransactionManager transactionManager;
+
+  @Autowired EntityManagerFactory entityManagerFactory;
+
+  @Autowired TestEntityManager entityManager;
+
+  @Test
+  void rebuildLoadsServicesInBatches() {
+    FacilitySamples samples = FacilitySamples.defaultSamples();
+    for (String id : List.of("vha_757", "vha_691GB", "vha_740GA")) {
+      FacilityEntity entity = samples.facilityEntity(id);
+      entity.overlayServices().add("Covid19Vaccine");
+      repository.save(entity);
+    }
+    entityManager.flush();
+    entityManager.clear();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+    statistics.clear();
+    FacilitySnapshots snapshots = new FacilitySnapshots(repository, transactionManager);
+    FacilitySnapshot snapshot = snapshots.rebuild();
+    snapshots.shutdown();
+    statistics.setStatisticsEnabled(false);
+    assertThat(snapshot.size()).isEqualTo(3);
+    assertThat(snapshot.findById(FacilityEntity.Pk.fromIdString("vha_691GB")))
+        .get()
+        .extracting(FacilitySnapshot.Entry::overlayServices)
+        .isEqualTo(Set.of("Covid19Vaccine"));
+    /* The facilities, then services and overlay services for all of them, not 2 per facility. */
+    assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+  }
+}
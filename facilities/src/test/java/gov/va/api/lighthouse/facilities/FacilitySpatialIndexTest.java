@@ -0,0 +1,128 @@
+package gov.va.api.lighthouse.facilities;
+
+import static gov.va.api.lighthouse.facilities.FacilityUtils.haversine;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class FacilitySpatialIndexTest {
+  private static final int POINTS = 2000;
+
+  private static final double[] LONGITUDES = new double[POINTS];
+
+  private static final double[] LATITUDES = new double[POINTS];
+
+  static {
+    Random random = new Random(20210817);
+    for (int i = 0; i < POINTS; i++) {
+      // Mostly the continental US, with some points on both sides of the antimeridian
+      if (i % 50 == 0) {
+        LONGITUDES[i] = i % 100 == 0 ? 179.9 - random.nextDouble() : -179.9 + random.nextDouble();
+        LATITUDES[i] = -15 + random.nextDouble() * 10;
+      } else {
+        LONGITUDES[i] = -125 + random.nextDouble() * 58;
+        LATITUDES[i] = 24 + random.nextDouble() * 25;
+      }
+    }
+    // Duplicate coordinates to exercise ties
+    LONGITUDES[7] = LONGITUDES[3];
+    LATITUDES[7] = LATITUDES[3];
+  }
+
+  private static FacilitySpatialIndex index() {
+    return FacilitySpatialIndex.of(LONGITUDES, LATITUDES);
+  }
+
+  private static List<Integer> sorted(List<Integer> points) {
+    points.sort(Comparator.naturalOrder());
+    return points;
+  }
+
+  @Test
+  void emptyIndex() {
+    FacilitySpatialIndex index = FacilitySpatialIndex.of(new double[0], new double[0]);
+    assertThat(index.size()).isEqualTo(0);
+    assertThat(index.nearest(0, 0, 5, p -> true)).isEmpty();
+    List<Integer> found = new ArrayList<>();
+    index.withinBox(-180, -90, 180, 90, found::add);
+    index.withinRadius(0, 0, 25000, found::add);
+    assertThat(found).isEmpty();
+  }
+
+  @Test
+  void mismatchedCoordinates() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FacilitySpatialIndex.of(new double[2], new double[1]));
+  }
+
+  @Test
+  void nearestMatchesBruteForce() {
+    FacilitySpatialIndex index = index();
+    double[][] queries = {{-97.6667, 26.1745}, {-73.9, 40.7}, {179.95, -10}, {-179.95, -10}};
+    for (double[] q : queries) {
+      for (int k : new int[] {0, 1, 10, 137, POINTS + 5}) {
+        List<Integer> expected =
+            IntStream.range(0, POINTS)
+                .filter(p -> p % 3 != 0)
+                .boxed()
+                .sorted(
+                    Comparator.comparingDouble(
+                            (Integer p) -> haversine(LONGITUDES[p], LATITUDES[p], q[0], q[1]))
+                        .thenComparing(Comparator.naturalOrder()))
+                .limit(k)
+                .collect(Collectors.toList());
+        assertThat(index.nearest(q[0], q[1], k, p -> p % 3 != 0))
+            .containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+      }
+    }
+  }
+
+  @Test
+  void nearestOrdersTiesByPosition() {
+    int[] nearest = index().nearest(LONGITUDES[3], LATITUDES[3], 2, p -> true);
+    assertThat(nearest).containsExactly(3, 7);
+  }
+
+  @Test
+  void withinBoxMatchesBruteForce() {
+    FacilitySpatialIndex index = index();
+    double[][] boxes = {
+      {-100, 30, -90, 40}, {-125, 24, -67, 49}, {0, 0, 1, 1}, {-180, -90, 180, 90}
+    };
+    for (double[] b : boxes) {
+      List<Integer> found = new ArrayList<>();
+      index.withinBox(b[0], b[1], b[2], b[3], found::add);
+      assertThat(sorted(found))
+          .isEqualTo(
+              IntStream.range(0, POINTS)
+                  .filter(p -> LONGITUDES[p] >= b[0] && LONGITUDES[p] <= b[2])
+                  .filter(p -> LATITUDES[p] >= b[1] && LATITUDES[p] <= b[3])
+                  .boxed()
+                  .collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  void withinRadiusMatchesBruteForce() {
+    FacilitySpatialIndex index = index();
+    double[][] queries = {{-97.6667, 26.1745, 50}, {-80, 35, 400}, {-179.95, -10, 300}, {0, 0, 1}};
+    for (double[] q : queries) {
+      List<Integer> found = new ArrayList<>();
+      index.withinRadius(q[0], q[1], q[2], found::add);
+      assertThat(sorted(found))
+          .isEqualTo(
+              IntStream.range(0, POINTS)
+                  .filter(p -> haversine(LONGITUDES[p], LATITUDES[p], q[0], q[1]) <= q[2])
+                  .boxed()
+                  .collect(Collectors.toList()));
+    }
+  }
+}
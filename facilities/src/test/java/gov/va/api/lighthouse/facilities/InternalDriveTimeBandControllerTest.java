@@ -1,14 +1,22 @@
 package gov.va.api.lighthouse.facilities;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.core.JsonParseException;
 import gov.va.api.lighthouse.facilities.api.pssg.BandResult;
+import gov.va.api.lighthouse.facilities.api.pssg.BandUpdateResponse;
 import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
 import gov.va.api.lighthouse.facilities.api.pssg.PssgDriveTimeBand;
 import gov.va.api.lighthouse.facilities.api.pssg.PssgResponse;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -20,8 +28,34 @@ import org.mockito.junit.jupiter.MockitoExtension;
 public class InternalDriveTimeBandControllerTest {
   @Mock DriveTimeBandRepository repo;
 
+  @Mock DriveTimeBandIndex index;
+
+  @Mock DriveTimeBandWriter writer;
+
+  @Mock DriveTimeBandWriter.Upload upload;
+
+  DriveTimeBandPolygons polygons = new DriveTimeBandPolygons(1000);
+
   InternalDriveTimeBandController controller() {
-    return InternalDriveTimeBandController.builder().repository(repo).build();
+    return InternalDriveTimeBandController.builder()
+        .repository(repo)
+        .polygons(polygons)
+        .index(index)
+        .writer(writer)
+        .build();
+  }
+
+  @Test
+  void bandCacheStats() {
+    var a12 = Entities.diamond("a-1-2", 100);
+    a12.version(1);
+    DriveTimeBandPolygonsTest.load(polygons, a12);
+    DriveTimeBandPolygonsTest.load(polygons, a12);
+    var stats = controller().bandCache();
+    assertThat(stats.size()).isEqualTo(1);
+    assertThat(stats.hitCount()).isEqualTo(1);
+    assertThat(stats.missCount()).isEqualTo(1);
+    assertThat(stats.hitRate()).isEqualTo(0.5);
   }
 
   @Test
@@ -58,10 +92,19 @@ public class InternalDriveTimeBandControllerTest {
                 .maxLatitude(e.maxLatitude())
                 .maxLongitude(e.maxLongitude())
                 .monthYear(e.monthYear())
-                .band(e.band())
+                .band(Base64.getEncoder().encodeToString(e.bandData()))
                 .build());
   }
 
+  @Test
+  void getBandByNameReturnsUnconvertedBand() {
+    var e = Entities.diamond("a-1-2", 100);
+    e.band(Base64.getEncoder().encodeToString(e.bandData()));
+    e.bandData(null);
+    when(repo.findById(e.id())).thenReturn(Optional.of(e));
+    assertThat(controller().band("a-1-2").band()).isEqualTo(e.band());
+  }
+
   @Test
   void getBandByNameThrowsExceptionForUnknownBand() {
     when(repo.findById(DriveTimeBandEntity.Pk.fromName("a-1-2"))).thenReturn(Optional.empty());
@@ -70,35 +113,85 @@ public class InternalDriveTimeBandControllerTest {
   }
 
   @Test
-  void updateBandCreatesNewRecord() {
-    // exists
-    var existingA12 = Entities.diamond("a-1-2", 900);
-    // exists
-    var existingA23 = Entities.diamond("a-2-3", 800);
-    // update
+  void updateInvalidatesDecodedPolygons() {
+    var a12 = Entities.diamond("a-1-2", 100);
+    a12.version(1);
+    var b12 = Entities.diamond("b-1-2", 200);
+    b12.version(1);
+    DriveTimeBandPolygonsTest.load(polygons, a12, b12);
+    assertThat(polygons.size()).isEqualTo(2);
+    when(writer.upload()).thenReturn(upload);
+    var result = new DriveTimeBandWriter.Result(List.of(a12.id()), List.of(b12.id()));
+    when(upload.finish()).thenReturn(result);
+    when(upload.written()).thenReturn(result);
+    controller().update(PssgBandParserTest.json(PssgResponse.builder().build()));
+    assertThat(polygons.size()).isEqualTo(0);
+  }
+
+  @Test
+  void updateRefreshesBandsWrittenBeforeAFailure() {
     var a12 = Entities.diamond("a-1-2", 100);
-    // update
-    var a23 = Entities.diamond("a-2-3", 200);
-    // create
-    var a34 = Entities.diamond("a-3-4", 300);
-    when(repo.findById(a12.id())).thenReturn(Optional.of(existingA12));
-    when(repo.findById(a23.id())).thenReturn(Optional.of(existingA23));
-    when(repo.findById(a34.id())).thenReturn(Optional.empty());
-    controller()
-        .update(
-            PssgResponse.builder()
-                .features(
-                    List.of(
-                        Entities.diamondBand("a-1-2", 100),
-                        Entities.diamondBand("a-2-3", 200),
-                        Entities.diamondBand("a-3-4", 300)))
+    a12.version(1);
+    var b12 = Entities.diamond("b-1-2", 200);
+    b12.version(1);
+    DriveTimeBandPolygonsTest.load(polygons, a12, b12);
+    when(writer.upload()).thenReturn(upload);
+    when(upload.written()).thenReturn(new DriveTimeBandWriter.Result(List.of(a12.id()), List.of()));
+    assertThatExceptionOfType(JsonParseException.class)
+        .isThrownBy(
+            () ->
+                controller()
+                    .update(new ByteArrayInputStream("{\"features\":[".getBytes(UTF_8))));
+    assertThat(polygons.size()).isEqualTo(1);
+    verify(index).refresh();
+  }
+
+  @Test
+  void updateWritesParsedBands() {
+    List<PssgBandParser.Band> accepted = new ArrayList<>();
+    when(writer.upload()).thenReturn(upload);
+    doAnswer(i -> accepted.add(i.getArgument(0))).when(upload).accept(any());
+    var result =
+        new DriveTimeBandWriter.Result(
+            List.of(DriveTimeBandEntity.Pk.fromName("a-3-4")),
+            List.of(
+                DriveTimeBandEntity.Pk.fromName("a-1-2"),
+                DriveTimeBandEntity.Pk.fromName("a-2-3")));
+    when(upload.finish()).thenReturn(result);
+    when(upload.written()).thenReturn(result);
+    var response =
+        controller()
+            .update(
+                PssgBandParserTest.json(
+                    PssgResponse.builder()
+                        .features(
+                            List.of(
+                                Entities.diamondBand("a-1-2", 100),
+                                Entities.diamondBand("a-2-3", 200),
+                                Entities.diamondBand("a-3-4", 300)))
+                        .build()));
+    assertThat(accepted)
+        .extracting(band -> band.id().name())
+        .containsExactly("a-1-2", "a-2-3", "a-3-4");
+    assertThat(accepted.get(0).bandData())
+        .isEqualTo(PathEncoder.create().encode(Entities.diamondBand("a-1-2", 100)));
+    assertThat(response)
+        .isEqualTo(
+            BandUpdateResponse.builder()
+                .bandsCreated(List.of("a-3-4"))
+                .bandsUpdated(List.of("a-1-2", "a-2-3"))
                 .build());
-    verify(repo).save(a12);
-    verify(repo).save(a23);
-    verify(repo).save(a34);
+    verify(index).refresh();
   }
 
   static final class Entities {
+    /** A diamond band with the given version, as the writer stamps it. */
+    static DriveTimeBandEntity band(String name, int offset, Integer version) {
+      DriveTimeBandEntity entity = diamond(name, offset);
+      entity.version(version);
+      return entity;
+    }
+
     static DriveTimeBandEntity diamond(String name, int offset) {
       return DriveTimeBandEntity.builder()
           .id(DriveTimeBandEntity.Pk.fromName(name))
@@ -107,7 +200,7 @@ public class InternalDriveTimeBandControllerTest {
           .minLongitude(offset - 1)
           .minLatitude(offset - 2)
           .monthYear("MAR2021")
-          .band(PathEncoder.create().encodeToBase64(diamondBand(name, offset)))
+          .bandData(PathEncoder.create().encode(diamondBand(name, offset)))
           .build();
     }
 
@@ -14,11 +14,13 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyMap;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.MoreExecutors;
 import gov.va.api.health.autoconfig.configuration.JacksonConfig;
 import gov.va.api.lighthouse.facilities.DatamartFacility.Address;
 import gov.va.api.lighthouse.facilities.DatamartFacility.Addresses;
@@ -28,6 +30,7 @@ import gov.va.api.lighthouse.facilities.DatamartFacility.FacilityType;
 import gov.va.api.lighthouse.facilities.DatamartFacility.HealthService;
 import gov.va.api.lighthouse.facilities.DatamartFacility.OtherService;
 import gov.va.api.lighthouse.facilities.DatamartFacility.Services;
+import gov.va.api.lighthouse.facilities.api.v0.CmsOverlay;
 import gov.va.api.lighthouse.facilities.api.v0.Facility;
 import gov.va.api.lighthouse.facilities.api.v0.ReloadResponse;
 import gov.va.api.lighthouse.facilities.collector.FacilitiesCollector;
@@ -35,10 +38,12 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import javax.persistence.EntityManager;
 import lombok.SneakyThrows;
 import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
 import org.junit.jupiter.api.Test;
@@ -49,6 +54,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 
 @DataJpaTest
 @ExtendWith(SpringExtension.class)
@@ -58,6 +65,10 @@ public class InternalFacilitiesControllerTest {
 
   @Autowired CmsOverlayRepository overlayRepository;
 
+  @Autowired PlatformTransactionManager transactionManager;
+
+  @Autowired EntityManager entityManager;
+
   FacilitiesCollector collector = mock(FacilitiesCollector.class);
 
   private static DatamartFacility _facility(
@@ -199,6 +210,9 @@ public class InternalFacilitiesControllerTest {
         .collector(collector)
         .facilityRepository(facilityRepository)
         .cmsOverlayRepository(overlayRepository)
+        .reloadBatches(new FacilityReloadBatches(transactionManager, entityManager, 1))
+        .reloadJobs(new ReloadJobs(MoreExecutors.newDirectExecutorService(), 20, 24))
+        .snapshots(mock(FacilitySnapshots.class))
         .build();
   }
 
@@ -266,7 +280,7 @@ public class InternalFacilitiesControllerTest {
     DatamartFacility f2Old =
         _facility("vha_f2", "NO", "666", 9.0, 9.1, List.of(Facility.HealthService.SpecialtyCare));
     facilityRepository.save(_facilityEntity(f2Old));
-    when(collector.collectFacilities()).thenReturn(datamartFacilities);
+    when(collector.collectFacilities(anyMap())).thenReturn(datamartFacilities);
     ReloadResponse response = _controller().reload().getBody();
     assertThat(response.facilitiesCreated()).isEqualTo(List.of("vha_f1"));
     assertThat(response.facilitiesUpdated()).isEqualTo(List.of("vha_f2"));
@@ -279,6 +293,46 @@ public class InternalFacilitiesControllerTest {
         .containsExactlyInAnyOrder(_facilityEntity(f1), _facilityEntity(f2));
   }
 
+  @Test
+  void collect_failedRecordIsRetriedAlone() {
+    FacilityRepository mockRepo = mock(FacilityRepository.class);
+    when(mockRepo.findByIdIn(any())).thenReturn(List.of());
+    when(mockRepo.findAllIds()).thenReturn(List.of());
+    when(mockRepo.save(any(FacilityEntity.class)))
+        .thenAnswer(
+            i -> {
+              FacilityEntity entity = i.getArgument(0);
+              if (entity.id().toIdString().equals("vha_f2")) {
+                throw new IllegalStateException("oh noes");
+              }
+              return entity;
+            });
+    PlatformTransactionManager mockTransactions = mock(PlatformTransactionManager.class);
+    when(mockTransactions.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    List<Facility.HealthService> health = List.of(Facility.HealthService.MentalHealthCare);
+    when(collector.collectFacilities(anyMap()))
+        .thenReturn(
+            List.of(
+                _facility("vha_f1", "FL", "South", 1.2, 3.4, health),
+                _facility("vha_f2", "FL", "South", 1.2, 3.4, health),
+                _facility("vha_f3", "FL", "South", 1.2, 3.4, health)));
+    ReloadResponse response =
+        InternalFacilitiesController.builder()
+            .collector(collector)
+            .facilityRepository(mockRepo)
+            .reloadBatches(
+                new FacilityReloadBatches(mockTransactions, mock(EntityManager.class), 10))
+            .reloadJobs(new ReloadJobs(MoreExecutors.newDirectExecutorService(), 20, 24))
+            .snapshots(mock(FacilitySnapshots.class))
+            .build()
+            .reload()
+            .getBody();
+    assertThat(response.facilitiesCreated()).containsExactly("vha_f1", "vha_f3");
+    assertThat(response.problems())
+        .filteredOn(p -> p.description().startsWith("Failed"))
+        .containsExactly(ReloadResponse.Problem.of("vha_f2", "Failed to save record: oh noes"));
+  }
+
   @Test
   @SneakyThrows
   void collect_invalidLatLong() {
@@ -297,7 +351,7 @@ public class InternalFacilitiesControllerTest {
     f1.attributes().longitude(null);
     f1V1.attributes().latitude(null);
     f1V1.attributes().longitude(null);
-    when(collector.collectFacilities()).thenReturn(List.of(f1));
+    when(collector.collectFacilities(anyMap())).thenReturn(List.of(f1));
     ReloadResponse response = _controller().reload().getBody();
     assertThat(response.problems())
         .isEqualTo(List.of(ReloadResponse.Problem.of("vha_f1", "Missing coordinates")));
@@ -321,7 +375,7 @@ public class InternalFacilitiesControllerTest {
     facilityRepository.save(_facilityEntity(f2Old));
     facilityRepository.save(_facilityEntity(f3Old));
     facilityRepository.save(_facilityEntity(f4Old));
-    when(collector.collectFacilities()).thenReturn(List.of(f1));
+    when(collector.collectFacilities(anyMap())).thenReturn(List.of(f1));
     ReloadResponse response = _controller().reload().getBody();
     assertThat(response.facilitiesUpdated()).isEqualTo(List.of("vha_f1"));
     assertThat(response.facilitiesMissing()).isEqualTo(List.of("vha_f2", "vha_f3", "vha_f4"));
@@ -343,7 +397,7 @@ public class InternalFacilitiesControllerTest {
     DatamartFacility f1Old =
         _facility("vha_f1", "NO", "666", 9.0, 9.1, List.of(Facility.HealthService.SpecialtyCare));
     facilityRepository.save(_facilityEntity(f1Old).missingTimestamp(Instant.now().toEpochMilli()));
-    when(collector.collectFacilities()).thenReturn(List.of(f1));
+    when(collector.collectFacilities(anyMap())).thenReturn(List.of(f1));
     ReloadResponse response = _controller().reload().getBody();
     assertThat(response.facilitiesUpdated()).isEqualTo(List.of("vha_f1"));
     FacilityEntity result = Iterables.getOnlyElement(facilityRepository.findAll());
@@ -358,7 +412,7 @@ public class InternalFacilitiesControllerTest {
         _facility("vha_f1", "NO", "666", 9.0, 9.1, List.of(Facility.HealthService.SpecialtyCare));
     long early = Instant.now().minusSeconds(60).toEpochMilli();
     facilityRepository.save(_facilityEntity(f1Old).missingTimestamp(early));
-    when(collector.collectFacilities()).thenReturn(emptyList());
+    when(collector.collectFacilities(anyMap())).thenReturn(emptyList());
     ReloadResponse response = _controller().reload().getBody();
     assertThat(response.facilitiesMissing()).isEqualTo(List.of("vha_f1"));
     FacilityEntity result = Iterables.getOnlyElement(facilityRepository.findAll());
@@ -387,7 +441,7 @@ public class InternalFacilitiesControllerTest {
     f1V1.attributes().address().physical().zip(null);
     f1V1.attributes().latitude(BigDecimal.valueOf(91.4));
     f1V1.attributes().longitude(BigDecimal.valueOf(181.4));
-    when(collector.collectFacilities()).thenReturn(List.of(f1));
+    when(collector.collectFacilities(anyMap())).thenReturn(List.of(f1));
     ReloadResponse response = _controller().reload().getBody();
     assertThat(response.facilitiesCreated()).isEqualTo(List.of("vha_f1"));
     assertThat(response.problems())
@@ -421,7 +475,7 @@ public class InternalFacilitiesControllerTest {
     DatamartFacility f1V1 = _facilityV1("vha_f1", "FL", "32934", 91.4, 181.4, List.of());
     f1.attributes().facilityType(va_health_facility);
     f1V1.attributes().facilityType(FacilityType.va_health_facility);
-    when(collector.collectFacilities()).thenReturn(List.of(f1));
+    when(collector.collectFacilities(anyMap())).thenReturn(List.of(f1));
     ReloadResponse responseHealth = _controller().reload().getBody();
     assertThat(responseHealth.facilitiesCreated()).isEqualTo(List.of("vha_f1"));
     assertThat(responseHealth.problems())
@@ -430,13 +484,70 @@ public class InternalFacilitiesControllerTest {
     DatamartFacility f2V1 = _facilityV1("vc_f1", "FL", "32934", 91.4, 181.4, List.of());
     f2.attributes().facilityType(vet_center);
     f2V1.attributes().facilityType(FacilityType.vet_center);
-    when(collector.collectFacilities()).thenReturn(List.of(f2));
+    when(collector.collectFacilities(anyMap())).thenReturn(List.of(f2));
     ReloadResponse responseVetCenter = _controller().reload().getBody();
     assertThat(responseVetCenter.facilitiesCreated()).isEqualTo(List.of("vc_f1"));
     assertThat(responseVetCenter.problems())
         .contains(ReloadResponse.Problem.of("vc_f1", "Missing VISN"));
   }
 
+  @Test
+  @SneakyThrows
+  void collect_overlayDeleted() {
+    DatamartFacility f1 =
+        _facility(
+            "vha_f1", "FL", "South", 1.2, 3.4, List.of(Facility.HealthService.MentalHealthCare));
+    when(collector.collectFacilities(anyMap())).thenReturn(List.of(f1));
+    assertThat(_controller().reload().getBody().facilitiesCreated()).isEqualTo(List.of("vha_f1"));
+    CmsOverlayControllerV0.builder()
+        .facilityRepository(facilityRepository)
+        .cmsOverlayRepository(overlayRepository)
+        .snapshots(mock(FacilitySnapshots.class))
+        .build()
+        .saveOverlay(
+            "vha_f1",
+            CmsOverlay.builder()
+                .operatingStatus(
+                    Facility.OperatingStatus.builder()
+                        .code(Facility.OperatingStatusCode.CLOSED)
+                        .additionalInfo("Closed for repairs")
+                        .build())
+                .build());
+    _controller().deleteCmsOverlayById("vha_f1", "operating_status");
+    ReloadResponse response = _controller().reload().getBody();
+    assertThat(response.facilitiesUnchanged()).isEmpty();
+    assertThat(response.facilitiesUpdated()).isEqualTo(List.of("vha_f1"));
+    FacilityEntity rewritten = Iterables.getOnlyElement(facilityRepository.findAll());
+    assertThat(rewritten.facility()).doesNotContain("Closed for repairs");
+    assertThat(rewritten.contentHash()).isEqualTo(_facilityEntity(f1).contentHash());
+  }
+
+  @Test
+  @SneakyThrows
+  void collect_unchanged() {
+    DatamartFacility f1 =
+        _facility(
+            "vha_f1", "FL", "South", 1.2, 3.4, List.of(Facility.HealthService.MentalHealthCare));
+    Instant early = Instant.now().minusSeconds(60);
+    facilityRepository.save(_facilityEntity(f1).lastUpdated(early));
+    when(collector.collectFacilities(anyMap())).thenReturn(List.of(f1));
+    ReloadResponse response = _controller().reload().getBody();
+    assertThat(response.facilitiesUnchanged()).isEqualTo(List.of("vha_f1"));
+    assertThat(response.facilitiesUpdated()).isEmpty();
+    FacilityEntity unchanged = Iterables.getOnlyElement(facilityRepository.findAll());
+    assertThat(unchanged.version()).isEqualTo(0);
+    assertThat(unchanged.lastUpdated()).isAfter(early);
+    DatamartFacility f1Changed =
+        _facility("vha_f1", "FL", "South", 1.2, 3.4, List.of(Facility.HealthService.Audiology));
+    when(collector.collectFacilities(anyMap())).thenReturn(List.of(f1Changed));
+    response = _controller().reload().getBody();
+    assertThat(response.facilitiesUnchanged()).isEmpty();
+    assertThat(response.facilitiesUpdated()).isEqualTo(List.of("vha_f1"));
+    FacilityEntity updated = Iterables.getOnlyElement(facilityRepository.findAll());
+    assertThat(updated.services()).isEqualTo(Set.of("Audiology"));
+    assertThat(updated.contentHash()).isEqualTo(_facilityEntity(f1Changed).contentHash());
+  }
+
   @Test
   void deleteFacilityByIdWithOverlay() {
     DatamartFacility f =
@@ -803,19 +914,39 @@ public class InternalFacilitiesControllerTest {
   }
 
   @Test
-  @SneakyThrows
   void exceptions() {
-    Method processMissingFacilityMethod =
-        InternalFacilitiesController.class.getDeclaredMethod(
-            "processMissingFacility", ReloadResponse.class, FacilityEntity.Pk.class);
-    processMissingFacilityMethod.setAccessible(true);
-    var response = ReloadResponse.builder().build();
-    var pk = FacilityEntity.Pk.fromIdString("vha_402");
-    FacilityRepository mockFacilityRepository = mock(FacilityRepository.class);
-    when(mockFacilityRepository.findById(pk)).thenThrow(new NullPointerException("oh noes"));
-    assertThatThrownBy(() -> processMissingFacilityMethod.invoke(_controller(), response, pk))
-        .isInstanceOf(InvocationTargetException.class)
-        .hasCause(new IllegalStateException());
+    FacilityEntity.Pk failing = FacilityEntity.Pk.fromIdString("vha_402");
+    FacilityEntity.Pk missing = FacilityEntity.Pk.fromIdString("vha_403");
+    FacilityRepository mockRepo = mock(FacilityRepository.class);
+    when(mockRepo.findAllIds()).thenReturn(List.of(failing, missing));
+    when(mockRepo.findByIdIn(any()))
+        .thenAnswer(
+            i -> {
+              Collection<?> ids = i.getArgument(0);
+              if (ids.contains(failing)) {
+                throw new NullPointerException("oh noes");
+              }
+              return List.of(FacilityEntity.builder().id(missing).build());
+            });
+    when(mockRepo.save(any(FacilityEntity.class))).thenAnswer(i -> i.getArgument(0));
+    PlatformTransactionManager mockTransactions = mock(PlatformTransactionManager.class);
+    when(mockTransactions.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    when(collector.collectFacilities(anyMap())).thenReturn(List.of());
+    ReloadResponse response =
+        InternalFacilitiesController.builder()
+            .collector(collector)
+            .facilityRepository(mockRepo)
+            .reloadBatches(
+                new FacilityReloadBatches(mockTransactions, mock(EntityManager.class), 10))
+            .reloadJobs(new ReloadJobs(MoreExecutors.newDirectExecutorService(), 20, 24))
+            .snapshots(mock(FacilitySnapshots.class))
+            .build()
+            .reload()
+            .getBody();
+    assertThat(response.facilitiesMissing()).containsExactly("vha_403");
+    assertThat(response.problems())
+        .containsExactly(
+            ReloadResponse.Problem.of("vha_402", "Failed to mark facility as missing: oh noes"));
   }
 
   @Test
@@ -901,10 +1032,11 @@ public class InternalFacilitiesControllerTest {
   @Test
   @SneakyThrows
   public void processException() {
-    final InternalFacilitiesController controller = InternalFacilitiesController.builder().build();
+    final InternalFacilitiesController controller =
+        InternalFacilitiesController.builder().snapshots(mock(FacilitySnapshots.class)).build();
     Method processMethod =
         InternalFacilitiesController.class.getDeclaredMethod(
-            "process", ReloadResponse.class, List.class);
+            "process", ReloadResponse.class, List.class, Runnable.class);
     processMethod.setAccessible(true);
     ReloadResponse reloadResponseProc = ReloadResponse.start();
     DatamartFacility datamartFacilityWithInvalidId =
@@ -912,7 +1044,10 @@ public class InternalFacilitiesControllerTest {
     final ResponseEntity actualResponse =
         (ResponseEntity)
             processMethod.invoke(
-                controller, reloadResponseProc, List.of(datamartFacilityWithInvalidId));
+                controller,
+                reloadResponseProc,
+                List.of(datamartFacilityWithInvalidId),
+                (Runnable) () -> {});
     assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     assertThat(actualResponse.getBody()).isInstanceOf(ReloadResponse.class);
     assertThat(((ReloadResponse) actualResponse.getBody()).problems())
@@ -1168,14 +1303,16 @@ public class InternalFacilitiesControllerTest {
   @SneakyThrows
   public void updateFacilityException() {
     final InternalFacilitiesController controller = InternalFacilitiesController.builder().build();
-    Method updateFacilityMethod =
+    Method processableIdMethod =
         InternalFacilitiesController.class.getDeclaredMethod(
-            "updateFacility", ReloadResponse.class, DatamartFacility.class);
-    updateFacilityMethod.setAccessible(true);
+            "processableId", ReloadResponse.class, DatamartFacility.class);
+    processableIdMethod.setAccessible(true);
     final ReloadResponse reloadResponse = ReloadResponse.start();
     DatamartFacility datamartFacilityWithInvalidId =
         DatamartFacility.builder().id("invalid-id").build();
-    updateFacilityMethod.invoke(controller, reloadResponse, datamartFacilityWithInvalidId);
+    assertThat(
+            processableIdMethod.invoke(controller, reloadResponse, datamartFacilityWithInvalidId))
+        .isEqualTo(Optional.empty());
     assertThat(reloadResponse.problems())
         .usingRecursiveComparison()
         .isEqualTo(List.of(ReloadResponse.Problem.of("invalid-id", "Cannot parse ID")));
@@ -1200,6 +1337,19 @@ public class InternalFacilitiesControllerTest {
         .containsExactlyInAnyOrder(_facilityEntity(f1), _facilityEntity(f2));
   }
 
+  @Test
+  void uploadWhileReloading() {
+    ReloadJobs reloadJobs = mock(ReloadJobs.class);
+    when(reloadJobs.start(any())).thenReturn(Optional.empty());
+    assertThat(
+            InternalFacilitiesController.builder()
+                .reloadJobs(reloadJobs)
+                .build()
+                .upload(List.of())
+                .getStatusCode())
+        .isEqualTo(HttpStatus.CONFLICT);
+  }
+
   @Test
   void zipOf() {
     // No address
@@ -0,0 +1,93 @@
+package gov.va.api.lighthouse.facilities;
+
+import static gov.va.api.lighthouse.facilities.NearbyUtils.NearbyId;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import gov.va.api.lighthouse.facilities.api.ServiceType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class NearbyResultCacheTest {
+  DriveTimeBandIndex index = mock(DriveTimeBandIndex.class);
+
+  FacilitySnapshots snapshots = mock(FacilitySnapshots.class);
+
+  AtomicInteger searches = new AtomicInteger();
+
+  private static NearbyId id(String facilityId) {
+    return NearbyId.builder()
+        .bandId(DriveTimeBandEntity.Pk.fromName("a-1-2"))
+        .facilityId(facilityId)
+        .build();
+  }
+
+  private NearbyResultCache.Key key(NearbyResultCache cache, String lng, String lat) {
+    return cache.key(new BigDecimal(lng), new BigDecimal(lat), Set.of(ServiceType.Cardiology), 30);
+  }
+
+  private List<NearbyId> search(String facilityId) {
+    searches.incrementAndGet();
+    return List.of(id(facilityId));
+  }
+
+  @Test
+  void changedBandsMiss() {
+    NearbyResultCache cache = new NearbyResultCache(index, snapshots, 100, 4, 600);
+    when(index.fingerprint()).thenReturn(1L);
+    assertThat(cache.get(key(cache, "-77.1", "38.9"), () -> search("vha_1"))).hasSize(1);
+    when(index.fingerprint()).thenReturn(2L);
+    assertThat(cache.get(key(cache, "-77.1", "38.9"), () -> search("vha_2")))
+        .containsExactly(id("vha_2"));
+    assertThat(searches).hasValue(2);
+  }
+
+  @Test
+  void disabledWithoutEntries() {
+    NearbyResultCache cache = new NearbyResultCache(index, snapshots, 0, 4, 600);
+    NearbyResultCache.Key key = key(cache, "-77.1", "38.9");
+    cache.put(key, List.of(id("vha_1")));
+    assertThat(cache.getIfPresent(key)).isNull();
+    cache.get(key, () -> search("vha_1"));
+    cache.get(key, () -> search("vha_1"));
+    assertThat(searches).hasValue(2);
+    assertThat(cache.stats().enabled()).isFalse();
+  }
+
+  @Test
+  void failedSearchesAreNotCached() {
+    NearbyResultCache cache = new NearbyResultCache(index, snapshots, 100, 4, 600);
+    NearbyResultCache.Key key = key(cache, "-77.1", "38.9");
+    assertThatExceptionOfType(ExceptionsUtils.InvalidParameter.class)
+        .isThrownBy(
+            () ->
+                cache.get(
+                    key,
+                    () -> {
+                      throw new ExceptionsUtils.InvalidParameter("lat", "nope");
+                    }));
+    assertThat(cache.getIfPresent(key)).isNull();
+  }
+
+  @Test
+  void nearbyPointsShareResults() {
+    NearbyResultCache cache = new NearbyResultCache(index, snapshots, 100, 3, 600);
+    assertThat(cache.get(key(cache, "-77.1001", "38.9001"), () -> search("vha_1")))
+        .containsExactly(id("vha_1"));
+    assertThat(cache.get(key(cache, "-77.1004", "38.8996"), () -> search("vha_2")))
+        .containsExactly(id("vha_1"));
+    assertThat(cache.get(key(cache, "-77.1006", "38.9001"), () -> search("vha_3")))
+        .containsExactly(id("vha_3"));
+    assertThat(searches).hasValue(2);
+    NearbyResultCache.Stats stats = cache.stats();
+    assertThat(stats.enabled()).isTrue();
+    assertThat(stats.size()).isEqualTo(2);
+    assertThat(stats.hitCount()).isEqualTo(1);
+    assertThat(stats.missCount()).isEqualTo(2);
+  }
+}
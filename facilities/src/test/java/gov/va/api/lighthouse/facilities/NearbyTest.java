@@ -10,6 +10,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import gov.va.api.health.autoconfig.configuration.JacksonConfig;
@@ -45,14 +47,25 @@ public class NearbyTest {
   @Mock RestTemplate restTemplate = mock(RestTemplate.class);
 
   private NearbyControllerV0 _controller() {
+    return _controller(0);
+  }
+
+  private NearbyControllerV0 _controller(long geocodeCacheSize) {
     InsecureRestTemplateProvider restTemplateProvider = mock(InsecureRestTemplateProvider.class);
     when(restTemplateProvider.restTemplate()).thenReturn(restTemplate);
+    DriveTimeBandIndex driveTimeBandIndex = new DriveTimeBandIndex(driveTimeBandRepository, 32);
     return NearbyControllerV0.builder()
         .facilityRepository(facilityRepository)
         .driveTimeBandRepository(driveTimeBandRepository)
+        .driveTimeBandPolygons(new DriveTimeBandPolygons(100_000))
+        .driveTimeBandIndex(driveTimeBandIndex)
+        .nearbyResultCache(
+            new NearbyResultCache(driveTimeBandIndex, mock(FacilitySnapshots.class), 0, 4, 600))
         .restTemplateProvider(restTemplateProvider)
         .bingKey("bingKey")
         .bingUrl("http://bing")
+        .geocodeCacheSize(geocodeCacheSize)
+        .geocodeCacheTtlSeconds(60)
         .build();
   }
 
@@ -275,6 +288,63 @@ public class NearbyTest {
                 .nearbyAddress("505 N John Rodes Blvd", "Melbourne", "FL", "32934", null, null));
   }
 
+  @Test
+  @SneakyThrows
+  void address_cached() {
+    when(restTemplate.exchange(
+            startsWith("http://bing"),
+            eq(HttpMethod.GET),
+            Mockito.any(HttpEntity.class),
+            eq(String.class)))
+        .thenThrow(new IllegalStateException("Try again"))
+        .thenReturn(
+            ResponseEntity.of(
+                Optional.of(
+                    JacksonConfig.createMapper()
+                        .writeValueAsString(
+                            BingResponse.builder()
+                                .resourceSets(
+                                    List.of(
+                                        BingResponse.ResourceSet.builder()
+                                            .resources(
+                                                List.of(
+                                                    BingResponse.Resource.builder()
+                                                        .resourcePoint(
+                                                            BingResponse.Point.builder()
+                                                                .coordinates(
+                                                                    List.of(
+                                                                        new BigDecimal("-0.1"),
+                                                                        new BigDecimal("0.1")))
+                                                                .build())
+                                                        .build()))
+                                            .build()))
+                                .build()))));
+    facilityRepository.save(_facilityEntity(_facilityHealth("vha_666")));
+    driveTimeBandRepository.save(_entity(_diamondBand("666", 0, 10, 0)));
+    NearbyControllerV0 controller = _controller(10);
+    assertThrows(
+        ExceptionsUtilsV0.BingException.class,
+        () ->
+            controller.nearbyAddress(
+                "505 N John Rodes Blvd", "Melbourne", "FL", "32934", null, null));
+    assertThat(
+            controller
+                .nearbyAddress("505 N John Rodes Blvd", "Melbourne", "FL", "32934", null, null)
+                .data())
+        .hasSize(1);
+    assertThat(
+            controller
+                .nearbyAddress(" 505 n john  rodes BLVD", "MELBOURNE", "fl", "32934 ", null, null)
+                .data())
+        .hasSize(1);
+    verify(restTemplate, times(2))
+        .exchange(
+            startsWith("http://bing"),
+            eq(HttpMethod.GET),
+            Mockito.any(HttpEntity.class),
+            eq(String.class));
+  }
+
   @Test
   void empty() {
     facilityRepository.save(FacilitySamples.defaultSamples().facilityEntity("vha_757"));
@@ -6,6 +6,8 @@ import static gov.va.api.lighthouse.facilities.api.v1.NearbyResponse.Type.Nearby
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -13,10 +15,13 @@ import gov.va.api.health.autoconfig.configuration.JacksonConfig;
 import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
 import gov.va.api.lighthouse.facilities.api.pssg.PssgDriveTimeBand;
 import gov.va.api.lighthouse.facilities.api.v1.Facility;
+import gov.va.api.lighthouse.facilities.api.v1.NearbyBatchRequest;
+import gov.va.api.lighthouse.facilities.api.v1.NearbyBatchResponse;
 import gov.va.api.lighthouse.facilities.api.v1.NearbyResponse;
 import gov.va.api.lighthouse.facilities.collector.InsecureRestTemplateProvider;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
@@ -37,11 +42,19 @@ public class NearbyV1Test {
   @Mock RestTemplate restTemplate = mock(RestTemplate.class);
 
   private NearbyControllerV1 _controller() {
+    return _controller(new DriveTimeBandIndex(driveTimeBandRepository, 32));
+  }
+
+  private NearbyControllerV1 _controller(DriveTimeBandIndex driveTimeBandIndex) {
     InsecureRestTemplateProvider restTemplateProvider = mock(InsecureRestTemplateProvider.class);
     when(restTemplateProvider.restTemplate()).thenReturn(restTemplate);
     return NearbyControllerV1.builder()
         .facilityRepository(facilityRepository)
         .driveTimeBandRepository(driveTimeBandRepository)
+        .driveTimeBandPolygons(new DriveTimeBandPolygons(100_000))
+        .driveTimeBandIndex(driveTimeBandIndex)
+        .nearbyResultCache(
+            new NearbyResultCache(driveTimeBandIndex, mock(FacilitySnapshots.class), 0, 4, 600))
         .build();
   }
 
@@ -99,7 +112,7 @@ public class NearbyV1Test {
         .maxLongitude(flatRings.stream().mapToDouble(c -> c.get(0)).max().orElseThrow())
         .minLatitude(flatRings.stream().mapToDouble(c -> c.get(1)).min().orElseThrow())
         .maxLatitude(flatRings.stream().mapToDouble(c -> c.get(1)).max().orElseThrow())
-        .band(PathEncoder.create().encodeToBase64(band))
+        .bandData(PathEncoder.create().encode(band))
         .build();
   }
 
@@ -140,6 +153,49 @@ public class NearbyV1Test {
     return facilityV1;
   }
 
+  private NearbyBatchRequest _points(int... lngLat) {
+    List<NearbyBatchRequest.Point> points = new ArrayList<>();
+    for (int i = 0; i < lngLat.length; i += 2) {
+      points.add(
+          NearbyBatchRequest.Point.builder()
+              .lng(BigDecimal.valueOf(lngLat[i]))
+              .lat(BigDecimal.valueOf(lngLat[i + 1]))
+              .build());
+    }
+    return NearbyBatchRequest.builder().points(points).build();
+  }
+
+  @Test
+  void batch() {
+    facilityRepository.save(_facilityEntity(_facilityHealth("vha_666")));
+    facilityRepository.save(_facilityEntity(_facilityHealth("vha_777")));
+    driveTimeBandRepository.save(_entity(_diamondBand("666", 0, 10, 0)));
+    driveTimeBandRepository.save(_entity(_diamondBand("777", 80, 90, 5)));
+    NearbyBatchResponse response =
+        _controller().nearbyBatch(_points(0, 0, 50, 50, 5, 5), null, null);
+    assertThat(response.data())
+        .extracting(NearbyBatchResponse.Result::lng, NearbyBatchResponse.Result::lat)
+        .containsExactly(
+            tuple(BigDecimal.valueOf(0), BigDecimal.valueOf(0)),
+            tuple(BigDecimal.valueOf(50), BigDecimal.valueOf(50)),
+            tuple(BigDecimal.valueOf(5), BigDecimal.valueOf(5)));
+    assertThat(response.data().get(0).data()).isEqualTo(hitVha666().data());
+    assertThat(response.data().get(1).data()).isEmpty();
+    assertThat(response.data().get(2).data())
+        .extracting(NearbyResponse.Nearby::id)
+        .containsExactly("vha_777");
+    assertThat(response.meta()).isEqualTo(hitVha666().meta());
+    assertThat(_controller().nearbyBatch(_points(0, 0, 5, 5), null, 50).data())
+        .allMatch(r -> r.data().isEmpty());
+  }
+
+  @Test
+  void batchTooLarge() {
+    int[] lngLat = new int[(NearbyControllerV1.MAX_BATCH_POINTS + 1) * 2];
+    assertThatExceptionOfType(ExceptionsUtils.InvalidParameter.class)
+        .isThrownBy(() -> _controller().nearbyBatch(_points(lngLat), null, null));
+  }
+
   @Test
   void empty() {
     facilityRepository.save(FacilitySamples.defaultSamples().facilityEntity("vha_757"));
@@ -206,6 +262,23 @@ public class NearbyV1Test {
     assertThat(response).isEqualTo(hitVha666());
   }
 
+  @Test
+  void hitFromBandIndex() {
+    facilityRepository.save(_facilityEntity(_facilityHealth("vha_666")));
+    facilityRepository.save(_facilityEntity(_facilityHealth("vha_777")));
+    driveTimeBandRepository.save(_entity(_diamondBand("666", 0, 10, 0)));
+    driveTimeBandRepository.save(_entity(_diamondBand("777", 80, 90, 5)));
+    DriveTimeBandIndex index = new DriveTimeBandIndex(driveTimeBandRepository, 32);
+    assertThat(index.rebuild().size()).isEqualTo(2);
+    assertThat(index.candidates(0, 0, null))
+        .extracting(DriveTimeBandBounds::id)
+        .containsExactly(DriveTimeBandEntity.Pk.of("666", 0, 10));
+    assertThat(index.candidates(0, 0, 5)).isEmpty();
+    NearbyResponse response =
+        _controller(index).nearbyLatLong(BigDecimal.ZERO, BigDecimal.ZERO, null, null);
+    assertThat(response).isEqualTo(hitVha666());
+  }
+
   NearbyResponse hitVha666() {
     return NearbyResponse.builder()
         .data(
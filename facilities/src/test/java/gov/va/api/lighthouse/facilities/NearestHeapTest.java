@@ -0,0 +1,49 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class NearestHeapTest {
+  @Test
+  void nearestIsPrefixOfStableSort() {
+    Random random = new Random(7);
+    double[] distances = new double[500];
+    for (int i = 0; i < distances.length; i++) {
+      // Few distinct values so there are plenty of ties
+      distances[i] = random.nextInt(40);
+    }
+    int[] sorted =
+        IntStream.range(0, distances.length)
+            .boxed()
+            .sorted(Comparator.comparingDouble(i -> distances[i]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+    for (int k : new int[] {0, 1, 17, 499, 500, 1000}) {
+      assertThat(NearestHeap.nearest(distances, k))
+          .containsExactly(Arrays.copyOf(sorted, Math.min(k, sorted.length)));
+    }
+  }
+
+  @Test
+  void negativeLimits() {
+    assertThrows(IllegalArgumentException.class, () -> new NearestHeap(-1));
+    assertThrows(IllegalArgumentException.class, () -> NearestHeap.nearest(new double[1], -1));
+  }
+
+  @Test
+  void pages() {
+    assertThat(NearestHeap.pageLimit(3, 10)).isEqualTo(30);
+    assertThat(NearestHeap.pageLimit(Integer.MAX_VALUE, 10)).isEqualTo(Integer.MAX_VALUE);
+    int[] nearest = NearestHeap.nearest(new double[] {5, 1, 4, 2, 3}, NearestHeap.pageLimit(2, 2));
+    assertThat(nearest).containsExactly(1, 3, 4, 2);
+    assertThat(NearestHeap.pageOf(nearest, 1, 2)).containsExactly(1, 3);
+    assertThat(NearestHeap.pageOf(nearest, 2, 2)).containsExactly(4, 2);
+    assertThat(NearestHeap.pageOf(NearestHeap.nearest(new double[] {1}, 4), 2, 2)).isEmpty();
+  }
+}
@@ -0,0 +1,130 @@
+package gov.va.api.lighthouse.facilities;
+
+import static java.util.stream.Collectors.toList;
+
+import gov.va.api.health.autoconfig.configuration.JacksonConfig;
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import gov.va.api.lighthouse.facilities.api.pssg.PssgDriveTimeBand;
+import gov.va.api.lighthouse.facilities.api.pssg.PssgResponse;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares decoding of the PSSG drive time bands served by facilities-mock-services in version 1
+ * and version 2 of the {@link PathEncoder} format. Encoded sizes are logged during setup. Run
+ * {@link #main} from the facilities module directory.
+ */
+@Slf4j
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PathEncoderBenchmark {
+  private static final String BANDS =
+      "../facilities-mock-services/src/main/resources/pssg-drive-time-bands-0.json";
+
+  private final PathEncoder encoder = PathEncoder.create();
+
+  private List<String> version1;
+
+  private List<String> version2;
+
+  /** The fixed width version 1 format, which is no longer written by the encoder. */
+  private static String encodeVersion1(PssgDriveTimeBand band) {
+    List<List<List<Double>>> rings = band.geometry().rings();
+    ByteBuffer buffer =
+        ByteBuffer.allocate(12 + rings.stream().mapToInt(ring -> 4 + 8 * ring.size()).sum());
+    buffer.putInt(37337);
+    buffer.putInt(1);
+    buffer.putInt(rings.size());
+    for (List<List<Double>> ring : rings) {
+      buffer.putInt(ring.size());
+      for (List<Double> coords : ring) {
+        buffer.putInt((int) (coords.get(0) * 100000));
+        buffer.putInt((int) (coords.get(1) * 100000));
+      }
+    }
+    Deflater compressor = new Deflater();
+    compressor.setInput(buffer.array());
+    compressor.finish();
+    byte[] compressed = new byte[buffer.capacity() + 64];
+    int size = compressor.deflate(compressed);
+    compressor.end();
+    return Base64.getEncoder().encodeToString(Arrays.copyOf(compressed, size));
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(PathEncoderBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  private static int totalLength(List<String> encoded) {
+    return encoded.stream().mapToInt(String::length).sum();
+  }
+
+  /** Decoding of existing database entries to paths. */
+  @Benchmark
+  public int decodeVersion1() {
+    int nonEmpty = 0;
+    for (String band : version1) {
+      nonEmpty += encoder.decodeFromBase64(band).getBounds2D().isEmpty() ? 0 : 1;
+    }
+    return nonEmpty;
+  }
+
+  /** Decoding to paths. */
+  @Benchmark
+  public int decodeVersion2() {
+    int nonEmpty = 0;
+    for (String band : version2) {
+      nonEmpty += encoder.decodeFromBase64(band).getBounds2D().isEmpty() ? 0 : 1;
+    }
+    return nonEmpty;
+  }
+
+  /** Decoding to polygons the same way nearby searches do. */
+  @Benchmark
+  public int decodeVersion2ToPolygon() {
+    int vertices = 0;
+    for (String band : version2) {
+      vertices += BandPolygon.of(encoder.decodeRingsFromBase64(band)).vertexCount();
+    }
+    return vertices;
+  }
+
+  /** Encode the bands in both formats. */
+  @Setup
+  @SneakyThrows
+  public void setUp() {
+    List<PssgDriveTimeBand> bands =
+        JacksonConfig.createMapper().readValue(new File(BANDS), PssgResponse.class).features();
+    version1 = bands.stream().map(PathEncoderBenchmark::encodeVersion1).collect(toList());
+    version2 = bands.stream().map(encoder::encodeToBase64).collect(toList());
+    log.info(
+        "{} bands encoded to {} base 64 characters in version 1 and {} in version 2",
+        bands.size(),
+        totalLength(version1),
+        totalLength(version2));
+  }
+}
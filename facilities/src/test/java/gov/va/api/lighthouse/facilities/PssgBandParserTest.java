@@ -0,0 +1,145 @@
+package gov.va.api.lighthouse.facilities;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import gov.va.api.health.autoconfig.configuration.JacksonConfig;
+import gov.va.api.lighthouse.facilities.api.pssg.PathEncoder;
+import gov.va.api.lighthouse.facilities.api.pssg.PssgResponse;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+public class PssgBandParserTest {
+  @SneakyThrows
+  static ByteArrayInputStream json(PssgResponse response) {
+    return new ByteArrayInputStream(JacksonConfig.createMapper().writeValueAsBytes(response));
+  }
+
+  @SneakyThrows
+  private static List<PssgBandParser.Band> parse(String json) {
+    List<PssgBandParser.Band> bands = new ArrayList<>();
+    PssgBandParser.parse(
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), bands::add);
+    return bands;
+  }
+
+  @Test
+  @SneakyThrows
+  void parseComputesBoundsAndBandData() {
+    List<PssgBandParser.Band> bands = new ArrayList<>();
+    int count =
+        PssgBandParser.parse(
+            json(
+                PssgResponse.builder()
+                    .features(
+                        List.of(
+                            InternalDriveTimeBandControllerTest.Entities.diamondBand("a-1-2", 100),
+                            InternalDriveTimeBandControllerTest.Entities.diamondBand(
+                                "b-2-3", 200)))
+                    .build()),
+            bands::add);
+    assertThat(count).isEqualTo(2);
+    assertThat(bands.stream().map(b -> b.id().name()).collect(toList()))
+        .containsExactly("a-1-2", "b-2-3");
+    PssgBandParser.Band a12 = bands.get(0);
+    assertThat(a12.monthYear()).isEqualTo("MAR2021");
+    assertThat(a12.minLongitude()).isEqualTo(99);
+    assertThat(a12.minLatitude()).isEqualTo(98);
+    assertThat(a12.maxLongitude()).isEqualTo(101);
+    assertThat(a12.maxLatitude()).isEqualTo(102);
+    assertThat(a12.bandData())
+        .isEqualTo(
+            PathEncoder.create()
+                .encode(InternalDriveTimeBandControllerTest.Entities.diamondBand("a-1-2", 100)));
+    assertThat(PathEncoder.create().decodeRingsFromBase64(a12.legacyBand()))
+        .isEqualTo(PathEncoder.create().decodeRings(a12.bandData()));
+  }
+
+  @Test
+  void parseRejectsIncompleteFeatures() {
+    assertThatExceptionOfType(JsonMappingException.class)
+        .isThrownBy(() -> parse("{\"features\":[{\"geometry\":{\"rings\":[[[1,2]]]}}]}"));
+  }
+
+  @Test
+  @SneakyThrows
+  void parseSimplifiesBands() {
+    StringBuilder ring = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      double t = 2 * Math.PI * i / 100;
+      ring.append(i == 0 ? "" : ",")
+          .append('[')
+          .append(Math.cos(t))
+          .append(',')
+          .append(Math.sin(t))
+          .append(']');
+    }
+    String json =
+        "{\"features\":[{\"attributes\":{\"Sta_No\":\"a\",\"FromBreak\":10,\"ToBreak\":20},"
+            + "\"geometry\":{\"rings\":[["
+            + ring
+            + "]]}},"
+            + "{\"attributes\":{\"Sta_No\":\"b\",\"FromBreak\":10,\"ToBreak\":20},"
+            + "\"geometry\":{\"rings\":[[[0,0],[1,0],[1,1]]]}}]}";
+    List<PssgBandParser.Band> bands = new ArrayList<>();
+    PssgBandParser.parse(
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), 0.01, bands::add);
+    PssgBandParser.Band a = bands.get(0);
+    assertThat(PathEncoder.create().decodeRings(a.bandData()).sizes()).containsExactly(100);
+    assertThat(PathEncoder.create().decodeRings(a.coarseBandData()).sizes()[0]).isLessThan(50);
+    assertThat(a.coarseTolerance()).isGreaterThan(0.01).isLessThan(0.011);
+    PssgBandParser.Band b = bands.get(1);
+    assertThat(b.coarseBandData()).isNull();
+    assertThat(b.coarseTolerance()).isNull();
+    assertThat(parse(json).get(0).coarseBandData()).isNull();
+  }
+
+  @Test
+  @SneakyThrows
+  void parseSkipsFeaturesWithoutRings() {
+    List<PssgBandParser.Band> bands = new ArrayList<>();
+    int count =
+        PssgBandParser.parse(
+            new ByteArrayInputStream(
+                ("{\"features\":["
+                        + "{\"attributes\":{\"Sta_No\":\"a\",\"FromBreak\":0,\"ToBreak\":10},"
+                        + "\"geometry\":null},"
+                        + "{\"attributes\":{\"Sta_No\":\"b\",\"FromBreak\":0,\"ToBreak\":10},"
+                        + "\"geometry\":{\"rings\":[]}},"
+                        + "{\"attributes\":{\"Sta_No\":\"c\",\"FromBreak\":0,\"ToBreak\":10},"
+                        + "\"geometry\":{\"rings\":[[[1,2],[3,4],[1,2]]]}}]}")
+                    .getBytes(StandardCharsets.UTF_8)),
+            bands::add);
+    assertThat(count).isEqualTo(1);
+    assertThat(bands).extracting(band -> band.id().name()).containsExactly("c-0-10");
+  }
+
+  @Test
+  void parseSkipsUnmappedFields() {
+    List<PssgBandParser.Band> bands =
+        parse(
+            "{\"displayFieldName\":\"\",\"fields\":[{\"name\":\"Sta_No\"}],\"features\":["
+                + "{\"attributes\":{\"Sta_No\":\"a\",\"FromBreak\":10,\"ToBreak\":20,"
+                + "\"MONTHYEAR\":\"MAR2021\",\"Name\":\"a : 10 - 20\"},"
+                + "\"geometry\":{\"spatialReference\":{\"wkid\":4326},"
+                + "\"rings\":[[[1.5,2.5],[3.5,2.5],[3.5,4.5],[1.5,2.5]],"
+                + "[[-1,-1],[-2,-1],[-2,-2]]]}}],"
+                + "\"exceededTransferLimit\":false}");
+    assertThat(bands).hasSize(1);
+    PssgBandParser.Band a = bands.get(0);
+    assertThat(a.id().name()).isEqualTo("a-10-20");
+    assertThat(a.minLongitude()).isEqualTo(-2);
+    assertThat(a.minLatitude()).isEqualTo(-2);
+    assertThat(a.maxLongitude()).isEqualTo(3.5);
+    assertThat(a.maxLatitude()).isEqualTo(4.5);
+    PathEncoder.Rings rings = PathEncoder.create().decodeRings(a.bandData());
+    assertThat(rings.sizes()).containsExactly(4, 3);
+    assertThat(rings.coordinates()).startsWith(1.5, 2.5, 3.5, 2.5);
+  }
+}
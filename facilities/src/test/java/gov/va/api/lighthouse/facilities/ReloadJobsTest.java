@@ -0,0 +1,145 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import gov.va.api.lighthouse.facilities.api.v0.ReloadResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+public class ReloadJobsTest {
+  ReloadJobs jobs = new ReloadJobs(20, 24);
+
+  CountDownLatch started = new CountDownLatch(1);
+
+  CountDownLatch release = new CountDownLatch(1);
+
+  AtomicInteger reloads = new AtomicInteger();
+
+  @SneakyThrows
+  private static void await(CountDownLatch latch) {
+    assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  /** A reload that waits to be released, then reports every chunk as it is persisted. */
+  private Function<ReloadJobs.Job, ResponseEntity<ReloadResponse>> blockingReload() {
+    return job -> {
+      reloads.incrementAndGet();
+      job.stage(ReloadJobs.Stage.COLLECTING);
+      job.response().totalFacilities(2);
+      started.countDown();
+      await(release);
+      job.stage(ReloadJobs.Stage.PERSISTING);
+      for (String id : new String[] {"vha_1", "vha_2"}) {
+        job.checkNotCancelled();
+        job.response().facilitiesCreated().add(id);
+      }
+      return ResponseEntity.ok(job.response());
+    };
+  }
+
+  @AfterEach
+  void shutdown() {
+    release.countDown();
+    jobs.shutdown();
+  }
+
+  @Test
+  void cancelledCollectionDoesNotInterruptPersisting() {
+    AtomicBoolean interrupted = new AtomicBoolean(true);
+    ReloadJobs.Job job =
+        jobs.submit(
+            j -> {
+              j.stage(ReloadJobs.Stage.COLLECTING);
+              started.countDown();
+              while (!j.status().cancelRequested()) {
+                Thread.onSpinWait();
+              }
+              j.stage(ReloadJobs.Stage.PERSISTING);
+              interrupted.set(Thread.currentThread().isInterrupted());
+              j.checkNotCancelled();
+              return ResponseEntity.ok(j.response());
+            });
+    await(started);
+    jobs.cancel(job.id());
+    job.await();
+    assertThat(interrupted).isFalse();
+    assertThat(job.status().stage()).isEqualTo(ReloadJobs.Stage.CANCELLED);
+  }
+
+  @Test
+  void cancelledJobsStopAtTheNextCheckpoint() {
+    ReloadJobs.Job job = jobs.submit(blockingReload());
+    await(started);
+    assertThat(jobs.cancel(job.id()).status().cancelRequested()).isTrue();
+    release.countDown();
+    assertThat(job.await().getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    ReloadJobs.Status status = jobs.job(job.id()).status();
+    assertThat(status.stage()).isEqualTo(ReloadJobs.Stage.CANCELLED);
+    assertThat(status.created()).isZero();
+    assertThat(status.finished()).isNotNull();
+  }
+
+  @Test
+  void concurrentSubmissionsAttachToTheRunningJob() {
+    ReloadJobs.Job first = jobs.submit(blockingReload());
+    await(started);
+    ReloadJobs.Job second = jobs.submit(blockingReload());
+    assertThat(second).isSameAs(first);
+    ReloadJobs.Status running = first.status();
+    assertThat(running.stage()).isEqualTo(ReloadJobs.Stage.COLLECTING);
+    assertThat(running.collected()).isEqualTo(2);
+    release.countDown();
+    assertThat(second.await().getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(reloads).hasValue(1);
+    ReloadJobs.Status done = jobs.job(first.id()).status();
+    assertThat(done.stage()).isEqualTo(ReloadJobs.Stage.COMPLETE);
+    assertThat(done.created()).isEqualTo(2);
+    assertThat(done.response().facilitiesCreated()).containsExactly("vha_1", "vha_2");
+    ReloadJobs.Job third = jobs.submit(job -> ResponseEntity.ok(job.response()));
+    assertThat(third.id()).isNotEqualTo(first.id());
+    assertThat(third.await().getStatusCode()).isEqualTo(HttpStatus.OK);
+  }
+
+  @Test
+  void failedReloads() {
+    ReloadJobs.Job job =
+        jobs.submit(
+            j -> {
+              throw new IllegalStateException("nope");
+            });
+    assertThat(job.await().getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    assertThat(job.status().stage()).isEqualTo(ReloadJobs.Stage.FAILED);
+    ReloadJobs.Job errorResponse =
+        jobs.submit(j -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+    errorResponse.await();
+    assertThat(errorResponse.status().stage()).isEqualTo(ReloadJobs.Stage.FAILED);
+  }
+
+  @Test
+  void startDoesNotAttachToTheRunningJob() {
+    ReloadJobs.Job running = jobs.submit(blockingReload());
+    await(started);
+    assertThat(jobs.start(job -> ResponseEntity.ok(job.response()))).isEmpty();
+    release.countDown();
+    running.await();
+    ReloadJobs.Job next = jobs.start(job -> ResponseEntity.ok(job.response())).orElseThrow();
+    assertThat(next.id()).isNotEqualTo(running.id());
+    assertThat(next.await().getStatusCode()).isEqualTo(HttpStatus.OK);
+  }
+
+  @Test
+  void unknownJobs() {
+    assertThatExceptionOfType(ExceptionsUtils.NotFound.class).isThrownBy(() -> jobs.job("nope"));
+    assertThatExceptionOfType(ExceptionsUtils.NotFound.class)
+        .isThrownBy(() -> jobs.cancel("nope"));
+  }
+}
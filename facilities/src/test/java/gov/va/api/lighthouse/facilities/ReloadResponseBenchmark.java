@@ -0,0 +1,69 @@
+package gov.va.api.lighthouse.facilities;
+
+import gov.va.api.lighthouse.facilities.api.v0.ReloadResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares accumulating reload results from a parallel stream in the lists of {@link
+ * ReloadResponse#start()} with the copy on write lists it used to have. Each facility is updated,
+ * and every tenth one also has a problem. Run {@link #main} from the facilities module directory.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ReloadResponseBenchmark {
+  @Param({"10000", "100000"})
+  public int facilities;
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(ReloadResponseBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  private int accumulate(ReloadResponse response) {
+    IntStream.range(0, facilities)
+        .parallel()
+        .forEach(
+            i -> {
+              String id = "vha_" + i;
+              response.facilitiesUpdated().add(id);
+              if (i % 10 == 0) {
+                response.problems().add(ReloadResponse.Problem.of(id, "Missing VISN"));
+              }
+            });
+    return response.facilitiesUpdated().size() + response.problems().size();
+  }
+
+  /** The lists of a started response. */
+  @Benchmark
+  public int concurrentAppendLists() {
+    return accumulate(ReloadResponse.start());
+  }
+
+  /** The copy on write lists a started response used to have. */
+  @Benchmark
+  public int copyOnWriteLists() {
+    List<String> updated = new CopyOnWriteArrayList<>();
+    List<ReloadResponse.Problem> problems = new CopyOnWriteArrayList<>();
+    return accumulate(
+        ReloadResponse.builder().facilitiesUpdated(updated).problems(problems).build());
+  }
+}
@@ -0,0 +1,66 @@
+package gov.va.api.lighthouse.facilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import gov.va.api.lighthouse.facilities.api.ServiceType;
+import gov.va.api.lighthouse.facilities.api.v0.Facility;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class ServiceMaskTest {
+  private static List<ServiceType> allServiceTypes() {
+    List<ServiceType> all = new ArrayList<>();
+    all.addAll(Arrays.asList(Facility.BenefitsService.values()));
+    all.addAll(Arrays.asList(Facility.HealthService.values()));
+    all.addAll(Arrays.asList(Facility.OtherService.values()));
+    all.addAll(
+        Arrays.asList(gov.va.api.lighthouse.facilities.api.v1.Facility.BenefitsService.values()));
+    all.addAll(
+        Arrays.asList(gov.va.api.lighthouse.facilities.api.v1.Facility.HealthService.values()));
+    all.addAll(
+        Arrays.asList(gov.va.api.lighthouse.facilities.api.v1.Facility.OtherService.values()));
+    all.addAll(Arrays.asList(DatamartFacility.BenefitsService.values()));
+    all.addAll(Arrays.asList(DatamartFacility.HealthService.values()));
+    all.addAll(Arrays.asList(DatamartFacility.OtherService.values()));
+    return all;
+  }
+
+  @Test
+  void everyServiceTypeHasABit() {
+    for (ServiceType service : allServiceTypes()) {
+      assertThat(ServiceMask.bit(service.toString()))
+          .describedAs(service.toString())
+          .isBetween(0, 127);
+    }
+    assertThat(ServiceMask.bit("NotAService")).isEqualTo(-1);
+  }
+
+  @Test
+  void intersects() {
+    ServiceMask benefits = ServiceMask.of(Set.of(Facility.BenefitsService.Pensions));
+    ServiceMask health = ServiceMask.of(Set.of("Wound", "Cardiology"));
+    assertThat(benefits.intersects(health)).isFalse();
+    assertThat(health.intersects(ServiceMask.of(Set.of("Wound")))).isTrue();
+    assertThat(benefits.or(health).intersects(ServiceMask.of(Set.of("Cardiology")))).isTrue();
+    assertThat(ServiceMask.NONE.intersects(ServiceMask.NONE)).isFalse();
+  }
+
+  @Test
+  void of() {
+    assertThat(ServiceMask.of(null)).isEqualTo(ServiceMask.NONE);
+    assertThat(ServiceMask.of(Set.of())).isEqualTo(ServiceMask.NONE);
+    assertThat(ServiceMask.of(Set.of("NotAService")).isEmpty()).isTrue();
+    assertThat(ServiceMask.of(Set.of("ApplyingForBenefits"))).isEqualTo(new ServiceMask(1, 0));
+    int wound = ServiceMask.bit("Wound");
+    assertThat(wound).isGreaterThanOrEqualTo(64);
+    assertThat(ServiceMask.of(Set.of("ApplyingForBenefits", "Wound")))
+        .isEqualTo(new ServiceMask(1, 1L << (wound - 64)));
+    assertThat(ServiceMask.of(Set.of(Facility.HealthService.Cardiology)))
+        .isEqualTo(
+            ServiceMask.of(
+                Set.of(gov.va.api.lighthouse.facilities.api.v1.Facility.HealthService.Cardiology)));
+  }
+}
@@ -10,9 +10,13 @@ import gov.va.api.health.autoconfig.configuration.JacksonConfig;
 import gov.va.api.lighthouse.facilities.CmsOverlayRepository;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -199,7 +203,9 @@ public class FacilitiesCollectorTest {
                 mockCmsOverlayCollector,
                 null,
                 mockAtpBaseUrl,
-                mockCemeteriesBaseUrl));
+                mockCemeteriesBaseUrl,
+                1,
+                0));
     assertThrows(
         NullPointerException.class,
         () ->
@@ -209,7 +215,9 @@ public class FacilitiesCollectorTest {
                 mockCmsOverlayCollector,
                 mockAtcBaseUrl,
                 null,
-                mockCemeteriesBaseUrl));
+                mockCemeteriesBaseUrl,
+                1,
+                0));
     assertThrows(
         NullPointerException.class,
         () ->
@@ -219,7 +227,9 @@ public class FacilitiesCollectorTest {
                 mockCmsOverlayCollector,
                 mockAtcBaseUrl,
                 mockAtpBaseUrl,
-                null));
+                null,
+                1,
+                0));
 
     when(mockCmsOverlayCollector.loadAndUpdateCmsOverlays())
         .thenThrow(new NullPointerException("oh noes"));
@@ -230,7 +240,9 @@ public class FacilitiesCollectorTest {
             mockCmsOverlayCollector,
             mockAtcBaseUrl,
             mockAtpBaseUrl,
-            mockCemeteriesBaseUrl);
+            mockCemeteriesBaseUrl,
+            1,
+            0);
     assertThrows(
         CollectorExceptions.CollectorException.class,
         () -> collector.updateOperatingStatusFromCmsOverlay(new ArrayList<>()));
@@ -263,10 +275,43 @@ public class FacilitiesCollectorTest {
                     new CmsOverlayCollector(mockCmsOverlayRepository),
                     "http://atc",
                     "http://atp",
-                    "http://statecems")
+                    "http://statecems",
+                    1,
+                    0)
                 .collectFacilities());
   }
 
+  @Test
+  void slowSourcesTimeOut() {
+    InsecureRestTemplateProvider mockInsecureRestTemplateProvider =
+        mock(InsecureRestTemplateProvider.class);
+    JdbcTemplate mockTemplate = mock(JdbcTemplate.class);
+    when(mockTemplate.query(any(String.class), any(RowMapper.class)))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(10_000);
+              return List.of();
+            });
+    FacilitiesCollector collector =
+        new FacilitiesCollector(
+            mockInsecureRestTemplateProvider,
+            mockTemplate,
+            mock(CmsOverlayCollector.class),
+            "http://atc",
+            "http://atp",
+            "http://statecems",
+            4,
+            1);
+    Map<String, Duration> durations = new ConcurrentHashMap<>();
+    CollectorExceptions.CollectorException e =
+        assertThrows(
+            CollectorExceptions.CollectorException.class,
+            () -> collector.collectFacilities(durations));
+    assertThat(e).hasCauseInstanceOf(TimeoutException.class);
+    assertThat(durations).containsKeys("websites", "caregiverSupport");
+    collector.shutdown();
+  }
+
   @Test
   void verifyMissingTrailingSlashAppended() {
     String urlMissingTrailingSlash = "https://developer.va.gov";
@@ -333,7 +378,9 @@ public class FacilitiesCollectorTest {
                     new CmsOverlayCollector(cmsOverlayRepository),
                     "http://atc",
                     "http://atp",
-                    "http://statecems")
+                    "http://statecems",
+                    1,
+                    0)
                 .collectFacilities()
                 .size())
         .isEqualTo(4);
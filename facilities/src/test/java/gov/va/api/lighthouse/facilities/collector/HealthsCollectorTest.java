@@ -6,13 +6,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
@@ -22,11 +26,16 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
@@ -52,6 +61,69 @@ class HealthsCollectorTest {
                 .collect());
   }
 
+  @Test
+  @SneakyThrows
+  void collectCancelsLoadsWhenInterrupted() {
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getString("Sta6a")).thenReturn("x");
+    when(rs.getString("PrimaryStopCode")).thenReturn("000");
+    JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    doAnswer(
+            i -> {
+              i.<RowCallbackHandler>getArgument(1).processRow(rs);
+              return null;
+            })
+        .when(jdbcTemplate)
+        .query(anyString(), any(RowCallbackHandler.class));
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch cancelled = new CountDownLatch(1);
+    RestTemplate insecureRestTemplate = mock(RestTemplate.class);
+    when(insecureRestTemplate.exchange(
+            startsWith("http://atc"), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+        .thenAnswer(
+            i -> {
+              loading.countDown();
+              try {
+                new CountDownLatch(1).await();
+              } catch (InterruptedException e) {
+                cancelled.countDown();
+              }
+              throw new RestClientException("cancelled");
+            });
+    ListeningExecutorService executor =
+        MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(3));
+    HealthsCollector collector =
+        HealthsCollector.builder()
+            .atcBaseUrl("http://atc/")
+            .atpBaseUrl("http://atp/")
+            .cscFacilities(new ArrayList<>())
+            .vastEntities(emptyList())
+            .jdbcTemplate(jdbcTemplate)
+            .insecureRestTemplate(insecureRestTemplate)
+            .websites(emptyMap())
+            .executor(executor)
+            .build();
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    Thread collecting =
+        new Thread(
+            () -> {
+              try {
+                collector.collect();
+              } catch (Exception e) {
+                failure.set(e);
+              }
+            });
+    collecting.start();
+    assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+    collecting.interrupt();
+    collecting.join(10000);
+    assertThat(failure.get())
+        .isInstanceOf(CollectorExceptions.HealthsCollectorException.class)
+        .hasCauseInstanceOf(InterruptedException.class);
+    assertThat(cancelled.await(10, TimeUnit.SECONDS)).isTrue();
+    executor.shutdownNow();
+  }
+
   @Test
   @SneakyThrows
   public void exceptions() {